@@ -1,5 +1,5 @@
 /*
- *    Copyright 2009-2024 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -22,7 +22,11 @@ import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
 import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.CacheSerializer;
+import org.apache.ibatis.cache.CacheWeigher;
 import org.apache.ibatis.cache.decorators.LruCache;
+import org.apache.ibatis.cache.impl.DefaultCacheWeigher;
+import org.apache.ibatis.cache.impl.JdkCacheSerializer;
 import org.apache.ibatis.cache.impl.PerpetualCache;
 
 /**
@@ -68,6 +72,36 @@ public @interface CacheNamespace {
    */
   long flushInterval() default 0;
 
+  /**
+   * Returns the number of milliseconds after which an entry expires once it has been written. Unlike
+   * {@link #flushInterval()}, each entry expires on its own. A value of {@code 0} disables it.
+   *
+   * @return the time to live of each entry in milliseconds
+   *
+   * @since 3.6.0
+   */
+  long expireAfterWrite() default 0;
+
+  /**
+   * Returns the number of milliseconds after which an entry expires once it has last been read or written. A value of
+   * {@code 0} disables it.
+   *
+   * @return the maximum idle time of each entry in milliseconds
+   *
+   * @since 3.6.0
+   */
+  long expireAfterAccess() default 0;
+
+  /**
+   * Returns the number of milliseconds after which an entry is reloaded in the background the next time it is read. The
+   * stale entry is returned meanwhile. A value of {@code 0} disables it.
+   *
+   * @return the refresh interval of each entry in milliseconds
+   *
+   * @since 3.6.0
+   */
+  long refreshAfterWrite() default 0;
+
   /**
    * Return the cache size.
    *
@@ -75,6 +109,24 @@ public @interface CacheNamespace {
    */
   int size() default 1024;
 
+  /**
+   * Returns the maximum number of bytes the cached entries may retain. A value of {@code 0} disables the limit.
+   *
+   * @return the maximum weight of the cache in bytes
+   *
+   * @since 3.6.0
+   */
+  long maxBytes() default 0;
+
+  /**
+   * Returns the weigher used to estimate the size of cached entries when {@link #maxBytes()} is set.
+   *
+   * @return the weigher type
+   *
+   * @since 3.6.0
+   */
+  Class<? extends CacheWeigher> weigher() default DefaultCacheWeigher.class;
+
   /**
    * Returns whether use read/write cache.
    *
@@ -82,6 +134,25 @@ public @interface CacheNamespace {
    */
   boolean readWrite() default true;
 
+  /**
+   * Returns the serializer used to copy the cached values of a read/write cache.
+   *
+   * @return the serializer type
+   *
+   * @since 3.6.0
+   */
+  Class<? extends CacheSerializer> serializer() default JdkCacheSerializer.class;
+
+  /**
+   * Returns the size in bytes from which the serialized values of a read/write cache are compressed. A value of
+   * {@code 0} disables compression.
+   *
+   * @return the compression threshold in bytes
+   *
+   * @since 3.6.0
+   */
+  int compressThreshold() default 0;
+
   /**
    * Returns whether block the cache at request time or not.
    *
@@ -1,5 +1,5 @@
 /*
- *    Copyright 2009-2023 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -66,4 +66,21 @@ public @interface One {
    */
   FetchType fetchType() default FetchType.DEFAULT;
 
+  /**
+   * Returns the maximum number of parent keys passed to the nested statement at once. A positive value loads the
+   * association of many parent rows with a single query, which is what {@link FetchType#BATCH} does with a default
+   * size.
+   *
+   * @return the batch size
+   */
+  int batchSize() default 0;
+
+  /**
+   * Returns the property of the nested statement results that holds the parent key, used to distribute a batched result
+   * to the parent rows. Composite keys list one property per column, comma separated.
+   *
+   * @return the foreign property
+   */
+  String foreignProperty() default "";
+
 }
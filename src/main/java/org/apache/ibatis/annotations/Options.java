@@ -1,5 +1,5 @@
 /*
- *    Copyright 2009-2024 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -133,6 +133,48 @@ public @interface Options {
    */
   String resultSets() default "";
 
+  /**
+   * Returns the tables read or written by the statement, used when the {@code cacheInvalidationScope} setting is
+   * {@code TABLE}. When empty, the tables are found by scanning the SQL.
+   * <p>
+   * If you specify multiple table, please separate using comma(',').
+   *
+   * @return table names that separate with comma(',')
+   *
+   * @since 3.6.0
+   */
+  String tables() default "";
+
+  /**
+   * Returns for how long an empty result is cached, apart from the other results of the namespace. A value of 0 or less
+   * caches empty results like the other results.
+   *
+   * @return the number of milliseconds
+   *
+   * @since 3.6.0
+   */
+  long negativeCacheTtl() default 0;
+
+  /**
+   * Returns the maximum number of empty results of the statement that are cached when {@link #negativeCacheTtl()} is
+   * set. A value of 0 or less means 1024.
+   *
+   * @return the maximum number of entries
+   *
+   * @since 3.6.0
+   */
+  int negativeCacheSize() default 0;
+
+  /**
+   * Returns whether the batch executor may send consecutive executions of this insert as a single multi-row insert. The
+   * statement must end with a single {@code VALUES (...)} row.
+   *
+   * @return {@code true} if the executions may be rewritten
+   *
+   * @since 3.6.0
+   */
+  boolean rewriteBatch() default false;
+
   /**
    * @return A database id that correspond this options
    *
@@ -0,0 +1,74 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.annotations;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Repeatable;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The annotation that declares a select statement to load into the second level cache when the
+ * {@code SqlSessionFactory} is built.
+ * <p>
+ * <b>How to use:</b>
+ *
+ * <pre>
+ * &#064;CacheNamespace
+ * &#064;Preload(value = "selectById", parameterSelect = "selectPopularIds")
+ * public interface UserMapper {
+ *   // ...
+ * }
+ * </pre>
+ *
+ * @since 3.6.0
+ *
+ * @see org.apache.ibatis.session.CacheWarmer
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+@Repeatable(Preload.List.class)
+public @interface Preload {
+
+  /**
+   * Returns the id of the select statement to preload, relative to the mapper or fully qualified.
+   *
+   * @return the statement id
+   */
+  String value();
+
+  /**
+   * Returns the id of the select statement whose rows are the parameters of the preloaded statement. By default the
+   * statement is run once without a parameter.
+   *
+   * @return the parameter statement id
+   */
+  String parameterSelect() default "";
+
+  /**
+   * The container annotation for {@link Preload}.
+   */
+  @Documented
+  @Retention(RetentionPolicy.RUNTIME)
+  @Target(ElementType.TYPE)
+  @interface List {
+    Preload[] value();
+  }
+
+}
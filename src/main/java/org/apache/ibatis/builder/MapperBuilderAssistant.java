@@ -1,5 +1,5 @@
 /*
- *    Copyright 2009-2025 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -29,6 +29,8 @@ import java.util.Set;
 import java.util.StringTokenizer;
 
 import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.CacheSerializer;
+import org.apache.ibatis.cache.CacheWeigher;
 import org.apache.ibatis.cache.decorators.LruCache;
 import org.apache.ibatis.cache.impl.PerpetualCache;
 import org.apache.ibatis.executor.ErrorContext;
@@ -127,9 +129,28 @@ public class MapperBuilderAssistant extends BaseBuilder {
 
   public Cache useNewCache(Class<? extends Cache> typeClass, Class<? extends Cache> evictionClass, Long flushInterval,
       Integer size, boolean readWrite, boolean blocking, Properties props) {
+    return useNewCache(typeClass, evictionClass, flushInterval, null, null, null, size, null, null, readWrite, null,
+        blocking, props);
+  }
+
+  public Cache useNewCache(Class<? extends Cache> typeClass, Class<? extends Cache> evictionClass, Long flushInterval,
+      Long expireAfterWrite, Long expireAfterAccess, Long refreshAfterWrite, Integer size, Long maxBytes,
+      Class<? extends CacheWeigher> weigherClass, boolean readWrite, Class<? extends CacheSerializer> serializerClass,
+      boolean blocking, Properties props) {
+    return useNewCache(typeClass, evictionClass, flushInterval, expireAfterWrite, expireAfterAccess, refreshAfterWrite,
+        size, maxBytes, weigherClass, readWrite, serializerClass, null, blocking, props);
+  }
+
+  public Cache useNewCache(Class<? extends Cache> typeClass, Class<? extends Cache> evictionClass, Long flushInterval,
+      Long expireAfterWrite, Long expireAfterAccess, Long refreshAfterWrite, Integer size, Long maxBytes,
+      Class<? extends CacheWeigher> weigherClass, boolean readWrite, Class<? extends CacheSerializer> serializerClass,
+      Integer compressThreshold, boolean blocking, Properties props) {
     Cache cache = new CacheBuilder(currentNamespace).implementation(valueOrDefault(typeClass, PerpetualCache.class))
-        .addDecorator(valueOrDefault(evictionClass, LruCache.class)).clearInterval(flushInterval).size(size)
-        .readWrite(readWrite).blocking(blocking).properties(props).build();
+        .addDecorator(valueOrDefault(evictionClass, LruCache.class)).clearInterval(flushInterval)
+        .expireAfterWrite(expireAfterWrite).expireAfterAccess(expireAfterAccess).refreshAfterWrite(refreshAfterWrite)
+        .size(size).maxBytes(maxBytes).weigher(weigherClass).memoryBudget(configuration.getCacheMemoryBudget())
+        .readWrite(readWrite).serializer(serializerClass).compressThreshold(compressThreshold).blocking(blocking)
+        .configuration(configuration).properties(props).build();
     configuration.addCache(cache);
     currentCache = cache;
     return cache;
@@ -204,6 +225,45 @@ public class MapperBuilderAssistant extends BaseBuilder {
       String resultMap, Class<?> resultType, ResultSetType resultSetType, boolean flushCache, boolean useCache,
       boolean resultOrdered, KeyGenerator keyGenerator, String keyProperty, String keyColumn, String databaseId,
       LanguageDriver lang, String resultSets, boolean dirtySelect, ParamNameResolver paramNameResolver) {
+    return addMappedStatement(id, sqlSource, statementType, sqlCommandType, fetchSize, timeout, parameterMap,
+        parameterType, resultMap, resultType, resultSetType, flushCache, useCache, resultOrdered, keyGenerator,
+        keyProperty, keyColumn, databaseId, lang, resultSets, dirtySelect, paramNameResolver, null);
+  }
+
+  public MappedStatement addMappedStatement(String id, SqlSource sqlSource, StatementType statementType,
+      SqlCommandType sqlCommandType, Integer fetchSize, Integer timeout, String parameterMap, Class<?> parameterType,
+      String resultMap, Class<?> resultType, ResultSetType resultSetType, boolean flushCache, boolean useCache,
+      boolean resultOrdered, KeyGenerator keyGenerator, String keyProperty, String keyColumn, String databaseId,
+      LanguageDriver lang, String resultSets, boolean dirtySelect, ParamNameResolver paramNameResolver, String tables) {
+    return addMappedStatement(id, sqlSource, statementType, sqlCommandType, fetchSize, timeout, parameterMap,
+        parameterType, resultMap, resultType, resultSetType, flushCache, useCache, resultOrdered, keyGenerator,
+        keyProperty, keyColumn, databaseId, lang, resultSets, dirtySelect, paramNameResolver, tables, null, null);
+  }
+
+  /**
+   * @since 3.6.0
+   */
+  public MappedStatement addMappedStatement(String id, SqlSource sqlSource, StatementType statementType,
+      SqlCommandType sqlCommandType, Integer fetchSize, Integer timeout, String parameterMap, Class<?> parameterType,
+      String resultMap, Class<?> resultType, ResultSetType resultSetType, boolean flushCache, boolean useCache,
+      boolean resultOrdered, KeyGenerator keyGenerator, String keyProperty, String keyColumn, String databaseId,
+      LanguageDriver lang, String resultSets, boolean dirtySelect, ParamNameResolver paramNameResolver, String tables,
+      Long negativeCacheTtl, Integer negativeCacheSize) {
+    return addMappedStatement(id, sqlSource, statementType, sqlCommandType, fetchSize, timeout, parameterMap,
+        parameterType, resultMap, resultType, resultSetType, flushCache, useCache, resultOrdered, keyGenerator,
+        keyProperty, keyColumn, databaseId, lang, resultSets, dirtySelect, paramNameResolver, tables, negativeCacheTtl,
+        negativeCacheSize, false);
+  }
+
+  /**
+   * @since 3.6.0
+   */
+  public MappedStatement addMappedStatement(String id, SqlSource sqlSource, StatementType statementType,
+      SqlCommandType sqlCommandType, Integer fetchSize, Integer timeout, String parameterMap, Class<?> parameterType,
+      String resultMap, Class<?> resultType, ResultSetType resultSetType, boolean flushCache, boolean useCache,
+      boolean resultOrdered, KeyGenerator keyGenerator, String keyProperty, String keyColumn, String databaseId,
+      LanguageDriver lang, String resultSets, boolean dirtySelect, ParamNameResolver paramNameResolver, String tables,
+      Long negativeCacheTtl, Integer negativeCacheSize, boolean rewriteBatch) {
 
     if (unresolvedCacheRef) {
       throw new IncompleteElementException("Cache-ref not yet resolved");
@@ -217,7 +277,8 @@ public class MapperBuilderAssistant extends BaseBuilder {
         .resultOrdered(resultOrdered).resultSets(resultSets)
         .resultMaps(getStatementResultMaps(resultMap, resultType, id)).resultSetType(resultSetType)
         .flushCacheRequired(flushCache).useCache(useCache).cache(currentCache).dirtySelect(dirtySelect)
-        .paramNameResolver(paramNameResolver);
+        .paramNameResolver(paramNameResolver).tables(tables).negativeCacheTtl(negativeCacheTtl)
+        .negativeCacheSize(negativeCacheSize).rewriteBatch(rewriteBatch);
 
     ParameterMap statementParameterMap = getStatementParameterMap(parameterMap, parameterType, id);
     if (statementParameterMap != null) {
@@ -341,6 +402,14 @@ public class MapperBuilderAssistant extends BaseBuilder {
       JdbcType jdbcType, String nestedSelect, String nestedResultMap, String notNullColumn, String columnPrefix,
       Class<? extends TypeHandler<?>> typeHandler, List<ResultFlag> flags, String resultSet, String foreignColumn,
       boolean lazy) {
+    return buildResultMapping(resultType, property, column, javaType, jdbcType, nestedSelect, nestedResultMap,
+        notNullColumn, columnPrefix, typeHandler, flags, resultSet, foreignColumn, lazy, 0, null);
+  }
+
+  public ResultMapping buildResultMapping(Class<?> resultType, String property, String column, Class<?> javaType,
+      JdbcType jdbcType, String nestedSelect, String nestedResultMap, String notNullColumn, String columnPrefix,
+      Class<? extends TypeHandler<?>> typeHandler, List<ResultFlag> flags, String resultSet, String foreignColumn,
+      boolean lazy, int batchSize, String foreignProperty) {
     Entry<Type, Class<?>> setterType = resolveSetterType(resultType, property, javaType);
     TypeHandler<?> typeHandlerInstance = resolveTypeHandler(setterType.getKey(), jdbcType, typeHandler);
     List<ResultMapping> composites;
@@ -354,7 +423,7 @@ public class MapperBuilderAssistant extends BaseBuilder {
         .nestedResultMapId(applyCurrentNamespace(nestedResultMap, true)).resultSet(resultSet)
         .typeHandler(typeHandlerInstance).flags(flags == null ? new ArrayList<>() : flags).composites(composites)
         .notNullColumns(parseMultipleColumnNames(notNullColumn)).columnPrefix(columnPrefix).foreignColumn(foreignColumn)
-        .lazy(lazy).build();
+        .lazy(lazy).batchSize(batchSize).foreignProperty(foreignProperty).build();
   }
 
   /**
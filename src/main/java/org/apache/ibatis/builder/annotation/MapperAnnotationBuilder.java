@@ -1,5 +1,5 @@
 /*
- *    Copyright 2009-2025 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -33,6 +33,8 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -49,6 +51,7 @@ import org.apache.ibatis.annotations.MapKey;
 import org.apache.ibatis.annotations.Options;
 import org.apache.ibatis.annotations.Options.FlushCachePolicy;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Preload;
 import org.apache.ibatis.annotations.Property;
 import org.apache.ibatis.annotations.Result;
 import org.apache.ibatis.annotations.ResultMap;
@@ -73,6 +76,7 @@ import org.apache.ibatis.executor.keygen.KeyGenerator;
 import org.apache.ibatis.executor.keygen.NoKeyGenerator;
 import org.apache.ibatis.executor.keygen.SelectKeyGenerator;
 import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.mapping.CachePreload;
 import org.apache.ibatis.mapping.Discriminator;
 import org.apache.ibatis.mapping.FetchType;
 import org.apache.ibatis.mapping.MappedStatement;
@@ -123,6 +127,7 @@ public class MapperAnnotationBuilder {
       assistant.setCurrentNamespace(type.getName());
       parseCache();
       parseCacheRef();
+      parsePreloads();
       for (Method method : type.getMethods()) {
         if (!canHaveStatement(method)) {
           continue;
@@ -175,9 +180,25 @@ public class MapperAnnotationBuilder {
     if (cacheDomain != null) {
       Integer size = cacheDomain.size() == 0 ? null : cacheDomain.size();
       Long flushInterval = cacheDomain.flushInterval() == 0 ? null : cacheDomain.flushInterval();
+      Long expireAfterWrite = cacheDomain.expireAfterWrite() == 0 ? null : cacheDomain.expireAfterWrite();
+      Long expireAfterAccess = cacheDomain.expireAfterAccess() == 0 ? null : cacheDomain.expireAfterAccess();
+      Long refreshAfterWrite = cacheDomain.refreshAfterWrite() == 0 ? null : cacheDomain.refreshAfterWrite();
+      Long maxBytes = cacheDomain.maxBytes() == 0 ? null : cacheDomain.maxBytes();
+      Integer compressThreshold = cacheDomain.compressThreshold() == 0 ? null : cacheDomain.compressThreshold();
       Properties props = convertToProperties(cacheDomain.properties());
-      assistant.useNewCache(cacheDomain.implementation(), cacheDomain.eviction(), flushInterval, size,
-          cacheDomain.readWrite(), cacheDomain.blocking(), props);
+      assistant.useNewCache(cacheDomain.implementation(), cacheDomain.eviction(), flushInterval, expireAfterWrite,
+          expireAfterAccess, refreshAfterWrite, size, maxBytes, cacheDomain.weigher(), cacheDomain.readWrite(),
+          cacheDomain.serializer(), compressThreshold, cacheDomain.blocking(), props);
+    }
+  }
+
+  private void parsePreloads() {
+    for (Preload preload : type.getAnnotationsByType(Preload.class)) {
+      String statementId = assistant.applyCurrentNamespace(preload.value(), true);
+      String parameterSelect = preload.parameterSelect();
+      String parameterStatementId = parameterSelect.isEmpty() ? null
+          : assistant.applyCurrentNamespace(parameterSelect, true);
+      configuration.addCachePreload(new CachePreload(type.getName(), statementId, parameterStatementId));
     }
   }
 
@@ -358,7 +379,13 @@ public class MapperAnnotationBuilder {
           false, keyGenerator, keyProperty, keyColumn, statementAnnotation.getDatabaseId(), languageDriver,
           // ResultSets
           options != null ? nullOrEmpty(options.resultSets()) : null, statementAnnotation.isDirtySelect(),
-          paramNameResolver);
+          paramNameResolver,
+          // Tables
+          options != null ? nullOrEmpty(options.tables()) : null,
+          // Negative cache
+          options != null && options.negativeCacheTtl() > 0 ? options.negativeCacheTtl() : null,
+          options != null && options.negativeCacheSize() > 0 ? options.negativeCacheSize() : null,
+          options != null && options.rewriteBatch());
     });
   }
 
@@ -391,6 +418,12 @@ public class MapperAnnotationBuilder {
   private static Class<?> getReturnType(Method method, Class<?> type) {
     Class<?> returnType = method.getReturnType();
     Type resolvedReturnType = TypeParameterResolver.resolveReturnType(method, type);
+    if (CompletableFuture.class.equals(returnType) || CompletionStage.class.equals(returnType)) {
+      // asynchronous statements are mapped to the type of the value the future completes with
+      returnType = Object.class;
+      resolvedReturnType = resolvedReturnType instanceof ParameterizedType
+          ? ((ParameterizedType) resolvedReturnType).getActualTypeArguments()[0] : Object.class;
+    }
     if (resolvedReturnType instanceof Class) {
       returnType = (Class<?>) resolvedReturnType;
       if (returnType.isArray()) {
@@ -460,7 +493,8 @@ public class MapperAnnotationBuilder {
           result.jdbcType() == JdbcType.UNDEFINED ? null : result.jdbcType(),
           hasNestedSelect(result) ? nestedSelectId(result) : null,
           hasNestedResultMap ? nestedResultMapId(result) : null, null,
-          hasNestedResultMap ? findColumnPrefix(result) : null, typeHandler, flags, null, null, isLazy(result));
+          hasNestedResultMap ? findColumnPrefix(result) : null, typeHandler, flags, null, null, isLazy(result),
+          batchSize(result), nullOrEmpty(foreignProperty(result)));
       resultMappings.add(resultMapping);
     }
   }
@@ -512,6 +546,30 @@ public class MapperAnnotationBuilder {
     return isLazy;
   }
 
+  private int batchSize(Result result) {
+    int batchSize = 0;
+    FetchType fetchType = FetchType.DEFAULT;
+    if (!result.one().select().isEmpty()) {
+      batchSize = result.one().batchSize();
+      fetchType = result.one().fetchType();
+    } else if (!result.many().select().isEmpty()) {
+      batchSize = result.many().batchSize();
+      fetchType = result.many().fetchType();
+    }
+    if (batchSize == 0 && fetchType == FetchType.BATCH) {
+      batchSize = ResultMapping.DEFAULT_BATCH_SIZE;
+    }
+    return batchSize;
+  }
+
+  private String foreignProperty(Result result) {
+    String foreignProperty = result.one().foreignProperty();
+    if (foreignProperty.isEmpty()) {
+      foreignProperty = result.many().foreignProperty();
+    }
+    return foreignProperty;
+  }
+
   private boolean hasNestedSelect(Result result) {
     if (!result.one().select().isEmpty() && !result.many().select().isEmpty()) {
       throw new BuilderException("Cannot use both @One and @Many annotations in the same @Result");
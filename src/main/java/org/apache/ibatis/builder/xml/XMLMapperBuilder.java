@@ -1,5 +1,5 @@
 /*
- *    Copyright 2009-2025 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -33,8 +33,11 @@ import org.apache.ibatis.builder.MapperBuilderAssistant;
 import org.apache.ibatis.builder.ResultMapResolver;
 import org.apache.ibatis.builder.ResultMappingConstructorResolver;
 import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.CacheSerializer;
+import org.apache.ibatis.cache.CacheWeigher;
 import org.apache.ibatis.executor.ErrorContext;
 import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.mapping.CachePreload;
 import org.apache.ibatis.mapping.Discriminator;
 import org.apache.ibatis.mapping.ParameterMapping;
 import org.apache.ibatis.mapping.ParameterMode;
@@ -129,6 +132,7 @@ public class XMLMapperBuilder extends BaseBuilder {
       resultMapElements(context.evalNodes("/mapper/resultMap"));
       sqlElement(context.evalNodes("/mapper/sql"));
       buildStatementFromContext(context.evalNodes("select|insert|update|delete"));
+      preloadElements(context.evalNodes("preload"));
     } catch (Exception e) {
       throw new BuilderException("Error parsing Mapper XML. The XML location is '" + resource + "'. Cause: " + e, e);
     }
@@ -153,6 +157,17 @@ public class XMLMapperBuilder extends BaseBuilder {
     }
   }
 
+  private void preloadElements(List<XNode> list) {
+    for (XNode context : list) {
+      String statementId = builderAssistant.applyCurrentNamespace(context.getStringAttribute("select"), true);
+      String parameterSelect = context.getStringAttribute("parameterSelect");
+      String parameterStatementId = parameterSelect == null ? null
+          : builderAssistant.applyCurrentNamespace(parameterSelect, true);
+      configuration
+          .addCachePreload(new CachePreload(builderAssistant.getCurrentNamespace(), statementId, parameterStatementId));
+    }
+  }
+
   private void cacheRefElement(XNode context) {
     if (context != null) {
       configuration.addCacheRef(builderAssistant.getCurrentNamespace(), context.getStringAttribute("namespace"));
@@ -173,11 +188,22 @@ public class XMLMapperBuilder extends BaseBuilder {
       String eviction = context.getStringAttribute("eviction", "LRU");
       Class<? extends Cache> evictionClass = typeAliasRegistry.resolveAlias(eviction);
       Long flushInterval = context.getLongAttribute("flushInterval");
+      Long expireAfterWrite = context.getLongAttribute("expireAfterWrite");
+      Long expireAfterAccess = context.getLongAttribute("expireAfterAccess");
+      Long refreshAfterWrite = context.getLongAttribute("refreshAfterWrite");
       Integer size = context.getIntAttribute("size");
+      Long maxBytes = context.getLongAttribute("maxBytes");
+      Class<? extends CacheWeigher> weigherClass = typeAliasRegistry
+          .resolveAlias(context.getStringAttribute("weigher"));
       boolean readWrite = !context.getBooleanAttribute("readOnly", false);
+      Class<? extends CacheSerializer> serializerClass = typeAliasRegistry
+          .resolveAlias(context.getStringAttribute("serializer"));
+      Integer compressThreshold = context.getIntAttribute("compressThreshold");
       boolean blocking = context.getBooleanAttribute("blocking", false);
       Properties props = context.getChildrenAsProperties();
-      builderAssistant.useNewCache(typeClass, evictionClass, flushInterval, size, readWrite, blocking, props);
+      builderAssistant.useNewCache(typeClass, evictionClass, flushInterval, expireAfterWrite, expireAfterAccess,
+          refreshAfterWrite, size, maxBytes, weigherClass, readWrite, serializerClass, compressThreshold, blocking,
+          props);
     }
   }
 
@@ -367,13 +393,17 @@ public class XMLMapperBuilder extends BaseBuilder {
     String typeHandler = context.getStringAttribute("typeHandler");
     String resultSet = context.getStringAttribute("resultSet");
     String foreignColumn = context.getStringAttribute("foreignColumn");
-    boolean lazy = "lazy"
-        .equals(context.getStringAttribute("fetchType", configuration.isLazyLoadingEnabled() ? "lazy" : "eager"));
+    String fetchType = context.getStringAttribute("fetchType", configuration.isLazyLoadingEnabled() ? "lazy" : "eager");
+    boolean lazy = "lazy".equals(fetchType);
+    int batchSize = context.getIntAttribute("batchSize",
+        "batch".equals(fetchType) ? ResultMapping.DEFAULT_BATCH_SIZE : 0);
+    String foreignProperty = context.getStringAttribute("foreignProperty");
     Class<?> javaTypeClass = resolveClass(javaType);
     Class<? extends TypeHandler<?>> typeHandlerClass = resolveClass(typeHandler);
     JdbcType jdbcTypeEnum = resolveJdbcType(jdbcType);
     return builderAssistant.buildResultMapping(resultType, property, column, javaTypeClass, jdbcTypeEnum, nestedSelect,
-        nestedResultMap, notNullColumn, columnPrefix, typeHandlerClass, flags, resultSet, foreignColumn, lazy);
+        nestedResultMap, notNullColumn, columnPrefix, typeHandlerClass, flags, resultSet, foreignColumn, lazy,
+        batchSize, foreignProperty);
   }
 
   private String processNestedResultMappings(XNode context, List<ResultMapping> resultMappings,
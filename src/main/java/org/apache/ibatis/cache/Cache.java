@@ -1,5 +1,5 @@
 /*
- *    Copyright 2009-2023 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -15,6 +15,9 @@
  */
 package org.apache.ibatis.cache;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.locks.ReadWriteLock;
 
 /**
@@ -75,6 +78,58 @@ public interface Cache {
    */
   Object removeObject(Object key);
 
+  /**
+   * Stores several entries at once. A {@code null} value has the same meaning as in {@link #putObject(Object, Object)}.
+   * <p>
+   * Decorators should override this method to pass the whole batch to their delegate, so that locks are taken and
+   * evictions are run once per batch instead of once per entry.
+   *
+   * @param entries
+   *          The entries to store
+   *
+   * @since 3.6.0
+   */
+  default void putAll(Map<?, ?> entries) {
+    for (Map.Entry<?, ?> entry : entries.entrySet()) {
+      putObject(entry.getKey(), entry.getValue());
+    }
+  }
+
+  /**
+   * Looks up several entries at once.
+   *
+   * @param keys
+   *          The keys
+   *
+   * @return The entries found, keys without a value are not included
+   *
+   * @since 3.6.0
+   */
+  default Map<Object, Object> getAll(Collection<?> keys) {
+    Map<Object, Object> values = new HashMap<>();
+    for (Object key : keys) {
+      Object value = getObject(key);
+      if (value != null) {
+        values.put(key, value);
+      }
+    }
+    return values;
+  }
+
+  /**
+   * Removes several entries at once, with the same meaning as {@link #removeObject(Object)}.
+   *
+   * @param keys
+   *          The keys
+   *
+   * @since 3.6.0
+   */
+  default void removeAll(Collection<?> keys) {
+    for (Object key : keys) {
+      removeObject(key);
+    }
+  }
+
   /**
    * Clears this cache instance.
    */
@@ -98,4 +153,31 @@ public interface Cache {
     return null;
   }
 
+  /**
+   * Optional. Indicates whether this cache can be accessed concurrently without any external locking.
+   * <p>
+   * When the cache built for a namespace reports itself as thread-safe, MyBatis does not wrap it with a
+   * {@link org.apache.ibatis.cache.decorators.SynchronizedCache}. Decorators should only return {@code true} when they
+   * are thread-safe themselves and so is their delegate.
+   *
+   * @return {@code true} if this cache is thread-safe
+   *
+   * @since 3.6.0
+   */
+  default boolean isThreadSafe() {
+    return false;
+  }
+
+  /**
+   * Optional. Returns the statistics collected for this cache. Decorators that may wrap the cache collecting the
+   * statistics should return the ones of their delegate.
+   *
+   * @return the statistics, or {@code null} if they are not collected
+   *
+   * @since 3.6.0
+   */
+  default CacheStats getStats() {
+    return null;
+  }
+
 }
@@ -0,0 +1,198 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.LogFactory;
+import org.apache.ibatis.session.Configuration;
+
+/**
+ * Propagates second level cache invalidations to the other nodes that share a database.
+ * <p>
+ * When a transaction commits, the caches it cleared and the tables it wrote are published as a single message, however
+ * many namespaces it touched. Received messages clear the same caches and invalidate the same tables (when the
+ * {@code cacheInvalidationScope} is TABLE) of the local configuration. Every node is expected to load the same mappers
+ * and settings.
+ *
+ * @since 3.6.0
+ */
+public class CacheInvalidationBus {
+
+  private static final Log log = LogFactory.getLog(CacheInvalidationBus.class);
+
+  private static final int MAGIC = 0x4D42;
+  private static final int VERSION = 1;
+  private static final int FLAG_ALL_TABLES = 1;
+  private static final int FLAG_ALL_CACHES = 2;
+  /**
+   * Larger messages are replaced by one that clears everything, so that they fit in a single datagram.
+   */
+  private static final int MAX_MESSAGE_SIZE = 8 * 1024;
+
+  private final Configuration configuration;
+  private final CacheInvalidationTransport transport;
+  private final long nodeId = UUID.randomUUID().getMostSignificantBits();
+  private final AtomicLong publishedCount = new AtomicLong();
+  private final AtomicLong receivedCount = new AtomicLong();
+
+  public CacheInvalidationBus(Configuration configuration, CacheInvalidationTransport transport) {
+    this.configuration = configuration;
+    this.transport = transport;
+    transport.start(this::receive);
+  }
+
+  public CacheInvalidationTransport getTransport() {
+    return transport;
+  }
+
+  /**
+   * Publishes the invalidations of a committed transaction.
+   *
+   * @param cacheIds
+   *          the ids of the cleared caches
+   * @param tables
+   *          the written tables
+   * @param allTables
+   *          whether the transaction wrote tables that could not be determined
+   */
+  public void publish(Collection<String> cacheIds, Collection<String> tables, boolean allTables) {
+    if (cacheIds.isEmpty() && tables.isEmpty() && !allTables) {
+      return;
+    }
+    try {
+      byte[] message;
+      try {
+        message = encode(allTables ? FLAG_ALL_TABLES : 0, cacheIds, allTables ? new ArrayList<>() : tables);
+      } catch (CacheException e) {
+        // e.g. a name too long to be encoded
+        message = null;
+      }
+      if (message == null || message.length > MAX_MESSAGE_SIZE) {
+        message = encode(FLAG_ALL_TABLES | FLAG_ALL_CACHES, new ArrayList<>(), new ArrayList<>());
+      }
+      transport.publish(message);
+      publishedCount.incrementAndGet();
+    } catch (RuntimeException e) {
+      // the transaction is already committed, the other nodes will only see the change once their entries expire
+      log.warn("Could not publish a cache invalidation. Cause: " + e);
+    }
+  }
+
+  /**
+   * Applies a message received from another node.
+   *
+   * @param message
+   *          the encoded message
+   */
+  public void receive(byte[] message) {
+    try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(message))) {
+      if (in.readUnsignedShort() != MAGIC || in.readUnsignedByte() != VERSION) {
+        log.warn("Ignored an unknown cache invalidation message.");
+        return;
+      }
+      if (in.readLong() == nodeId) {
+        return;
+      }
+      int flags = in.readUnsignedByte();
+      List<String> cacheIds = readStrings(in);
+      List<String> tables = readStrings(in);
+      receivedCount.incrementAndGet();
+      apply(flags, cacheIds, tables);
+    } catch (IOException e) {
+      log.warn("Ignored a malformed cache invalidation message. Cause: " + e);
+    }
+  }
+
+  public long getPublishedCount() {
+    return publishedCount.get();
+  }
+
+  public long getReceivedCount() {
+    return receivedCount.get();
+  }
+
+  public void close() {
+    transport.close();
+  }
+
+  private void apply(int flags, List<String> cacheIds, List<String> tables) {
+    if ((flags & FLAG_ALL_CACHES) != 0) {
+      for (Cache cache : configuration.getCaches()) {
+        cache.clear();
+      }
+    } else {
+      for (String cacheId : cacheIds) {
+        if (configuration.hasCache(cacheId)) {
+          configuration.getCache(cacheId).clear();
+        }
+      }
+    }
+    TableDependencyTracker tracker = configuration.getTableDependencyTracker();
+    if (tracker != null) {
+      if ((flags & FLAG_ALL_TABLES) != 0) {
+        tracker.invalidate(null);
+      } else if (!tables.isEmpty()) {
+        tracker.invalidate(tables);
+      }
+    }
+  }
+
+  private byte[] encode(int flags, Collection<String> cacheIds, Collection<String> tables) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      out.writeShort(MAGIC);
+      out.writeByte(VERSION);
+      out.writeLong(nodeId);
+      out.writeByte(flags);
+      writeStrings(out, cacheIds);
+      writeStrings(out, tables);
+    } catch (IOException e) {
+      throw new CacheException("Error encoding a cache invalidation message. Cause: " + e, e);
+    }
+    return bytes.toByteArray();
+  }
+
+  private static void writeStrings(DataOutputStream out, Collection<String> strings) throws IOException {
+    if (strings.size() > 0xFFFF) {
+      throw new IOException("Too many names: " + strings.size());
+    }
+    out.writeShort(strings.size());
+    for (String string : strings) {
+      out.writeUTF(string);
+    }
+  }
+
+  private static List<String> readStrings(DataInputStream in) throws IOException {
+    int size = in.readUnsignedShort();
+    List<String> strings = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      strings.add(in.readUTF());
+    }
+    return strings;
+  }
+
+}
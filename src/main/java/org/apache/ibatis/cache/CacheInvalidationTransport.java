@@ -0,0 +1,55 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Carries the invalidation messages of a {@link CacheInvalidationBus} between the nodes that share a database.
+ * <p>
+ * Messages are small opaque byte arrays. Transports do not need to guarantee delivery or ordering: a lost message only
+ * leaves a stale entry until it is evicted or expires, as it would happen without a bus. A transport may deliver the
+ * messages published by its own node back to it, they are ignored.
+ *
+ * @since 3.6.0
+ *
+ * @see org.apache.ibatis.cache.impl.InJvmInvalidationTransport
+ * @see org.apache.ibatis.cache.impl.UdpInvalidationTransport
+ */
+public interface CacheInvalidationTransport {
+
+  /**
+   * Starts receiving messages.
+   *
+   * @param receiver
+   *          the callback to hand every received message to, it may be called from any thread
+   */
+  void start(Consumer<byte[]> receiver);
+
+  /**
+   * Sends a message to the other nodes.
+   *
+   * @param message
+   *          the encoded message
+   */
+  void publish(byte[] message);
+
+  /**
+   * Stops receiving messages and releases the resources of the transport.
+   */
+  void close();
+
+}
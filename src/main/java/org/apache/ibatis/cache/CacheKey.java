@@ -1,5 +1,5 @@
 /*
- *    Copyright 2009-2023 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -15,21 +15,28 @@
  */
 package org.apache.ibatis.cache;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 import java.util.StringJoiner;
 
 import org.apache.ibatis.reflection.ArrayUtil;
 
 /**
+ * Key made of an ordered sequence of objects.
+ * <p>
+ * The objects are kept in a flat array and a 64-bit hash is mixed in as each one is added, so two keys are compared
+ * element by element only when their sizes and hashes are identical. A key can be {@link #reset() reset} and filled
+ * again, which lets callers that build many short-lived keys reuse a single instance.
+ *
  * @author Clinton Begin
  */
 public class CacheKey implements Cloneable, Serializable {
 
-  private static final long serialVersionUID = 1146682552656046210L;
+  private static final long serialVersionUID = -1964802473402398411L;
 
-  public static final CacheKey NULL_CACHE_KEY = new CacheKey() {
+  public static final CacheKey NULL_CACHE_KEY = new CacheKey(0) {
 
     private static final long serialVersionUID = 1L;
 
@@ -42,45 +49,54 @@ public class CacheKey implements Cloneable, Serializable {
     public void updateAll(Object[] objects) {
       throw new CacheException("Not allowed to update a null cache key instance.");
     }
+
+    @Override
+    public void reset() {
+      throw new CacheException("Not allowed to reset a null cache key instance.");
+    }
   };
 
-  private static final int DEFAULT_MULTIPLIER = 37;
-  private static final int DEFAULT_HASHCODE = 17;
+  private static final int DEFAULT_CAPACITY = 8;
+  private static final long DEFAULT_HASH = 17;
 
-  private final int multiplier;
-  private int hashcode;
-  private long checksum;
+  private long hash;
   private int count;
   // 8/21/2017 - Sonarlint flags this as needing to be marked transient. While true if content is not serializable, this
   // is not always true and thus should not be marked transient.
-  private List<Object> updateList;
+  private Object[] values;
 
   public CacheKey() {
-    this.hashcode = DEFAULT_HASHCODE;
-    this.multiplier = DEFAULT_MULTIPLIER;
-    this.count = 0;
-    this.updateList = new ArrayList<>();
+    this(DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Creates an empty key sized for the expected number of updates.
+   *
+   * @param expectedSize
+   *          the number of objects the key is expected to hold
+   *
+   * @since 3.6.0
+   */
+  public CacheKey(int expectedSize) {
+    this.hash = DEFAULT_HASH;
+    this.values = new Object[Math.max(expectedSize, 0)];
   }
 
   public CacheKey(Object[] objects) {
-    this();
+    this(objects.length);
     updateAll(objects);
   }
 
   public int getUpdateCount() {
-    return updateList.size();
+    return count;
   }
 
   public void update(Object object) {
-    int baseHashCode = object == null ? 1 : ArrayUtil.hashCode(object);
-
-    count++;
-    checksum += baseHashCode;
-    baseHashCode *= count;
-
-    hashcode = multiplier * hashcode + baseHashCode;
-
-    updateList.add(object);
+    if (count == values.length) {
+      values = Arrays.copyOf(values, Math.max(count << 1, DEFAULT_CAPACITY));
+    }
+    values[count++] = object;
+    hash = step(hash, object);
   }
 
   public void updateAll(Object[] objects) {
@@ -89,6 +105,17 @@ public class CacheKey implements Cloneable, Serializable {
     }
   }
 
+  /**
+   * Removes every object from this key while keeping its storage, so that it can be filled again.
+   *
+   * @since 3.6.0
+   */
+  public void reset() {
+    Arrays.fill(values, 0, count, null);
+    count = 0;
+    hash = DEFAULT_HASH;
+  }
+
   @Override
   public boolean equals(Object object) {
     if (this == object) {
@@ -100,14 +127,14 @@ public class CacheKey implements Cloneable, Serializable {
 
     final CacheKey cacheKey = (CacheKey) object;
 
-    if ((hashcode != cacheKey.hashcode) || (checksum != cacheKey.checksum) || (count != cacheKey.count)) {
+    if (count != cacheKey.count || hash != cacheKey.hash) {
       return false;
     }
 
-    for (int i = 0; i < updateList.size(); i++) {
-      Object thisObject = updateList.get(i);
-      Object thatObject = cacheKey.updateList.get(i);
-      if (!ArrayUtil.equals(thisObject, thatObject)) {
+    for (int i = 0; i < count; i++) {
+      Object thisObject = values[i];
+      Object thatObject = cacheKey.values[i];
+      if (thisObject != thatObject && !ArrayUtil.equals(thisObject, thatObject)) {
         return false;
       }
     }
@@ -116,23 +143,50 @@ public class CacheKey implements Cloneable, Serializable {
 
   @Override
   public int hashCode() {
-    return hashcode;
+    return (int) (hash ^ hash >>> 32);
   }
 
   @Override
   public String toString() {
     StringJoiner returnValue = new StringJoiner(":");
-    returnValue.add(String.valueOf(hashcode));
-    returnValue.add(String.valueOf(checksum));
-    updateList.stream().map(ArrayUtil::toString).forEach(returnValue::add);
+    returnValue.add(String.valueOf(hashCode()));
+    returnValue.add(String.valueOf(count));
+    for (int i = 0; i < count; i++) {
+      returnValue.add(ArrayUtil.toString(values[i]));
+    }
     return returnValue.toString();
   }
 
   @Override
   public CacheKey clone() throws CloneNotSupportedException {
     CacheKey clonedCacheKey = (CacheKey) super.clone();
-    clonedCacheKey.updateList = new ArrayList<>(updateList);
+    // one spare slot, clones are usually extended right away (e.g. with a parent row key)
+    clonedCacheKey.values = Arrays.copyOf(values, count + 1);
     return clonedCacheKey;
   }
 
+  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    in.defaultReadObject();
+    // hash codes of enums and of classes without their own hashCode differ from one JVM to another
+    long rehash = DEFAULT_HASH;
+    for (int i = 0; i < count; i++) {
+      rehash = step(rehash, values[i]);
+    }
+    hash = rehash;
+  }
+
+  private static long step(long hash, Object object) {
+    int baseHashCode = object == null ? 1 : ArrayUtil.hashCode(object);
+    return mix(hash * 31 + (baseHashCode & 0xFFFFFFFFL));
+  }
+
+  /**
+   * Finalizer of SplitMix64, every input bit affects every output bit.
+   */
+  private static long mix(long z) {
+    z = (z ^ z >>> 30) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ z >>> 27) * 0x94D049BB133111EBL;
+    return z ^ z >>> 31;
+  }
+
 }
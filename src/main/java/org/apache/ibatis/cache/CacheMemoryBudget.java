@@ -0,0 +1,79 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.ibatis.cache.decorators.WeightedCache;
+
+/**
+ * Heap budget shared by the second level caches of several namespaces.
+ * <p>
+ * Each registered {@link WeightedCache} reports the weight of the entries it adds and removes. Whenever the total goes
+ * over the budget, entries are evicted from the heaviest cache first until the total fits again.
+ *
+ * @since 3.6.0
+ */
+public class CacheMemoryBudget {
+
+  private final long maxBytes;
+  private final AtomicLong weightedSize = new AtomicLong();
+  private final List<WeightedCache> caches = new CopyOnWriteArrayList<>();
+
+  public CacheMemoryBudget(long maxBytes) {
+    this.maxBytes = maxBytes;
+  }
+
+  public long getMaxBytes() {
+    return maxBytes;
+  }
+
+  public long getWeightedSize() {
+    return weightedSize.get();
+  }
+
+  public void register(WeightedCache cache) {
+    caches.add(cache);
+  }
+
+  public void add(long delta) {
+    weightedSize.addAndGet(delta);
+  }
+
+  /**
+   * Evicts entries from the heaviest registered caches until the total weight fits in the budget. Must not be called
+   * while holding the lock of a registered cache.
+   */
+  public void reclaim() {
+    while (weightedSize.get() > maxBytes) {
+      WeightedCache heaviest = null;
+      long heaviestSize = 0;
+      for (WeightedCache cache : caches) {
+        long size = cache.getWeightedSize();
+        if (size > heaviestSize) {
+          heaviest = cache;
+          heaviestSize = size;
+        }
+      }
+      if (heaviest == null || !heaviest.evictEldest()) {
+        return;
+      }
+    }
+  }
+
+}
@@ -0,0 +1,51 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache;
+
+/**
+ * SPI for turning cached values into bytes and back.
+ * <p>
+ * Serializers are used by read/write caches to hand a private copy of the cached value to every caller, and by caches
+ * that store their values outside of the heap. One instance is created for each namespace, so implementations must be
+ * thread-safe.
+ *
+ * @since 3.6.0
+ */
+public interface CacheSerializer {
+
+  /**
+   * @param value
+   *          The value to serialize, may be {@code null}
+   *
+   * @return The serialized form of the value
+   *
+   * @throws CacheException
+   *           if the value cannot be serialized
+   */
+  byte[] serialize(Object value);
+
+  /**
+   * @param bytes
+   *          Bytes previously returned by {@link #serialize(Object)}
+   *
+   * @return A new copy of the serialized value
+   *
+   * @throws CacheException
+   *           if the value cannot be deserialized
+   */
+  Object deserialize(byte[] bytes);
+
+}
@@ -0,0 +1,267 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Statistics of a second level cache.
+ * <p>
+ * One instance is shared by all the decorators of a namespace cache and can be obtained with
+ * {@code configuration.getCache(namespace).getStats()}. Counters are {@link LongAdder}s, so recording is cheap even
+ * when many threads hit the same cache. Values are cumulative since the cache was built or {@link #reset()}.
+ *
+ * @since 3.6.0
+ */
+public class CacheStats {
+
+  /**
+   * The reasons why a cache removes an entry by itself.
+   */
+  public enum EvictionCause {
+    /**
+     * The cache exceeded its maximum number of entries.
+     */
+    SIZE,
+    /**
+     * The cache, or the memory budget shared by the caches, exceeded its maximum weight.
+     */
+    WEIGHT,
+    /**
+     * The entry expired, or the cache was flushed by its flush interval.
+     */
+    EXPIRED,
+    /**
+     * The garbage collector reclaimed the soft or weak reference holding the entry.
+     */
+    COLLECTED
+  }
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder puts = new LongAdder();
+  private final LongAdder loads = new LongAdder();
+  private final LongAdder loadTime = new LongAdder();
+  private final LongAdder rollbackDiscards = new LongAdder();
+  private final LongAdder refreshes = new LongAdder();
+  private final LongAdder refreshFailures = new LongAdder();
+  private final LongAdder refreshRejections = new LongAdder();
+  private final LongAdder[] evictions = new LongAdder[EvictionCause.values().length];
+
+  public CacheStats() {
+    for (int i = 0; i < evictions.length; i++) {
+      evictions[i] = new LongAdder();
+    }
+  }
+
+  public void recordHit() {
+    hits.increment();
+  }
+
+  public void recordMiss() {
+    misses.increment();
+  }
+
+  public void recordPut() {
+    puts.increment();
+  }
+
+  /**
+   * Records the hits and misses of a bulk lookup.
+   *
+   * @param hitCount
+   *          the number of keys found
+   * @param missCount
+   *          the number of keys not found
+   *
+   * @since 3.6.0
+   */
+  public void recordLookups(long hitCount, long missCount) {
+    hits.add(hitCount);
+    misses.add(missCount);
+  }
+
+  /**
+   * @since 3.6.0
+   */
+  public void recordPuts(long count) {
+    puts.add(count);
+  }
+
+  /**
+   * Records the execution of the query that loaded a missing entry.
+   *
+   * @param nanos
+   *          the time spent loading, in nanoseconds
+   */
+  public void recordLoad(long nanos) {
+    loads.increment();
+    loadTime.add(nanos);
+  }
+
+  public void recordEviction(EvictionCause cause) {
+    evictions[cause.ordinal()].increment();
+  }
+
+  public void recordEvictions(EvictionCause cause, long count) {
+    evictions[cause.ordinal()].add(count);
+  }
+
+  /**
+   * Records entries that were loaded by a transaction and never reached the cache because it rolled back.
+   *
+   * @param count
+   *          the number of discarded entries
+   */
+  public void recordRollbackDiscards(long count) {
+    rollbackDiscards.add(count);
+  }
+
+  /**
+   * Records an entry that was reloaded in the background and replaced in the cache.
+   */
+  public void recordRefresh() {
+    refreshes.increment();
+  }
+
+  /**
+   * Records a background reload that failed, the stale entry is kept.
+   */
+  public void recordRefreshFailure() {
+    refreshFailures.increment();
+  }
+
+  /**
+   * Records a background reload that was not run because the refresh queue was full.
+   */
+  public void recordRefreshRejection() {
+    refreshRejections.increment();
+  }
+
+  public long getHitCount() {
+    return hits.sum();
+  }
+
+  public long getMissCount() {
+    return misses.sum();
+  }
+
+  public long getRequestCount() {
+    return getHitCount() + getMissCount();
+  }
+
+  /**
+   * Returns the ratio of requests that were hits.
+   *
+   * @return the hit ratio, or {@code 1.0} if there was no request yet
+   */
+  public double getHitRatio() {
+    long hitCount = getHitCount();
+    long requestCount = hitCount + getMissCount();
+    return requestCount == 0 ? 1.0 : (double) hitCount / requestCount;
+  }
+
+  public long getPutCount() {
+    return puts.sum();
+  }
+
+  public long getLoadCount() {
+    return loads.sum();
+  }
+
+  /**
+   * Returns the total time spent running queries on cache misses.
+   *
+   * @param unit
+   *          the unit of the returned value
+   *
+   * @return the total load time
+   */
+  public long getTotalLoadTime(TimeUnit unit) {
+    return unit.convert(loadTime.sum(), TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Returns the average time spent running a query on a cache miss.
+   *
+   * @return the average load time in nanoseconds, or {@code 0} if nothing was loaded yet
+   */
+  public double getAverageLoadPenalty() {
+    long loadCount = getLoadCount();
+    return loadCount == 0 ? 0.0 : (double) loadTime.sum() / loadCount;
+  }
+
+  public long getEvictionCount() {
+    long count = 0;
+    for (LongAdder eviction : evictions) {
+      count += eviction.sum();
+    }
+    return count;
+  }
+
+  public long getEvictionCount(EvictionCause cause) {
+    return evictions[cause.ordinal()].sum();
+  }
+
+  public long getRollbackDiscardCount() {
+    return rollbackDiscards.sum();
+  }
+
+  public long getRefreshCount() {
+    return refreshes.sum();
+  }
+
+  public long getRefreshFailureCount() {
+    return refreshFailures.sum();
+  }
+
+  public long getRefreshRejectionCount() {
+    return refreshRejections.sum();
+  }
+
+  /**
+   * Resets all the counters to zero.
+   */
+  public void reset() {
+    hits.reset();
+    misses.reset();
+    puts.reset();
+    loads.reset();
+    loadTime.reset();
+    rollbackDiscards.reset();
+    refreshes.reset();
+    refreshFailures.reset();
+    refreshRejections.reset();
+    for (LongAdder eviction : evictions) {
+      eviction.reset();
+    }
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder("CacheStats{hits=").append(getHitCount()).append(", misses=")
+        .append(getMissCount()).append(", puts=").append(getPutCount()).append(", loads=").append(getLoadCount())
+        .append(", totalLoadTime=").append(getTotalLoadTime(TimeUnit.MILLISECONDS)).append("ms");
+    for (EvictionCause cause : EvictionCause.values()) {
+      sb.append(", evictions[").append(cause).append("]=").append(getEvictionCount(cause));
+    }
+    return sb.append(", rollbackDiscards=").append(getRollbackDiscardCount()).append(", refreshes=")
+        .append(getRefreshCount()).append(", refreshFailures=").append(getRefreshFailureCount())
+        .append(", refreshRejections=").append(getRefreshRejectionCount()).append('}').toString();
+  }
+
+}
@@ -0,0 +1,41 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache;
+
+/**
+ * SPI for estimating the heap retained by a cache entry.
+ * <p>
+ * A weigher is used by memory-budgeted caches (see the <code>maxBytes</code> attribute of the cache element) to decide
+ * how many entries can be kept. Entries are weighed once, when the transactional cache commits them to the namespace
+ * cache, so implementations should favor speed over precision.
+ *
+ * @since 3.6.0
+ */
+public interface CacheWeigher {
+
+  /**
+   * Returns the estimated number of bytes retained by a cache entry.
+   *
+   * @param key
+   *          the cache key
+   * @param value
+   *          the cached value, usually a list of result objects or its serialized form
+   *
+   * @return the estimated size in bytes, never negative
+   */
+  long weigh(Object key, Object value);
+
+}
@@ -0,0 +1,99 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache;
+
+import java.io.Serializable;
+
+import org.apache.ibatis.cache.TableDependencyTracker.StampedValue;
+
+/**
+ * Cached in place of the empty result of a statement that declares a {@code negativeCacheTtl}.
+ * <p>
+ * The standard cache decorators keep these entries apart from the real results, bounded by the
+ * {@code negativeCacheSize} of their statement, so that lookups of missing rows neither reach the database nor fill the
+ * cache. Other caches store them as regular values, and their expiration is checked when they are read.
+ *
+ * @since 3.6.0
+ */
+public class NegativeResult implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  private String statementId;
+  private long expiresAt;
+  private int maxEntries;
+
+  public NegativeResult() {
+  }
+
+  /**
+   * @param statementId
+   *          the id of the statement that returned no row
+   * @param timeToLive
+   *          the number of milliseconds the entry is valid for
+   * @param maxEntries
+   *          the maximum number of entries of the statement, or 0 for the default
+   */
+  public NegativeResult(String statementId, long timeToLive, int maxEntries) {
+    this.statementId = statementId;
+    this.expiresAt = System.currentTimeMillis() + timeToLive;
+    this.maxEntries = maxEntries;
+  }
+
+  /**
+   * Returns the negative result held by a cached value, if any.
+   *
+   * @param value
+   *          a cached value
+   *
+   * @return the negative result, or {@code null} if the value is a regular result
+   */
+  public static NegativeResult unwrap(Object value) {
+    if (value instanceof StampedValue) {
+      value = ((StampedValue) value).getValue();
+    }
+    return value instanceof NegativeResult ? (NegativeResult) value : null;
+  }
+
+  public boolean isExpired(long now) {
+    return now >= expiresAt;
+  }
+
+  public String getStatementId() {
+    return statementId;
+  }
+
+  public void setStatementId(String statementId) {
+    this.statementId = statementId;
+  }
+
+  public long getExpiresAt() {
+    return expiresAt;
+  }
+
+  public void setExpiresAt(long expiresAt) {
+    this.expiresAt = expiresAt;
+  }
+
+  public int getMaxEntries() {
+    return maxEntries;
+  }
+
+  public void setMaxEntries(int maxEntries) {
+    this.maxEntries = maxEntries;
+  }
+
+}
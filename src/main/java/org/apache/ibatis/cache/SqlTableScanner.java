@@ -0,0 +1,240 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Light-weight scanner that extracts the tables referenced by a SQL statement.
+ * <p>
+ * This is not a parser: it tokenizes the statement, skipping literals and comments, and collects the identifiers that
+ * follow {@code FROM}, {@code JOIN}, {@code USING}, {@code UPDATE}, {@code INTO} and {@code TABLE}. Unrelated names may
+ * be reported (e.g. the column of {@code EXTRACT(YEAR FROM column)}), which only causes extra invalidations.
+ */
+final class SqlTableScanner {
+
+  private final String sql;
+  private int position;
+
+  private SqlTableScanner(String sql) {
+    this.sql = sql;
+  }
+
+  /**
+   * Scans a statement.
+   *
+   * @param sql
+   *          the statement
+   *
+   * @return the tables read or written by the statement (index 0) and the tables it writes (index 1), each one being
+   *         {@code null} when none was found
+   */
+  static String[][] scan(String sql) {
+    return new SqlTableScanner(sql).scan();
+  }
+
+  /**
+   * Normalizes a table name so that it can be compared with scanned names: quotes and the schema are removed and the
+   * name is lower cased.
+   *
+   * @param name
+   *          the table name
+   *
+   * @return the normalized name
+   */
+  static String normalize(String name) {
+    String table = name.trim();
+    int dot = table.lastIndexOf('.');
+    if (dot >= 0) {
+      table = table.substring(dot + 1);
+    }
+    if (table.length() > 1 && isQuote(table.charAt(0))) {
+      table = table.substring(1, table.length() - 1);
+    }
+    return table.toLowerCase(Locale.ENGLISH);
+  }
+
+  private String[][] scan() {
+    Set<String> read = new LinkedHashSet<>();
+    Set<String> written = new LinkedHashSet<>();
+    List<String> tokens = tokenize();
+    boolean expectTable = false;
+    boolean writeTarget = false;
+    boolean fromList = false;
+    String previous = null;
+    for (int i = 0; i < tokens.size(); i++) {
+      String token = tokens.get(i);
+      String keyword = token.toLowerCase(Locale.ENGLISH);
+      if (expectTable) {
+        if ("only".equals(keyword) || "lateral".equals(keyword) || "ignore".equals(keyword)) {
+          continue;
+        }
+        expectTable = false;
+        if (isIdentifier(token) && !isClauseKeyword(token)) {
+          String table = normalize(token);
+          read.add(table);
+          if (writeTarget) {
+            written.add(table);
+          }
+          fromList = !writeTarget;
+          writeTarget = false;
+          previous = keyword;
+          continue;
+        }
+        writeTarget = false;
+      }
+      if ("from".equals(keyword)) {
+        expectTable = true;
+        writeTarget = "delete".equals(previous);
+      } else if ("join".equals(keyword) || "using".equals(keyword)) {
+        expectTable = true;
+      } else if ("update".equals(keyword)) {
+        expectTable = !"for".equals(previous) && !"key".equals(previous);
+        writeTarget = expectTable;
+      } else if ("into".equals(keyword) || "table".equals(keyword)) {
+        expectTable = true;
+        writeTarget = true;
+      } else if (isWriteCommand(keyword) && i + 1 < tokens.size() && isIdentifier(tokens.get(i + 1))
+          && !isClauseKeyword(tokens.get(i + 1))) {
+        // INSERT table / DELETE table without INTO / FROM
+        expectTable = true;
+        writeTarget = true;
+      } else if (fromList) {
+        if (",".equals(token)) {
+          expectTable = true;
+        } else if (!isIdentifier(token) || isClauseKeyword(token)) {
+          fromList = false;
+        }
+      }
+      previous = keyword;
+    }
+    return new String[][] { toArray(read), toArray(written) };
+  }
+
+  private static boolean isWriteCommand(String keyword) {
+    return "insert".equals(keyword) || "delete".equals(keyword) || "replace".equals(keyword);
+  }
+
+  private static boolean isClauseKeyword(String token) {
+    switch (token.toLowerCase(Locale.ENGLISH)) {
+      case "into":
+      case "from":
+      case "where":
+      case "join":
+      case "inner":
+      case "left":
+      case "right":
+      case "full":
+      case "cross":
+      case "natural":
+      case "on":
+      case "group":
+      case "order":
+      case "having":
+      case "limit":
+      case "offset":
+      case "union":
+      case "set":
+      case "values":
+      case "select":
+      case "fetch":
+      case "for":
+      case "window":
+      case "returning":
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  private static String[] toArray(Set<String> tables) {
+    return tables.isEmpty() ? null : tables.toArray(new String[0]);
+  }
+
+  private static boolean isIdentifier(String token) {
+    char first = token.charAt(0);
+    return Character.isLetter(first) || first == '_' || isQuote(first);
+  }
+
+  private static boolean isQuote(char c) {
+    return c == '"' || c == '`' || c == '[';
+  }
+
+  private List<String> tokenize() {
+    List<String> tokens = new ArrayList<>();
+    int length = sql.length();
+    while (position < length) {
+      char c = sql.charAt(position);
+      if (Character.isWhitespace(c)) {
+        position++;
+      } else if (c == '\'') {
+        skipLiteral();
+      } else if (c == '-' && sql.startsWith("--", position)) {
+        int end = sql.indexOf('\n', position);
+        position = end < 0 ? length : end + 1;
+      } else if (c == '/' && sql.startsWith("/*", position)) {
+        int end = sql.indexOf("*/", position + 2);
+        position = end < 0 ? length : end + 2;
+      } else if (Character.isLetterOrDigit(c) || c == '_' || isQuote(c)) {
+        tokens.add(readName());
+      } else {
+        tokens.add(String.valueOf(c));
+        position++;
+      }
+    }
+    return tokens;
+  }
+
+  private void skipLiteral() {
+    int length = sql.length();
+    position++;
+    while (position < length) {
+      if (sql.charAt(position++) == '\'') {
+        if (position < length && sql.charAt(position) == '\'') {
+          position++;
+        } else {
+          return;
+        }
+      }
+    }
+  }
+
+  /**
+   * Reads a possibly qualified and quoted name such as {@code schema."Table"}.
+   */
+  private String readName() {
+    int start = position;
+    int length = sql.length();
+    while (position < length) {
+      char c = sql.charAt(position);
+      if (isQuote(c)) {
+        char close = c == '[' ? ']' : c;
+        int end = sql.indexOf(close, position + 1);
+        position = end < 0 ? length : end + 1;
+      } else if (Character.isLetterOrDigit(c) || c == '_' || c == '$' || c == '#' || c == '.') {
+        position++;
+      } else {
+        break;
+      }
+    }
+    return sql.substring(start, position);
+  }
+
+}
@@ -0,0 +1,232 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.StatementType;
+
+/**
+ * Tracks the tables each statement depends on, so that writes only invalidate the second level cache entries that read
+ * the tables they modified.
+ * <p>
+ * Invalidation is lazy: every committed write stamps the tables it touched with the value of a global clock, and cached
+ * entries are stored together with the clock value observed before they were loaded. An entry is only returned if none
+ * of the tables it was read from has been written since. Statements whose tables cannot be determined depend on every
+ * table, and writes whose tables cannot be determined invalidate every entry.
+ * <p>
+ * The tables of a statement are the ones declared with its {@code tables} attribute or, if none, the ones found by a
+ * light scan of its SQL.
+ *
+ * @since 3.6.0
+ */
+public class TableDependencyTracker {
+
+  private static final int MAX_SCANNED_STATEMENTS = 1024;
+
+  /**
+   * Starts from the wall clock, so that entries stamped by a previous run (e.g. in a distributed cache) are older than
+   * {@link #lastWriteAll}.
+   */
+  private final AtomicLong clock = new AtomicLong(System.currentTimeMillis() << 20);
+  private final AtomicLong lastWriteAll = new AtomicLong(clock.get());
+  private final AtomicLong lastWriteAny = new AtomicLong(clock.get());
+  private final ConcurrentHashMap<String, Long> lastWrites = new ConcurrentHashMap<>();
+  private final ConcurrentHashMap<String, String[][]> scannedStatements = new ConcurrentHashMap<>();
+
+  /**
+   * Returns the stamp to store with an entry that is about to be loaded.
+   *
+   * @return the current value of the clock
+   */
+  public long stamp() {
+    return clock.get();
+  }
+
+  /**
+   * Records that the given tables have been modified by a committed transaction.
+   *
+   * @param tables
+   *          the written tables, or {@code null} to invalidate every entry
+   */
+  public void invalidate(Collection<String> tables) {
+    long now = clock.incrementAndGet();
+    if (tables == null) {
+      lastWriteAll.accumulateAndGet(now, Math::max);
+    } else {
+      for (String table : tables) {
+        lastWrites.merge(table, now, Math::max);
+      }
+    }
+    lastWriteAny.accumulateAndGet(now, Math::max);
+  }
+
+  /**
+   * Returns whether an entry loaded at the given stamp is still up to date.
+   *
+   * @param stamp
+   *          the stamp of the entry
+   * @param tables
+   *          the tables the entry was read from, or {@code null} if unknown
+   *
+   * @return {@code true} if none of those tables has been written since the entry was loaded
+   */
+  public boolean isValid(long stamp, String[] tables) {
+    if (lastWriteAll.get() > stamp) {
+      return false;
+    }
+    if (tables == null) {
+      return lastWriteAny.get() <= stamp;
+    }
+    for (String table : tables) {
+      Long lastWrite = lastWrites.get(table);
+      if (lastWrite != null && lastWrite > stamp) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns the tables a query reads.
+   *
+   * @param ms
+   *          the statement
+   * @param boundSql
+   *          the SQL of the query
+   *
+   * @return the table names, or {@code null} if unknown
+   */
+  public String[] getReadTables(MappedStatement ms, BoundSql boundSql) {
+    if (ms.getTables() != null) {
+      return ms.getTables();
+    }
+    if (ms.getStatementType() == StatementType.CALLABLE) {
+      return null;
+    }
+    return scan(boundSql.getSql())[0];
+  }
+
+  /**
+   * Returns the tables an insert, update or delete writes.
+   *
+   * @param ms
+   *          the statement
+   * @param parameterObject
+   *          the parameter of the statement, used to build dynamic SQL
+   *
+   * @return the table names, or {@code null} if unknown
+   */
+  public String[] getWrittenTables(MappedStatement ms, Object parameterObject) {
+    if (ms.getTables() != null) {
+      return ms.getTables();
+    }
+    if (ms.getStatementType() == StatementType.CALLABLE) {
+      return null;
+    }
+    return scan(ms.getBoundSql(parameterObject).getSql())[1];
+  }
+
+  /**
+   * Normalizes declared table names the same way scanned ones are.
+   *
+   * @param tables
+   *          the table names, possibly qualified or quoted
+   *
+   * @return the normalized names
+   */
+  public static String[] normalize(String[] tables) {
+    if (tables == null) {
+      return null;
+    }
+    String[] normalized = new String[tables.length];
+    for (int i = 0; i < tables.length; i++) {
+      normalized[i] = SqlTableScanner.normalize(tables[i]);
+    }
+    return normalized;
+  }
+
+  private String[][] scan(String sql) {
+    String[][] tables = scannedStatements.get(sql);
+    if (tables == null) {
+      if (scannedStatements.size() >= MAX_SCANNED_STATEMENTS) {
+        scannedStatements.clear();
+      }
+      tables = SqlTableScanner.scan(sql);
+      scannedStatements.put(sql, tables);
+    }
+    return tables;
+  }
+
+  /**
+   * A cached value together with the stamp observed before it was loaded.
+   */
+  public static class StampedValue implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private long stamp;
+    private String[] tables;
+    private Object value;
+
+    public StampedValue() {
+    }
+
+    public StampedValue(long stamp, Object value) {
+      this.stamp = stamp;
+      this.value = value;
+    }
+
+    public StampedValue(long stamp, String[] tables, Object value) {
+      this.stamp = stamp;
+      this.tables = tables;
+      this.value = value;
+    }
+
+    public long getStamp() {
+      return stamp;
+    }
+
+    public void setStamp(long stamp) {
+      this.stamp = stamp;
+    }
+
+    /**
+     * @return the tables the value was read from, or {@code null} if unknown
+     */
+    public String[] getTables() {
+      return tables;
+    }
+
+    public void setTables(String[] tables) {
+      this.tables = tables;
+    }
+
+    public Object getValue() {
+      return value;
+    }
+
+    public void setValue(Object value) {
+      this.value = value;
+    }
+  }
+
+}
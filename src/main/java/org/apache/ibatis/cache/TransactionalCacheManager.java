@@ -1,5 +1,5 @@
 /*
- *    Copyright 2009-2025 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -15,9 +15,14 @@
  */
 package org.apache.ibatis.cache;
 
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Set;
 
+import org.apache.ibatis.cache.TableDependencyTracker.StampedValue;
 import org.apache.ibatis.cache.decorators.TransactionalCache;
 
 /**
@@ -26,9 +31,94 @@ import org.apache.ibatis.cache.decorators.TransactionalCache;
 public class TransactionalCacheManager {
 
   private final Map<Cache, TransactionalCache> transactionalCaches = new HashMap<>();
+  private final TableDependencyTracker tracker;
+  private final CacheInvalidationBus bus;
+  private final Set<String> tablesToInvalidateOnCommit = new HashSet<>();
+  private final Set<String> cachesToClearOnCommit = new LinkedHashSet<>();
+  private boolean invalidateAllOnCommit;
+
+  public TransactionalCacheManager() {
+    this(null);
+  }
+
+  /**
+   * Creates a manager that invalidates entries by table instead of clearing whole caches.
+   *
+   * @param tracker
+   *          the tracker of the table dependencies, or {@code null} to clear whole caches
+   *
+   * @since 3.6.0
+   */
+  public TransactionalCacheManager(TableDependencyTracker tracker) {
+    this(tracker, null);
+  }
+
+  /**
+   * Creates a manager that also publishes the committed invalidations to the other nodes.
+   *
+   * @param tracker
+   *          the tracker of the table dependencies, or {@code null} to clear whole caches
+   * @param bus
+   *          the bus to publish invalidations to, or {@code null}
+   *
+   * @since 3.6.0
+   */
+  public TransactionalCacheManager(TableDependencyTracker tracker, CacheInvalidationBus bus) {
+    this.tracker = tracker;
+    this.bus = bus;
+  }
 
   public void clear(Cache cache) {
     getTransactionalCache(cache).clear();
+    if (bus != null) {
+      cachesToClearOnCommit.add(cache.getId());
+    }
+  }
+
+  /**
+   * Invalidates, when the transaction commits, the entries read from the given tables. Until then, the entries that
+   * depend on them are neither returned nor stored by this transaction.
+   *
+   * @param tables
+   *          the written tables, or {@code null} if unknown
+   *
+   * @since 3.6.0
+   */
+  public void invalidate(String[] tables) {
+    if (tables == null) {
+      invalidateAllOnCommit = true;
+    } else {
+      Collections.addAll(tablesToInvalidateOnCommit, tables);
+    }
+  }
+
+  /**
+   * Returns an entry stored with {@link #putObject(Cache, CacheKey, Object, long, String[])} if it is still up to date.
+   *
+   * @since 3.6.0
+   */
+  public Object getObject(Cache cache, CacheKey key, String[] tables) {
+    Object value = getTransactionalCache(cache).getObject(key);
+    if (dependsOnPendingWrites(tables)) {
+      return null;
+    }
+    if (value instanceof StampedValue) {
+      StampedValue stampedValue = (StampedValue) value;
+      // stale entries are already misses in caches built with table invalidation, this covers custom chains
+      return tracker.isValid(stampedValue.getStamp(), tables) ? stampedValue.getValue() : null;
+    }
+    return value;
+  }
+
+  /**
+   * Stores an entry along with the stamp observed before it was loaded.
+   *
+   * @since 3.6.0
+   */
+  public void putObject(Cache cache, CacheKey key, Object value, long stamp, String[] tables) {
+    if (!dependsOnPendingWrites(tables)) {
+      getTransactionalCache(cache).putObject(key, new StampedValue(stamp, tables, value));
+    }
   }
 
   public Object getObject(Cache cache, CacheKey key) {
@@ -40,17 +130,47 @@ public class TransactionalCacheManager {
   }
 
   public void commit() {
+    if (tracker != null && (invalidateAllOnCommit || !tablesToInvalidateOnCommit.isEmpty())) {
+      tracker.invalidate(invalidateAllOnCommit ? null : tablesToInvalidateOnCommit);
+    }
+    if (bus != null) {
+      // one message for the whole transaction, whatever the number of namespaces it touched
+      bus.publish(cachesToClearOnCommit, tablesToInvalidateOnCommit, invalidateAllOnCommit);
+    }
+    resetInvalidations();
     for (TransactionalCache txCache : transactionalCaches.values()) {
       txCache.commit();
     }
   }
 
   public void rollback() {
+    resetInvalidations();
     for (TransactionalCache txCache : transactionalCaches.values()) {
       txCache.rollback();
     }
   }
 
+  private boolean dependsOnPendingWrites(String[] tables) {
+    if (invalidateAllOnCommit) {
+      return true;
+    }
+    if (tables == null || tablesToInvalidateOnCommit.isEmpty()) {
+      return !tablesToInvalidateOnCommit.isEmpty();
+    }
+    for (String table : tables) {
+      if (tablesToInvalidateOnCommit.contains(table)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void resetInvalidations() {
+    invalidateAllOnCommit = false;
+    tablesToInvalidateOnCommit.clear();
+    cachesToClearOnCommit.clear();
+  }
+
   private TransactionalCache getTransactionalCache(Cache cache) {
     return transactionalCaches.computeIfAbsent(cache, TransactionalCache::new);
   }
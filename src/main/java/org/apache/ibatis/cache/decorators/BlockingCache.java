@@ -1,5 +1,5 @@
 /*
- *    Copyright 2009-2024 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -15,12 +15,17 @@
  */
 package org.apache.ibatis.cache.decorators;
 
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import org.apache.ibatis.cache.Cache;
 import org.apache.ibatis.cache.CacheException;
+import org.apache.ibatis.cache.CacheStats;
 
 /**
  * <p>
@@ -30,6 +35,15 @@ import org.apache.ibatis.cache.CacheException;
  * is not found in cache. This way, other threads will wait until this element is filled instead of hitting the
  * database.
  * <p>
+ * The first thread that misses a key registers a future for it and becomes its loader; concurrent readers join that
+ * future instead of queuing on a lock, and are all released at once when the loading session commits (the entry is put)
+ * or rolls back (the lock is removed). After a commit they read the entry directly, after a rollback one of them
+ * becomes the next loader.
+ * <p>
+ * A {@link #setTimeout(long) timeout} bounds how long a reader waits for the loader. When it elapses a
+ * {@link CacheException} is thrown, unless {@link #setFallbackOnTimeout(boolean) fallbackOnTimeout} is enabled, in
+ * which case the reader gets a miss and queries the database itself.
+ * <p>
  * By its nature, this implementation can cause deadlock when used incorrectly.
  *
  * @author Eduardo Macarron
@@ -37,8 +51,9 @@ import org.apache.ibatis.cache.CacheException;
 public class BlockingCache implements Cache {
 
   private long timeout;
+  private boolean fallbackOnTimeout;
   private final Cache delegate;
-  private final ConcurrentHashMap<Object, CountDownLatch> locks;
+  private final ConcurrentHashMap<Object, CompletableFuture<Void>> locks;
 
   public BlockingCache(Cache delegate) {
     this.delegate = delegate;
@@ -60,18 +75,43 @@ public class BlockingCache implements Cache {
     try {
       delegate.putObject(key, value);
     } finally {
-      releaseLock(key);
+      // entries can also be put without a previous miss, e.g. when they are refreshed in the background
+      CompletableFuture<Void> future = locks.remove(key);
+      if (future != null) {
+        future.complete(null);
+      }
     }
   }
 
   @Override
   public Object getObject(Object key) {
-    acquireLock(key);
-    Object value = delegate.getObject(key);
-    if (value != null) {
-      releaseLock(key);
+    long deadline = timeout > 0 ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout) : 0;
+    CompletableFuture<Void> newFuture = null;
+    while (true) {
+      CompletableFuture<Void> future = locks.get(key);
+      if (future == null) {
+        if (newFuture == null) {
+          newFuture = new CompletableFuture<>();
+        }
+        future = locks.putIfAbsent(key, newFuture);
+        if (future == null) {
+          // this thread is the loader, the lock is released by the following put or remove
+          Object value = delegate.getObject(key);
+          if (value != null) {
+            releaseLock(key);
+          }
+          return value;
+        }
+      }
+      if (!await(key, future, deadline)) {
+        // fallback, the caller loads the entry itself
+        return null;
+      }
+      Object value = delegate.getObject(key);
+      if (value != null) {
+        return value;
+      }
     }
-    return value;
   }
 
   @Override
@@ -81,40 +121,83 @@ public class BlockingCache implements Cache {
     return null;
   }
 
+  @Override
+  public void putAll(Map<?, ?> entries) {
+    try {
+      delegate.putAll(entries);
+    } finally {
+      for (Object key : entries.keySet()) {
+        CompletableFuture<Void> future = locks.remove(key);
+        if (future != null) {
+          future.complete(null);
+        }
+      }
+    }
+  }
+
+  @Override
+  public Map<Object, Object> getAll(Collection<?> keys) {
+    // bulk readers never become loaders, they only wait for the keys being loaded right now
+    long deadline = timeout > 0 ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout) : 0;
+    for (Object key : keys) {
+      CompletableFuture<Void> future = locks.get(key);
+      if (future != null) {
+        await(key, future, deadline);
+      }
+    }
+    return delegate.getAll(keys);
+  }
+
+  @Override
+  public void removeAll(Collection<?> keys) {
+    for (Object key : keys) {
+      releaseLock(key);
+    }
+  }
+
   @Override
   public void clear() {
     delegate.clear();
   }
 
-  private void acquireLock(Object key) {
-    CountDownLatch newLatch = new CountDownLatch(1);
-    while (true) {
-      CountDownLatch latch = locks.putIfAbsent(key, newLatch);
-      if (latch == null) {
-        break;
+  @Override
+  public boolean isThreadSafe() {
+    return delegate.isThreadSafe();
+  }
+
+  @Override
+  public CacheStats getStats() {
+    return delegate.getStats();
+  }
+
+  private boolean await(Object key, CompletableFuture<Void> future, long deadline) {
+    try {
+      if (deadline == 0) {
+        future.get();
+      } else {
+        future.get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
       }
-      try {
-        if (timeout > 0) {
-          boolean acquired = latch.await(timeout, TimeUnit.MILLISECONDS);
-          if (!acquired) {
-            throw new CacheException(
-                "Couldn't get a lock in " + timeout + " for the key " + key + " at the cache " + delegate.getId());
-          }
-        } else {
-          latch.await();
-        }
-      } catch (InterruptedException e) {
-        throw new CacheException("Got interrupted while trying to acquire lock for key " + key, e);
+      return true;
+    } catch (TimeoutException e) {
+      if (fallbackOnTimeout) {
+        return false;
       }
+      throw new CacheException(
+          "Couldn't get a lock in " + timeout + " for the key " + key + " at the cache " + delegate.getId());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new CacheException("Got interrupted while trying to acquire lock for key " + key, e);
+    } catch (ExecutionException e) {
+      throw new CacheException("Unexpected failure while waiting for key " + key, e);
     }
   }
 
   private void releaseLock(Object key) {
-    CountDownLatch latch = locks.remove(key);
-    if (latch == null) {
-      throw new IllegalStateException("Detected an attempt at releasing unacquired lock. This should never happen.");
+    CompletableFuture<Void> future = locks.remove(key);
+    // keys missed by bulk reads, or loaded by a reader that gave up waiting, hold no lock
+    if (future != null) {
+      future.complete(null);
     }
-    latch.countDown();
   }
 
   public long getTimeout() {
@@ -124,4 +207,23 @@ public class BlockingCache implements Cache {
   public void setTimeout(long timeout) {
     this.timeout = timeout;
   }
+
+  /**
+   * @since 3.6.0
+   */
+  public boolean isFallbackOnTimeout() {
+    return fallbackOnTimeout;
+  }
+
+  /**
+   * Makes readers that waited longer than the timeout for a loader query the database themselves instead of failing.
+   *
+   * @param fallbackOnTimeout
+   *          whether to return a miss when the timeout elapses
+   *
+   * @since 3.6.0
+   */
+  public void setFallbackOnTimeout(boolean fallbackOnTimeout) {
+    this.fallbackOnTimeout = fallbackOnTimeout;
+  }
 }
@@ -0,0 +1,234 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache.decorators;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.CacheException;
+
+/**
+ * Compresses the serialized values of a read/write cache.
+ * <p>
+ * Sits right below {@link SerializedCache} and only handles the byte arrays it produces, other values are passed
+ * through. Values of at least {@code compressThreshold} bytes are deflated, smaller ones are kept as they are because
+ * the codec would not pay off. Each stored value starts with a one byte tag telling which form follows, so the
+ * threshold and level can change without invalidating entries.
+ *
+ * @since 3.6.0
+ */
+public class CompressedCache implements Cache {
+
+  private static final byte RAW = 0;
+  private static final byte DEFLATED = 1;
+  private static final int HEADER = 5;
+
+  private final Cache delegate;
+  private final LongAdder originalBytes = new LongAdder();
+  private final LongAdder storedBytes = new LongAdder();
+  private int compressThreshold = 1024;
+  private int compressionLevel = Deflater.BEST_SPEED;
+
+  public CompressedCache(Cache delegate) {
+    this.delegate = delegate;
+  }
+
+  public void setCompressThreshold(int compressThreshold) {
+    this.compressThreshold = Math.max(0, compressThreshold);
+  }
+
+  public void setCompressionLevel(int compressionLevel) {
+    if (compressionLevel < Deflater.BEST_SPEED || compressionLevel > Deflater.BEST_COMPRESSION) {
+      throw new CacheException("Invalid compression level for cache '" + getId() + "': " + compressionLevel);
+    }
+    this.compressionLevel = compressionLevel;
+  }
+
+  /**
+   * Returns the number of serialized bytes written to this cache, before compression.
+   */
+  public long getOriginalBytes() {
+    return originalBytes.sum();
+  }
+
+  /**
+   * Returns the number of bytes handed to the underlying cache for the values counted by {@link #getOriginalBytes()}.
+   */
+  public long getStoredBytes() {
+    return storedBytes.sum();
+  }
+
+  @Override
+  public String getId() {
+    return delegate.getId();
+  }
+
+  @Override
+  public int getSize() {
+    return delegate.getSize();
+  }
+
+  @Override
+  public void putObject(Object key, Object value) {
+    delegate.putObject(key, compress(value));
+  }
+
+  @Override
+  public Object getObject(Object key) {
+    return decompress(delegate.getObject(key));
+  }
+
+  @Override
+  public Object removeObject(Object key) {
+    return delegate.removeObject(key);
+  }
+
+  @Override
+  public void putAll(Map<?, ?> entries) {
+    Map<Object, Object> compressed = new LinkedHashMap<>(entries.size() * 4 / 3 + 1);
+    for (Map.Entry<?, ?> entry : entries.entrySet()) {
+      compressed.put(entry.getKey(), compress(entry.getValue()));
+    }
+    delegate.putAll(compressed);
+  }
+
+  @Override
+  public Map<Object, Object> getAll(Collection<?> keys) {
+    Map<Object, Object> values = delegate.getAll(keys);
+    for (Map.Entry<Object, Object> entry : values.entrySet()) {
+      entry.setValue(decompress(entry.getValue()));
+    }
+    return values;
+  }
+
+  @Override
+  public void removeAll(Collection<?> keys) {
+    delegate.removeAll(keys);
+  }
+
+  @Override
+  public void clear() {
+    delegate.clear();
+  }
+
+  @Override
+  public boolean isThreadSafe() {
+    return delegate.isThreadSafe();
+  }
+
+  @Override
+  public int hashCode() {
+    return delegate.hashCode();
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    return delegate.equals(obj);
+  }
+
+  private Object compress(Object value) {
+    if (!(value instanceof byte[])) {
+      return value;
+    }
+    byte[] bytes = (byte[]) value;
+    byte[] stored = null;
+    if (bytes.length >= compressThreshold) {
+      stored = deflate(bytes);
+    }
+    if (stored == null) {
+      stored = new byte[bytes.length + 1];
+      stored[0] = RAW;
+      System.arraycopy(bytes, 0, stored, 1, bytes.length);
+    }
+    originalBytes.add(bytes.length);
+    storedBytes.add(stored.length);
+    return stored;
+  }
+
+  /**
+   * Returns the tagged deflated form of the value, or {@code null} when it would not be smaller than the value itself.
+   */
+  private byte[] deflate(byte[] bytes) {
+    Deflater deflater = new Deflater(compressionLevel);
+    try {
+      deflater.setInput(bytes);
+      deflater.finish();
+      ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 2 + HEADER);
+      out.write(DEFLATED);
+      out.write(bytes.length >>> 24);
+      out.write(bytes.length >>> 16);
+      out.write(bytes.length >>> 8);
+      out.write(bytes.length);
+      byte[] buffer = new byte[Math.min(bytes.length, 8192) + 64];
+      while (!deflater.finished()) {
+        out.write(buffer, 0, deflater.deflate(buffer));
+        if (out.size() > bytes.length) {
+          return null;
+        }
+      }
+      return out.toByteArray();
+    } finally {
+      deflater.end();
+    }
+  }
+
+  private Object decompress(Object value) {
+    if (!(value instanceof byte[])) {
+      return value;
+    }
+    byte[] stored = (byte[]) value;
+    if (stored.length == 0) {
+      throw new CacheException("Corrupted value in compressed cache '" + getId() + "'");
+    }
+    if (stored[0] == RAW) {
+      return Arrays.copyOfRange(stored, 1, stored.length);
+    }
+    if (stored[0] != DEFLATED || stored.length < HEADER) {
+      throw new CacheException("Corrupted value in compressed cache '" + getId() + "'");
+    }
+    int length = (stored[1] & 0xff) << 24 | (stored[2] & 0xff) << 16 | (stored[3] & 0xff) << 8 | stored[4] & 0xff;
+    byte[] bytes = new byte[length];
+    Inflater inflater = new Inflater();
+    try {
+      inflater.setInput(stored, HEADER, stored.length - HEADER);
+      int offset = 0;
+      while (offset < length) {
+        int count = inflater.inflate(bytes, offset, length - offset);
+        if (count == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+          break;
+        }
+        offset += count;
+      }
+      if (offset != length) {
+        throw new CacheException("Corrupted value in compressed cache '" + getId() + "'");
+      }
+      return bytes;
+    } catch (DataFormatException e) {
+      throw new CacheException("Corrupted value in compressed cache '" + getId() + "'.  Cause: " + e, e);
+    } finally {
+      inflater.end();
+    }
+  }
+
+}
@@ -0,0 +1,424 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache.decorators;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.CacheStats;
+import org.apache.ibatis.cache.CacheStats.EvictionCause;
+
+/**
+ * Per-entry expiration decorator.
+ * <p>
+ * Unlike {@link ScheduledCache}, which clears the whole cache once its interval elapses, each entry expires on its own
+ * once it has not been written for {@code expireAfterWrite} milliseconds or not been read for {@code expireAfterAccess}
+ * milliseconds, whichever comes first. Expired entries are never returned.
+ * <p>
+ * Pending expirations are tracked by a hierarchical timer wheel and reclaimed incrementally by the threads that use the
+ * cache, so there is neither a background thread nor a full scan. Reads do not touch the wheel: they only refresh the
+ * access time of the entry, and an entry whose deadline moved is rescheduled when its bucket fires.
+ * <p>
+ * Expired entries are reported to its {@link #setOwner(Cache) owner}, the outermost eviction decorator over it, on the
+ * next access of this cache, so that the decorators in between stop tracking them.
+ */
+public class ExpiringCache implements Cache {
+
+  /**
+   * Bucket widths of each level, in milliseconds: about 64ms, 4s, 4.4 minutes, 4.7 hours and 12 days.
+   */
+  private static final int[] SHIFTS = { 6, 12, 18, 24, 30 };
+  private static final int[] BUCKETS = { 64, 64, 64, 64, 1 };
+  private static final long MAX_DURATION = Long.MAX_VALUE >>> 2;
+  private static final Object NULL_KEY = new Object();
+
+  private final Cache delegate;
+  private final ReentrantLock lock = new ReentrantLock();
+  private final ConcurrentHashMap<Object, Node> nodes = new ConcurrentHashMap<>();
+  private final Node[][] wheel;
+  private final ConcurrentLinkedQueue<Object> expiredKeys = new ConcurrentLinkedQueue<>();
+  private final long origin = System.nanoTime();
+
+  private volatile long expireAfterWrite;
+  private volatile long expireAfterAccess;
+  private volatile long time;
+  private CacheStats stats;
+  private Cache owner;
+
+  public ExpiringCache(Cache delegate) {
+    this.delegate = delegate;
+    this.wheel = new Node[BUCKETS.length][];
+    for (int i = 0; i < BUCKETS.length; i++) {
+      wheel[i] = new Node[BUCKETS[i]];
+      for (int j = 0; j < BUCKETS[i]; j++) {
+        wheel[i][j] = new Node(null, 0);
+      }
+    }
+  }
+
+  public void setExpireAfterWrite(long expireAfterWrite) {
+    this.expireAfterWrite = Math.min(Math.max(0, expireAfterWrite), MAX_DURATION);
+  }
+
+  public void setExpireAfterAccess(long expireAfterAccess) {
+    this.expireAfterAccess = Math.min(Math.max(0, expireAfterAccess), MAX_DURATION);
+  }
+
+  public void setStats(CacheStats stats) {
+    this.stats = stats;
+  }
+
+  /**
+   * Sets the decorator that is told about the entries that expired, through {@link Cache#removeAll(Collection)}.
+   *
+   * @param owner
+   *          the outermost decorator that wraps this cache and keeps track of keys
+   */
+  public void setOwner(Cache owner) {
+    this.owner = owner;
+  }
+
+  @Override
+  public String getId() {
+    return delegate.getId();
+  }
+
+  @Override
+  public int getSize() {
+    expireEntries(now());
+    notifyOwner();
+    return delegate.getSize();
+  }
+
+  @Override
+  public void putObject(Object key, Object value) {
+    long now = now();
+    lock.lock();
+    try {
+      advance(now);
+      delegate.putObject(key, value);
+      Object nodeKey = maskNull(key);
+      Node node = nodes.get(nodeKey);
+      if (node == null) {
+        node = new Node(nodeKey, now);
+        nodes.put(nodeKey, node);
+        schedule(node);
+      } else {
+        // deadlines only move forward, the node is rescheduled when its current bucket fires
+        node.writeTime = now;
+        node.accessTime = now;
+      }
+    } finally {
+      lock.unlock();
+    }
+    notifyOwner();
+  }
+
+  @Override
+  public Object getObject(Object key) {
+    long now = now();
+    expireEntries(now);
+    notifyOwner();
+    Node node = nodes.get(maskNull(key));
+    if (node == null) {
+      return delegate.getObject(key);
+    }
+    if (node.getDeadline() <= now) {
+      expire(node, now);
+      notifyOwner();
+      return null;
+    }
+    if (expireAfterAccess > 0 && node.accessTime != now) {
+      node.accessTime = now;
+    }
+    return delegate.getObject(key);
+  }
+
+  @Override
+  public Object removeObject(Object key) {
+    lock.lock();
+    try {
+      Node node = nodes.remove(maskNull(key));
+      if (node != null) {
+        node.unlink();
+      }
+      return delegate.removeObject(key);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void putAll(Map<?, ?> entries) {
+    long now = now();
+    lock.lock();
+    try {
+      advance(now);
+      delegate.putAll(entries);
+      for (Object key : entries.keySet()) {
+        Object nodeKey = maskNull(key);
+        Node node = nodes.get(nodeKey);
+        if (node == null) {
+          node = new Node(nodeKey, now);
+          nodes.put(nodeKey, node);
+          schedule(node);
+        } else {
+          node.writeTime = now;
+          node.accessTime = now;
+        }
+      }
+    } finally {
+      lock.unlock();
+    }
+    notifyOwner();
+  }
+
+  @Override
+  public Map<Object, Object> getAll(Collection<?> keys) {
+    long now = now();
+    expireEntries(now);
+    List<Object> liveKeys = new ArrayList<>(keys.size());
+    for (Object key : keys) {
+      Node node = nodes.get(maskNull(key));
+      if (node != null) {
+        if (node.getDeadline() <= now) {
+          expire(node, now);
+          continue;
+        }
+        if (expireAfterAccess > 0 && node.accessTime != now) {
+          node.accessTime = now;
+        }
+      }
+      liveKeys.add(key);
+    }
+    notifyOwner();
+    return delegate.getAll(liveKeys);
+  }
+
+  @Override
+  public void removeAll(Collection<?> keys) {
+    lock.lock();
+    try {
+      for (Object key : keys) {
+        Node node = nodes.remove(maskNull(key));
+        if (node != null) {
+          node.unlink();
+        }
+      }
+      delegate.removeAll(keys);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void clear() {
+    lock.lock();
+    try {
+      for (Node[] buckets : wheel) {
+        for (Node sentinel : buckets) {
+          sentinel.previous = sentinel;
+          sentinel.next = sentinel;
+        }
+      }
+      nodes.clear();
+      expiredKeys.clear();
+      delegate.clear();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public boolean isThreadSafe() {
+    return delegate.isThreadSafe();
+  }
+
+  @Override
+  public int hashCode() {
+    return delegate.hashCode();
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    return delegate.equals(obj);
+  }
+
+  private long now() {
+    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - origin);
+  }
+
+  private void expireEntries(long now) {
+    if (now >>> SHIFTS[0] != time >>> SHIFTS[0] && lock.tryLock()) {
+      try {
+        advance(now);
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+
+  private void expire(Node node, long now) {
+    lock.lock();
+    try {
+      if (node.getDeadline() <= now && nodes.remove(node.key, node)) {
+        node.unlink();
+        delegate.removeObject(unmaskNull(node.key));
+        expiredKeys.add(node.key);
+        if (stats != null) {
+          stats.recordEviction(EvictionCause.EXPIRED);
+        }
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void notifyOwner() {
+    if (expiredKeys.isEmpty()) {
+      return;
+    }
+    List<Object> keys = new ArrayList<>();
+    for (Object key = expiredKeys.poll(); key != null; key = expiredKeys.poll()) {
+      // skip keys that were put again since they expired
+      if (!nodes.containsKey(key)) {
+        keys.add(unmaskNull(key));
+      }
+    }
+    if (owner != null && !keys.isEmpty()) {
+      owner.removeAll(keys);
+    }
+  }
+
+  /**
+   * Fires every bucket whose time span has elapsed since the previous call. Must hold the lock.
+   */
+  private void advance(long now) {
+    long previous = time;
+    if (now <= previous) {
+      return;
+    }
+    time = now;
+    for (int level = 0; level < SHIFTS.length; level++) {
+      long previousTicks = previous >>> SHIFTS[level];
+      long currentTicks = now >>> SHIFTS[level];
+      if (currentTicks == previousTicks) {
+        break;
+      }
+      Node[] buckets = wheel[level];
+      int mask = buckets.length - 1;
+      long delta = currentTicks - previousTicks;
+      int count = delta >= buckets.length ? buckets.length : (int) delta + 1;
+      int start = (int) (previousTicks & mask);
+      for (int i = 0; i < count; i++) {
+        fire(buckets[(start + i) & mask], now);
+      }
+    }
+  }
+
+  private void fire(Node sentinel, long now) {
+    Node node = sentinel.next;
+    // detach the whole bucket first, rescheduled nodes may land in it again
+    sentinel.previous = sentinel;
+    sentinel.next = sentinel;
+    while (node != sentinel) {
+      Node next = node.next;
+      node.previous = null;
+      node.next = null;
+      if (node.getDeadline() <= now) {
+        if (nodes.remove(node.key, node)) {
+          delegate.removeObject(unmaskNull(node.key));
+          expiredKeys.add(node.key);
+          if (stats != null) {
+            stats.recordEviction(EvictionCause.EXPIRED);
+          }
+        }
+      } else {
+        schedule(node);
+      }
+      node = next;
+    }
+  }
+
+  private void schedule(Node node) {
+    long deadline = Math.max(node.getDeadline(), time);
+    long delay = deadline - time;
+    int level = 0;
+    while (level < SHIFTS.length - 1 && delay >= 1L << SHIFTS[level + 1]) {
+      level++;
+    }
+    Node[] buckets = wheel[level];
+    Node sentinel = buckets[(int) ((deadline >>> SHIFTS[level]) & (buckets.length - 1))];
+    node.next = sentinel;
+    node.previous = sentinel.previous;
+    sentinel.previous.next = node;
+    sentinel.previous = node;
+  }
+
+  private static Object maskNull(Object key) {
+    return key == null ? NULL_KEY : key;
+  }
+
+  private static Object unmaskNull(Object key) {
+    return key == NULL_KEY ? null : key;
+  }
+
+  private final class Node {
+    private final Object key;
+    private volatile long writeTime;
+    private volatile long accessTime;
+    private Node previous;
+    private Node next;
+
+    Node(Object key, long now) {
+      this.key = key;
+      this.writeTime = now;
+      this.accessTime = now;
+      this.previous = this;
+      this.next = this;
+    }
+
+    long getDeadline() {
+      long deadline = Long.MAX_VALUE;
+      long afterWrite = expireAfterWrite;
+      if (afterWrite > 0) {
+        deadline = writeTime + afterWrite;
+      }
+      long afterAccess = expireAfterAccess;
+      if (afterAccess > 0) {
+        deadline = Math.min(deadline, accessTime + afterAccess);
+      }
+      return deadline;
+    }
+
+    void unlink() {
+      if (next != null && next != this) {
+        previous.next = next;
+        next.previous = previous;
+      }
+      previous = null;
+      next = null;
+    }
+  }
+
+}
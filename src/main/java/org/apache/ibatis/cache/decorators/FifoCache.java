@@ -1,5 +1,5 @@
 /*
- *    Copyright 2009-2023 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -15,10 +15,16 @@
  */
 package org.apache.ibatis.cache.decorators;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Deque;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
 
 import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.CacheStats;
+import org.apache.ibatis.cache.CacheStats.EvictionCause;
 
 /**
  * FIFO (first in, first out) cache decorator.
@@ -30,6 +36,7 @@ public class FifoCache implements Cache {
   private final Cache delegate;
   private final Deque<Object> keyList;
   private int size;
+  private CacheStats stats;
 
   public FifoCache(Cache delegate) {
     this.delegate = delegate;
@@ -51,6 +58,10 @@ public class FifoCache implements Cache {
     this.size = size;
   }
 
+  public void setStats(CacheStats stats) {
+    this.stats = stats;
+  }
+
   @Override
   public void putObject(Object key, Object value) {
     cycleKeyList(key);
@@ -68,6 +79,37 @@ public class FifoCache implements Cache {
     return delegate.removeObject(key);
   }
 
+  @Override
+  public void putAll(Map<?, ?> entries) {
+    List<Object> evictedKeys = new ArrayList<>();
+    for (Object key : entries.keySet()) {
+      keyList.addLast(key);
+      if (keyList.size() > size) {
+        evictedKeys.add(keyList.removeFirst());
+      }
+    }
+    delegate.putAll(entries);
+    // a key of the batch may also have been evicted by a later key of the same batch
+    evictedKeys.removeIf(key -> entries.containsKey(key) && keyList.contains(key));
+    if (!evictedKeys.isEmpty()) {
+      delegate.removeAll(evictedKeys);
+      if (stats != null) {
+        stats.recordEvictions(EvictionCause.SIZE, evictedKeys.size());
+      }
+    }
+  }
+
+  @Override
+  public Map<Object, Object> getAll(Collection<?> keys) {
+    return delegate.getAll(keys);
+  }
+
+  @Override
+  public void removeAll(Collection<?> keys) {
+    keyList.removeAll(keys);
+    delegate.removeAll(keys);
+  }
+
   @Override
   public void clear() {
     delegate.clear();
@@ -79,6 +121,9 @@ public class FifoCache implements Cache {
     if (keyList.size() > size) {
       Object oldestKey = keyList.removeFirst();
       delegate.removeObject(oldestKey);
+      if (stats != null) {
+        stats.recordEviction(EvictionCause.SIZE);
+      }
     }
   }
 
@@ -1,5 +1,5 @@
 /*
- *    Copyright 2009-2023 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -15,7 +15,11 @@
  */
 package org.apache.ibatis.cache.decorators;
 
+import java.util.Collection;
+import java.util.Map;
+
 import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.CacheStats;
 import org.apache.ibatis.logging.Log;
 import org.apache.ibatis.logging.LogFactory;
 
@@ -26,11 +30,35 @@ public class LoggingCache implements Cache {
 
   private final Log log;
   private final Cache delegate;
+  private final CacheStats stats;
+  /**
+   * @deprecated Since 3.6.0, use {@link #getStats()} instead. Only updated with the statistics of the cache after each
+   *             lookup.
+   */
+  @Deprecated
   protected int requests;
+  /**
+   * @deprecated Since 3.6.0, use {@link #getStats()} instead. Only updated with the statistics of the cache after each
+   *             lookup.
+   */
+  @Deprecated
   protected int hits;
 
   public LoggingCache(Cache delegate) {
+    this(delegate, new CacheStats());
+  }
+
+  /**
+   * @param delegate
+   *          the cache to decorate
+   * @param stats
+   *          the statistics shared with the other decorators of the cache
+   *
+   * @since 3.6.0
+   */
+  public LoggingCache(Cache delegate, CacheStats stats) {
     this.delegate = delegate;
+    this.stats = stats;
     this.log = LogFactory.getLog(getId());
   }
 
@@ -46,18 +74,21 @@ public class LoggingCache implements Cache {
 
   @Override
   public void putObject(Object key, Object object) {
+    stats.recordPut();
     delegate.putObject(key, object);
   }
 
   @Override
   public Object getObject(Object key) {
-    requests++;
     final Object value = delegate.getObject(key);
     if (value != null) {
-      hits++;
+      stats.recordHit();
+    } else {
+      stats.recordMiss();
     }
+    updateCounters();
     if (log.isDebugEnabled()) {
-      log.debug("Cache Hit Ratio [" + getId() + "]: " + getHitRatio());
+      log.debug("Cache Hit Ratio [" + getId() + "]: " + stats.getHitRatio());
     }
     return value;
   }
@@ -67,11 +98,48 @@ public class LoggingCache implements Cache {
     return delegate.removeObject(key);
   }
 
+  @Override
+  public void putAll(Map<?, ?> entries) {
+    stats.recordPuts(entries.size());
+    delegate.putAll(entries);
+  }
+
+  @Override
+  public Map<Object, Object> getAll(Collection<?> keys) {
+    Map<Object, Object> values = delegate.getAll(keys);
+    stats.recordLookups(values.size(), keys.size() - values.size());
+    updateCounters();
+    if (log.isDebugEnabled()) {
+      log.debug("Cache Hit Ratio [" + getId() + "]: " + stats.getHitRatio());
+    }
+    return values;
+  }
+
+  @Override
+  public void removeAll(Collection<?> keys) {
+    delegate.removeAll(keys);
+  }
+
   @Override
   public void clear() {
     delegate.clear();
   }
 
+  @Override
+  public boolean isThreadSafe() {
+    return delegate.isThreadSafe();
+  }
+
+  @Override
+  public CacheStats getStats() {
+    return stats;
+  }
+
+  private void updateCounters() {
+    requests = (int) stats.getRequestCount();
+    hits = (int) stats.getHitCount();
+  }
+
   @Override
   public int hashCode() {
     return delegate.hashCode();
@@ -82,8 +150,4 @@ public class LoggingCache implements Cache {
     return delegate.equals(obj);
   }
 
-  private double getHitRatio() {
-    return (double) hits / (double) requests;
-  }
-
 }
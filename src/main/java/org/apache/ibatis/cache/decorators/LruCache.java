@@ -1,5 +1,5 @@
 /*
- *    Copyright 2009-2023 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -15,10 +15,15 @@
  */
 package org.apache.ibatis.cache.decorators;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.CacheStats;
+import org.apache.ibatis.cache.CacheStats.EvictionCause;
 
 /**
  * Lru (least recently used) cache decorator.
@@ -30,6 +35,7 @@ public class LruCache implements Cache {
   private final Cache delegate;
   private Map<Object, Object> keyMap;
   private Object eldestKey;
+  private CacheStats stats;
 
   public LruCache(Cache delegate) {
     this.delegate = delegate;
@@ -61,6 +67,10 @@ public class LruCache implements Cache {
     };
   }
 
+  public void setStats(CacheStats stats) {
+    this.stats = stats;
+  }
+
   @Override
   public void putObject(Object key, Object value) {
     delegate.putObject(key, value);
@@ -79,6 +89,41 @@ public class LruCache implements Cache {
     return delegate.removeObject(key);
   }
 
+  @Override
+  public void putAll(Map<?, ?> entries) {
+    delegate.putAll(entries);
+    List<Object> evictedKeys = new ArrayList<>();
+    for (Object key : entries.keySet()) {
+      keyMap.put(key, key);
+      if (eldestKey != null) {
+        evictedKeys.add(eldestKey);
+        eldestKey = null;
+      }
+    }
+    // a key evicted by a later key of the same batch may have been put again since
+    evictedKeys.removeIf(keyMap::containsKey);
+    if (!evictedKeys.isEmpty()) {
+      delegate.removeAll(evictedKeys);
+      if (stats != null) {
+        stats.recordEvictions(EvictionCause.SIZE, evictedKeys.size());
+      }
+    }
+  }
+
+  @Override
+  public Map<Object, Object> getAll(Collection<?> keys) {
+    for (Object key : keys) {
+      keyMap.get(key); // touch
+    }
+    return delegate.getAll(keys);
+  }
+
+  @Override
+  public void removeAll(Collection<?> keys) {
+    keyMap.keySet().removeAll(keys);
+    delegate.removeAll(keys);
+  }
+
   @Override
   public void clear() {
     delegate.clear();
@@ -90,6 +135,9 @@ public class LruCache implements Cache {
     if (eldestKey != null) {
       delegate.removeObject(eldestKey);
       eldestKey = null;
+      if (stats != null) {
+        stats.recordEviction(EvictionCause.SIZE);
+      }
     }
   }
 
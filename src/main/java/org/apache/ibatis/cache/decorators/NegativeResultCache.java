@@ -0,0 +1,301 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache.decorators;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.CacheStats;
+import org.apache.ibatis.cache.CacheStats.EvictionCause;
+import org.apache.ibatis.cache.NegativeResult;
+
+/**
+ * Keeps the {@link NegativeResult negative results} apart from the other entries.
+ * <p>
+ * Negative results are held by a least recently used map per statement, bounded by the maximum number of entries of the
+ * statement, and expire after its time to live. They never reach the delegate, so that lookups of missing rows do not
+ * evict real results, but they are cleared along with it. While it holds no negative result, this cache passes every
+ * call through to the delegate without locking.
+ *
+ * @since 3.6.0
+ */
+public class NegativeResultCache implements Cache {
+
+  private static final int DEFAULT_MAX_ENTRIES = 1024;
+
+  private final Cache delegate;
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Map<Object, String> owners = new HashMap<>();
+  private final Map<String, Map<Object, Object>> statements = new HashMap<>();
+  private volatile int count;
+  private CacheStats stats;
+
+  public NegativeResultCache(Cache delegate) {
+    this.delegate = delegate;
+  }
+
+  public void setStats(CacheStats stats) {
+    this.stats = stats;
+  }
+
+  @Override
+  public String getId() {
+    return delegate.getId();
+  }
+
+  @Override
+  public int getSize() {
+    return delegate.getSize() + count;
+  }
+
+  /**
+   * @return The number of negative results held by this cache
+   */
+  public int getNegativeSize() {
+    return count;
+  }
+
+  @Override
+  public void putObject(Object key, Object value) {
+    NegativeResult negative = NegativeResult.unwrap(value);
+    if (negative == null) {
+      removeNegative(key);
+      delegate.putObject(key, value);
+      return;
+    }
+    lock.lock();
+    try {
+      storeNegative(key, value, negative);
+    } finally {
+      lock.unlock();
+    }
+    // drops the previous result, if any
+    delegate.removeObject(key);
+  }
+
+  @Override
+  public Object getObject(Object key) {
+    if (count > 0) {
+      Object value = getNegative(key, System.currentTimeMillis());
+      if (value != null) {
+        return value;
+      }
+    }
+    return delegate.getObject(key);
+  }
+
+  @Override
+  public Object removeObject(Object key) {
+    removeNegative(key);
+    return delegate.removeObject(key);
+  }
+
+  @Override
+  public void putAll(Map<?, ?> entries) {
+    if (count == 0 && !hasNegative(entries)) {
+      delegate.putAll(entries);
+      return;
+    }
+    Map<Object, Object> positives = new LinkedHashMap<>(entries.size() * 4 / 3 + 1);
+    List<Object> negativeKeys = new ArrayList<>();
+    lock.lock();
+    try {
+      for (Map.Entry<?, ?> entry : entries.entrySet()) {
+        NegativeResult negative = NegativeResult.unwrap(entry.getValue());
+        if (negative == null) {
+          if (count > 0) {
+            removeNegativeLocked(entry.getKey());
+          }
+          positives.put(entry.getKey(), entry.getValue());
+        } else {
+          storeNegative(entry.getKey(), entry.getValue(), negative);
+          negativeKeys.add(entry.getKey());
+        }
+      }
+    } finally {
+      lock.unlock();
+    }
+    if (!positives.isEmpty()) {
+      delegate.putAll(positives);
+    }
+    if (!negativeKeys.isEmpty()) {
+      delegate.removeAll(negativeKeys);
+    }
+  }
+
+  @Override
+  public Map<Object, Object> getAll(Collection<?> keys) {
+    if (count == 0) {
+      return delegate.getAll(keys);
+    }
+    long now = System.currentTimeMillis();
+    Map<Object, Object> negatives = new HashMap<>();
+    List<Object> otherKeys = new ArrayList<>(keys.size());
+    for (Object key : keys) {
+      Object value = getNegative(key, now);
+      if (value != null) {
+        negatives.put(key, value);
+      } else {
+        otherKeys.add(key);
+      }
+    }
+    Map<Object, Object> values = delegate.getAll(otherKeys);
+    values.putAll(negatives);
+    return values;
+  }
+
+  @Override
+  public void removeAll(Collection<?> keys) {
+    if (count > 0) {
+      lock.lock();
+      try {
+        for (Object key : keys) {
+          removeNegativeLocked(key);
+        }
+      } finally {
+        lock.unlock();
+      }
+    }
+    delegate.removeAll(keys);
+  }
+
+  @Override
+  public void clear() {
+    if (count > 0) {
+      lock.lock();
+      try {
+        owners.clear();
+        statements.clear();
+        count = 0;
+      } finally {
+        lock.unlock();
+      }
+    }
+    delegate.clear();
+  }
+
+  @Override
+  public boolean isThreadSafe() {
+    return delegate.isThreadSafe();
+  }
+
+  @Override
+  public CacheStats getStats() {
+    return delegate.getStats();
+  }
+
+  @Override
+  public int hashCode() {
+    return delegate.hashCode();
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    return delegate.equals(obj);
+  }
+
+  private static boolean hasNegative(Map<?, ?> entries) {
+    for (Object value : entries.values()) {
+      if (NegativeResult.unwrap(value) != null) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private Object getNegative(Object key, long now) {
+    Object value;
+    lock.lock();
+    try {
+      String statementId = owners.get(key);
+      if (statementId == null) {
+        return null;
+      }
+      value = statements.get(statementId).get(key); // touch
+      if (NegativeResult.unwrap(value).isExpired(now)) {
+        removeNegativeLocked(key);
+        if (stats != null) {
+          stats.recordEviction(EvictionCause.EXPIRED);
+        }
+        return null;
+      }
+    } finally {
+      lock.unlock();
+    }
+    if (stats != null) {
+      stats.recordHit();
+    }
+    return value;
+  }
+
+  /**
+   * Must hold the lock.
+   */
+  private void storeNegative(Object key, Object value, NegativeResult negative) {
+    String statementId = String.valueOf(negative.getStatementId());
+    String previousOwner = owners.get(key);
+    if (previousOwner != null && !previousOwner.equals(statementId)) {
+      removeNegativeLocked(key);
+    }
+    owners.put(key, statementId);
+    Map<Object, Object> entries = statements.computeIfAbsent(statementId, k -> new LinkedHashMap<>(16, .75F, true));
+    if (entries.put(key, value) == null) {
+      count++;
+    }
+    int maxEntries = negative.getMaxEntries() > 0 ? negative.getMaxEntries() : DEFAULT_MAX_ENTRIES;
+    Iterator<Object> iterator = entries.keySet().iterator();
+    while (entries.size() > maxEntries) {
+      Object eldest = iterator.next();
+      iterator.remove();
+      owners.remove(eldest);
+      count--;
+      if (stats != null) {
+        stats.recordEviction(EvictionCause.SIZE);
+      }
+    }
+  }
+
+  private void removeNegative(Object key) {
+    if (count > 0) {
+      lock.lock();
+      try {
+        removeNegativeLocked(key);
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+
+  private void removeNegativeLocked(Object key) {
+    String statementId = owners.remove(key);
+    if (statementId != null) {
+      Map<Object, Object> entries = statements.get(statementId);
+      entries.remove(key);
+      count--;
+      if (entries.isEmpty()) {
+        statements.remove(statementId);
+      }
+    }
+  }
+
+}
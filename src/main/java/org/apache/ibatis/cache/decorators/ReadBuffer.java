@@ -0,0 +1,81 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache.decorators;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Bounded, lossy buffer of recent reads, replayed against the eviction policy of a cache while holding its lock. Reads
+ * are dropped when the buffer is full, which only makes the policy a little less accurate.
+ *
+ * @param <E>
+ *          the type of the recorded reads
+ *
+ * @since 3.6.0
+ */
+final class ReadBuffer<E> {
+
+  private static final int BUFFER_SIZE = 16;
+  private static final int MASK = BUFFER_SIZE - 1;
+
+  private final AtomicLong writeCounter = new AtomicLong();
+  private final AtomicReferenceArray<E> buffer = new AtomicReferenceArray<>(BUFFER_SIZE);
+  private volatile long readCounter;
+
+  /**
+   * @return {@code true} if the buffer should be drained
+   */
+  boolean offer(E element) {
+    long head = readCounter;
+    long tail = writeCounter.get();
+    long size = tail - head;
+    if (size >= BUFFER_SIZE) {
+      return true;
+    }
+    if (writeCounter.compareAndSet(tail, tail + 1)) {
+      buffer.lazySet((int) (tail & MASK), element);
+      return size + 1 >= BUFFER_SIZE;
+    }
+    return false;
+  }
+
+  /**
+   * Replays the buffered reads. Must be called while holding the lock of the cache.
+   *
+   * @param replay
+   *          the action applying a read to the eviction policy, or {@code null} to discard the reads
+   */
+  void drain(Consumer<? super E> replay) {
+    long head = readCounter;
+    long tail = writeCounter.get();
+    for (; head < tail; head++) {
+      int index = (int) (head & MASK);
+      E element = buffer.get(index);
+      if (element == null) {
+        // the writer has not published the element yet
+        break;
+      }
+      buffer.lazySet(index, null);
+      if (replay != null) {
+        replay.accept(element);
+      }
+    }
+    readCounter = head;
+  }
+
+}
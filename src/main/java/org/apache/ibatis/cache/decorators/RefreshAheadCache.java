@@ -0,0 +1,304 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache.decorators;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.CacheStats;
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.LogFactory;
+
+/**
+ * Refresh-ahead decorator.
+ * <p>
+ * Entries written more than {@code refreshAfterWrite} milliseconds ago are still returned, but are reported as
+ * {@link #isStale(Object) stale} so that the caller can {@link #refresh(Object, Callable) refresh} them. A refresh runs
+ * the given loader on a small bounded pool of daemon threads and replaces the entry with a single put, so readers see
+ * either the previous or the new value. Only one refresh per key is in flight at a time, refreshes that do not fit in
+ * the queue are dropped, and a refresh that completes after the cache was cleared is discarded.
+ * <p>
+ * Must be the outermost decorator, the {@link org.apache.ibatis.executor.CachingExecutor} looks for it to trigger the
+ * refreshes.
+ *
+ * @since 3.6.0
+ */
+public class RefreshAheadCache implements Cache {
+
+  private static final Log log = LogFactory.getLog(RefreshAheadCache.class);
+  private static final int MIN_PURGE_THRESHOLD = 64;
+
+  private final Cache delegate;
+  private final ConcurrentHashMap<Object, Long> writeTimes = new ConcurrentHashMap<>();
+  private final Set<Object> refreshing = ConcurrentHashMap.newKeySet();
+  private final ReentrantLock lock = new ReentrantLock();
+  private final long origin = System.nanoTime();
+
+  private long refreshAfterWrite;
+  private int refreshThreads = 1;
+  private int refreshQueueSize = 256;
+  private CacheStats stats;
+  private volatile int purgeThreshold = MIN_PURGE_THRESHOLD;
+  private volatile long generation;
+  private volatile ThreadPoolExecutor executor;
+
+  public RefreshAheadCache(Cache delegate) {
+    this.delegate = delegate;
+  }
+
+  public void setRefreshAfterWrite(long refreshAfterWrite) {
+    this.refreshAfterWrite = Math.max(0, refreshAfterWrite);
+  }
+
+  public void setRefreshThreads(int refreshThreads) {
+    this.refreshThreads = Math.max(1, refreshThreads);
+  }
+
+  public void setRefreshQueueSize(int refreshQueueSize) {
+    this.refreshQueueSize = Math.max(1, refreshQueueSize);
+  }
+
+  public void setStats(CacheStats stats) {
+    this.stats = stats;
+  }
+
+  @Override
+  public String getId() {
+    return delegate.getId();
+  }
+
+  @Override
+  public int getSize() {
+    return delegate.getSize();
+  }
+
+  @Override
+  public void putObject(Object key, Object value) {
+    delegate.putObject(key, value);
+    if (value == null) {
+      writeTimes.remove(key);
+    } else {
+      writeTimes.put(key, now());
+      purgeWriteTimes();
+    }
+  }
+
+  @Override
+  public Object getObject(Object key) {
+    Object value = delegate.getObject(key);
+    if (value == null) {
+      writeTimes.remove(key);
+    }
+    return value;
+  }
+
+  @Override
+  public Object removeObject(Object key) {
+    return delegate.removeObject(key);
+  }
+
+  @Override
+  public void putAll(Map<?, ?> entries) {
+    delegate.putAll(entries);
+    long now = now();
+    for (Map.Entry<?, ?> entry : entries.entrySet()) {
+      if (entry.getValue() == null) {
+        writeTimes.remove(entry.getKey());
+      } else {
+        writeTimes.put(entry.getKey(), now);
+      }
+    }
+    purgeWriteTimes();
+  }
+
+  @Override
+  public Map<Object, Object> getAll(Collection<?> keys) {
+    Map<Object, Object> values = delegate.getAll(keys);
+    if (values.size() < keys.size()) {
+      for (Object key : keys) {
+        if (!values.containsKey(key)) {
+          writeTimes.remove(key);
+        }
+      }
+    }
+    return values;
+  }
+
+  @Override
+  public void removeAll(Collection<?> keys) {
+    delegate.removeAll(keys);
+  }
+
+  @Override
+  public void clear() {
+    lock.lock();
+    try {
+      generation++;
+      writeTimes.clear();
+      delegate.clear();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public boolean isThreadSafe() {
+    return delegate.isThreadSafe();
+  }
+
+  @Override
+  public CacheStats getStats() {
+    return delegate.getStats();
+  }
+
+  /**
+   * Returns whether an entry that was just read should be refreshed. Entries whose write time is unknown are stale.
+   *
+   * @param key
+   *          the key of the entry
+   *
+   * @return {@code true} if the entry was written more than {@code refreshAfterWrite} milliseconds ago
+   */
+  public boolean isStale(Object key) {
+    if (refreshAfterWrite == 0) {
+      return false;
+    }
+    Long writeTime = writeTimes.get(key);
+    return writeTime == null || now() - writeTime >= refreshAfterWrite;
+  }
+
+  /**
+   * Schedules a background reload of an entry, unless one is already in flight.
+   *
+   * @param key
+   *          the key of the entry
+   * @param loader
+   *          loads the new value, or returns {@code null} to keep the current one
+   */
+  public void refresh(Object key, Callable<?> loader) {
+    if (!refreshing.add(key)) {
+      return;
+    }
+    long expectedGeneration = generation;
+    try {
+      getExecutor().execute(() -> {
+        try {
+          Object value = loader.call();
+          if (value != null) {
+            replace(key, value, expectedGeneration);
+          }
+        } catch (Exception e) {
+          if (stats != null) {
+            stats.recordRefreshFailure();
+          }
+          log.warn("Failed to refresh the entry " + key + " of the cache " + getId() + ". Cause: " + e);
+        } finally {
+          refreshing.remove(key);
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      refreshing.remove(key);
+      if (stats != null) {
+        stats.recordRefreshRejection();
+      }
+    }
+  }
+
+  /**
+   * Returns the number of refreshes waiting for a thread.
+   *
+   * @return the length of the refresh queue
+   */
+  public int getPendingRefreshCount() {
+    ThreadPoolExecutor current = executor;
+    return current == null ? 0 : current.getQueue().size();
+  }
+
+  private void replace(Object key, Object value, long expectedGeneration) {
+    lock.lock();
+    try {
+      if (generation != expectedGeneration) {
+        // the cache was flushed while the entry was reloading, the value may already be outdated
+        return;
+      }
+      putObject(key, value);
+    } finally {
+      lock.unlock();
+    }
+    if (stats != null) {
+      stats.recordRefresh();
+    }
+  }
+
+  private ThreadPoolExecutor getExecutor() {
+    ThreadPoolExecutor current = executor;
+    if (current == null) {
+      lock.lock();
+      try {
+        current = executor;
+        if (current == null) {
+          current = newExecutor();
+          executor = current;
+        }
+      } finally {
+        lock.unlock();
+      }
+    }
+    return current;
+  }
+
+  private ThreadPoolExecutor newExecutor() {
+    AtomicInteger threadNumber = new AtomicInteger();
+    String namePrefix = "mybatis-cache-refresh-" + getId() + "-";
+    ThreadPoolExecutor pool = new ThreadPoolExecutor(refreshThreads, refreshThreads, 60, TimeUnit.SECONDS,
+        new ArrayBlockingQueue<>(refreshQueueSize), runnable -> {
+          Thread thread = new Thread(runnable, namePrefix + threadNumber.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        });
+    pool.allowCoreThreadTimeOut(true);
+    return pool;
+  }
+
+  /**
+   * Write times of entries evicted by the delegate are only removed when they are looked up. Once the map grows past
+   * twice its size after the last purge, the write times older than {@code refreshAfterWrite} are dropped: a missing
+   * write time makes the entry stale anyway.
+   */
+  private void purgeWriteTimes() {
+    if (writeTimes.size() <= purgeThreshold) {
+      return;
+    }
+    long oldest = now() - refreshAfterWrite;
+    writeTimes.values().removeIf(writeTime -> writeTime <= oldest);
+    purgeThreshold = Math.max(MIN_PURGE_THRESHOLD, writeTimes.size() << 1);
+  }
+
+  private long now() {
+    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - origin);
+  }
+
+}
@@ -1,5 +1,5 @@
 /*
- *    Copyright 2009-2022 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -15,9 +15,14 @@
  */
 package org.apache.ibatis.cache.decorators;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.CacheStats;
+import org.apache.ibatis.cache.CacheStats.EvictionCause;
 
 /**
  * @author Clinton Begin
@@ -25,8 +30,9 @@ import org.apache.ibatis.cache.Cache;
 public class ScheduledCache implements Cache {
 
   private final Cache delegate;
-  protected long clearInterval;
-  protected long lastClear;
+  protected volatile long clearInterval;
+  protected volatile long lastClear;
+  private CacheStats stats;
 
   public ScheduledCache(Cache delegate) {
     this.delegate = delegate;
@@ -38,6 +44,10 @@ public class ScheduledCache implements Cache {
     this.clearInterval = clearInterval;
   }
 
+  public void setStats(CacheStats stats) {
+    this.stats = stats;
+  }
+
   @Override
   public String getId() {
     return delegate.getId();
@@ -66,12 +76,34 @@ public class ScheduledCache implements Cache {
     return delegate.removeObject(key);
   }
 
+  @Override
+  public void putAll(Map<?, ?> entries) {
+    clearWhenStale();
+    delegate.putAll(entries);
+  }
+
+  @Override
+  public Map<Object, Object> getAll(Collection<?> keys) {
+    return clearWhenStale() ? new HashMap<>() : delegate.getAll(keys);
+  }
+
+  @Override
+  public void removeAll(Collection<?> keys) {
+    clearWhenStale();
+    delegate.removeAll(keys);
+  }
+
   @Override
   public void clear() {
     lastClear = System.currentTimeMillis();
     delegate.clear();
   }
 
+  @Override
+  public boolean isThreadSafe() {
+    return delegate.isThreadSafe();
+  }
+
   @Override
   public int hashCode() {
     return delegate.hashCode();
@@ -84,6 +116,9 @@ public class ScheduledCache implements Cache {
 
   private boolean clearWhenStale() {
     if (System.currentTimeMillis() - lastClear > clearInterval) {
+      if (stats != null) {
+        stats.recordEvictions(EvictionCause.EXPIRED, delegate.getSize());
+      }
       clear();
       return true;
     }
@@ -1,5 +1,5 @@
 /*
- *    Copyright 2009-2024 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -15,9 +15,12 @@
  */
 package org.apache.ibatis.cache.decorators;
 
+import java.util.Collection;
+import java.util.Map;
 import java.util.concurrent.locks.ReentrantLock;
 
 import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.CacheStats;
 
 /**
  * @author Clinton Begin
@@ -76,6 +79,36 @@ public class SynchronizedCache implements Cache {
     }
   }
 
+  @Override
+  public void putAll(Map<?, ?> entries) {
+    lock.lock();
+    try {
+      delegate.putAll(entries);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public Map<Object, Object> getAll(Collection<?> keys) {
+    lock.lock();
+    try {
+      return delegate.getAll(keys);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void removeAll(Collection<?> keys) {
+    lock.lock();
+    try {
+      delegate.removeAll(keys);
+    } finally {
+      lock.unlock();
+    }
+  }
+
   @Override
   public void clear() {
     lock.lock();
@@ -86,6 +119,16 @@ public class SynchronizedCache implements Cache {
     }
   }
 
+  @Override
+  public boolean isThreadSafe() {
+    return true;
+  }
+
+  @Override
+  public CacheStats getStats() {
+    return delegate.getStats();
+  }
+
   @Override
   public int hashCode() {
     return delegate.hashCode();
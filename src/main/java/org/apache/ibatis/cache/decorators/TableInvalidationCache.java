@@ -0,0 +1,136 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache.decorators;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.TableDependencyTracker;
+import org.apache.ibatis.cache.TableDependencyTracker.StampedValue;
+
+/**
+ * Treats the entries read from tables written since they were loaded as missing, and removes them.
+ * <p>
+ * Sits below the blocking cache, so that the first thread that finds a stale entry loads it again while the others wait
+ * for it.
+ *
+ * @since 3.6.0
+ *
+ * @see TableDependencyTracker
+ */
+public class TableInvalidationCache implements Cache {
+
+  private final Cache delegate;
+  private final TableDependencyTracker tracker;
+
+  public TableInvalidationCache(Cache delegate, TableDependencyTracker tracker) {
+    this.delegate = delegate;
+    this.tracker = tracker;
+  }
+
+  @Override
+  public String getId() {
+    return delegate.getId();
+  }
+
+  @Override
+  public int getSize() {
+    return delegate.getSize();
+  }
+
+  @Override
+  public void putObject(Object key, Object value) {
+    delegate.putObject(key, value);
+  }
+
+  @Override
+  public Object getObject(Object key) {
+    Object value = delegate.getObject(key);
+    if (isStale(value)) {
+      delegate.removeObject(key);
+      return null;
+    }
+    return value;
+  }
+
+  @Override
+  public Object removeObject(Object key) {
+    return delegate.removeObject(key);
+  }
+
+  @Override
+  public void putAll(Map<?, ?> entries) {
+    delegate.putAll(entries);
+  }
+
+  @Override
+  public Map<Object, Object> getAll(Collection<?> keys) {
+    Map<Object, Object> values = delegate.getAll(keys);
+    List<Object> staleKeys = null;
+    for (Map.Entry<Object, Object> entry : values.entrySet()) {
+      if (isStale(entry.getValue())) {
+        if (staleKeys == null) {
+          staleKeys = new ArrayList<>();
+        }
+        staleKeys.add(entry.getKey());
+      }
+    }
+    if (staleKeys != null) {
+      values = new HashMap<>(values);
+      values.keySet().removeAll(staleKeys);
+      delegate.removeAll(staleKeys);
+    }
+    return values;
+  }
+
+  @Override
+  public void removeAll(Collection<?> keys) {
+    delegate.removeAll(keys);
+  }
+
+  @Override
+  public void clear() {
+    delegate.clear();
+  }
+
+  @Override
+  public boolean isThreadSafe() {
+    return delegate.isThreadSafe();
+  }
+
+  @Override
+  public int hashCode() {
+    return delegate.hashCode();
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    return delegate.equals(obj);
+  }
+
+  private boolean isStale(Object value) {
+    if (!(value instanceof StampedValue)) {
+      return false;
+    }
+    StampedValue stampedValue = (StampedValue) value;
+    return !tracker.isValid(stampedValue.getStamp(), stampedValue.getTables());
+  }
+
+}
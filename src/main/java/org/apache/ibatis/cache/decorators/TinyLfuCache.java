@@ -0,0 +1,477 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache.decorators;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.CacheStats;
+import org.apache.ibatis.cache.CacheStats.EvictionCause;
+
+/**
+ * W-TinyLFU (window tiny least frequently used) cache decorator.
+ * <p>
+ * New entries are kept in a small LRU admission window. When an entry leaves the window it has to compete with the
+ * eviction victim of the main segmented LRU, and it is only admitted if it has been requested more often. Access
+ * frequencies are estimated by a compact count-min sketch that is periodically aged.
+ * <p>
+ * Reads never block: accesses are recorded in lossy striped buffers and replayed against the eviction policy by the
+ * thread that holds the eviction lock. Writes update the policy under that lock. As a consequence this decorator is
+ * thread-safe as long as its delegate is, and the builder does not need to wrap it with a {@link SynchronizedCache}.
+ */
+public class TinyLfuCache implements Cache {
+
+  private static final int WINDOW = 0;
+  private static final int PROBATION = 1;
+  private static final int PROTECTED = 2;
+
+  private final Cache delegate;
+  private final ReentrantLock evictionLock = new ReentrantLock();
+  private final ConcurrentHashMap<Object, Node> nodes = new ConcurrentHashMap<>();
+  private final ReadBuffer<Node>[] readBuffers;
+  private final Consumer<Node> replay = this::onAccess;
+
+  private final AccessQueue window = new AccessQueue();
+  private final AccessQueue probation = new AccessQueue();
+  private final AccessQueue protectedQueue = new AccessQueue();
+  private FrequencySketch sketch;
+
+  private int maximumSize;
+  private int windowMaximum;
+  private int protectedMaximum;
+  private CacheStats stats;
+
+  @SuppressWarnings("unchecked")
+  public TinyLfuCache(Cache delegate) {
+    this.delegate = delegate;
+    this.readBuffers = new ReadBuffer[stripes()];
+    for (int i = 0; i < readBuffers.length; i++) {
+      readBuffers[i] = new ReadBuffer<>();
+    }
+    setSize(1024);
+  }
+
+  @Override
+  public String getId() {
+    return delegate.getId();
+  }
+
+  @Override
+  public int getSize() {
+    return delegate.getSize();
+  }
+
+  public void setSize(final int size) {
+    evictionLock.lock();
+    try {
+      this.maximumSize = Math.max(1, size);
+      this.windowMaximum = Math.max(1, maximumSize / 100);
+      this.protectedMaximum = (int) ((maximumSize - windowMaximum) * 0.8);
+      this.sketch = new FrequencySketch(maximumSize);
+      evict();
+    } finally {
+      evictionLock.unlock();
+    }
+  }
+
+  public void setStats(CacheStats stats) {
+    this.stats = stats;
+  }
+
+  @Override
+  public void putObject(Object key, Object value) {
+    evictionLock.lock();
+    try {
+      drainReadBuffers();
+      delegate.putObject(key, value);
+      Node node = nodes.get(key);
+      if (node == null) {
+        node = new Node(key);
+        nodes.put(key, node);
+        window.addLast(node);
+      } else {
+        onAccess(node);
+      }
+      sketch.increment(key);
+      evict();
+    } finally {
+      evictionLock.unlock();
+    }
+  }
+
+  @Override
+  public Object getObject(Object key) {
+    Node node = nodes.get(key);
+    if (node != null) {
+      afterRead(node);
+    }
+    return delegate.getObject(key);
+  }
+
+  @Override
+  public Object removeObject(Object key) {
+    evictionLock.lock();
+    try {
+      Node node = nodes.remove(key);
+      if (node != null) {
+        unlink(node);
+      }
+      return delegate.removeObject(key);
+    } finally {
+      evictionLock.unlock();
+    }
+  }
+
+  @Override
+  public void putAll(Map<?, ?> entries) {
+    evictionLock.lock();
+    try {
+      drainReadBuffers();
+      delegate.putAll(entries);
+      for (Object key : entries.keySet()) {
+        Node node = nodes.get(key);
+        if (node == null) {
+          node = new Node(key);
+          nodes.put(key, node);
+          window.addLast(node);
+        } else {
+          onAccess(node);
+        }
+        sketch.increment(key);
+      }
+      evict();
+    } finally {
+      evictionLock.unlock();
+    }
+  }
+
+  @Override
+  public Map<Object, Object> getAll(Collection<?> keys) {
+    for (Object key : keys) {
+      Node node = nodes.get(key);
+      if (node != null) {
+        afterRead(node);
+      }
+    }
+    return delegate.getAll(keys);
+  }
+
+  @Override
+  public void removeAll(Collection<?> keys) {
+    evictionLock.lock();
+    try {
+      for (Object key : keys) {
+        Node node = nodes.remove(key);
+        if (node != null) {
+          unlink(node);
+        }
+      }
+      delegate.removeAll(keys);
+    } finally {
+      evictionLock.unlock();
+    }
+  }
+
+  @Override
+  public void clear() {
+    evictionLock.lock();
+    try {
+      for (ReadBuffer<Node> buffer : readBuffers) {
+        buffer.drain(null);
+      }
+      for (Node node : nodes.values()) {
+        node.queue = -1;
+      }
+      nodes.clear();
+      window.clear();
+      probation.clear();
+      protectedQueue.clear();
+      delegate.clear();
+    } finally {
+      evictionLock.unlock();
+    }
+  }
+
+  @Override
+  public boolean isThreadSafe() {
+    return delegate.isThreadSafe();
+  }
+
+  @Override
+  public int hashCode() {
+    return delegate.hashCode();
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    return delegate.equals(obj);
+  }
+
+  private void afterRead(Node node) {
+    ReadBuffer<Node> buffer = readBuffers[stripeIndex()];
+    if (buffer.offer(node) && evictionLock.tryLock()) {
+      try {
+        drainReadBuffers();
+      } finally {
+        evictionLock.unlock();
+      }
+    }
+  }
+
+  private void drainReadBuffers() {
+    for (ReadBuffer<Node> buffer : readBuffers) {
+      buffer.drain(replay);
+    }
+  }
+
+  private void onAccess(Node node) {
+    if (node.queue < 0) {
+      // removed or evicted while the read was buffered
+      return;
+    }
+    sketch.increment(node.key);
+    if (node.queue == WINDOW) {
+      window.moveToLast(node);
+    } else if (node.queue == PROBATION) {
+      probation.remove(node);
+      node.queue = PROTECTED;
+      protectedQueue.addLast(node);
+      while (protectedQueue.size > protectedMaximum) {
+        Node demoted = protectedQueue.pollFirst();
+        demoted.queue = PROBATION;
+        probation.addLast(demoted);
+      }
+    } else {
+      protectedQueue.moveToLast(node);
+    }
+  }
+
+  private void evict() {
+    while (window.size > windowMaximum) {
+      Node candidate = window.pollFirst();
+      candidate.queue = PROBATION;
+      probation.addLast(candidate);
+    }
+    List<Object> evictedKeys = null;
+    while (nodes.size() > maximumSize) {
+      Node victim = probation.first;
+      Node candidate = probation.last;
+      Node evicted;
+      if (victim == null) {
+        evicted = protectedQueue.first != null ? protectedQueue.first : window.first;
+      } else if (victim == candidate || sketch.frequency(candidate.key) > sketch.frequency(victim.key)) {
+        evicted = victim;
+      } else {
+        evicted = candidate;
+      }
+      nodes.remove(evicted.key, evicted);
+      unlink(evicted);
+      if (evictedKeys == null) {
+        evictedKeys = new ArrayList<>();
+      }
+      evictedKeys.add(evicted.key);
+    }
+    if (evictedKeys != null) {
+      delegate.removeAll(evictedKeys);
+      if (stats != null) {
+        stats.recordEvictions(EvictionCause.SIZE, evictedKeys.size());
+      }
+    }
+  }
+
+  private void unlink(Node node) {
+    if (node.queue == WINDOW) {
+      window.remove(node);
+    } else if (node.queue == PROBATION) {
+      probation.remove(node);
+    } else if (node.queue == PROTECTED) {
+      protectedQueue.remove(node);
+    }
+    node.queue = -1;
+  }
+
+  private static int stripes() {
+    int stripes = 1;
+    while (stripes < Runtime.getRuntime().availableProcessors()) {
+      stripes <<= 1;
+    }
+    return Math.min(stripes, 64);
+  }
+
+  private int stripeIndex() {
+    long id = Thread.currentThread().getId();
+    int hash = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+    return (hash ^ (hash >>> 16)) & (readBuffers.length - 1);
+  }
+
+  private static final class Node {
+    private final Object key;
+    private Node previous;
+    private Node next;
+    private int queue = WINDOW;
+
+    Node(Object key) {
+      this.key = key;
+    }
+  }
+
+  /**
+   * Doubly linked list kept in access order. Only accessed while holding the eviction lock.
+   */
+  private static final class AccessQueue {
+    private Node first;
+    private Node last;
+    private int size;
+
+    void addLast(Node node) {
+      node.previous = last;
+      node.next = null;
+      if (last == null) {
+        first = node;
+      } else {
+        last.next = node;
+      }
+      last = node;
+      size++;
+    }
+
+    Node pollFirst() {
+      Node node = first;
+      if (node != null) {
+        remove(node);
+      }
+      return node;
+    }
+
+    void moveToLast(Node node) {
+      if (node != last) {
+        remove(node);
+        addLast(node);
+      }
+    }
+
+    void remove(Node node) {
+      if (node.previous == null) {
+        first = node.next;
+      } else {
+        node.previous.next = node.next;
+      }
+      if (node.next == null) {
+        last = node.previous;
+      } else {
+        node.next.previous = node.previous;
+      }
+      node.previous = null;
+      node.next = null;
+      size--;
+    }
+
+    void clear() {
+      first = null;
+      last = null;
+      size = 0;
+    }
+  }
+
+  /**
+   * Count-min sketch with four 4-bit counters per entry. Counters are halved once the number of increments reaches ten
+   * times the maximum size, so that the history adapts to changing access patterns. Only accessed while holding the
+   * eviction lock.
+   */
+  private static final class FrequencySketch {
+    private static final long[] SEED = { 0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL,
+        0xcbf29ce484222325L };
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final long ONE_MASK = 0x1111111111111111L;
+
+    private final long[] table;
+    private final int tableMask;
+    private final int sampleSize;
+    private int size;
+
+    FrequencySketch(int maximumSize) {
+      int capacity = 1;
+      while (capacity < maximumSize && capacity < (1 << 30)) {
+        capacity <<= 1;
+      }
+      this.table = new long[capacity];
+      this.tableMask = capacity - 1;
+      this.sampleSize = maximumSize > Integer.MAX_VALUE / 10 ? Integer.MAX_VALUE : 10 * maximumSize;
+    }
+
+    int frequency(Object key) {
+      int hash = spread(key.hashCode());
+      int start = (hash & 3) << 2;
+      int frequency = Integer.MAX_VALUE;
+      for (int i = 0; i < 4; i++) {
+        int index = indexOf(hash, i);
+        int count = (int) ((table[index] >>> ((start + i) << 2)) & 0xfL);
+        frequency = Math.min(frequency, count);
+      }
+      return frequency;
+    }
+
+    void increment(Object key) {
+      int hash = spread(key.hashCode());
+      int start = (hash & 3) << 2;
+      boolean added = false;
+      for (int i = 0; i < 4; i++) {
+        added |= incrementAt(indexOf(hash, i), start + i);
+      }
+      if (added && ++size == sampleSize) {
+        reset();
+      }
+    }
+
+    private boolean incrementAt(int index, int counter) {
+      int offset = counter << 2;
+      long mask = 0xfL << offset;
+      if ((table[index] & mask) != mask) {
+        table[index] += 1L << offset;
+        return true;
+      }
+      return false;
+    }
+
+    private void reset() {
+      int odd = 0;
+      for (int i = 0; i < table.length; i++) {
+        odd += Long.bitCount(table[i] & ONE_MASK);
+        table[i] = (table[i] >>> 1) & RESET_MASK;
+      }
+      size = (size >>> 1) - (odd >>> 2);
+    }
+
+    private int indexOf(int hash, int i) {
+      long h = (hash + SEED[i]) * SEED[i];
+      h += h >>> 32;
+      return (int) h & tableMask;
+    }
+
+    private static int spread(int x) {
+      x = ((x >>> 16) ^ x) * 0x45d9f3b;
+      x = ((x >>> 16) ^ x) * 0x45d9f3b;
+      return (x >>> 16) ^ x;
+    }
+  }
+
+}
@@ -1,5 +1,5 @@
 /*
- *    Copyright 2009-2024 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -15,12 +15,14 @@
  */
 package org.apache.ibatis.cache.decorators;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 
 import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.CacheStats;
 import org.apache.ibatis.logging.Log;
 import org.apache.ibatis.logging.LogFactory;
 
@@ -85,6 +87,34 @@ public class TransactionalCache implements Cache {
     return null;
   }
 
+  @Override
+  public void putAll(Map<?, ?> entries) {
+    entriesToAddOnCommit.putAll(entries);
+  }
+
+  @Override
+  public Map<Object, Object> getAll(Collection<?> keys) {
+    Map<Object, Object> values = delegate.getAll(keys);
+    if (values.size() < keys.size()) {
+      for (Object key : keys) {
+        if (!values.containsKey(key)) {
+          entriesMissedInCache.add(key);
+        }
+      }
+    }
+    return clearOnCommit ? new HashMap<>() : values;
+  }
+
+  @Override
+  public void removeAll(Collection<?> keys) {
+    // like removeObject, entries are only removed from the delegate on rollback
+  }
+
+  @Override
+  public CacheStats getStats() {
+    return delegate.getStats();
+  }
+
   @Override
   public void clear() {
     clearOnCommit = true;
@@ -100,6 +130,10 @@ public class TransactionalCache implements Cache {
   }
 
   public void rollback() {
+    CacheStats stats = delegate.getStats();
+    if (stats != null && !entriesToAddOnCommit.isEmpty()) {
+      stats.recordRollbackDiscards(entriesToAddOnCommit.size());
+    }
     unlockMissedEntries();
     reset();
   }
@@ -111,14 +145,17 @@ public class TransactionalCache implements Cache {
   }
 
   private void flushPendingEntries() {
-    for (Map.Entry<Object, Object> entry : entriesToAddOnCommit.entrySet()) {
-      delegate.putObject(entry.getKey(), entry.getValue());
+    if (entriesToAddOnCommit.isEmpty() && entriesMissedInCache.isEmpty()) {
+      return;
     }
+    // a single batch, so that the decorators lock and evict once per commit
+    Map<Object, Object> entries = new HashMap<>(entriesToAddOnCommit);
     for (Object entry : entriesMissedInCache) {
-      if (!entriesToAddOnCommit.containsKey(entry)) {
-        delegate.putObject(entry, null);
+      if (!entries.containsKey(entry)) {
+        entries.put(entry, null);
       }
     }
+    delegate.putAll(entries);
   }
 
   private void unlockMissedEntries() {
@@ -1,5 +1,5 @@
 /*
- *    Copyright 2009-2024 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -17,11 +17,19 @@ package org.apache.ibatis.cache.decorators;
 
 import java.lang.ref.ReferenceQueue;
 import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.locks.ReentrantLock;
 
 import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.CacheStats;
+import org.apache.ibatis.cache.CacheStats.EvictionCause;
 
 /**
  * Weak Reference cache decorator.
@@ -35,6 +43,7 @@ public class WeakCache implements Cache {
   private final ReferenceQueue<Object> queueOfGarbageCollectedEntries;
   private final Cache delegate;
   private int numberOfHardLinks;
+  private CacheStats stats;
   private final ReentrantLock lock = new ReentrantLock();
 
   public WeakCache(Cache delegate) {
@@ -59,6 +68,10 @@ public class WeakCache implements Cache {
     this.numberOfHardLinks = size;
   }
 
+  public void setStats(CacheStats stats) {
+    this.stats = stats;
+  }
+
   @Override
   public void putObject(Object key, Object value) {
     removeGarbageCollectedItems();
@@ -74,6 +87,9 @@ public class WeakCache implements Cache {
       result = weakReference.get();
       if (result == null) {
         delegate.removeObject(key);
+        if (stats != null) {
+          stats.recordEviction(EvictionCause.COLLECTED);
+        }
       } else {
         lock.lock();
         try {
@@ -97,6 +113,55 @@ public class WeakCache implements Cache {
     return weakReference == null ? null : weakReference.get();
   }
 
+  @Override
+  public void putAll(Map<?, ?> entries) {
+    removeGarbageCollectedItems();
+    Map<Object, Object> references = new LinkedHashMap<>(entries.size() * 4 / 3 + 1);
+    for (Map.Entry<?, ?> entry : entries.entrySet()) {
+      references.put(entry.getKey(), new WeakEntry(entry.getKey(), entry.getValue(), queueOfGarbageCollectedEntries));
+    }
+    delegate.putAll(references);
+  }
+
+  @Override
+  public Map<Object, Object> getAll(Collection<?> keys) {
+    Map<Object, Object> values = delegate.getAll(keys);
+    List<Object> collectedKeys = new ArrayList<>();
+    lock.lock();
+    try {
+      Iterator<Map.Entry<Object, Object>> iterator = values.entrySet().iterator();
+      while (iterator.hasNext()) {
+        Map.Entry<Object, Object> entry = iterator.next();
+        Object result = ((WeakReference<?>) entry.getValue()).get();
+        if (result == null) {
+          collectedKeys.add(entry.getKey());
+          iterator.remove();
+        } else {
+          entry.setValue(result);
+          hardLinksToAvoidGarbageCollection.addFirst(result);
+          if (hardLinksToAvoidGarbageCollection.size() > numberOfHardLinks) {
+            hardLinksToAvoidGarbageCollection.removeLast();
+          }
+        }
+      }
+    } finally {
+      lock.unlock();
+    }
+    if (!collectedKeys.isEmpty()) {
+      delegate.removeAll(collectedKeys);
+      if (stats != null) {
+        stats.recordEvictions(EvictionCause.COLLECTED, collectedKeys.size());
+      }
+    }
+    return values;
+  }
+
+  @Override
+  public void removeAll(Collection<?> keys) {
+    removeGarbageCollectedItems();
+    delegate.removeAll(keys);
+  }
+
   @Override
   public void clear() {
     lock.lock();
@@ -112,7 +177,9 @@ public class WeakCache implements Cache {
   private void removeGarbageCollectedItems() {
     WeakEntry sv;
     while ((sv = (WeakEntry) queueOfGarbageCollectedEntries.poll()) != null) {
-      delegate.removeObject(sv.key);
+      if (delegate.removeObject(sv.key) != null && stats != null) {
+        stats.recordEviction(EvictionCause.COLLECTED);
+      }
     }
   }
 
@@ -0,0 +1,334 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache.decorators;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.CacheMemoryBudget;
+import org.apache.ibatis.cache.CacheStats;
+import org.apache.ibatis.cache.CacheStats.EvictionCause;
+import org.apache.ibatis.cache.CacheWeigher;
+import org.apache.ibatis.cache.impl.DefaultCacheWeigher;
+
+/**
+ * Memory budgeted cache decorator.
+ * <p>
+ * Every value is weighed with a {@link CacheWeigher} when it is put in the cache, and the least recently used entries
+ * are removed until the total weight fits in {@link #setMaxBytes(long) maxBytes}. The decorator can also be registered
+ * with a {@link CacheMemoryBudget} shared by several namespaces, in which case the budget may ask it to give up its
+ * eldest entries when other caches need room.
+ * <p>
+ * This decorator must be placed below the eviction decorator, right over the base cache, so that every removal is
+ * accounted for. Entries it evicts itself are reported to its {@link #setOwner(Cache) owner}, the outermost decorator
+ * of that section, so that the decorators in between stop tracking them.
+ * <p>
+ * Reads do not take the lock: they are recorded in a lossy buffer and replayed against the recency order by the next
+ * thread that holds it.
+ *
+ * @since 3.6.0
+ */
+public class WeightedCache implements Cache {
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Cache delegate;
+  private CacheStats stats;
+  private final Map<Object, Long> weights = new LinkedHashMap<>(16, .75F, true);
+  private final ReadBuffer<Object> readBuffer = new ReadBuffer<>();
+  private final Consumer<Object> touch = weights::get;
+  private final ConcurrentLinkedQueue<Object> evictedKeys = new ConcurrentLinkedQueue<>();
+  private Cache owner;
+  private CacheWeigher weigher = new DefaultCacheWeigher();
+  private CacheMemoryBudget budget;
+  private long maxBytes = Long.MAX_VALUE;
+  private long weightedSize;
+
+  public WeightedCache(Cache delegate) {
+    this.delegate = delegate;
+  }
+
+  @Override
+  public String getId() {
+    return delegate.getId();
+  }
+
+  @Override
+  public int getSize() {
+    return delegate.getSize();
+  }
+
+  public void setMaxBytes(long maxBytes) {
+    this.maxBytes = maxBytes;
+  }
+
+  public void setStats(CacheStats stats) {
+    this.stats = stats;
+  }
+
+  public long getMaxBytes() {
+    return maxBytes;
+  }
+
+  public void setWeigher(CacheWeigher weigher) {
+    this.weigher = weigher;
+  }
+
+  /**
+   * Sets the decorator that is told about the entries this cache evicts, through {@link Cache#removeAll(Collection)}.
+   *
+   * @param owner
+   *          the outermost decorator that wraps this cache and keeps track of keys
+   */
+  public void setOwner(Cache owner) {
+    this.owner = owner;
+  }
+
+  public void setBudget(CacheMemoryBudget budget) {
+    this.budget = budget;
+    budget.register(this);
+  }
+
+  /**
+   * @return The estimated number of bytes retained by the entries of this cache
+   */
+  public long getWeightedSize() {
+    lock.lock();
+    try {
+      return weightedSize;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void putObject(Object key, Object value) {
+    long weight = Math.max(0, weigher.weigh(key, value));
+    lock.lock();
+    try {
+      readBuffer.drain(touch);
+      delegate.putObject(key, value);
+      Long previous = weights.put(key, weight);
+      adjust(previous == null ? weight : weight - previous);
+      while (weightedSize > maxBytes && !weights.isEmpty()) {
+        evictEldest();
+      }
+    } finally {
+      lock.unlock();
+    }
+    if (budget != null) {
+      budget.reclaim();
+    }
+    notifyOwner();
+  }
+
+  @Override
+  public Object getObject(Object key) {
+    notifyOwner();
+    afterRead(key);
+    return delegate.getObject(key);
+  }
+
+  @Override
+  public Object removeObject(Object key) {
+    lock.lock();
+    try {
+      Long weight = weights.remove(key);
+      if (weight != null) {
+        adjust(-weight);
+      }
+      return delegate.removeObject(key);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void putAll(Map<?, ?> entries) {
+    long[] entryWeights = new long[entries.size()];
+    int i = 0;
+    for (Map.Entry<?, ?> entry : entries.entrySet()) {
+      entryWeights[i++] = Math.max(0, weigher.weigh(entry.getKey(), entry.getValue()));
+    }
+    lock.lock();
+    try {
+      readBuffer.drain(touch);
+      delegate.putAll(entries);
+      i = 0;
+      long delta = 0;
+      for (Object key : entries.keySet()) {
+        Long previous = weights.put(key, entryWeights[i]);
+        delta += previous == null ? entryWeights[i] : entryWeights[i] - previous;
+        i++;
+      }
+      adjust(delta);
+      // a single eviction pass for the whole batch
+      List<Object> batchEvictedKeys = new ArrayList<>();
+      Iterator<Map.Entry<Object, Long>> iterator = weights.entrySet().iterator();
+      delta = 0;
+      while (weightedSize + delta > maxBytes && iterator.hasNext()) {
+        Map.Entry<Object, Long> eldest = iterator.next();
+        iterator.remove();
+        batchEvictedKeys.add(eldest.getKey());
+        delta -= eldest.getValue();
+      }
+      if (!batchEvictedKeys.isEmpty()) {
+        delegate.removeAll(batchEvictedKeys);
+        adjust(delta);
+        evictedKeys.addAll(batchEvictedKeys);
+        if (stats != null) {
+          stats.recordEvictions(EvictionCause.WEIGHT, batchEvictedKeys.size());
+        }
+      }
+    } finally {
+      lock.unlock();
+    }
+    if (budget != null) {
+      budget.reclaim();
+    }
+    notifyOwner();
+  }
+
+  @Override
+  public Map<Object, Object> getAll(Collection<?> keys) {
+    notifyOwner();
+    for (Object key : keys) {
+      afterRead(key);
+    }
+    return delegate.getAll(keys);
+  }
+
+  @Override
+  public void removeAll(Collection<?> keys) {
+    lock.lock();
+    try {
+      long delta = 0;
+      for (Object key : keys) {
+        Long weight = weights.remove(key);
+        if (weight != null) {
+          delta -= weight;
+        }
+      }
+      adjust(delta);
+      delegate.removeAll(keys);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void clear() {
+    lock.lock();
+    try {
+      readBuffer.drain(null);
+      evictedKeys.clear();
+      delegate.clear();
+      weights.clear();
+      adjust(-weightedSize);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Removes the least recently used entry of this cache. The owner is told on the next access of this cache, so that a
+   * {@link CacheMemoryBudget} can call this method from any thread.
+   *
+   * @return {@code true} if an entry was removed, {@code false} if the cache was empty
+   */
+  public boolean evictEldest() {
+    lock.lock();
+    try {
+      readBuffer.drain(touch);
+      Iterator<Map.Entry<Object, Long>> iterator = weights.entrySet().iterator();
+      if (!iterator.hasNext()) {
+        return false;
+      }
+      Map.Entry<Object, Long> eldest = iterator.next();
+      iterator.remove();
+      delegate.removeObject(eldest.getKey());
+      adjust(-eldest.getValue());
+      evictedKeys.add(eldest.getKey());
+      if (stats != null) {
+        stats.recordEviction(EvictionCause.WEIGHT);
+      }
+      return true;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public boolean isThreadSafe() {
+    return delegate.isThreadSafe();
+  }
+
+  @Override
+  public int hashCode() {
+    return delegate.hashCode();
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    return delegate.equals(obj);
+  }
+
+  private void afterRead(Object key) {
+    if (readBuffer.offer(key) && lock.tryLock()) {
+      try {
+        readBuffer.drain(touch);
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+
+  private void notifyOwner() {
+    if (evictedKeys.isEmpty()) {
+      return;
+    }
+    List<Object> keys = new ArrayList<>();
+    lock.lock();
+    try {
+      for (Object key = evictedKeys.poll(); key != null; key = evictedKeys.poll()) {
+        // skip keys that were put again since they were evicted
+        if (!weights.containsKey(key)) {
+          keys.add(key);
+        }
+      }
+    } finally {
+      lock.unlock();
+    }
+    if (owner != null && !keys.isEmpty()) {
+      owner.removeAll(keys);
+    }
+  }
+
+  private void adjust(long delta) {
+    weightedSize += delta;
+    if (budget != null) {
+      budget.add(delta);
+    }
+  }
+
+}
@@ -0,0 +1,656 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache.impl;
+
+import java.io.ObjectInputFilter;
+import java.io.Serializable;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.ibatis.cache.CacheException;
+import org.apache.ibatis.cache.CacheSerializer;
+import org.apache.ibatis.executor.loader.WriteReplaceInterface;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.io.SerialFilterChecker;
+import org.apache.ibatis.reflection.DefaultReflectorFactory;
+import org.apache.ibatis.reflection.Reflector;
+import org.apache.ibatis.reflection.ReflectorFactory;
+import org.apache.ibatis.reflection.invoker.Invoker;
+
+/**
+ * Compact {@link CacheSerializer} for mapped result objects.
+ * <p>
+ * Result objects are written as the values of their properties, in an order given by the {@link Reflector} metadata of
+ * their class, and are read back through their default constructor and setters. A class name is written only the first
+ * time the class appears in a value, and shared references are written only once. Strings, boxed primitives, dates,
+ * enums, collections, maps and arrays have dedicated encodings. Any other value, including lazy loading proxies, falls
+ * back to standard Java serialization.
+ * <p>
+ * Like with Java serialization, result objects, collections and maps must be serializable. Every class read from a
+ * serialized value is loaded without being initialized and checked against the JEP-290 serial filter of the JVM, when
+ * one is defined, before it is instantiated.
+ *
+ * @since 3.6.0
+ */
+public class CompactCacheSerializer implements CacheSerializer {
+
+  private static final byte NULL = 0;
+  private static final byte REFERENCE = 1;
+  private static final byte STRING = 2;
+  private static final byte INTEGER = 3;
+  private static final byte LONG = 4;
+  private static final byte DOUBLE = 5;
+  private static final byte FLOAT = 6;
+  private static final byte SHORT = 7;
+  private static final byte BYTE = 8;
+  private static final byte BOOLEAN = 9;
+  private static final byte CHARACTER = 10;
+  private static final byte BIG_DECIMAL = 11;
+  private static final byte BIG_INTEGER = 12;
+  private static final byte DATE = 13;
+  private static final byte BYTES = 14;
+  private static final byte ENUM = 15;
+  private static final byte COLLECTION = 16;
+  private static final byte MAP = 17;
+  private static final byte BEAN = 18;
+  private static final byte ARRAY = 19;
+  private static final byte LOCAL_DATE = 20;
+  private static final byte LOCAL_DATE_TIME = 21;
+  private static final byte LOCAL_TIME = 22;
+  private static final byte INSTANT = 23;
+  private static final byte SERIALIZED = 24;
+
+  private static final int MAX_RETAINED_BUFFER_SIZE = 1 << 20;
+  private static final BeanCodec NO_CODEC = new BeanCodec(null, null, null);
+
+  private final ReflectorFactory reflectorFactory = new DefaultReflectorFactory();
+  private final JdkCacheSerializer fallback = new JdkCacheSerializer();
+  private final Map<Class<?>, BeanCodec> codecs = new ConcurrentHashMap<>();
+  private final Map<String, Class<?>> resolvedClasses = new ConcurrentHashMap<>();
+  private final ThreadLocal<Output> outputs = ThreadLocal.withInitial(Output::new);
+
+  @Override
+  public byte[] serialize(Object value) {
+    Output out = outputs.get();
+    try {
+      write(out, value);
+      return out.toByteArray();
+    } catch (CacheException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new CacheException("Error serializing object.  Cause: " + e, e);
+    } finally {
+      out.reset();
+    }
+  }
+
+  @Override
+  public Object deserialize(byte[] bytes) {
+    SerialFilterChecker.check();
+    try {
+      return read(new Input(bytes));
+    } catch (CacheException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new CacheException("Error deserializing object.  Cause: " + e, e);
+    }
+  }
+
+  private void write(Output out, Object value) throws Exception {
+    if (value == null) {
+      out.writeByte(NULL);
+      return;
+    }
+    Class<?> type = value.getClass();
+    if (writeImmutable(out, value, type)) {
+      return;
+    }
+    Integer handle = out.handles.get(value);
+    if (handle != null) {
+      out.writeByte(REFERENCE);
+      out.writeVarInt(handle);
+      return;
+    }
+    out.handles.put(value, out.handles.size());
+    if (value instanceof WriteReplaceInterface) {
+      writeSerialized(out, value);
+    } else if (value instanceof Collection) {
+      Collection<?> collection = (Collection<?>) value;
+      out.writeByte(COLLECTION);
+      writeClass(out, instantiableOr(type, value instanceof Set ? LinkedHashSet.class : ArrayList.class));
+      out.writeVarInt(collection.size());
+      for (Object element : collection) {
+        write(out, element);
+      }
+    } else if (value instanceof Map) {
+      Map<?, ?> map = (Map<?, ?>) value;
+      out.writeByte(MAP);
+      writeClass(out, instantiableOr(type, LinkedHashMap.class));
+      out.writeVarInt(map.size());
+      for (Map.Entry<?, ?> entry : map.entrySet()) {
+        write(out, entry.getKey());
+        write(out, entry.getValue());
+      }
+    } else if (type.isArray() && !type.getComponentType().isPrimitive()) {
+      Object[] array = (Object[]) value;
+      out.writeByte(ARRAY);
+      writeClass(out, type.getComponentType());
+      out.writeVarInt(array.length);
+      for (Object element : array) {
+        write(out, element);
+      }
+    } else {
+      BeanCodec codec = codecFor(type);
+      if (codec == NO_CODEC) {
+        writeSerialized(out, value);
+        return;
+      }
+      out.writeByte(BEAN);
+      writeClass(out, type);
+      for (Invoker getter : codec.getters) {
+        write(out, getter.invoke(value, null));
+      }
+    }
+  }
+
+  private boolean writeImmutable(Output out, Object value, Class<?> type) {
+    if (type == String.class) {
+      out.writeByte(STRING);
+      out.writeString((String) value);
+    } else if (type == Integer.class) {
+      out.writeByte(INTEGER);
+      out.writeVarLong((Integer) value);
+    } else if (type == Long.class) {
+      out.writeByte(LONG);
+      out.writeVarLong((Long) value);
+    } else if (type == Double.class) {
+      out.writeByte(DOUBLE);
+      out.writeLong(Double.doubleToRawLongBits((Double) value));
+    } else if (type == Float.class) {
+      out.writeByte(FLOAT);
+      out.writeVarInt(Float.floatToRawIntBits((Float) value));
+    } else if (type == Short.class) {
+      out.writeByte(SHORT);
+      out.writeVarLong((Short) value);
+    } else if (type == Byte.class) {
+      out.writeByte(BYTE);
+      out.writeByte((Byte) value);
+    } else if (type == Boolean.class) {
+      out.writeByte(BOOLEAN);
+      out.writeByte((Boolean) value ? 1 : 0);
+    } else if (type == Character.class) {
+      out.writeByte(CHARACTER);
+      out.writeVarInt((Character) value);
+    } else if (type == BigDecimal.class) {
+      out.writeByte(BIG_DECIMAL);
+      out.writeVarLong(((BigDecimal) value).scale());
+      out.writeBytes(((BigDecimal) value).unscaledValue().toByteArray());
+    } else if (type == BigInteger.class) {
+      out.writeByte(BIG_INTEGER);
+      out.writeBytes(((BigInteger) value).toByteArray());
+    } else if (type == byte[].class) {
+      out.writeByte(BYTES);
+      out.writeBytes((byte[]) value);
+    } else if (type == Date.class || type == java.sql.Date.class || type == Time.class || type == Timestamp.class) {
+      out.writeByte(DATE);
+      writeClass(out, type);
+      out.writeVarLong(((Date) value).getTime());
+      if (type == Timestamp.class) {
+        out.writeVarInt(((Timestamp) value).getNanos());
+      }
+    } else if (type == LocalDate.class) {
+      out.writeByte(LOCAL_DATE);
+      out.writeVarLong(((LocalDate) value).toEpochDay());
+    } else if (type == LocalDateTime.class) {
+      out.writeByte(LOCAL_DATE_TIME);
+      out.writeVarLong(((LocalDateTime) value).toLocalDate().toEpochDay());
+      out.writeVarLong(((LocalDateTime) value).toLocalTime().toNanoOfDay());
+    } else if (type == LocalTime.class) {
+      out.writeByte(LOCAL_TIME);
+      out.writeVarLong(((LocalTime) value).toNanoOfDay());
+    } else if (type == Instant.class) {
+      out.writeByte(INSTANT);
+      out.writeVarLong(((Instant) value).getEpochSecond());
+      out.writeVarInt(((Instant) value).getNano());
+    } else if (value instanceof Enum) {
+      out.writeByte(ENUM);
+      writeClass(out, ((Enum<?>) value).getDeclaringClass());
+      out.writeString(((Enum<?>) value).name());
+    } else {
+      return false;
+    }
+    return true;
+  }
+
+  private void writeSerialized(Output out, Object value) {
+    out.writeByte(SERIALIZED);
+    out.writeBytes(fallback.serialize(value));
+  }
+
+  private void writeClass(Output out, Class<?> type) {
+    Integer id = out.classes.get(type);
+    if (id != null) {
+      out.writeVarInt(id + 1);
+    } else {
+      out.writeVarInt(0);
+      out.writeString(type.getName());
+      out.classes.put(type, out.classes.size());
+    }
+  }
+
+  @SuppressWarnings({ "unchecked", "rawtypes" })
+  private Object read(Input in) throws Exception {
+    byte tag = in.readByte();
+    switch (tag) {
+      case NULL:
+        return null;
+      case REFERENCE:
+        return in.handles.get(in.readVarInt());
+      case STRING:
+        return in.readString();
+      case INTEGER:
+        return (int) in.readVarLong();
+      case LONG:
+        return in.readVarLong();
+      case DOUBLE:
+        return Double.longBitsToDouble(in.readLong());
+      case FLOAT:
+        return Float.intBitsToFloat(in.readVarInt());
+      case SHORT:
+        return (short) in.readVarLong();
+      case BYTE:
+        return in.readByte();
+      case BOOLEAN:
+        return in.readByte() != 0;
+      case CHARACTER:
+        return (char) in.readVarInt();
+      case BIG_DECIMAL: {
+        int scale = (int) in.readVarLong();
+        return new BigDecimal(new BigInteger(in.readBytes()), scale);
+      }
+      case BIG_INTEGER:
+        return new BigInteger(in.readBytes());
+      case BYTES:
+        return in.readBytes();
+      case DATE:
+        return readDate(in, readClass(in));
+      case LOCAL_DATE:
+        return LocalDate.ofEpochDay(in.readVarLong());
+      case LOCAL_DATE_TIME: {
+        LocalDate date = LocalDate.ofEpochDay(in.readVarLong());
+        return LocalDateTime.of(date, LocalTime.ofNanoOfDay(in.readVarLong()));
+      }
+      case LOCAL_TIME:
+        return LocalTime.ofNanoOfDay(in.readVarLong());
+      case INSTANT: {
+        long seconds = in.readVarLong();
+        return Instant.ofEpochSecond(seconds, in.readVarInt());
+      }
+      case ENUM: {
+        Class enumType = readClass(in);
+        return Enum.valueOf(enumType, in.readString());
+      }
+      case COLLECTION: {
+        Collection<Object> collection = (Collection<Object>) newInstance(readSerializableClass(in));
+        in.handles.add(collection);
+        int size = in.readVarInt();
+        for (int i = 0; i < size; i++) {
+          collection.add(read(in));
+        }
+        return collection;
+      }
+      case MAP: {
+        Map<Object, Object> map = (Map<Object, Object>) newInstance(readSerializableClass(in));
+        in.handles.add(map);
+        int size = in.readVarInt();
+        for (int i = 0; i < size; i++) {
+          Object key = read(in);
+          map.put(key, read(in));
+        }
+        return map;
+      }
+      case ARRAY: {
+        Class<?> componentType = readClass(in);
+        Object[] array = (Object[]) Array.newInstance(componentType, in.readVarInt());
+        in.handles.add(array);
+        for (int i = 0; i < array.length; i++) {
+          array[i] = read(in);
+        }
+        return array;
+      }
+      case BEAN: {
+        Class<?> type = readSerializableClass(in);
+        BeanCodec codec = codecFor(type);
+        if (codec == NO_CODEC) {
+          throw new CacheException("Cannot instantiate cached object of type " + type.getName());
+        }
+        Object bean = codec.constructor.newInstance();
+        in.handles.add(bean);
+        Object[] args = new Object[1];
+        for (Invoker setter : codec.setters) {
+          args[0] = read(in);
+          setter.invoke(bean, args);
+        }
+        return bean;
+      }
+      case SERIALIZED: {
+        Object value = fallback.deserialize(in.readBytes());
+        in.handles.add(value);
+        return value;
+      }
+      default:
+        throw new CacheException("Unknown type tag " + tag + " in serialized cache value");
+    }
+  }
+
+  private Date readDate(Input in, Class<?> type) {
+    long time = in.readVarLong();
+    if (type == Timestamp.class) {
+      Timestamp timestamp = new Timestamp(time);
+      timestamp.setNanos(in.readVarInt());
+      return timestamp;
+    }
+    if (type == java.sql.Date.class) {
+      return new java.sql.Date(time);
+    }
+    if (type == Time.class) {
+      return new Time(time);
+    }
+    return new Date(time);
+  }
+
+  private Class<?> readClass(Input in) throws ClassNotFoundException {
+    int id = in.readVarInt();
+    if (id > 0) {
+      return in.classes.get(id - 1);
+    }
+    String name = in.readString();
+    Class<?> type = resolvedClasses.get(name);
+    if (type == null) {
+      // not initialized, so that no static initializer of a rejected class runs
+      type = loadClass(name);
+      checkSerialFilter(type);
+      resolvedClasses.put(name, type);
+    }
+    in.classes.add(type);
+    return type;
+  }
+
+  private Class<?> readSerializableClass(Input in) throws ClassNotFoundException {
+    Class<?> type = readClass(in);
+    if (!Serializable.class.isAssignableFrom(type)) {
+      throw new CacheException("Cannot instantiate cached object of non serializable type " + type.getName());
+    }
+    return type;
+  }
+
+  private static Class<?> loadClass(String name) throws ClassNotFoundException {
+    ClassLoader[] classLoaders = { Resources.getDefaultClassLoader(), Thread.currentThread().getContextClassLoader(),
+        CompactCacheSerializer.class.getClassLoader() };
+    for (ClassLoader classLoader : classLoaders) {
+      if (classLoader != null) {
+        try {
+          return Class.forName(name, false, classLoader);
+        } catch (ClassNotFoundException e) {
+          // try the next class loader
+        }
+      }
+    }
+    throw new ClassNotFoundException("Cannot find class: " + name);
+  }
+
+  private Object newInstance(Class<?> type) throws Exception {
+    return reflectorFactory.findForClass(type).getDefaultConstructor().newInstance();
+  }
+
+  private Class<?> instantiableOr(Class<?> type, Class<?> defaultType) {
+    if (Modifier.isPublic(type.getModifiers()) && Serializable.class.isAssignableFrom(type)
+        && reflectorFactory.findForClass(type).hasDefaultConstructor()) {
+      return type;
+    }
+    return defaultType;
+  }
+
+  private BeanCodec codecFor(Class<?> type) {
+    return codecs.computeIfAbsent(type, this::createCodec);
+  }
+
+  private BeanCodec createCodec(Class<?> type) {
+    if (type.isArray() || type.isInterface() || Modifier.isAbstract(type.getModifiers())
+        || type.getName().startsWith("java.") || !Serializable.class.isAssignableFrom(type)) {
+      return NO_CODEC;
+    }
+    Reflector reflector = reflectorFactory.findForClass(type);
+    if (!reflector.hasDefaultConstructor()) {
+      return NO_CODEC;
+    }
+    String[] properties = Arrays.stream(reflector.getGetablePropertyNames()).filter(reflector::hasSetter).sorted()
+        .toArray(String[]::new);
+    Invoker[] getters = new Invoker[properties.length];
+    Invoker[] setters = new Invoker[properties.length];
+    for (int i = 0; i < properties.length; i++) {
+      getters[i] = reflector.getGetInvoker(properties[i]);
+      setters[i] = reflector.getSetInvoker(properties[i]);
+    }
+    return new BeanCodec(reflector.getDefaultConstructor(), getters, setters);
+  }
+
+  private static void checkSerialFilter(Class<?> type) {
+    ObjectInputFilter filter = ObjectInputFilter.Config.getSerialFilter();
+    if (filter != null && filter.checkInput(new ClassFilterInfo(type)) == ObjectInputFilter.Status.REJECTED) {
+      throw new CacheException("Class " + type.getName() + " was rejected by the serial filter");
+    }
+  }
+
+  private static class BeanCodec {
+    private final Constructor<?> constructor;
+    private final Invoker[] getters;
+    private final Invoker[] setters;
+
+    BeanCodec(Constructor<?> constructor, Invoker[] getters, Invoker[] setters) {
+      this.constructor = constructor;
+      this.getters = getters;
+      this.setters = setters;
+    }
+  }
+
+  private static class ClassFilterInfo implements ObjectInputFilter.FilterInfo {
+    private final Class<?> type;
+
+    ClassFilterInfo(Class<?> type) {
+      this.type = type;
+    }
+
+    @Override
+    public Class<?> serialClass() {
+      return type;
+    }
+
+    @Override
+    public long arrayLength() {
+      return -1;
+    }
+
+    @Override
+    public long depth() {
+      return 1;
+    }
+
+    @Override
+    public long references() {
+      return 0;
+    }
+
+    @Override
+    public long streamBytes() {
+      return 0;
+    }
+  }
+
+  /**
+   * Growable buffer reused by the serializing thread.
+   */
+  private static class Output {
+    private final Map<Object, Integer> handles = new IdentityHashMap<>();
+    private final Map<Class<?>, Integer> classes = new HashMap<>();
+    private byte[] buffer = new byte[256];
+    private int position;
+
+    void writeByte(int value) {
+      ensureCapacity(1);
+      buffer[position++] = (byte) value;
+    }
+
+    void writeVarInt(int value) {
+      ensureCapacity(5);
+      while ((value & ~0x7F) != 0) {
+        buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+        value >>>= 7;
+      }
+      buffer[position++] = (byte) value;
+    }
+
+    void writeVarLong(long value) {
+      // zig-zag encoding keeps small negative numbers short
+      long zigZag = (value << 1) ^ (value >> 63);
+      ensureCapacity(10);
+      while ((zigZag & ~0x7FL) != 0) {
+        buffer[position++] = (byte) ((zigZag & 0x7F) | 0x80);
+        zigZag >>>= 7;
+      }
+      buffer[position++] = (byte) zigZag;
+    }
+
+    void writeLong(long value) {
+      ensureCapacity(8);
+      for (int shift = 56; shift >= 0; shift -= 8) {
+        buffer[position++] = (byte) (value >>> shift);
+      }
+    }
+
+    void writeBytes(byte[] bytes) {
+      writeVarInt(bytes.length);
+      ensureCapacity(bytes.length);
+      System.arraycopy(bytes, 0, buffer, position, bytes.length);
+      position += bytes.length;
+    }
+
+    void writeString(String value) {
+      writeBytes(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    byte[] toByteArray() {
+      return Arrays.copyOf(buffer, position);
+    }
+
+    void reset() {
+      position = 0;
+      handles.clear();
+      classes.clear();
+      if (buffer.length > MAX_RETAINED_BUFFER_SIZE) {
+        buffer = new byte[256];
+      }
+    }
+
+    private void ensureCapacity(int length) {
+      if (position + length > buffer.length) {
+        buffer = Arrays.copyOf(buffer, Math.max(buffer.length << 1, position + length));
+      }
+    }
+  }
+
+  private static class Input {
+    private final List<Object> handles = new ArrayList<>();
+    private final List<Class<?>> classes = new ArrayList<>();
+    private final byte[] buffer;
+    private int position;
+
+    Input(byte[] buffer) {
+      this.buffer = buffer;
+    }
+
+    byte readByte() {
+      return buffer[position++];
+    }
+
+    int readVarInt() {
+      int value = 0;
+      for (int shift = 0;; shift += 7) {
+        byte b = buffer[position++];
+        value |= (b & 0x7F) << shift;
+        if (b >= 0) {
+          return value;
+        }
+      }
+    }
+
+    long readVarLong() {
+      long zigZag = 0;
+      for (int shift = 0;; shift += 7) {
+        byte b = buffer[position++];
+        zigZag |= (long) (b & 0x7F) << shift;
+        if (b >= 0) {
+          return (zigZag >>> 1) ^ -(zigZag & 1);
+        }
+      }
+    }
+
+    long readLong() {
+      long value = 0;
+      for (int i = 0; i < 8; i++) {
+        value = (value << 8) | (buffer[position++] & 0xFF);
+      }
+      return value;
+    }
+
+    byte[] readBytes() {
+      int length = readVarInt();
+      byte[] bytes = Arrays.copyOfRange(buffer, position, position + length);
+      position += length;
+      return bytes;
+    }
+
+    String readString() {
+      int length = readVarInt();
+      String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+      position += length;
+      return value;
+    }
+  }
+
+}
@@ -0,0 +1,216 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache.impl;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.ibatis.cache.CacheWeigher;
+import org.apache.ibatis.reflection.Reflector;
+
+/**
+ * Default {@link CacheWeigher} that walks the cached value and estimates its shallow and retained sizes, assuming a
+ * 64-bit JVM.
+ * <p>
+ * Byte arrays (the form stored by read/write caches) and strings are weighed exactly. Large collections, maps and
+ * arrays are weighed by sampling their first elements. Result objects are weighed by reading their fields directly, so
+ * lazy loading proxies are never triggered. Classes that cannot be introspected are counted with a fixed cost.
+ *
+ * @since 3.6.0
+ */
+public class DefaultCacheWeigher implements CacheWeigher {
+
+  private static final int OBJECT_HEADER = 16;
+  private static final int ARRAY_HEADER = 16;
+  private static final int REFERENCE = 8;
+  private static final int ENTRY_OVERHEAD = 32;
+  private static final int KEY_OVERHEAD = 128;
+  private static final int SAMPLE_SIZE = 32;
+  private static final int MAX_DEPTH = 8;
+
+  private static final Map<Class<?>, List<Field>> FIELDS = new ConcurrentHashMap<>();
+
+  @Override
+  public long weigh(Object key, Object value) {
+    return KEY_OVERHEAD + weigh(value, Collections.newSetFromMap(new IdentityHashMap<>()), 0);
+  }
+
+  protected long weigh(Object object, Set<Object> visited, int depth) {
+    if (object == null) {
+      return 0;
+    }
+    if (object instanceof byte[]) {
+      return align(ARRAY_HEADER + ((byte[]) object).length);
+    }
+    if (object instanceof String) {
+      return align(OBJECT_HEADER + 8) + align(ARRAY_HEADER + 2L * ((String) object).length());
+    }
+    if (object instanceof Number || object instanceof Boolean || object instanceof Character) {
+      return weighNumber(object);
+    }
+    if (object instanceof Enum || object instanceof Class) {
+      return 0;
+    }
+    if (object instanceof Date || object instanceof java.time.temporal.TemporalAccessor) {
+      return 32;
+    }
+    if (depth > MAX_DEPTH || !visited.add(object)) {
+      return 0;
+    }
+    if (object instanceof Collection) {
+      Collection<?> collection = (Collection<?>) object;
+      return 40 + (long) collection.size() * REFERENCE
+          + weighSample(collection.iterator(), collection.size(), visited, depth + 1);
+    }
+    if (object instanceof Map) {
+      Map<?, ?> map = (Map<?, ?>) object;
+      long size = 48 + (long) map.size() * (ENTRY_OVERHEAD + REFERENCE);
+      size += weighSample(map.keySet().iterator(), map.size(), visited, depth + 1);
+      return size + weighSample(map.values().iterator(), map.size(), visited, depth + 1);
+    }
+    Class<?> type = object.getClass();
+    if (type.isArray()) {
+      int length = Array.getLength(object);
+      Class<?> componentType = type.getComponentType();
+      if (componentType.isPrimitive()) {
+        return align(ARRAY_HEADER + (long) length * primitiveSize(componentType));
+      }
+      long size = align(ARRAY_HEADER + (long) length * REFERENCE);
+      return size + weighSample(new ArrayIterator(object, length), length, visited, depth + 1);
+    }
+    return weighFields(object, visited, depth + 1);
+  }
+
+  private long weighSample(Iterator<?> iterator, int size, Set<Object> visited, int depth) {
+    long sampled = 0;
+    int count = 0;
+    while (count < SAMPLE_SIZE && iterator.hasNext()) {
+      sampled += weigh(iterator.next(), visited, depth);
+      count++;
+    }
+    return count == 0 ? 0 : sampled * size / count;
+  }
+
+  private long weighFields(Object object, Set<Object> visited, int depth) {
+    List<Field> fields = FIELDS.computeIfAbsent(object.getClass(), DefaultCacheWeigher::resolveFields);
+    long size = OBJECT_HEADER;
+    for (Field field : fields) {
+      Class<?> fieldType = field.getType();
+      if (fieldType.isPrimitive()) {
+        size += primitiveSize(fieldType);
+      } else {
+        size += REFERENCE;
+        try {
+          size += weigh(field.get(object), visited, depth);
+        } catch (IllegalAccessException e) {
+          // Ignore, the reference itself has already been counted
+        }
+      }
+    }
+    return align(size);
+  }
+
+  private static List<Field> resolveFields(Class<?> type) {
+    List<Field> fields = new ArrayList<>();
+    for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+      if (!isIntrospectable(current)) {
+        break;
+      }
+      for (Field field : current.getDeclaredFields()) {
+        if (Modifier.isStatic(field.getModifiers())) {
+          continue;
+        }
+        if (!field.getType().isPrimitive()) {
+          try {
+            field.setAccessible(true);
+          } catch (RuntimeException e) {
+            continue;
+          }
+        }
+        fields.add(field);
+      }
+    }
+    return fields;
+  }
+
+  private static boolean isIntrospectable(Class<?> type) {
+    String name = type.getName();
+    return Reflector.canControlMemberAccessible() && !name.startsWith("java.") && !name.startsWith("javax.")
+        && !name.startsWith("jdk.") && !name.startsWith("sun.") && !name.startsWith("org.apache.ibatis.");
+  }
+
+  private static long weighNumber(Object number) {
+    if (number instanceof BigDecimal || number instanceof BigInteger) {
+      return 64;
+    }
+    if (number instanceof Long || number instanceof Double) {
+      return 24;
+    }
+    return 16;
+  }
+
+  private static int primitiveSize(Class<?> type) {
+    if (type == long.class || type == double.class) {
+      return 8;
+    }
+    if (type == int.class || type == float.class) {
+      return 4;
+    }
+    if (type == short.class || type == char.class) {
+      return 2;
+    }
+    return 1;
+  }
+
+  private static long align(long size) {
+    return (size + 7) & ~7L;
+  }
+
+  private static class ArrayIterator implements Iterator<Object> {
+    private final Object array;
+    private final int length;
+    private int index;
+
+    ArrayIterator(Object array, int length) {
+      this.array = array;
+      this.length = length;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return index < length;
+    }
+
+    @Override
+    public Object next() {
+      return Array.get(array, index++);
+    }
+  }
+
+}
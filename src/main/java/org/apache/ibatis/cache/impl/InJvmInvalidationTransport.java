@@ -0,0 +1,79 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache.impl;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import org.apache.ibatis.cache.CacheInvalidationTransport;
+
+/**
+ * Delivers invalidation messages to the transports of the same channel in the same JVM, e.g. to several
+ * {@link org.apache.ibatis.session.SqlSessionFactory SqlSessionFactories} that share a database. Messages are delivered
+ * synchronously by the publishing thread.
+ *
+ * @since 3.6.0
+ */
+public class InJvmInvalidationTransport implements CacheInvalidationTransport {
+
+  private static final ConcurrentHashMap<String, Set<InJvmInvalidationTransport>> channels = new ConcurrentHashMap<>();
+
+  private final String channel;
+  private volatile Consumer<byte[]> receiver;
+
+  public InJvmInvalidationTransport() {
+    this("default");
+  }
+
+  public InJvmInvalidationTransport(String channel) {
+    this.channel = channel;
+  }
+
+  public String getChannel() {
+    return channel;
+  }
+
+  @Override
+  public void start(Consumer<byte[]> receiver) {
+    this.receiver = receiver;
+    channels.computeIfAbsent(channel, k -> ConcurrentHashMap.newKeySet()).add(this);
+  }
+
+  @Override
+  public void publish(byte[] message) {
+    Set<InJvmInvalidationTransport> members = channels.get(channel);
+    if (members == null) {
+      return;
+    }
+    for (InJvmInvalidationTransport member : members) {
+      Consumer<byte[]> memberReceiver = member.receiver;
+      if (member != this && memberReceiver != null) {
+        memberReceiver.accept(message.clone());
+      }
+    }
+  }
+
+  @Override
+  public void close() {
+    channels.computeIfPresent(channel, (k, members) -> {
+      members.remove(this);
+      return members.isEmpty() ? null : members;
+    });
+    receiver = null;
+  }
+
+}
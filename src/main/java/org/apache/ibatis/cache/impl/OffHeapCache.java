@@ -0,0 +1,345 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache.impl;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.CacheException;
+import org.apache.ibatis.cache.CacheSerializer;
+import org.apache.ibatis.cache.CacheStats;
+import org.apache.ibatis.cache.CacheStats.EvictionCause;
+
+/**
+ * Cache implementation that keeps serialized values outside of the Java heap.
+ * <p>
+ * Values are serialized with a {@link CacheSerializer} when they are put and copied into fixed size blocks carved out
+ * of direct {@link ByteBuffer} slabs, which are allocated on demand up to {@link #setCapacity(long) capacity} bytes.
+ * Only the index from keys to blocks lives on the heap. When there are no free blocks left, the least recently used
+ * entries are evicted. Every hit returns a fresh copy of the cached value, like a read/write cache.
+ * <p>
+ * As this is a base implementation, it is configured with the type attribute and properties of the cache element:
+ *
+ * <pre>
+ * &lt;cache type="org.apache.ibatis.cache.impl.OffHeapCache"&gt;
+ *   &lt;property name="capacity" value="268435456"/&gt;
+ * &lt;/cache&gt;
+ * </pre>
+ *
+ * @since 3.6.0
+ */
+public class OffHeapCache implements Cache {
+
+  private final String id;
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Map<Object, Entry> index = new LinkedHashMap<>(16, .75F, true);
+  private final List<ByteBuffer> slabs = new ArrayList<>();
+
+  private long capacity = 64L * 1024 * 1024;
+  private int slabSize = 16 * 1024 * 1024;
+  private int blockSize = 512;
+  private CacheSerializer serializer = new JdkCacheSerializer();
+  private CacheStats stats;
+
+  private int[] freeBlocks;
+  private int freeCount;
+  private int allocatedBlocks;
+
+  public OffHeapCache(String id) {
+    this.id = id;
+    reset();
+  }
+
+  @Override
+  public String getId() {
+    return id;
+  }
+
+  public long getCapacity() {
+    return capacity;
+  }
+
+  public void setCapacity(long capacity) {
+    this.capacity = capacity;
+    reset();
+  }
+
+  public int getSlabSize() {
+    return slabSize;
+  }
+
+  public void setSlabSize(int slabSize) {
+    this.slabSize = slabSize;
+    reset();
+  }
+
+  public int getBlockSize() {
+    return blockSize;
+  }
+
+  public void setBlockSize(int blockSize) {
+    this.blockSize = blockSize;
+    reset();
+  }
+
+  public void setSerializer(CacheSerializer serializer) {
+    this.serializer = serializer;
+  }
+
+  public void setStats(CacheStats stats) {
+    this.stats = stats;
+  }
+
+  /**
+   * @return The number of off-heap bytes held by the cached entries, including the unused tail of their last block
+   */
+  public long getUsedBytes() {
+    lock.lock();
+    try {
+      return (long) (allocatedBlocks - freeCount) * blockSize;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public int getSize() {
+    lock.lock();
+    try {
+      return index.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void putObject(Object key, Object value) {
+    if (value == null) {
+      removeObject(key);
+      return;
+    }
+    byte[] bytes = serializer.serialize(value);
+    lock.lock();
+    try {
+      store(key, bytes);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void putAll(Map<?, ?> entries) {
+    // serializes outside of the lock, then stores the whole batch at once
+    List<Object> keys = new ArrayList<>(entries.size());
+    List<byte[]> values = new ArrayList<>(entries.size());
+    for (Map.Entry<?, ?> entry : entries.entrySet()) {
+      keys.add(entry.getKey());
+      values.add(entry.getValue() == null ? null : serializer.serialize(entry.getValue()));
+    }
+    lock.lock();
+    try {
+      for (int i = 0; i < keys.size(); i++) {
+        if (values.get(i) == null) {
+          release(index.remove(keys.get(i)));
+        } else {
+          store(keys.get(i), values.get(i));
+        }
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void removeAll(Collection<?> keys) {
+    lock.lock();
+    try {
+      for (Object key : keys) {
+        release(index.remove(key));
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void store(Object key, byte[] bytes) {
+    int blockCount = Math.max(1, (bytes.length + blockSize - 1) / blockSize);
+    release(index.remove(key));
+    if (blockCount > getTotalBlocks()) {
+      // would never fit, do not flush the whole cache for it
+      return;
+    }
+    int[] blocks = new int[blockCount];
+    for (int i = 0; i < blockCount; i++) {
+      blocks[i] = allocateBlock();
+      write(blocks[i], bytes, i * blockSize, Math.min(blockSize, bytes.length - i * blockSize));
+    }
+    index.put(key, new Entry(blocks, bytes.length));
+  }
+
+  @Override
+  public Object getObject(Object key) {
+    byte[] bytes;
+    lock.lock();
+    try {
+      Entry entry = index.get(key);
+      if (entry == null) {
+        return null;
+      }
+      bytes = new byte[entry.length];
+      for (int i = 0; i < entry.blocks.length; i++) {
+        read(entry.blocks[i], bytes, i * blockSize, Math.min(blockSize, entry.length - i * blockSize));
+      }
+    } finally {
+      lock.unlock();
+    }
+    return serializer.deserialize(bytes);
+  }
+
+  @Override
+  public Object removeObject(Object key) {
+    lock.lock();
+    try {
+      release(index.remove(key));
+      return null;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void clear() {
+    lock.lock();
+    try {
+      index.clear();
+      freeCount = 0;
+      for (int block = 0; block < allocatedBlocks; block++) {
+        freeBlocks[freeCount++] = block;
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public boolean isThreadSafe() {
+    return true;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof Cache)) {
+      return false;
+    }
+    return id.equals(((Cache) o).getId());
+  }
+
+  @Override
+  public int hashCode() {
+    return id.hashCode();
+  }
+
+  private void reset() {
+    lock.lock();
+    try {
+      if (blockSize <= 0 || slabSize < blockSize || capacity < blockSize) {
+        throw new CacheException("Invalid off-heap cache sizing for '" + id + "': capacity=" + capacity + ", slabSize="
+            + slabSize + ", blockSize=" + blockSize);
+      }
+      index.clear();
+      slabs.clear();
+      freeBlocks = new int[getTotalBlocks()];
+      freeCount = 0;
+      allocatedBlocks = 0;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private int getTotalBlocks() {
+    return (int) Math.min(Integer.MAX_VALUE, capacity / blockSize);
+  }
+
+  private int allocateBlock() {
+    while (true) {
+      if (freeCount > 0) {
+        return freeBlocks[--freeCount];
+      }
+      if (allocatedBlocks < getTotalBlocks()) {
+        int blocksPerSlab = slabSize / blockSize;
+        if (allocatedBlocks / blocksPerSlab == slabs.size()) {
+          int remaining = getTotalBlocks() - allocatedBlocks;
+          slabs.add(ByteBuffer.allocateDirect(Math.min(blocksPerSlab, remaining) * blockSize));
+        }
+        return allocatedBlocks++;
+      }
+      Iterator<Entry> eldest = index.values().iterator();
+      Entry entry = eldest.next();
+      eldest.remove();
+      release(entry);
+      if (stats != null) {
+        stats.recordEviction(EvictionCause.SIZE);
+      }
+    }
+  }
+
+  private void release(Entry entry) {
+    if (entry != null) {
+      for (int block : entry.blocks) {
+        freeBlocks[freeCount++] = block;
+      }
+    }
+  }
+
+  private void write(int block, byte[] source, int offset, int length) {
+    ByteBuffer slab = position(block);
+    slab.put(source, offset, length);
+  }
+
+  private void read(int block, byte[] target, int offset, int length) {
+    ByteBuffer slab = position(block);
+    slab.get(target, offset, length);
+  }
+
+  private ByteBuffer position(int block) {
+    int blocksPerSlab = slabSize / blockSize;
+    ByteBuffer slab = slabs.get(block / blocksPerSlab);
+    slab.clear();
+    slab.position((block % blocksPerSlab) * blockSize);
+    return slab;
+  }
+
+  private static class Entry {
+    private final int[] blocks;
+    private final int length;
+
+    Entry(int[] blocks, int length) {
+      this.blocks = blocks;
+      this.length = length;
+    }
+  }
+
+}
@@ -1,5 +1,5 @@
 /*
- *    Copyright 2009-2024 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -15,8 +15,8 @@
  */
 package org.apache.ibatis.cache.impl;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.ibatis.cache.Cache;
 import org.apache.ibatis.cache.CacheException;
@@ -26,9 +26,11 @@ import org.apache.ibatis.cache.CacheException;
  */
 public class PerpetualCache implements Cache {
 
+  private static final Object NULL = new Object();
+
   private final String id;
 
-  private final Map<Object, Object> cache = new HashMap<>();
+  private final Map<Object, Object> cache = new ConcurrentHashMap<>();
 
   public PerpetualCache(String id) {
     this.id = id;
@@ -46,17 +48,17 @@ public class PerpetualCache implements Cache {
 
   @Override
   public void putObject(Object key, Object value) {
-    cache.put(key, value);
+    cache.put(mask(key), mask(value));
   }
 
   @Override
   public Object getObject(Object key) {
-    return cache.get(key);
+    return unmask(cache.get(mask(key)));
   }
 
   @Override
   public Object removeObject(Object key) {
-    return cache.remove(key);
+    return unmask(cache.remove(mask(key)));
   }
 
   @Override
@@ -64,6 +66,11 @@ public class PerpetualCache implements Cache {
     cache.clear();
   }
 
+  @Override
+  public boolean isThreadSafe() {
+    return true;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (getId() == null) {
@@ -88,4 +95,12 @@ public class PerpetualCache implements Cache {
     return getId().hashCode();
   }
 
+  private static Object mask(Object object) {
+    return object == null ? NULL : object;
+  }
+
+  private static Object unmask(Object object) {
+    return object == NULL ? null : object;
+  }
+
 }
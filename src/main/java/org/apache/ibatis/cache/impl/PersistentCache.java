@@ -0,0 +1,805 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache.impl;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.CacheException;
+import org.apache.ibatis.cache.CacheSerializer;
+import org.apache.ibatis.cache.CacheStats;
+import org.apache.ibatis.cache.CacheStats.EvictionCause;
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.LogFactory;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.mapping.ResultMapping;
+import org.apache.ibatis.session.Configuration;
+
+/**
+ * Cache implementation that keeps its entries in memory-mapped files, so that they survive a restart.
+ * <p>
+ * Entries are serialized and appended to segment files of {@link #setSegmentSize(int) segmentSize} bytes; removals are
+ * appended as tombstones. Only the index from keys to records lives on the heap, and it is rebuilt by scanning the
+ * segments the first time the cache is used. When the last of {@link #setMaxSegments(int) maxSegments} segments is
+ * full, the live records are compacted into new segments or, if they would not leave enough room, the oldest segment is
+ * evicted.
+ * <p>
+ * Every segment records a version computed from the {@code version} property and from the result maps, and the fields
+ * of the result types, of the statements that use the cache. Segments written with another version are discarded, so
+ * that entries are never read back with a stale layout. Entries older than {@code timeToLive} milliseconds are
+ * discarded too, based on the time they were written even before a restart.
+ * <p>
+ * As this is a base implementation, it is configured with the type attribute and properties of the cache element:
+ *
+ * <pre>
+ * &lt;cache type="org.apache.ibatis.cache.impl.PersistentCache"&gt;
+ *   &lt;property name="directory" value="/var/cache/myapp"/&gt;
+ *   &lt;property name="timeToLive" value="3600000"/&gt;
+ * &lt;/cache&gt;
+ * </pre>
+ * <p>
+ * A directory can only be used by one cache of one JVM at a time: a cache that finds its directory locked by another
+ * one does not cache anything until it is closed. The default directory is specific to the running process, so the
+ * {@code directory} property must be set for the entries to survive a restart. Written entries survive a crash of the
+ * JVM, but not necessarily a crash of the operating system.
+ *
+ * @since 3.6.0
+ */
+public class PersistentCache implements Cache {
+
+  private static final Log log = LogFactory.getLog(PersistentCache.class);
+
+  private static final int MAGIC = 0x4D424331;
+  private static final int FORMAT = 1;
+  private static final int HEADER_SIZE = 32;
+  private static final int RECORD_HEADER = 4 + 1 + 8 + 4;
+  private static final byte PUT = 1;
+  private static final byte REMOVE = 2;
+  private static final String SEGMENT_PREFIX = "segment-";
+  private static final String SEGMENT_SUFFIX = ".dat";
+
+  private final String id;
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Map<Object, Location> index = new HashMap<>();
+  private final List<Segment> segments = new ArrayList<>();
+  private final CacheSerializer keySerializer = new JdkCacheSerializer();
+
+  private String directory = Paths
+      .get(System.getProperty("java.io.tmpdir"), "mybatis-cache-" + ProcessHandle.current().pid()).toString();
+  private int segmentSize = 16 * 1024 * 1024;
+  private int maxSegments = 8;
+  private long timeToLive;
+  private String version = "";
+  private CacheSerializer serializer = new JdkCacheSerializer();
+  private Configuration configuration;
+  private CacheStats stats;
+
+  private boolean opened;
+  private boolean passThrough;
+  private Thread shutdownHook;
+  private Path path;
+  private FileChannel lockChannel;
+  private FileLock fileLock;
+  private long layoutVersion;
+  private long nextSegmentNumber;
+
+  public PersistentCache(String id) {
+    this.id = id;
+  }
+
+  @Override
+  public String getId() {
+    return id;
+  }
+
+  public String getDirectory() {
+    return directory;
+  }
+
+  public void setDirectory(String directory) {
+    this.directory = directory;
+  }
+
+  public int getSegmentSize() {
+    return segmentSize;
+  }
+
+  public void setSegmentSize(int segmentSize) {
+    this.segmentSize = Math.max(segmentSize, 4096);
+  }
+
+  public int getMaxSegments() {
+    return maxSegments;
+  }
+
+  public void setMaxSegments(int maxSegments) {
+    this.maxSegments = Math.max(maxSegments, 2);
+  }
+
+  public long getTimeToLive() {
+    return timeToLive;
+  }
+
+  public void setTimeToLive(long timeToLive) {
+    this.timeToLive = Math.max(timeToLive, 0);
+  }
+
+  public String getVersion() {
+    return version;
+  }
+
+  /**
+   * Sets an application defined version. Changing it discards the entries written with the previous one.
+   *
+   * @param version
+   *          the version
+   */
+  public void setVersion(String version) {
+    this.version = version == null ? "" : version;
+  }
+
+  public void setSerializer(CacheSerializer serializer) {
+    this.serializer = serializer;
+  }
+
+  public void setConfiguration(Configuration configuration) {
+    this.configuration = configuration;
+  }
+
+  public void setStats(CacheStats stats) {
+    this.stats = stats;
+  }
+
+  @Override
+  public int getSize() {
+    lock.lock();
+    try {
+      open();
+      return index.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void putObject(Object key, Object value) {
+    Map<Object, Object> entries = new HashMap<>(2);
+    entries.put(key, value);
+    putAll(entries);
+  }
+
+  @Override
+  public void putAll(Map<?, ?> entries) {
+    // serializes outside of the lock, then appends the whole batch at once
+    List<Object> keys = new ArrayList<>(entries.size());
+    List<byte[]> keyBytes = new ArrayList<>(entries.size());
+    List<byte[]> valueBytes = new ArrayList<>(entries.size());
+    for (Map.Entry<?, ?> entry : entries.entrySet()) {
+      keys.add(entry.getKey());
+      try {
+        keyBytes.add(entry.getValue() == null ? null : keySerializer.serialize(entry.getKey()));
+      } catch (CacheException e) {
+        // keys holding non serializable parameters cannot be persisted, drop any previous value
+        keyBytes.add(null);
+      }
+      valueBytes.add(entry.getValue() == null ? null : serializer.serialize(entry.getValue()));
+    }
+    lock.lock();
+    try {
+      open();
+      long now = System.currentTimeMillis();
+      for (int i = 0; i < keys.size(); i++) {
+        Location location = keyBytes.get(i) == null ? null : append(PUT, now, keyBytes.get(i), valueBytes.get(i));
+        if (location != null) {
+          release(index.put(keys.get(i), location));
+        } else {
+          remove(keys.get(i));
+        }
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public Object getObject(Object key) {
+    byte[] bytes;
+    lock.lock();
+    try {
+      open();
+      Location location = index.get(key);
+      if (location == null) {
+        return null;
+      }
+      if (isExpired(location.writeTime, System.currentTimeMillis())) {
+        remove(key);
+        if (stats != null) {
+          stats.recordEviction(EvictionCause.EXPIRED);
+        }
+        return null;
+      }
+      bytes = location.segment.read(location.valueOffset, location.valueLength);
+    } finally {
+      lock.unlock();
+    }
+    try {
+      return serializer.deserialize(bytes);
+    } catch (CacheException e) {
+      // the class of the value changed in a way the layout version did not capture
+      removeObject(key);
+      return null;
+    }
+  }
+
+  @Override
+  public Object removeObject(Object key) {
+    lock.lock();
+    try {
+      open();
+      remove(key);
+      return null;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void removeAll(Collection<?> keys) {
+    lock.lock();
+    try {
+      open();
+      for (Object key : keys) {
+        remove(key);
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void clear() {
+    lock.lock();
+    try {
+      open();
+      index.clear();
+      for (Segment segment : segments) {
+        segment.delete();
+      }
+      segments.clear();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * @return The number of bytes of the segment files, including the records that are not live anymore
+   */
+  public long getUsedBytes() {
+    lock.lock();
+    try {
+      open();
+      long used = 0;
+      for (Segment segment : segments) {
+        used += segment.position;
+      }
+      return used;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Rewrites the live records into new segments, dropping removed, overwritten and expired ones.
+   */
+  public void compact() {
+    lock.lock();
+    try {
+      open();
+      doCompact();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Releases the files of this cache. The entries are kept on disk and the cache reopens them when it is used again.
+   * <p>
+   * Caches that opened their files are also closed when the JVM shuts down.
+   */
+  public void close() {
+    lock.lock();
+    try {
+      if (!opened) {
+        return;
+      }
+      for (Segment segment : segments) {
+        segment.close();
+      }
+      segments.clear();
+      index.clear();
+      opened = false;
+      if (passThrough) {
+        passThrough = false;
+        return;
+      }
+      removeShutdownHook();
+      try {
+        fileLock.release();
+        lockChannel.close();
+      } catch (IOException e) {
+        throw new CacheException("Error closing the persistent cache " + id + ". Cause: " + e, e);
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * @return Whether the directory of this cache is used by another cache, so that this one does not cache anything
+   *         until it is closed
+   */
+  public boolean isPassThrough() {
+    lock.lock();
+    try {
+      open();
+      return passThrough;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void remove(Object key) {
+    Location location = index.remove(key);
+    if (location != null) {
+      release(location);
+      byte[] keyBytes = keySerializer.serialize(key);
+      append(REMOVE, System.currentTimeMillis(), keyBytes, new byte[0]);
+    }
+  }
+
+  private void release(Location location) {
+    if (location != null) {
+      location.segment.liveBytes -= location.recordLength;
+    }
+  }
+
+  private boolean isExpired(long writeTime, long now) {
+    return timeToLive > 0 && now - writeTime >= timeToLive;
+  }
+
+  private Location append(byte type, long writeTime, byte[] key, byte[] value) {
+    if (passThrough) {
+      return null;
+    }
+    int recordLength = RECORD_HEADER + key.length + value.length;
+    if (recordLength > segmentSize - HEADER_SIZE - 4) {
+      // would never fit in a segment
+      return null;
+    }
+    Segment segment = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+    if (segment == null || segment.remaining() < recordLength) {
+      segment = roll(recordLength);
+    }
+    return segment.write(type, writeTime, key, value);
+  }
+
+  private Segment roll(int recordLength) {
+    if (segments.size() >= maxSegments) {
+      long live = 0;
+      for (Segment segment : segments) {
+        live += segment.liveBytes;
+      }
+      // compaction is only worth it if it frees at least half of the space
+      if (live <= (long) (maxSegments / 2) * (segmentSize - HEADER_SIZE)) {
+        doCompact();
+      }
+      while (segments.size() >= maxSegments) {
+        evictOldest();
+      }
+      Segment last = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+      if (last != null && last.remaining() >= recordLength) {
+        return last;
+      }
+    }
+    Segment segment = Segment.create(path.resolve(segmentName(nextSegmentNumber++)), segmentSize, layoutVersion);
+    segments.add(segment);
+    return segment;
+  }
+
+  private void evictOldest() {
+    Segment oldest = segments.remove(0);
+    Iterator<Location> iterator = index.values().iterator();
+    while (iterator.hasNext()) {
+      if (iterator.next().segment == oldest) {
+        iterator.remove();
+        if (stats != null) {
+          stats.recordEviction(EvictionCause.SIZE);
+        }
+      }
+    }
+    oldest.delete();
+  }
+
+  private void doCompact() {
+    List<Segment> previous = new ArrayList<>(segments);
+    segments.clear();
+    long now = System.currentTimeMillis();
+    Segment target = null;
+    Iterator<Location> iterator = index.values().iterator();
+    while (iterator.hasNext()) {
+      Location location = iterator.next();
+      if (isExpired(location.writeTime, now)) {
+        iterator.remove();
+        if (stats != null) {
+          stats.recordEviction(EvictionCause.EXPIRED);
+        }
+        continue;
+      }
+      if (target == null || target.remaining() < location.recordLength) {
+        target = Segment.create(path.resolve(segmentName(nextSegmentNumber++)), segmentSize, layoutVersion);
+        segments.add(target);
+      }
+      byte[] record = location.segment.read(location.offset, location.recordLength);
+      location.moveTo(target, target.copy(record));
+    }
+    for (Segment segment : previous) {
+      segment.delete();
+    }
+  }
+
+  private void open() {
+    if (opened) {
+      return;
+    }
+    layoutVersion = computeLayoutVersion();
+    path = Paths.get(directory, id.replaceAll("[^A-Za-z0-9._-]", "_"));
+    try {
+      Files.createDirectories(path);
+      lockChannel = FileChannel.open(path.resolve("cache.lock"), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+    } catch (IOException e) {
+      throw new CacheException("Could not open the persistent cache " + id + " in " + path + ". Cause: " + e, e);
+    }
+    fileLock = tryLock();
+    if (fileLock == null) {
+      log.warn("The persistent cache directory " + path + " is used by another cache, the cache " + id
+          + " will not cache anything until it is closed.");
+      closeQuietly(lockChannel);
+      passThrough = true;
+      opened = true;
+      return;
+    }
+    shutdownHook = new Thread(this::close, "mybatis-persistent-cache-" + id);
+    Runtime.getRuntime().addShutdownHook(shutdownHook);
+    List<Path> files = listSegmentFiles();
+    boolean discard = false;
+    for (Path file : files) {
+      nextSegmentNumber = Math.max(nextSegmentNumber, segmentNumber(file) + 1);
+      Segment segment = discard ? null : Segment.open(file, layoutVersion);
+      if (segment == null) {
+        // another layout or a corrupted file, drop it along with every newer segment
+        discard = true;
+        deleteFile(file);
+      } else {
+        segments.add(segment);
+        loadRecords(segment);
+      }
+    }
+    opened = true;
+  }
+
+  private FileLock tryLock() {
+    try {
+      return lockChannel.tryLock();
+    } catch (IOException | OverlappingFileLockException e) {
+      return null;
+    }
+  }
+
+  private void removeShutdownHook() {
+    if (shutdownHook != null && Thread.currentThread() != shutdownHook) {
+      try {
+        Runtime.getRuntime().removeShutdownHook(shutdownHook);
+      } catch (IllegalStateException e) {
+        // the JVM is already shutting down
+      }
+    }
+    shutdownHook = null;
+  }
+
+  private static void closeQuietly(FileChannel channel) {
+    try {
+      channel.close();
+    } catch (IOException e) {
+      // ignore
+    }
+  }
+
+  private void loadRecords(Segment segment) {
+    long now = System.currentTimeMillis();
+    ByteBuffer buffer = segment.buffer.duplicate();
+    int position = HEADER_SIZE;
+    while (position + RECORD_HEADER <= segmentSize) {
+      int recordLength = buffer.getInt(position);
+      if (recordLength < RECORD_HEADER || position + recordLength > segmentSize) {
+        break;
+      }
+      byte type = buffer.get(position + 4);
+      long writeTime = buffer.getLong(position + 5);
+      int keyLength = buffer.getInt(position + 13);
+      Object key;
+      try {
+        key = keySerializer.deserialize(segment.read(position + RECORD_HEADER, keyLength));
+      } catch (CacheException e) {
+        key = null;
+      }
+      if (key != null) {
+        if (type == PUT && !isExpired(writeTime, now)) {
+          Location location = new Location(segment, position, recordLength, writeTime, keyLength);
+          segment.liveBytes += recordLength;
+          release(index.put(key, location));
+        } else {
+          release(index.remove(key));
+        }
+      }
+      position += recordLength;
+    }
+    segment.position = position;
+  }
+
+  private long computeLayoutVersion() {
+    StringBuilder layout = new StringBuilder(version);
+    if (configuration != null) {
+      Map<String, ResultMap> resultMaps = new TreeMap<>();
+      for (MappedStatement ms : new ArrayList<>(configuration.getMappedStatements())) {
+        if (ms.getCache() != null && id.equals(ms.getCache().getId())) {
+          for (ResultMap resultMap : ms.getResultMaps()) {
+            collectResultMaps(resultMap, resultMaps);
+          }
+        }
+      }
+      for (ResultMap resultMap : resultMaps.values()) {
+        layout.append('|').append(resultMap.getId()).append(':').append(resultMap.getType().getName());
+        for (ResultMapping mapping : resultMap.getResultMappings()) {
+          layout.append(',').append(mapping.getProperty()).append('=').append(mapping.getColumn()).append('/')
+              .append(mapping.getJavaType() == null ? null : mapping.getJavaType().getName()).append('/')
+              .append(mapping.getNestedQueryId());
+        }
+        appendFields(resultMap.getType(), layout);
+      }
+    }
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-256").digest(layout.toString().getBytes(StandardCharsets.UTF_8));
+      return ByteBuffer.wrap(digest).getLong();
+    } catch (NoSuchAlgorithmException e) {
+      throw new CacheException("SHA-256 is not available. Cause: " + e, e);
+    }
+  }
+
+  private void collectResultMaps(ResultMap resultMap, Map<String, ResultMap> resultMaps) {
+    if (resultMaps.put(resultMap.getId(), resultMap) != null) {
+      return;
+    }
+    for (ResultMapping mapping : resultMap.getResultMappings()) {
+      String nestedResultMapId = mapping.getNestedResultMapId();
+      if (nestedResultMapId != null && configuration.hasResultMap(nestedResultMapId)) {
+        collectResultMaps(configuration.getResultMap(nestedResultMapId), resultMaps);
+      }
+    }
+  }
+
+  private static void appendFields(Class<?> type, StringBuilder layout) {
+    for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+      Field[] fields = current.getDeclaredFields();
+      Arrays.sort(fields, Comparator.comparing(Field::getName));
+      for (Field field : fields) {
+        if (!Modifier.isStatic(field.getModifiers()) && !Modifier.isTransient(field.getModifiers())) {
+          layout.append(';').append(field.getName()).append(':').append(field.getType().getName());
+        }
+      }
+    }
+  }
+
+  private List<Path> listSegmentFiles() {
+    List<Path> files = new ArrayList<>();
+    try (DirectoryStream<Path> stream = Files.newDirectoryStream(path, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+      for (Path file : stream) {
+        files.add(file);
+      }
+    } catch (IOException e) {
+      throw new CacheException("Could not list the segments of the persistent cache " + id + ". Cause: " + e, e);
+    }
+    files.sort(Comparator.comparingLong(PersistentCache::segmentNumber));
+    return files;
+  }
+
+  private static String segmentName(long number) {
+    return String.format("%s%016d%s", SEGMENT_PREFIX, number, SEGMENT_SUFFIX);
+  }
+
+  private static long segmentNumber(Path file) {
+    String name = file.getFileName().toString();
+    try {
+      return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    } catch (NumberFormatException e) {
+      return -1;
+    }
+  }
+
+  private static void deleteFile(Path file) {
+    try {
+      Files.deleteIfExists(file);
+    } catch (IOException e) {
+      throw new CacheException("Could not delete " + file + ". Cause: " + e, e);
+    }
+  }
+
+  private static final class Segment {
+    private final Path file;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private int position = HEADER_SIZE;
+    private long liveBytes;
+
+    private Segment(Path file, FileChannel channel, MappedByteBuffer buffer) {
+      this.file = file;
+      this.channel = channel;
+      this.buffer = buffer;
+    }
+
+    static Segment create(Path file, int size, long layoutVersion) {
+      Segment segment = map(file, size);
+      segment.buffer.putInt(0, MAGIC);
+      segment.buffer.putInt(4, FORMAT);
+      segment.buffer.putLong(8, layoutVersion);
+      return segment;
+    }
+
+    static Segment open(Path file, long layoutVersion) {
+      long size;
+      try {
+        size = Files.size(file);
+      } catch (IOException e) {
+        return null;
+      }
+      if (size < HEADER_SIZE || size > Integer.MAX_VALUE) {
+        return null;
+      }
+      Segment segment = map(file, (int) size);
+      ByteBuffer buffer = segment.buffer;
+      if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT || buffer.getLong(8) != layoutVersion) {
+        segment.close();
+        return null;
+      }
+      return segment;
+    }
+
+    private static Segment map(Path file, int size) {
+      try {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+            StandardOpenOption.WRITE);
+        return new Segment(file, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+      } catch (IOException e) {
+        throw new CacheException("Could not map the cache segment " + file + ". Cause: " + e, e);
+      }
+    }
+
+    int remaining() {
+      // keeps room for the zero length that marks the end of the records
+      return buffer.capacity() - position - 4;
+    }
+
+    Location write(byte type, long writeTime, byte[] key, byte[] value) {
+      int recordLength = RECORD_HEADER + key.length + value.length;
+      int offset = position;
+      ByteBuffer target = buffer.duplicate();
+      target.position(offset + 4);
+      target.put(type).putLong(writeTime).putInt(key.length).put(key).put(value);
+      // the length is written last, a record interrupted halfway ends the segment
+      buffer.putInt(offset, recordLength);
+      position += recordLength;
+      if (type != PUT) {
+        return null;
+      }
+      liveBytes += recordLength;
+      return new Location(this, offset, recordLength, writeTime, key.length);
+    }
+
+    int copy(byte[] record) {
+      int offset = position;
+      ByteBuffer target = buffer.duplicate();
+      target.position(offset + 4);
+      target.put(record, 4, record.length - 4);
+      buffer.putInt(offset, record.length);
+      position += record.length;
+      liveBytes += record.length;
+      return offset;
+    }
+
+    byte[] read(int offset, int length) {
+      byte[] bytes = new byte[length];
+      ByteBuffer source = buffer.duplicate();
+      source.position(offset);
+      source.get(bytes);
+      return bytes;
+    }
+
+    void close() {
+      try {
+        channel.close();
+      } catch (IOException e) {
+        // ignore, the mapping stays valid until it is garbage collected
+      }
+    }
+
+    void delete() {
+      close();
+      deleteFile(file);
+    }
+  }
+
+  private static final class Location {
+    private Segment segment;
+    private int offset;
+    private final int recordLength;
+    private final long writeTime;
+    private final int keyLength;
+    private int valueOffset;
+    private final int valueLength;
+
+    Location(Segment segment, int offset, int recordLength, long writeTime, int keyLength) {
+      this.segment = segment;
+      this.offset = offset;
+      this.recordLength = recordLength;
+      this.writeTime = writeTime;
+      this.keyLength = keyLength;
+      this.valueOffset = offset + RECORD_HEADER + keyLength;
+      this.valueLength = recordLength - RECORD_HEADER - keyLength;
+    }
+
+    void moveTo(Segment target, int newOffset) {
+      this.segment = target;
+      this.offset = newOffset;
+      this.valueOffset = newOffset + RECORD_HEADER + keyLength;
+    }
+  }
+
+}
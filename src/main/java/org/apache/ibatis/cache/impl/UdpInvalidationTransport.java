@@ -0,0 +1,142 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache.impl;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import org.apache.ibatis.cache.CacheException;
+import org.apache.ibatis.cache.CacheInvalidationTransport;
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.LogFactory;
+
+/**
+ * Sends invalidation messages as UDP datagrams to a static list of peers.
+ * <p>
+ * This is a reference implementation, e.g. for tests on the loopback interface or small clusters on a trusted network:
+ * datagrams may be lost and are neither authenticated nor encrypted. Messages are received by a daemon thread.
+ *
+ * @since 3.6.0
+ */
+public class UdpInvalidationTransport implements CacheInvalidationTransport {
+
+  private static final Log log = LogFactory.getLog(UdpInvalidationTransport.class);
+  private static final int MAX_DATAGRAM_SIZE = 65507;
+
+  private final InetSocketAddress bindAddress;
+  private final List<InetSocketAddress> peers = new CopyOnWriteArrayList<>();
+  private DatagramSocket socket;
+  private Thread receiverThread;
+
+  /**
+   * Creates a transport listening on an ephemeral port of the loopback interface.
+   */
+  public UdpInvalidationTransport() {
+    this(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+  }
+
+  public UdpInvalidationTransport(InetSocketAddress bindAddress, InetSocketAddress... peers) {
+    this.bindAddress = bindAddress;
+    this.peers.addAll(Arrays.asList(peers));
+  }
+
+  public void addPeer(InetSocketAddress peer) {
+    peers.add(peer);
+  }
+
+  public void removePeer(InetSocketAddress peer) {
+    peers.remove(peer);
+  }
+
+  /**
+   * @return The address the transport listens on, with the actual port once started
+   */
+  public InetSocketAddress getLocalAddress() {
+    DatagramSocket current = socket;
+    return current == null ? bindAddress : (InetSocketAddress) current.getLocalSocketAddress();
+  }
+
+  @Override
+  public synchronized void start(Consumer<byte[]> receiver) {
+    if (socket != null) {
+      throw new CacheException("The UDP invalidation transport on " + getLocalAddress() + " is already started.");
+    }
+    try {
+      socket = new DatagramSocket(bindAddress);
+    } catch (SocketException e) {
+      throw new CacheException("Could not bind the UDP invalidation transport to " + bindAddress + ". Cause: " + e, e);
+    }
+    DatagramSocket current = socket;
+    receiverThread = new Thread(() -> receive(current, receiver),
+        "mybatis-cache-invalidation-" + current.getLocalPort());
+    receiverThread.setDaemon(true);
+    receiverThread.start();
+  }
+
+  @Override
+  public void publish(byte[] message) {
+    DatagramSocket current = socket;
+    if (current == null) {
+      throw new CacheException("The UDP invalidation transport is not started.");
+    }
+    for (InetSocketAddress peer : peers) {
+      try {
+        current.send(new DatagramPacket(message, message.length, peer));
+      } catch (IOException e) {
+        log.warn("Could not send a cache invalidation to " + peer + ". Cause: " + e);
+      }
+    }
+  }
+
+  @Override
+  public synchronized void close() {
+    if (socket != null) {
+      socket.close();
+      socket = null;
+      receiverThread = null;
+    }
+  }
+
+  private static void receive(DatagramSocket socket, Consumer<byte[]> receiver) {
+    byte[] buffer = new byte[MAX_DATAGRAM_SIZE];
+    while (!socket.isClosed()) {
+      DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+      try {
+        socket.receive(packet);
+      } catch (IOException e) {
+        if (!socket.isClosed()) {
+          log.warn("Could not receive a cache invalidation. Cause: " + e);
+        }
+        continue;
+      }
+      try {
+        receiver
+            .accept(Arrays.copyOfRange(packet.getData(), packet.getOffset(), packet.getOffset() + packet.getLength()));
+      } catch (RuntimeException e) {
+        log.warn("Could not apply a cache invalidation. Cause: " + e);
+      }
+    }
+  }
+
+}
@@ -0,0 +1,341 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cursor.defaults;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.exceptions.PersistenceException;
+import org.apache.ibatis.session.RowBounds;
+
+/**
+ * A cursor over the items of several source cursors, read concurrently.
+ * <p>
+ * Each source is opened and read by a task of its own, which hands its items over through a bounded buffer, so at most
+ * {@code bufferSize} items per source are held in memory. Without an order the items are returned in the order they
+ * arrive, whichever source they come from. With an order every source must already return its items in that order, and
+ * they are merged so that the whole cursor follows it.
+ * <p>
+ * The offset and limit of the row bounds apply to the merged items. The cursor stops reading the sources once the limit
+ * is reached, so each source never needs more than {@code offset + limit} rows.
+ *
+ * @param <T>
+ *          the item type
+ *
+ * @since 3.6.0
+ */
+public class MergedCursor<T> implements Cursor<T> {
+
+  private static final Object END = new Object();
+  private static final Object NULL = new Object();
+  private static final long OFFER_TIMEOUT_MILLIS = 10;
+
+  private final Comparator<? super T> order;
+  private final RowBounds rowBounds;
+  private final List<BlockingQueue<Object>> buffers = new ArrayList<>();
+  private final CountDownLatch finished;
+  private final MergedIterator iterator;
+
+  private volatile boolean closed;
+  private boolean consumed;
+  private boolean iteratorRetrieved;
+
+  /**
+   * Opens the sources on the executor right away.
+   *
+   * @param sources
+   *          the suppliers that open each source cursor
+   * @param order
+   *          the order all sources follow, or {@code null} to return the items as they arrive
+   * @param rowBounds
+   *          the offset and limit of the merged items
+   * @param bufferSize
+   *          the number of items read ahead per source
+   * @param executor
+   *          the executor running one long-lived task per source, it must be able to run all of them at the same time
+   *          when an order is given
+   */
+  public MergedCursor(List<Supplier<Cursor<T>>> sources, Comparator<? super T> order, RowBounds rowBounds,
+      int bufferSize, Executor executor) {
+    this.order = order;
+    this.rowBounds = rowBounds;
+    this.finished = new CountDownLatch(sources.size());
+    if (order == null) {
+      // the sources share one buffer and the items are returned as they arrive
+      BlockingQueue<Object> buffer = new ArrayBlockingQueue<>(Math.max(1, bufferSize) * Math.max(1, sources.size()));
+      for (int i = 0; i < sources.size(); i++) {
+        buffers.add(buffer);
+      }
+    } else {
+      for (int i = 0; i < sources.size(); i++) {
+        buffers.add(new ArrayBlockingQueue<>(Math.max(1, bufferSize)));
+      }
+    }
+    this.iterator = new MergedIterator();
+    for (int i = 0; i < sources.size(); i++) {
+      Supplier<Cursor<T>> source = sources.get(i);
+      BlockingQueue<Object> buffer = buffers.get(i);
+      try {
+        executor.execute(() -> read(source, buffer));
+      } catch (RuntimeException e) {
+        finished.countDown();
+        buffer.add(new Failure(e));
+      }
+    }
+  }
+
+  @Override
+  public boolean isOpen() {
+    return iteratorRetrieved && !closed && !consumed;
+  }
+
+  @Override
+  public boolean isConsumed() {
+    return consumed;
+  }
+
+  @Override
+  public int getCurrentIndex() {
+    return rowBounds.getOffset() + iterator.iteratorIndex;
+  }
+
+  @Override
+  public Iterator<T> iterator() {
+    if (iteratorRetrieved) {
+      throw new IllegalStateException("Cannot open more than one iterator on a Cursor");
+    }
+    if (closed || consumed) {
+      throw new IllegalStateException("A Cursor is already closed.");
+    }
+    iteratorRetrieved = true;
+    return iterator;
+  }
+
+  /**
+   * Closes the cursor and waits until every source has been closed by its task.
+   */
+  @Override
+  public void close() {
+    closed = true;
+    boolean interrupted = false;
+    while (true) {
+      try {
+        finished.await();
+        break;
+      } catch (InterruptedException e) {
+        interrupted = true;
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void read(Supplier<Cursor<T>> source, BlockingQueue<Object> buffer) {
+    Object last = END;
+    try (Cursor<T> cursor = source.get()) {
+      for (T item : cursor) {
+        if (!offer(buffer, item == null ? NULL : item)) {
+          break;
+        }
+      }
+    } catch (Throwable t) {
+      last = new Failure(t);
+    }
+    // the source is closed before its end is announced
+    offer(buffer, last);
+    finished.countDown();
+  }
+
+  private boolean offer(BlockingQueue<Object> buffer, Object item) {
+    try {
+      while (!closed) {
+        if (buffer.offer(item, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+          return true;
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    return false;
+  }
+
+  private Object take(BlockingQueue<Object> buffer) {
+    try {
+      return buffer.take();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      close();
+      throw new PersistenceException("Interrupted while waiting for the results of a merged cursor.", e);
+    }
+  }
+
+  private void fail(Failure failure) {
+    close();
+    Throwable cause = failure.cause;
+    if (cause instanceof RuntimeException) {
+      throw (RuntimeException) cause;
+    }
+    if (cause instanceof Error) {
+      throw (Error) cause;
+    }
+    throw new PersistenceException("Error reading a source of a merged cursor.  Cause: " + cause, cause);
+  }
+
+  private static final class Failure {
+    private final Throwable cause;
+
+    Failure(Throwable cause) {
+      this.cause = cause;
+    }
+  }
+
+  private final class Head {
+    private final int source;
+    private final T item;
+
+    Head(int source, T item) {
+      this.source = source;
+      this.item = item;
+    }
+  }
+
+  private class MergedIterator implements Iterator<T> {
+
+    private int iteratorIndex = -1;
+    private int skipped;
+    private int active = buffers.size();
+    private PriorityQueue<Head> heads;
+    private int refill = -1;
+    private boolean fetched;
+    private T object;
+
+    @Override
+    public boolean hasNext() {
+      if (!fetched) {
+        fetch();
+      }
+      return fetched;
+    }
+
+    @Override
+    public T next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      fetched = false;
+      T next = object;
+      object = null;
+      iteratorIndex++;
+      return next;
+    }
+
+    @Override
+    public void remove() {
+      throw new UnsupportedOperationException("Cannot remove element from Cursor");
+    }
+
+    private void fetch() {
+      if (closed || consumed) {
+        return;
+      }
+      if (iteratorIndex + 1 >= rowBounds.getLimit()) {
+        finish();
+        return;
+      }
+      while (skipped < rowBounds.getOffset() && fetchNext()) {
+        skipped++;
+      }
+      if (skipped < rowBounds.getOffset() || !fetchNext()) {
+        finish();
+        return;
+      }
+      fetched = true;
+    }
+
+    private void finish() {
+      close();
+      consumed = true;
+    }
+
+    private boolean fetchNext() {
+      return order == null ? fetchArrived() : fetchOrdered();
+    }
+
+    @SuppressWarnings("unchecked")
+    private boolean fetchArrived() {
+      BlockingQueue<Object> buffer = buffers.get(0);
+      while (active > 0) {
+        Object item = take(buffer);
+        if (item == END) {
+          active--;
+        } else if (item instanceof Failure) {
+          fail((Failure) item);
+        } else {
+          object = item == NULL ? null : (T) item;
+          return true;
+        }
+      }
+      return false;
+    }
+
+    private boolean fetchOrdered() {
+      if (heads == null) {
+        // ties are returned in source order
+        heads = new PriorityQueue<>(Math.max(1, buffers.size()), (a, b) -> {
+          int result = order.compare(a.item, b.item);
+          return result != 0 ? result : Integer.compare(a.source, b.source);
+        });
+        for (int i = 0; i < buffers.size(); i++) {
+          addHead(i);
+        }
+      } else if (refill >= 0) {
+        addHead(refill);
+      }
+      Head head = heads.poll();
+      if (head == null) {
+        refill = -1;
+        return false;
+      }
+      // the next item of this source is only awaited when the cursor moves on
+      refill = head.source;
+      object = head.item;
+      return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void addHead(int source) {
+      Object item = take(buffers.get(source));
+      if (item instanceof Failure) {
+        fail((Failure) item);
+      } else if (item != END) {
+        heads.add(new Head(source, item == NULL ? null : (T) item));
+      }
+    }
+  }
+
+}
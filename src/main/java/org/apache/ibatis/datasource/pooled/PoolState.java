@@ -1,5 +1,5 @@
 /*
- *    Copyright 2009-2024 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -19,6 +19,8 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.locks.ReentrantLock;
 
+import org.apache.ibatis.cache.CacheStats;
+
 /**
  * @author Clinton Begin
  */
@@ -43,11 +45,23 @@ public class PoolState {
   protected long accumulatedWaitTime;
   protected long hadToWaitCount;
   protected long badConnectionCount;
+  protected final CacheStats statementCacheStats = new CacheStats();
 
   public PoolState(PooledDataSource dataSource) {
     this.dataSource = dataSource;
   }
 
+  /**
+   * Returns the hits, misses and evictions of the prepared statement caches of all the connections of the pool.
+   *
+   * @return the statistics, all zero unless {@code poolStatementCacheSize} is set
+   *
+   * @since 3.6.0
+   */
+  public CacheStats getStatementCacheStats() {
+    return statementCacheStats;
+  }
+
   public long getRequestCount() {
     lock.lock();
     try {
@@ -157,6 +171,7 @@ public class PoolState {
       builder.append("\n poolPingEnabled                ").append(dataSource.poolPingEnabled);
       builder.append("\n poolPingQuery                  ").append(dataSource.poolPingQuery);
       builder.append("\n poolPingConnectionsNotUsedFor  ").append(dataSource.poolPingConnectionsNotUsedFor);
+      builder.append("\n poolStatementCacheSize         ").append(dataSource.poolStatementCacheSize);
       builder.append("\n ---STATUS-----------------------------------------------------");
       builder.append("\n activeConnections              ").append(getActiveConnectionCount());
       builder.append("\n idleConnections                ").append(getIdleConnectionCount());
@@ -168,6 +183,7 @@ public class PoolState {
       builder.append("\n hadToWait                      ").append(getHadToWaitCount());
       builder.append("\n averageWaitTime                ").append(getAverageWaitTime());
       builder.append("\n badConnectionCount             ").append(getBadConnectionCount());
+      builder.append("\n statementCacheHitRatio         ").append(statementCacheStats.getHitRatio());
       builder.append("\n===============================================================");
       return builder.toString();
     } finally {
@@ -1,5 +1,5 @@
 /*
- *    Copyright 2009-2024 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -21,6 +21,7 @@ import java.lang.reflect.Proxy;
 import java.sql.Connection;
 import java.sql.SQLException;
 
+import org.apache.ibatis.cache.CacheStats;
 import org.apache.ibatis.reflection.ExceptionUtil;
 
 /**
@@ -29,6 +30,7 @@ import org.apache.ibatis.reflection.ExceptionUtil;
 class PooledConnection implements InvocationHandler {
 
   private static final String CLOSE = "close";
+  private static final String PREPARE_STATEMENT = "prepareStatement";
   private static final Class<?>[] IFACES = { Connection.class };
 
   private final int hashCode;
@@ -40,6 +42,7 @@ class PooledConnection implements InvocationHandler {
   private long lastUsedTimestamp;
   private int connectionTypeCode;
   private boolean valid;
+  private PooledStatementCache statementCache;
 
   /**
    * Constructor for SimplePooledConnection that uses the Connection and PooledDataSource passed in.
@@ -205,6 +208,37 @@ class PooledConnection implements InvocationHandler {
     return System.currentTimeMillis() - checkoutTimestamp;
   }
 
+  /**
+   * Getter for the prepared statements cached for the real connection.
+   *
+   * @return the cache, or {@code null} if statements are not cached
+   */
+  PooledStatementCache getStatementCache() {
+    return statementCache;
+  }
+
+  /**
+   * Getter for the hits, misses and evictions of the prepared statements cached for the real connection.
+   *
+   * @return the statistics, or {@code null} if statements are not cached
+   *
+   * @see PooledDataSource#getStatementCacheStats(Connection)
+   */
+  CacheStats getStatementCacheStats() {
+    return statementCache == null ? null : statementCache.getStats();
+  }
+
+  /**
+   * Setter for the prepared statements cached for the real connection, handed over when the real connection is wrapped
+   * again.
+   *
+   * @param statementCache
+   *          - the cache
+   */
+  void setStatementCache(PooledStatementCache statementCache) {
+    this.statementCache = statementCache;
+  }
+
   @Override
   public int hashCode() {
     return hashCode;
@@ -255,6 +289,15 @@ class PooledConnection implements InvocationHandler {
         // throw an SQLException instead of a Runtime
         checkConnection();
       }
+      if (statementCache != null) {
+        if (PREPARE_STATEMENT.equals(methodName)) {
+          return statementCache.prepareStatement(method, args);
+        }
+        if ("setSchema".equals(methodName) || "setCatalog".equals(methodName)) {
+          // statements may resolve their tables against the previous schema
+          statementCache.clear();
+        }
+      }
       return method.invoke(realConnection, args);
     } catch (Throwable t) {
       throw ExceptionUtil.unwrapThrowable(t);
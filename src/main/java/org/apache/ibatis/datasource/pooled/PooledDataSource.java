@@ -1,5 +1,5 @@
 /*
- *    Copyright 2009-2024 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -31,6 +31,7 @@ import java.util.logging.Logger;
 
 import javax.sql.DataSource;
 
+import org.apache.ibatis.cache.CacheStats;
 import org.apache.ibatis.datasource.unpooled.UnpooledDataSource;
 import org.apache.ibatis.logging.Log;
 import org.apache.ibatis.logging.LogFactory;
@@ -57,6 +58,7 @@ public class PooledDataSource implements DataSource {
   protected String poolPingQuery = "NO PING QUERY SET";
   protected boolean poolPingEnabled;
   protected int poolPingConnectionsNotUsedFor;
+  protected int poolStatementCacheSize;
 
   private int expectedConnectionTypeCode;
 
@@ -265,6 +267,20 @@ public class PooledDataSource implements DataSource {
     forceCloseAll();
   }
 
+  /**
+   * The number of prepared statements each connection keeps open once they are closed, so that the sessions which
+   * borrow the connection later do not prepare them again. The least recently used are closed first.
+   *
+   * @param poolStatementCacheSize
+   *          the number of statements per connection, 0 (the default) disables the cache
+   *
+   * @since 3.6.0
+   */
+  public void setPoolStatementCacheSize(int poolStatementCacheSize) {
+    this.poolStatementCacheSize = poolStatementCacheSize;
+    forceCloseAll();
+  }
+
   public String getDriver() {
     return dataSource.getDriver();
   }
@@ -336,6 +352,10 @@ public class PooledDataSource implements DataSource {
     return poolPingConnectionsNotUsedFor;
   }
 
+  public int getPoolStatementCacheSize() {
+    return poolStatementCacheSize;
+  }
+
   /**
    * Closes all active and idle connections in the pool.
    */
@@ -348,6 +368,7 @@ public class PooledDataSource implements DataSource {
         try {
           PooledConnection conn = state.activeConnections.remove(i - 1);
           conn.invalidate();
+          clearStatementCache(conn);
 
           Connection realConn = conn.getRealConnection();
           if (!realConn.getAutoCommit()) {
@@ -362,6 +383,7 @@ public class PooledDataSource implements DataSource {
         try {
           PooledConnection conn = state.idleConnections.remove(i - 1);
           conn.invalidate();
+          clearStatementCache(conn);
 
           Connection realConn = conn.getRealConnection();
           if (!realConn.getAutoCommit()) {
@@ -384,6 +406,21 @@ public class PooledDataSource implements DataSource {
     return state;
   }
 
+  private void handOverStatementCache(PooledConnection conn, PooledConnection newConn) {
+    PooledStatementCache statementCache = conn.getStatementCache();
+    if (statementCache != null) {
+      statementCache.detachInUse();
+      newConn.setStatementCache(statementCache);
+    }
+  }
+
+  private void clearStatementCache(PooledConnection conn) {
+    PooledStatementCache statementCache = conn.getStatementCache();
+    if (statementCache != null) {
+      statementCache.clear();
+    }
+  }
+
   private int assembleConnectionTypeCode(String url, String username, String password) {
     return ("" + url + username + password).hashCode();
   }
@@ -401,6 +438,7 @@ public class PooledDataSource implements DataSource {
             conn.getRealConnection().rollback();
           }
           PooledConnection newConn = new PooledConnection(conn.getRealConnection(), this);
+          handOverStatementCache(conn, newConn);
           state.idleConnections.add(newConn);
           newConn.setCreatedTimestamp(conn.getCreatedTimestamp());
           newConn.setLastUsedTimestamp(conn.getLastUsedTimestamp());
@@ -414,6 +452,7 @@ public class PooledDataSource implements DataSource {
           if (!conn.getRealConnection().getAutoCommit()) {
             conn.getRealConnection().rollback();
           }
+          clearStatementCache(conn);
           conn.getRealConnection().close();
           if (log.isDebugEnabled()) {
             log.debug("Closed connection " + conn.getRealHashCode() + ".");
@@ -450,6 +489,10 @@ public class PooledDataSource implements DataSource {
         } else if (state.activeConnections.size() < poolMaximumActiveConnections) {
           // Pool does not have available connection and can create a new connection
           conn = new PooledConnection(dataSource.getConnection(), this);
+          if (poolStatementCacheSize > 0) {
+            conn.setStatementCache(
+                new PooledStatementCache(conn.getRealConnection(), poolStatementCacheSize, state.statementCacheStats));
+          }
           if (log.isDebugEnabled()) {
             log.debug("Created connection " + conn.getRealHashCode() + ".");
           }
@@ -477,6 +520,7 @@ public class PooledDataSource implements DataSource {
               }
             }
             conn = new PooledConnection(oldestActiveConnection.getRealConnection(), this);
+            handOverStatementCache(oldestActiveConnection, conn);
             conn.setCreatedTimestamp(oldestActiveConnection.getCreatedTimestamp());
             conn.setLastUsedTimestamp(oldestActiveConnection.getLastUsedTimestamp());
             oldestActiveConnection.invalidate();
@@ -620,6 +664,27 @@ public class PooledDataSource implements DataSource {
     return conn;
   }
 
+  /**
+   * Gets the hits, misses and evictions of the prepared statements cached for the real connection of a pooled
+   * connection
+   *
+   * @param conn
+   *          - the pooled connection
+   *
+   * @return The statistics, or {@code null} if the connection is not pooled or statements are not cached
+   *
+   * @since 3.6.0
+   */
+  public static CacheStats getStatementCacheStats(Connection conn) {
+    if (Proxy.isProxyClass(conn.getClass())) {
+      InvocationHandler handler = Proxy.getInvocationHandler(conn);
+      if (handler instanceof PooledConnection) {
+        return ((PooledConnection) handler).getStatementCacheStats();
+      }
+    }
+    return null;
+  }
+
   @Override
   protected void finalize() throws Throwable {
     forceCloseAll();
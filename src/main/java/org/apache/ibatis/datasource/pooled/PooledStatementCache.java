@@ -0,0 +1,339 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.datasource.pooled;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.ibatis.cache.CacheStats;
+import org.apache.ibatis.cache.CacheStats.EvictionCause;
+import org.apache.ibatis.reflection.ExceptionUtil;
+
+/**
+ * Least recently used prepared statements of a physical connection, kept open across the sessions that borrow it.
+ * <p>
+ * Statements are keyed by the arguments of {@code prepareStatement}: the sql, and the result set type, concurrency,
+ * holdability or generated keys when given. Each borrower gets its own handle; closing it returns the statement to the
+ * cache, after clearing its pending batch and restoring the settings changed since it was borrowed. A statement still
+ * in use when its sql is prepared again is not shared, the second one is simply not cached.
+ *
+ * @since 3.6.0
+ */
+class PooledStatementCache {
+
+  private static final Class<?>[] IFACES = { PreparedStatement.class };
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Connection connection;
+  private final int maxSize;
+  private final CacheStats stats = new CacheStats();
+  private final CacheStats poolStats;
+  private final LinkedHashMap<List<Object>, CachedStatement> statements = new LinkedHashMap<>(16, 0.75f, true);
+
+  PooledStatementCache(Connection connection, int maxSize, CacheStats poolStats) {
+    this.connection = connection;
+    this.maxSize = maxSize;
+    this.poolStats = poolStats;
+  }
+
+  /**
+   * Returns the hits, misses and evictions of this cache. Those of all the connections of a pool are also recorded in
+   * {@link PoolState#getStatementCacheStats()}.
+   *
+   * @return the statistics
+   */
+  CacheStats getStats() {
+    return stats;
+  }
+
+  int getSize() {
+    lock.lock();
+    try {
+      return statements.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Borrows a cached statement, or prepares a new one.
+   *
+   * @param method
+   *          the {@code prepareStatement} method invoked on the connection
+   * @param args
+   *          its arguments
+   *
+   * @return a handle on the statement
+   */
+  PreparedStatement prepareStatement(Method method, Object[] args) throws Throwable {
+    List<Object> key = keyOf(args);
+    lock.lock();
+    try {
+      CachedStatement cached = statements.get(key);
+      if (cached != null && !cached.inUse) {
+        if (!cached.statement.isClosed()) {
+          stats.recordHit();
+          poolStats.recordHit();
+          cached.inUse = true;
+          return cached.newHandle();
+        }
+        statements.remove(key);
+        cached = null;
+      }
+      stats.recordMiss();
+      poolStats.recordMiss();
+      PreparedStatement statement = (PreparedStatement) method.invoke(connection, args);
+      if (cached != null) {
+        return statement;
+      }
+      cached = new CachedStatement(key, statement);
+      cached.inUse = true;
+      statements.put(key, cached);
+      evict();
+      return cached.newHandle();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Closes the idle statements and detaches those in use, which are closed once their borrower closes them. Called
+   * before the connection is closed, or when its schema changes.
+   */
+  void clear() {
+    lock.lock();
+    try {
+      for (CachedStatement cached : statements.values()) {
+        cached.detached = true;
+        if (!cached.inUse) {
+          closeQuietly(cached.statement);
+        }
+      }
+      statements.clear();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Detaches the statements still in use, so that the ones the previous borrower of the connection left open are
+   * neither reused nor counted.
+   */
+  void detachInUse() {
+    lock.lock();
+    try {
+      for (Iterator<CachedStatement> iterator = statements.values().iterator(); iterator.hasNext();) {
+        CachedStatement cached = iterator.next();
+        if (cached.inUse) {
+          cached.detached = true;
+          iterator.remove();
+        }
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void evict() {
+    // the least recently used idle statements go first, those in use are closed when they are returned
+    for (Iterator<CachedStatement> iterator = statements.values().iterator(); statements.size() > maxSize
+        && iterator.hasNext();) {
+      CachedStatement cached = iterator.next();
+      if (!cached.inUse) {
+        iterator.remove();
+        cached.detached = true;
+        closeQuietly(cached.statement);
+        stats.recordEviction(EvictionCause.SIZE);
+        poolStats.recordEviction(EvictionCause.SIZE);
+      }
+    }
+  }
+
+  private void checkIn(CachedStatement cached) throws SQLException {
+    lock.lock();
+    try {
+      cached.inUse = false;
+      if (cached.detached || statements.size() > maxSize) {
+        if (statements.remove(cached.key, cached)) {
+          stats.recordEviction(EvictionCause.SIZE);
+          poolStats.recordEviction(EvictionCause.SIZE);
+        }
+        cached.statement.close();
+        return;
+      }
+    } finally {
+      lock.unlock();
+    }
+    try {
+      cached.reset();
+    } catch (SQLException e) {
+      lock.lock();
+      try {
+        statements.remove(cached.key, cached);
+      } finally {
+        lock.unlock();
+      }
+      closeQuietly(cached.statement);
+    }
+  }
+
+  private void remove(CachedStatement cached) {
+    lock.lock();
+    try {
+      cached.detached = true;
+      statements.remove(cached.key, cached);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private static List<Object> keyOf(Object[] args) {
+    List<Object> key = new ArrayList<>(args.length);
+    for (Object arg : args) {
+      if (arg instanceof int[]) {
+        key.add(Arrays.toString((int[]) arg));
+      } else if (arg instanceof Object[]) {
+        key.add(Arrays.asList((Object[]) arg));
+      } else {
+        key.add(arg);
+      }
+    }
+    return key;
+  }
+
+  private static void closeQuietly(PreparedStatement statement) {
+    try {
+      statement.close();
+    } catch (SQLException e) {
+      // ignore
+    }
+  }
+
+  private final class CachedStatement {
+
+    private final List<Object> key;
+    private final PreparedStatement statement;
+    private boolean inUse;
+    private boolean detached;
+    private boolean batched;
+    private int[] settings;
+
+    CachedStatement(List<Object> key, PreparedStatement statement) {
+      this.key = key;
+      this.statement = statement;
+    }
+
+    PreparedStatement newHandle() {
+      return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(), IFACES,
+          new Handle(this));
+    }
+
+    /**
+     * Remembers the settings a borrower is about to change.
+     */
+    void beforeSettingsChange() throws SQLException {
+      if (settings == null) {
+        settings = new int[] { statement.getFetchSize(), statement.getFetchDirection(), statement.getMaxRows(),
+            statement.getMaxFieldSize(), statement.getQueryTimeout() };
+      }
+    }
+
+    void reset() throws SQLException {
+      if (batched) {
+        statement.clearBatch();
+        batched = false;
+      }
+      if (settings != null) {
+        statement.setFetchSize(settings[0]);
+        statement.setFetchDirection(settings[1]);
+        statement.setMaxRows(settings[2]);
+        statement.setMaxFieldSize(settings[3]);
+        statement.setQueryTimeout(settings[4]);
+        settings = null;
+      }
+      statement.clearParameters();
+      statement.clearWarnings();
+    }
+  }
+
+  private final class Handle implements InvocationHandler {
+
+    private final CachedStatement cached;
+    private boolean closed;
+
+    Handle(CachedStatement cached) {
+      this.cached = cached;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      String methodName = method.getName();
+      if (Object.class.equals(method.getDeclaringClass())) {
+        if ("equals".equals(methodName)) {
+          return proxy == args[0];
+        }
+        return "hashCode".equals(methodName) ? System.identityHashCode(proxy) : cached.statement.toString();
+      }
+      if ("close".equals(methodName)) {
+        if (!closed) {
+          closed = true;
+          checkIn(cached);
+        }
+        return null;
+      }
+      if ("isClosed".equals(methodName)) {
+        return closed || cached.statement.isClosed();
+      }
+      if (closed) {
+        throw new SQLException("Statement is closed.");
+      }
+      switch (methodName) {
+        case "addBatch":
+          cached.batched = true;
+          break;
+        case "closeOnCompletion":
+          // the driver closes it once its results are read, so it cannot be reused
+          remove(cached);
+          break;
+        case "setFetchSize":
+        case "setFetchDirection":
+        case "setMaxRows":
+        case "setMaxFieldSize":
+        case "setQueryTimeout":
+          cached.beforeSettingsChange();
+          break;
+        default:
+          break;
+      }
+      try {
+        return method.invoke(cached.statement, args);
+      } catch (Throwable t) {
+        throw ExceptionUtil.unwrapThrowable(t);
+      }
+    }
+  }
+
+}
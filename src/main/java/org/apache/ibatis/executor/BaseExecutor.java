@@ -1,5 +1,5 @@
 /*
- *    Copyright 2009-2025 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -24,6 +24,8 @@ import java.util.List;
 import java.util.concurrent.ConcurrentLinkedQueue;
 
 import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.cache.CacheStats;
+import org.apache.ibatis.cache.impl.DefaultCacheWeigher;
 import org.apache.ibatis.cache.impl.PerpetualCache;
 import org.apache.ibatis.cursor.Cursor;
 import org.apache.ibatis.executor.statement.StatementUtil;
@@ -66,7 +68,7 @@ public abstract class BaseExecutor implements Executor {
   protected BaseExecutor(Configuration configuration, Transaction transaction) {
     this.transaction = transaction;
     this.deferredLoads = new ConcurrentLinkedQueue<>();
-    this.localCache = new PerpetualCache("LocalCache");
+    this.localCache = newLocalCache(configuration);
     this.localOutputParameterCache = new PerpetualCache("LocalOutputParameterCache");
     this.closed = false;
     this.configuration = configuration;
@@ -154,8 +156,12 @@ public abstract class BaseExecutor implements Executor {
       queryStack++;
       list = resultHandler == null ? (List<E>) localCache.getObject(key) : null;
       if (list != null) {
+        configuration.getLocalCacheStats().recordHit();
         handleLocallyCachedOutputParameters(ms, key, parameter, boundSql);
       } else {
+        if (resultHandler == null) {
+          configuration.getLocalCacheStats().recordMiss();
+        }
         list = queryFromDatabase(ms, parameter, rowBounds, resultHandler, key, boundSql);
       }
     } finally {
@@ -170,6 +176,15 @@ public abstract class BaseExecutor implements Executor {
       if (configuration.getLocalCacheScope() == LocalCacheScope.STATEMENT) {
         // issue #482
         clearLocalCache();
+      } else {
+        if (configuration.getLocalCacheScope() == LocalCacheScope.NESTED) {
+          localCache.removeObject(key);
+          localOutputParameterCache.removeObject(key);
+        }
+        // no query is in progress anymore, entries can be evicted safely
+        if (localCache instanceof BoundedLocalCache) {
+          ((BoundedLocalCache) localCache).evict(localOutputParameterCache);
+        }
       }
     }
     return list;
@@ -200,12 +215,13 @@ public abstract class BaseExecutor implements Executor {
     if (closed) {
       throw new ExecutorException("Executor was closed.");
     }
-    CacheKey cacheKey = new CacheKey();
+    List<ParameterMapping> parameterMappings = boundSql.getParameterMappings();
+    // statement id, offset, limit, sql, parameters and environment id
+    CacheKey cacheKey = new CacheKey(parameterMappings.size() + 5);
     cacheKey.update(ms.getId());
     cacheKey.update(rowBounds.getOffset());
     cacheKey.update(rowBounds.getLimit());
     cacheKey.update(boundSql.getSql());
-    List<ParameterMapping> parameterMappings = boundSql.getParameterMappings();
     TypeHandlerRegistry typeHandlerRegistry = ms.getConfiguration().getTypeHandlerRegistry();
     // mimic DefaultParameterHandler logic
     MetaObject metaObject = null;
@@ -340,11 +356,13 @@ public abstract class BaseExecutor implements Executor {
       ResultHandler resultHandler, CacheKey key, BoundSql boundSql) throws SQLException {
     List<E> list;
     localCache.putObject(key, EXECUTION_PLACEHOLDER);
+    long start = System.nanoTime();
     try {
       list = doQuery(ms, parameter, rowBounds, resultHandler, boundSql);
     } finally {
       localCache.removeObject(key);
     }
+    configuration.getLocalCacheStats().recordLoad(System.nanoTime() - start);
     localCache.putObject(key, list);
     if (ms.getStatementType() == StatementType.CALLABLE) {
       localOutputParameterCache.putObject(key, parameter);
@@ -352,6 +370,16 @@ public abstract class BaseExecutor implements Executor {
     return list;
   }
 
+  private static PerpetualCache newLocalCache(Configuration configuration) {
+    Integer maxEntries = configuration == null ? null : configuration.getLocalCacheSize();
+    Long maxBytes = configuration == null ? null : configuration.getLocalCacheMaxBytes();
+    if (maxEntries == null && maxBytes == null) {
+      return new PerpetualCache("LocalCache");
+    }
+    return new BoundedLocalCache("LocalCache", maxEntries == null ? 0 : maxEntries, maxBytes == null ? 0 : maxBytes,
+        new DefaultCacheWeigher(), configuration.getLocalCacheStats());
+  }
+
   protected Connection getConnection(Log statementLog) throws SQLException {
     Connection connection = transaction.getConnection();
     if (statementLog.isDebugEnabled()) {
@@ -374,6 +402,7 @@ public abstract class BaseExecutor implements Executor {
     private final PerpetualCache localCache;
     private final ObjectFactory objectFactory;
     private final ResultExtractor resultExtractor;
+    private final CacheStats stats;
 
     // issue #781
     public DeferredLoad(MetaObject resultObject, String property, CacheKey key, PerpetualCache localCache,
@@ -382,19 +411,23 @@ public abstract class BaseExecutor implements Executor {
       this.property = property;
       this.key = key;
       this.localCache = localCache;
+      this.stats = configuration.getLocalCacheStats();
       this.objectFactory = configuration.getObjectFactory();
       this.resultExtractor = new ResultExtractor(configuration, objectFactory);
       this.targetType = targetType;
     }
 
     public boolean canLoad() {
-      return localCache.getObject(key) != null && localCache.getObject(key) != EXECUTION_PLACEHOLDER;
+      Object value = localCache.getObject(key);
+      return value != null && value != EXECUTION_PLACEHOLDER;
     }
 
     public void load() {
       @SuppressWarnings("unchecked")
       // we suppose we get back a List
       List<Object> list = (List<Object>) localCache.getObject(key);
+      // the nested query is answered from the local cache, right away or once the pending query completed
+      stats.recordHit();
       Object value = resultExtractor.extractObjectFromList(list, targetType);
       resultObject.setValue(property, value);
     }
@@ -1,5 +1,5 @@
 /*
- *    Copyright 2009-2023 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -21,7 +21,10 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.ibatis.cursor.Cursor;
 import org.apache.ibatis.executor.keygen.Jdbc3KeyGenerator;
@@ -30,6 +33,10 @@ import org.apache.ibatis.executor.keygen.NoKeyGenerator;
 import org.apache.ibatis.executor.statement.StatementHandler;
 import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.mapping.StatementType;
+import org.apache.ibatis.reflection.MetaObject;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
@@ -44,11 +51,31 @@ public class BatchExecutor extends BaseExecutor {
 
   private final List<Statement> statementList = new ArrayList<>();
   private final List<BatchResult> batchResultList = new ArrayList<>();
+  private final List<BatchResult> flushedResultList = new ArrayList<>();
+  private final Map<MappedStatement, Map<String, Integer>> statementIndexes = new HashMap<>();
+  private final Map<MappedStatement, Map<String, Integer>> statementRanks = new HashMap<>();
+  private final List<Integer> batchRanks = new ArrayList<>();
+  private final List<PendingRows> pendingRowsList = new ArrayList<>();
+  private final int flushSize;
+  private final long flushBytes;
+  private final boolean retainParameterObjects;
+  private final boolean groupStatements;
+  private final int rewriteMaxParameters;
   private String currentSql;
   private MappedStatement currentStatement;
+  private int pendingCount;
+  private long pendingBytes;
+  private int nextRank;
 
   public BatchExecutor(Configuration configuration, Transaction transaction) {
     super(configuration, transaction);
+    Integer batchFlushSize = configuration.getBatchFlushSize();
+    Long batchFlushBytes = configuration.getBatchFlushBytes();
+    this.flushSize = batchFlushSize == null || batchFlushSize <= 0 ? Integer.MAX_VALUE : batchFlushSize;
+    this.flushBytes = batchFlushBytes == null || batchFlushBytes <= 0 ? Long.MAX_VALUE : batchFlushBytes;
+    this.retainParameterObjects = configuration.isBatchRetainParameterObjects();
+    this.groupStatements = configuration.isBatchGroupStatements();
+    this.rewriteMaxParameters = Math.max(1, configuration.getBatchRewriteMaxParameters());
   }
 
   @Override
@@ -58,24 +85,43 @@ public class BatchExecutor extends BaseExecutor {
         null, null);
     final BoundSql boundSql = handler.getBoundSql();
     final String sql = boundSql.getSql();
-    final Statement stmt;
-    if (sql.equals(currentSql) && ms.equals(currentStatement)) {
-      int last = statementList.size() - 1;
-      stmt = statementList.get(last);
-      applyTransactionTimeout(stmt);
-      handler.parameterize(stmt);// fix Issues 322
-      BatchResult batchResult = batchResultList.get(last);
-      batchResult.addParameterObject(parameterObject);
+    PendingRows rows = pendingRows(ms, boundSql);
+    List<Object> values = null;
+    if (rows != null) {
+      // bound now like a plain batch would, the parameter object may be reused for the next row
+      values = parameterValues(boundSql, parameterObject);
+      rows.add(boundRow(boundSql, values), parameterObject);
+      if (rows.isFull()) {
+        addRows(rows);
+      }
     } else {
-      Connection connection = getConnection(ms.getStatementLog());
-      stmt = handler.prepare(connection, transaction.getTimeout());
-      handler.parameterize(stmt); // fix Issues 322
-      currentSql = sql;
-      currentStatement = ms;
-      statementList.add(stmt);
-      batchResultList.add(new BatchResult(ms, sql, parameterObject));
+      final Statement stmt;
+      int index = indexOf(ms, sql);
+      if (index >= 0) {
+        stmt = statementList.get(index);
+        applyTransactionTimeout(stmt);
+        handler.parameterize(stmt);// fix Issues 322
+        BatchResult batchResult = batchResultList.get(index);
+        batchResult.addParameterObject(parameterObject);
+      } else {
+        Connection connection = getConnection(ms.getStatementLog());
+        stmt = handler.prepare(connection, transaction.getTimeout());
+        handler.parameterize(stmt); // fix Issues 322
+        BatchResult batchResult = addStatement(ms, sql, sql, stmt);
+        batchResult.addParameterObject(parameterObject);
+      }
+      handler.batch(stmt);
+    }
+    pendingCount++;
+    if (flushBytes != Long.MAX_VALUE) {
+      pendingBytes += estimateSize(values != null ? values : parameterValues(boundSql, parameterObject));
+    }
+    if (pendingCount >= flushSize || pendingBytes >= flushBytes) {
+      // sent now to bound the memory held by the parameter objects and the driver, reported by the next flush
+      for (BatchResult batchResult : executeBatches()) {
+        addFlushedResult(batchResult);
+      }
     }
-    handler.batch(stmt);
     return BATCH_UPDATE_RETURN_VALUE;
   }
 
@@ -114,14 +160,36 @@ public class BatchExecutor extends BaseExecutor {
   @Override
   public List<BatchResult> doFlushStatements(boolean isRollback) throws SQLException {
     try {
-      List<BatchResult> results = new ArrayList<>();
       if (isRollback) {
+        closeStatements();
+        flushedResultList.clear();
         return Collections.emptyList();
       }
-      for (int i = 0, n = statementList.size(); i < n; i++) {
-        Statement stmt = statementList.get(i);
+      List<BatchResult> results = executeBatches();
+      if (flushedResultList.isEmpty()) {
+        return results;
+      }
+      for (BatchResult batchResult : results) {
+        addFlushedResult(batchResult);
+      }
+      results = new ArrayList<>(flushedResultList);
+      flushedResultList.clear();
+      return results;
+    } finally {
+      statementRanks.clear();
+      nextRank = 0;
+    }
+  }
+
+  private List<BatchResult> executeBatches() throws SQLException {
+    try {
+      addPendingRows();
+      List<BatchResult> results = new ArrayList<>();
+      List<Integer> order = executionOrder();
+      for (int i = 0, n = order.size(); i < n; i++) {
+        Statement stmt = statementList.get(order.get(i));
         applyTransactionTimeout(stmt);
-        BatchResult batchResult = batchResultList.get(i);
+        BatchResult batchResult = batchResultList.get(order.get(i));
         try {
           batchResult.setUpdateCounts(stmt.executeBatch());
           MappedStatement ms = batchResult.getMappedStatement();
@@ -145,19 +213,287 @@ public class BatchExecutor extends BaseExecutor {
             message.append(" ").append(i)
                 .append(" prior sub executor(s) completed successfully, but will be rolled back.");
           }
-          throw new BatchExecutorException(message.toString(), e, results, batchResult);
+          List<BatchResult> successfulResults = results;
+          if (!flushedResultList.isEmpty()) {
+            successfulResults = new ArrayList<>(flushedResultList);
+            successfulResults.addAll(results);
+          }
+          throw new BatchExecutorException(message.toString(), e, successfulResults, batchResult);
         }
         results.add(batchResult);
       }
       return results;
     } finally {
-      for (Statement stmt : statementList) {
-        closeStatement(stmt);
+      closeStatements();
+    }
+  }
+
+  private void closeStatements() {
+    for (Statement stmt : statementList) {
+      closeStatement(stmt);
+    }
+    currentSql = null;
+    statementIndexes.clear();
+    batchRanks.clear();
+    pendingRowsList.clear();
+    statementList.clear();
+    batchResultList.clear();
+    pendingCount = 0;
+    pendingBytes = 0;
+  }
+
+  /**
+   * Adds a new batch once its first execution is parameterized, so that a flush triggered meanwhile does not see it.
+   *
+   * @param ms
+   *          the statement
+   * @param sql
+   *          the sql of the batch
+   * @param statementSql
+   *          the sql of the executions the batch is made of, which orders the batch when grouping
+   * @param stmt
+   *          the prepared statement
+   *
+   * @return the result of the new batch
+   */
+  private BatchResult addStatement(MappedStatement ms, String sql, String statementSql, Statement stmt) {
+    currentSql = sql;
+    currentStatement = ms;
+    if (groupStatements) {
+      statementIndexes.computeIfAbsent(ms, k -> new HashMap<>()).put(sql, statementList.size());
+      batchRanks.add(rankOf(ms, statementSql));
+    }
+    statementList.add(stmt);
+    // key generators read the parameter objects back once the batch is executed
+    BatchResult batchResult = new BatchResult(ms, sql,
+        retainParameterObjects || !NoKeyGenerator.class.equals(ms.getKeyGenerator().getClass()));
+    batchResultList.add(batchResult);
+    return batchResult;
+  }
+
+  private int rankOf(MappedStatement ms, String sql) {
+    return statementRanks.computeIfAbsent(ms, k -> new HashMap<>()).computeIfAbsent(sql, k -> nextRank++);
+  }
+
+  /**
+   * Returns the rows collected for a rewritable insert, or {@code null} if the execution is batched as is. Without
+   * grouping, the rows of another statement are added to their batch first so that the executions stay in order.
+   */
+  private PendingRows pendingRows(MappedStatement ms, BoundSql boundSql) throws SQLException {
+    String sql = boundSql.getSql();
+    PendingRows rows = null;
+    for (PendingRows pending : pendingRowsList) {
+      if (pending.ms.equals(ms) && pending.sql.equals(sql)) {
+        rows = pending;
+        break;
       }
-      currentSql = null;
-      statementList.clear();
-      batchResultList.clear();
     }
+    if (rows == null && !groupStatements) {
+      addPendingRows();
+    }
+    if (rows != null || !isRewritable(ms)) {
+      return rows;
+    }
+    MultiRowInsert insert = MultiRowInsert.parse(sql, boundSql.getParameterMappings().size());
+    if (insert == null) {
+      return null;
+    }
+    int parametersPerRow = insert.getParametersPerRow();
+    rows = new PendingRows(ms, sql, insert,
+        parametersPerRow == 0 ? rewriteMaxParameters : Math.max(1, rewriteMaxParameters / parametersPerRow));
+    pendingRowsList.add(rows);
+    if (groupStatements) {
+      rankOf(ms, sql);
+    }
+    return rows;
+  }
+
+  private boolean isRewritable(MappedStatement ms) {
+    Class<?> keyGeneratorType = ms.getKeyGenerator().getClass();
+    // keys selected after the insert cannot be told apart once the rows are sent together
+    return ms.isRewriteBatch() && ms.getSqlCommandType() == SqlCommandType.INSERT
+        && ms.getStatementType() == StatementType.PREPARED
+        && (NoKeyGenerator.class.equals(keyGeneratorType) || Jdbc3KeyGenerator.class.equals(keyGeneratorType));
+  }
+
+  private void addPendingRows() throws SQLException {
+    for (PendingRows rows : pendingRowsList) {
+      if (!rows.parameterObjects.isEmpty()) {
+        addRows(rows);
+      }
+    }
+    pendingRowsList.clear();
+  }
+
+  /**
+   * Adds the collected rows to the batch of the multi-row insert of the same size, as a single execution.
+   */
+  private void addRows(PendingRows rows) throws SQLException {
+    // taken first in case parameterizing them triggers a flush
+    List<ParameterMapping> parameterMappings = new ArrayList<>(rows.parameterMappings);
+    List<Object> parameterObjects = new ArrayList<>(rows.parameterObjects);
+    rows.parameterMappings.clear();
+    rows.parameterObjects.clear();
+    MappedStatement ms = rows.ms;
+    String sql = rows.insert.getSql(parameterObjects.size());
+    BoundSql boundSql = new BoundSql(configuration, sql, parameterMappings, parameterObjects.get(0));
+    StatementHandler handler = configuration.newStatementHandler(this, ms, parameterObjects.get(0), RowBounds.DEFAULT,
+        null, boundSql);
+    int index = indexOf(ms, sql);
+    final Statement stmt;
+    if (index >= 0) {
+      stmt = statementList.get(index);
+      applyTransactionTimeout(stmt);
+    } else {
+      Connection connection = getConnection(ms.getStatementLog());
+      stmt = handler.prepare(connection, transaction.getTimeout());
+    }
+    handler.parameterize(stmt);
+    BatchResult batchResult = index >= 0 ? batchResultList.get(index) : addStatement(ms, sql, rows.sql, stmt);
+    for (Object parameterObject : parameterObjects) {
+      batchResult.addParameterObject(parameterObject);
+    }
+    handler.batch(stmt);
+  }
+
+  /**
+   * Copies the parameter mappings of one row with the values they have right now.
+   */
+  private List<ParameterMapping> boundRow(BoundSql boundSql, List<Object> values) {
+    List<ParameterMapping> parameterMappings = boundSql.getParameterMappings();
+    List<ParameterMapping> boundMappings = new ArrayList<>(parameterMappings.size());
+    for (int i = 0, n = parameterMappings.size(); i < n; i++) {
+      ParameterMapping mapping = parameterMappings.get(i);
+      boundMappings.add(new ParameterMapping.Builder(configuration, mapping.getProperty(), mapping.getTypeHandler())
+          .mode(mapping.getMode()).javaType(mapping.getJavaType()).jdbcType(mapping.getJdbcType())
+          .numericScale(mapping.getNumericScale()).resultMapId(mapping.getResultMapId())
+          .jdbcTypeName(mapping.getJdbcTypeName()).expression(mapping.getExpression()).value(values.get(i)).build());
+    }
+    return boundMappings;
+  }
+
+  /**
+   * Returns the index of the pending batch the execution can be appended to, or -1 if it needs a new one. Without
+   * grouping, only the last batch is reused.
+   */
+  private int indexOf(MappedStatement ms, String sql) {
+    if (groupStatements) {
+      Map<String, Integer> indexes = statementIndexes.get(ms);
+      Integer index = indexes == null ? null : indexes.get(sql);
+      return index == null ? -1 : index;
+    }
+    return sql.equals(currentSql) && ms.equals(currentStatement) ? statementList.size() - 1 : -1;
+  }
+
+  /**
+   * Returns the indexes of the pending batches in the order they are sent. When grouping, batches are sent in the order
+   * their statements were first executed since the last explicit flush, so that a batch sent early by an auto-flush
+   * does not change the order of the next ones.
+   */
+  private List<Integer> executionOrder() {
+    List<Integer> order = new ArrayList<>(statementList.size());
+    for (int i = 0, n = statementList.size(); i < n; i++) {
+      order.add(i);
+    }
+    if (groupStatements && order.size() > 1) {
+      order.sort(Comparator.comparingInt(batchRanks::get));
+    }
+    return order;
+  }
+
+  /**
+   * Batches of the same statement sent one after the other are reported as a single result, as if they had been sent at
+   * once. When grouping, they are merged with the earlier batch of the same statement.
+   */
+  private void addFlushedResult(BatchResult batchResult) {
+    for (int i = flushedResultList.size() - 1; i >= 0; i--) {
+      BatchResult flushed = flushedResultList.get(i);
+      if (flushed.getMappedStatement().equals(batchResult.getMappedStatement())
+          && flushed.getSql().equals(batchResult.getSql())) {
+        flushed.append(batchResult);
+        return;
+      }
+      if (!groupStatements) {
+        break;
+      }
+    }
+    flushedResultList.add(batchResult);
+  }
+
+  /**
+   * Roughly estimates the memory the driver needs to hold the parameter values of one execution.
+   */
+  private static long estimateSize(List<Object> values) {
+    long size = 16;
+    for (Object value : values) {
+      if (value instanceof CharSequence) {
+        size += 8 + ((CharSequence) value).length();
+      } else if (value instanceof byte[]) {
+        size += 8 + ((byte[]) value).length;
+      } else {
+        size += 8;
+      }
+    }
+    return size;
+  }
+
+  /**
+   * Reads the parameter values of one execution the way the default parameter handler does.
+   */
+  private List<Object> parameterValues(BoundSql boundSql, Object parameterObject) {
+    List<ParameterMapping> parameterMappings = boundSql.getParameterMappings();
+    List<Object> values = new ArrayList<>(parameterMappings.size());
+    MetaObject metaObject = null;
+    for (ParameterMapping parameterMapping : parameterMappings) {
+      String property = parameterMapping.getProperty();
+      Object value;
+      if (parameterMapping.hasValue()) {
+        value = parameterMapping.getValue();
+      } else if (boundSql.hasAdditionalParameter(property)) {
+        value = boundSql.getAdditionalParameter(property);
+      } else if (parameterObject == null) {
+        value = null;
+      } else if (configuration.getTypeHandlerRegistry().hasTypeHandler(parameterObject.getClass())) {
+        value = parameterObject;
+      } else {
+        if (metaObject == null) {
+          metaObject = configuration.newMetaObject(parameterObject);
+        }
+        value = metaObject.getValue(property);
+      }
+      values.add(value);
+    }
+    return values;
+  }
+
+  /**
+   * Executions of a rewritable insert not yet added to a batch.
+   */
+  private static final class PendingRows {
+
+    private final MappedStatement ms;
+    private final String sql;
+    private final MultiRowInsert insert;
+    private final int maxRows;
+    private final List<ParameterMapping> parameterMappings = new ArrayList<>();
+    private final List<Object> parameterObjects = new ArrayList<>();
+
+    PendingRows(MappedStatement ms, String sql, MultiRowInsert insert, int maxRows) {
+      this.ms = ms;
+      this.sql = sql;
+      this.insert = insert;
+      this.maxRows = maxRows;
+    }
+
+    void add(List<ParameterMapping> boundMappings, Object parameterObject) {
+      parameterMappings.addAll(boundMappings);
+      parameterObjects.add(parameterObject);
+    }
+
+    boolean isFull() {
+      return parameterObjects.size() >= maxRows;
+    }
+
   }
 
 }
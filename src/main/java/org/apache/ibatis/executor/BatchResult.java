@@ -1,5 +1,5 @@
 /*
- *    Copyright 2009-2023 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -16,6 +16,7 @@
 package org.apache.ibatis.executor;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import org.apache.ibatis.mapping.MappedStatement;
@@ -28,13 +29,27 @@ public class BatchResult {
   private final MappedStatement mappedStatement;
   private final String sql;
   private final List<Object> parameterObjects;
+  private final boolean retainParameterObjects;
+  private int parameterCount;
 
   private int[] updateCounts;
+  private List<int[]> appendedUpdateCounts;
 
   public BatchResult(MappedStatement mappedStatement, String sql) {
+    this(mappedStatement, sql, true);
+  }
+
+  /**
+   * @param retainParameterObjects
+   *          {@code false} to only count the parameter objects, {@link #getParameterObjects()} is then empty
+   *
+   * @since 3.6.0
+   */
+  public BatchResult(MappedStatement mappedStatement, String sql, boolean retainParameterObjects) {
     this.mappedStatement = mappedStatement;
     this.sql = sql;
-    this.parameterObjects = new ArrayList<>();
+    this.parameterObjects = retainParameterObjects ? new ArrayList<>() : Collections.emptyList();
+    this.retainParameterObjects = retainParameterObjects;
   }
 
   public BatchResult(MappedStatement mappedStatement, String sql, Object parameterObject) {
@@ -59,16 +74,69 @@ public class BatchResult {
     return parameterObjects;
   }
 
+  /**
+   * Returns the number of statement executions in this batch, whether their parameter objects are retained or not.
+   *
+   * @since 3.6.0
+   */
+  public int getParameterCount() {
+    return parameterCount;
+  }
+
+  public boolean isRetainParameterObjects() {
+    return retainParameterObjects;
+  }
+
   public int[] getUpdateCounts() {
+    if (appendedUpdateCounts != null) {
+      int length = updateCounts == null ? 0 : updateCounts.length;
+      for (int[] counts : appendedUpdateCounts) {
+        length += counts.length;
+      }
+      int[] merged = new int[length];
+      int offset = 0;
+      if (updateCounts != null) {
+        System.arraycopy(updateCounts, 0, merged, 0, updateCounts.length);
+        offset = updateCounts.length;
+      }
+      for (int[] counts : appendedUpdateCounts) {
+        System.arraycopy(counts, 0, merged, offset, counts.length);
+        offset += counts.length;
+      }
+      updateCounts = merged;
+      appendedUpdateCounts = null;
+    }
     return updateCounts;
   }
 
   public void setUpdateCounts(int[] updateCounts) {
     this.updateCounts = updateCounts;
+    this.appendedUpdateCounts = null;
   }
 
   public void addParameterObject(Object parameterObject) {
-    this.parameterObjects.add(parameterObject);
+    if (retainParameterObjects) {
+      this.parameterObjects.add(parameterObject);
+    }
+    parameterCount++;
+  }
+
+  /**
+   * Appends a later batch of the same statement, which was sent to the database separately.
+   */
+  void append(BatchResult batchResult) {
+    if (retainParameterObjects) {
+      parameterObjects.addAll(batchResult.parameterObjects);
+    }
+    parameterCount += batchResult.parameterCount;
+    int[] counts = batchResult.getUpdateCounts();
+    if (counts != null) {
+      if (appendedUpdateCounts == null) {
+        appendedUpdateCounts = new ArrayList<>();
+      }
+      // concatenated once they are read, a long load may be sent in many batches
+      appendedUpdateCounts.add(counts);
+    }
   }
 
 }
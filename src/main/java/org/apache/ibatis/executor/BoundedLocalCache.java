@@ -0,0 +1,134 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor;
+
+import static org.apache.ibatis.executor.ExecutionPlaceholder.EXECUTION_PLACEHOLDER;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.CacheStats;
+import org.apache.ibatis.cache.CacheStats.EvictionCause;
+import org.apache.ibatis.cache.CacheWeigher;
+import org.apache.ibatis.cache.impl.PerpetualCache;
+
+/**
+ * Local cache bounded by a number of entries and an estimated number of bytes, evicting the least recently used entries
+ * first.
+ * <p>
+ * Entries are only evicted by {@link #evict(Cache)}, which the executor calls once no query is in progress: while a
+ * query runs, the placeholders of the queries being executed and the results that deferred loads will read must stay in
+ * place, so the limits may be temporarily exceeded.
+ *
+ * @since 3.6.0
+ */
+final class BoundedLocalCache extends PerpetualCache {
+
+  private final int maxEntries;
+  private final long maxBytes;
+  private final CacheWeigher weigher;
+  private final CacheStats stats;
+  private final LinkedHashMap<Object, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private long bytes;
+
+  /**
+   * @param maxEntries
+   *          the maximum number of entries, {@code 0} for no limit
+   * @param maxBytes
+   *          the maximum estimated number of bytes, {@code 0} for no limit
+   */
+  BoundedLocalCache(String id, int maxEntries, long maxBytes, CacheWeigher weigher, CacheStats stats) {
+    super(id);
+    this.maxEntries = maxEntries;
+    this.maxBytes = maxBytes;
+    this.weigher = weigher;
+    this.stats = stats;
+  }
+
+  @Override
+  public int getSize() {
+    return entries.size();
+  }
+
+  @Override
+  public void putObject(Object key, Object value) {
+    long weight = maxBytes == 0 || value == EXECUTION_PLACEHOLDER ? 0 : weigher.weigh(key, value);
+    Entry previous = entries.put(key, new Entry(value, weight));
+    if (previous != null) {
+      bytes -= previous.weight;
+    }
+    bytes += weight;
+  }
+
+  @Override
+  public Object getObject(Object key) {
+    Entry entry = entries.get(key);
+    return entry == null ? null : entry.value;
+  }
+
+  @Override
+  public Object removeObject(Object key) {
+    Entry entry = entries.remove(key);
+    if (entry == null) {
+      return null;
+    }
+    bytes -= entry.weight;
+    return entry.value;
+  }
+
+  @Override
+  public void clear() {
+    entries.clear();
+    bytes = 0;
+  }
+
+  /**
+   * Removes the least recently used entries until the cache fits in its limits.
+   *
+   * @param companion
+   *          a cache keyed like this one, e.g. the output parameters of callable statements, whose entries are removed
+   *          along with the evicted ones
+   */
+  void evict(Cache companion) {
+    Iterator<Map.Entry<Object, Entry>> iterator = entries.entrySet().iterator();
+    while (iterator.hasNext() && (maxEntries > 0 && entries.size() > maxEntries || maxBytes > 0 && bytes > maxBytes)) {
+      EvictionCause cause = maxEntries > 0 && entries.size() > maxEntries ? EvictionCause.SIZE : EvictionCause.WEIGHT;
+      Map.Entry<Object, Entry> eldest = iterator.next();
+      iterator.remove();
+      bytes -= eldest.getValue().weight;
+      companion.removeObject(eldest.getKey());
+      stats.recordEviction(cause);
+    }
+  }
+
+  @Override
+  public boolean isThreadSafe() {
+    return false;
+  }
+
+  private static final class Entry {
+    private final Object value;
+    private final long weight;
+
+    Entry(Object value, long weight) {
+      this.value = value;
+      this.weight = weight;
+    }
+  }
+
+}
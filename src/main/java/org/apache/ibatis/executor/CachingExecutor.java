@@ -1,5 +1,5 @@
 /*
- *    Copyright 2009-2024 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -16,18 +16,28 @@
 package org.apache.ibatis.executor;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
 
 import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.CacheInvalidationBus;
 import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.cache.CacheStats;
+import org.apache.ibatis.cache.NegativeResult;
+import org.apache.ibatis.cache.TableDependencyTracker;
+import org.apache.ibatis.cache.TableDependencyTracker.StampedValue;
 import org.apache.ibatis.cache.TransactionalCacheManager;
+import org.apache.ibatis.cache.decorators.RefreshAheadCache;
 import org.apache.ibatis.cursor.Cursor;
 import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.Environment;
 import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.mapping.ParameterMapping;
 import org.apache.ibatis.mapping.ParameterMode;
+import org.apache.ibatis.mapping.SqlCommandType;
 import org.apache.ibatis.mapping.StatementType;
 import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
 import org.apache.ibatis.transaction.Transaction;
@@ -39,10 +49,39 @@ import org.apache.ibatis.transaction.Transaction;
 public class CachingExecutor implements Executor {
 
   private final Executor delegate;
-  private final TransactionalCacheManager tcm = new TransactionalCacheManager();
+  private final TableDependencyTracker tracker;
+  private final TransactionalCacheManager tcm;
 
   public CachingExecutor(Executor delegate) {
+    this(delegate, null);
+  }
+
+  /**
+   * @param delegate
+   *          the executor that runs the statements
+   * @param tracker
+   *          the tracker used to invalidate entries by table, or {@code null} to flush whole namespaces
+   *
+   * @since 3.6.0
+   */
+  public CachingExecutor(Executor delegate, TableDependencyTracker tracker) {
+    this(delegate, tracker, null);
+  }
+
+  /**
+   * @param delegate
+   *          the executor that runs the statements
+   * @param tracker
+   *          the tracker used to invalidate entries by table, or {@code null} to flush whole namespaces
+   * @param bus
+   *          the bus that publishes the committed invalidations to the other nodes, or {@code null}
+   *
+   * @since 3.6.0
+   */
+  public CachingExecutor(Executor delegate, TableDependencyTracker tracker, CacheInvalidationBus bus) {
     this.delegate = delegate;
+    this.tracker = tracker;
+    this.tcm = new TransactionalCacheManager(tracker, bus);
     delegate.setExecutorWrapper(this);
   }
 
@@ -72,7 +111,11 @@ public class CachingExecutor implements Executor {
 
   @Override
   public int update(MappedStatement ms, Object parameterObject) throws SQLException {
-    flushCacheIfRequired(ms);
+    if (tracker != null && ms.getSqlCommandType() != SqlCommandType.SELECT) {
+      invalidateTablesIfRequired(ms, parameterObject);
+    } else {
+      flushCacheIfRequired(ms);
+    }
     return delegate.update(ms, parameterObject);
   }
 
@@ -98,11 +141,15 @@ public class CachingExecutor implements Executor {
       flushCacheIfRequired(ms);
       if (ms.isUseCache() && resultHandler == null) {
         ensureNoOutParams(ms, boundSql);
-        @SuppressWarnings("unchecked")
-        List<E> list = (List<E>) tcm.getObject(cache, key);
+        if (tracker != null) {
+          return queryWithTableDependencies(ms, parameterObject, rowBounds, key, boundSql, cache);
+        }
+        List<E> list = toList(tcm.getObject(cache, key));
         if (list == null) {
-          list = delegate.query(ms, parameterObject, rowBounds, resultHandler, key, boundSql);
-          tcm.putObject(cache, key, list); // issue #578 and #116
+          list = load(ms, parameterObject, rowBounds, key, boundSql, cache);
+          tcm.putObject(cache, key, toCachedValue(ms, list)); // issue #578 and #116
+        } else {
+          refreshIfStale(ms, parameterObject, rowBounds, key, cache);
         }
         return list;
       }
@@ -110,6 +157,92 @@ public class CachingExecutor implements Executor {
     return delegate.query(ms, parameterObject, rowBounds, resultHandler, key, boundSql);
   }
 
+  private <E> List<E> queryWithTableDependencies(MappedStatement ms, Object parameterObject, RowBounds rowBounds,
+      CacheKey key, BoundSql boundSql, Cache cache) throws SQLException {
+    String[] tables = tracker.getReadTables(ms, boundSql);
+    List<E> list = toList(tcm.getObject(cache, key, tables));
+    if (list == null) {
+      long stamp = tracker.stamp();
+      list = load(ms, parameterObject, rowBounds, key, boundSql, cache);
+      tcm.putObject(cache, key, toCachedValue(ms, list), stamp, tables);
+    } else {
+      refreshIfStale(ms, parameterObject, rowBounds, key, cache);
+    }
+    return list;
+  }
+
+  /**
+   * Returns the result held by a cached value, or {@code null} if it is an expired negative result.
+   */
+  @SuppressWarnings("unchecked")
+  private static <E> List<E> toList(Object value) {
+    NegativeResult negative = NegativeResult.unwrap(value);
+    if (negative == null) {
+      return (List<E>) value;
+    }
+    return negative.isExpired(System.currentTimeMillis()) ? null : new ArrayList<>();
+  }
+
+  private static Object toCachedValue(MappedStatement ms, List<?> list) {
+    Long negativeCacheTtl = ms.getNegativeCacheTtl();
+    if (negativeCacheTtl == null || negativeCacheTtl <= 0 || !list.isEmpty()) {
+      return list;
+    }
+    Integer negativeCacheSize = ms.getNegativeCacheSize();
+    return new NegativeResult(ms.getId(), negativeCacheTtl, negativeCacheSize == null ? 0 : negativeCacheSize);
+  }
+
+  private <E> List<E> load(MappedStatement ms, Object parameterObject, RowBounds rowBounds, CacheKey key,
+      BoundSql boundSql, Cache cache) throws SQLException {
+    CacheStats stats = cache.getStats();
+    if (stats == null) {
+      return delegate.query(ms, parameterObject, rowBounds, null, key, boundSql);
+    }
+    long start = System.nanoTime();
+    List<E> list = delegate.query(ms, parameterObject, rowBounds, null, key, boundSql);
+    stats.recordLoad(System.nanoTime() - start);
+    return list;
+  }
+
+  private void refreshIfStale(MappedStatement ms, Object parameterObject, RowBounds rowBounds, CacheKey key,
+      Cache cache) {
+    if (cache instanceof RefreshAheadCache && ((RefreshAheadCache) cache).isStale(key)) {
+      ((RefreshAheadCache) cache).refresh(key, () -> reload(ms, parameterObject, rowBounds, key, cache));
+    }
+  }
+
+  /**
+   * Runs the query again on its own transaction, bypassing the second level cache. Returns {@code null}, so that the
+   * stale entry is kept, if the parameter was modified since the entry was read.
+   */
+  private Object reload(MappedStatement ms, Object parameterObject, RowBounds rowBounds, CacheKey key, Cache cache)
+      throws SQLException {
+    Configuration configuration = ms.getConfiguration();
+    Environment environment = configuration.getEnvironment();
+    if (environment == null || environment.getDataSource() == null) {
+      return null;
+    }
+    Transaction tx = environment.getTransactionFactory().newTransaction(environment.getDataSource(), null, false);
+    Executor executor = new SimpleExecutor(configuration, tx);
+    try {
+      BoundSql boundSql = ms.getBoundSql(parameterObject);
+      long stamp = tracker == null ? 0 : tracker.stamp();
+      long start = System.nanoTime();
+      List<Object> list = executor.query(ms, parameterObject, rowBounds, Executor.NO_RESULT_HANDLER, key, boundSql);
+      CacheStats stats = cache.getStats();
+      if (stats != null) {
+        stats.recordLoad(System.nanoTime() - start);
+      }
+      if (!key.equals(executor.createCacheKey(ms, parameterObject, rowBounds, boundSql))) {
+        return null;
+      }
+      Object value = toCachedValue(ms, list);
+      return tracker == null ? value : new StampedValue(stamp, tracker.getReadTables(ms, boundSql), value);
+    } finally {
+      executor.close(false);
+    }
+  }
+
   @Override
   public List<BatchResult> flushStatements() throws SQLException {
     return delegate.flushStatements();
@@ -172,6 +305,12 @@ public class CachingExecutor implements Executor {
     }
   }
 
+  private void invalidateTablesIfRequired(MappedStatement ms, Object parameterObject) {
+    if (ms.isFlushCacheRequired()) {
+      tcm.invalidate(tracker.getWrittenTables(ms, parameterObject));
+    }
+  }
+
   @Override
   public void setExecutorWrapper(Executor executor) {
     throw new UnsupportedOperationException("This method should not be called");
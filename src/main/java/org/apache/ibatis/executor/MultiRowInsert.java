@@ -0,0 +1,125 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor;
+
+/**
+ * An insert ending with a single {@code VALUES (...)} row, which can be repeated to insert several rows at once.
+ *
+ * @see org.apache.ibatis.mapping.MappedStatement#isRewriteBatch()
+ */
+final class MultiRowInsert {
+
+  private final String prefix;
+  private final String row;
+  private final String suffix;
+  private final int parametersPerRow;
+
+  private MultiRowInsert(String prefix, String row, String suffix, int parametersPerRow) {
+    this.prefix = prefix;
+    this.row = row;
+    this.suffix = suffix;
+    this.parametersPerRow = parametersPerRow;
+  }
+
+  /**
+   * Finds the row of an insert.
+   *
+   * @param sql
+   *          the sql of the insert
+   * @param parameterCount
+   *          the number of parameters of the sql
+   *
+   * @return the insert, or {@code null} if the sql does not end with a single row holding all its parameters
+   */
+  static MultiRowInsert parse(String sql, int parameterCount) {
+    int length = sql.length();
+    int valuesEnd = -1;
+    int rowStart = -1;
+    int rowEnd = -1;
+    int depth = 0;
+    int placeholders = 0;
+    int rowPlaceholders = 0;
+    for (int i = 0; i < length; i++) {
+      char c = sql.charAt(i);
+      if (c == '\'' || c == '"' || c == '`') {
+        i = sql.indexOf(c, i + 1);
+        if (i < 0) {
+          return null;
+        }
+      } else if (c == '-' && sql.startsWith("--", i)) {
+        i = sql.indexOf('\n', i);
+        if (i < 0) {
+          break;
+        }
+      } else if (c == '/' && sql.startsWith("/*", i)) {
+        i = sql.indexOf("*/", i + 2);
+        if (i < 0) {
+          return null;
+        }
+        i++;
+      } else if (c == '?') {
+        placeholders++;
+      } else if (c == '(') {
+        if (depth == 0 && valuesEnd >= 0 && rowStart < 0 && sql.substring(valuesEnd, i).trim().isEmpty()) {
+          rowStart = i;
+          rowPlaceholders = placeholders;
+        }
+        depth++;
+      } else if (c == ')') {
+        depth--;
+        if (depth == 0 && rowStart >= 0 && rowEnd < 0) {
+          rowEnd = i + 1;
+          rowPlaceholders = placeholders - rowPlaceholders;
+        }
+      } else if (depth == 0 && rowStart < 0 && isKeyword(sql, i, "values")) {
+        valuesEnd = i + 6;
+      }
+    }
+    if (rowEnd < 0 || placeholders != parameterCount || rowPlaceholders != parameterCount) {
+      return null;
+    }
+    String suffix = sql.substring(rowEnd);
+    if (suffix.trim().startsWith(",")) {
+      // already inserts several rows
+      return null;
+    }
+    return new MultiRowInsert(sql.substring(0, rowStart), sql.substring(rowStart, rowEnd), suffix, parameterCount);
+  }
+
+  int getParametersPerRow() {
+    return parametersPerRow;
+  }
+
+  /**
+   * Returns the sql inserting the given number of rows.
+   */
+  String getSql(int rows) {
+    StringBuilder sql = new StringBuilder(prefix.length() + (row.length() + 2) * rows + suffix.length());
+    sql.append(prefix).append(row);
+    for (int i = 1; i < rows; i++) {
+      sql.append(", ").append(row);
+    }
+    return sql.append(suffix).toString();
+  }
+
+  private static boolean isKeyword(String sql, int index, String keyword) {
+    int end = index + keyword.length();
+    return sql.regionMatches(true, index, keyword, 0, keyword.length())
+        && (index == 0 || !Character.isJavaIdentifierPart(sql.charAt(index - 1)))
+        && (end == sql.length() || !Character.isJavaIdentifierPart(sql.charAt(end)));
+  }
+
+}
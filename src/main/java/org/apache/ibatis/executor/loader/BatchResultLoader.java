@@ -0,0 +1,299 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.loader;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.executor.ResultExtractor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ResultMapping;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.reflection.ParamNameResolver;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.RowBounds;
+
+/**
+ * Loads the nested select of a batched result mapping for many parent objects with a single query.
+ * <p>
+ * The keys of the registered parents are passed to the nested statement as one list parameter, available as
+ * {@code list} or {@code collection}. Each returned row is then assigned to the parents whose key equals the value of
+ * the {@link ResultMapping#getForeignProperty() foreign property} of the row.
+ * <p>
+ * Eager targets are loaded together by {@link #load()}. Lazy targets form a group instead: the first one that is
+ * triggered loads itself and up to {@code batchSize} pending siblings with one query, and the siblings keep their
+ * result until they are triggered in turn.
+ *
+ * @see ResultMapping#getBatchSize()
+ */
+public class BatchResultLoader {
+
+  private final Configuration configuration;
+  private final Executor executor;
+  private final MappedStatement mappedStatement;
+  private final ResultMapping resultMapping;
+  private final ResultExtractor resultExtractor;
+  private final String[] foreignProperties;
+  private final Map<Object, Object> keys = new LinkedHashMap<>();
+  private final List<Target> targets = new ArrayList<>();
+  private final Set<LazyResult> lazyResults = new LinkedHashSet<>();
+  private final long creatorThreadId;
+
+  public BatchResultLoader(Configuration configuration, Executor executor, MappedStatement mappedStatement,
+      ResultMapping resultMapping) {
+    this.configuration = configuration;
+    this.executor = executor;
+    this.mappedStatement = mappedStatement;
+    this.resultMapping = resultMapping;
+    this.resultExtractor = new ResultExtractor(configuration, configuration.getObjectFactory());
+    this.foreignProperties = resultMapping.getForeignProperty().split(",");
+    for (int i = 0; i < foreignProperties.length; i++) {
+      foreignProperties[i] = foreignProperties[i].trim();
+    }
+    this.creatorThreadId = Thread.currentThread().getId();
+  }
+
+  /**
+   * Wraps parent keys into the parameter object a batched nested select receives.
+   *
+   * @param keys
+   *          the parent keys, simple values or one parameter object per composite key
+   *
+   * @return the parameter object
+   */
+  public static Object wrapKeys(List<Object> keys) {
+    return ParamNameResolver.wrapToMapIfCollection(keys, null);
+  }
+
+  public void addTarget(MetaObject metaObject, Object key) {
+    Object matchKey = parentKey(key);
+    keys.putIfAbsent(matchKey, key);
+    targets.add(new Target(metaObject, matchKey));
+  }
+
+  /**
+   * Registers the key of a lazily loaded parent in the group of this loader.
+   *
+   * @param key
+   *          the parent key
+   *
+   * @return the result to pass to {@link ResultLoaderMap#addLoader(String, MetaObject, ResultLoader, LazyResult)}
+   */
+  public synchronized LazyResult addLazyTarget(Object key) {
+    LazyResult lazyResult = new LazyResult(this, parentKey(key), key);
+    lazyResults.add(lazyResult);
+    return lazyResult;
+  }
+
+  public boolean isFull() {
+    return keys.size() >= resultMapping.getBatchSize();
+  }
+
+  public boolean isEmpty() {
+    return targets.isEmpty();
+  }
+
+  public void load() throws SQLException {
+    if (targets.isEmpty()) {
+      return;
+    }
+    final List<Target> pending = new ArrayList<>(targets);
+    final List<Object> keyList = new ArrayList<>(keys.values());
+    targets.clear();
+    keys.clear();
+
+    final Object parameterObject = wrapKeys(keyList);
+    final BoundSql boundSql = mappedStatement.getBoundSql(parameterObject);
+    final CacheKey cacheKey = executor.createCacheKey(mappedStatement, parameterObject, RowBounds.DEFAULT, boundSql);
+    if (executor.isCached(mappedStatement, cacheKey)) {
+      // answered from the local cache, right now or once the same keys loaded up the call stack are done
+      executor.deferLoad(mappedStatement, configuration.newMetaObject(new DeferredRows(pending)), "rows", cacheKey,
+          List.class);
+      return;
+    }
+    final List<Object> rows = executor.query(mappedStatement, parameterObject, RowBounds.DEFAULT,
+        Executor.NO_RESULT_HANDLER, cacheKey, boundSql);
+    assignRows(pending, rows);
+  }
+
+  synchronized Object loadLazily(LazyResult lazyResult) throws SQLException {
+    if (lazyResult.loaded) {
+      return lazyResult.value;
+    }
+    final List<LazyResult> group = new ArrayList<>();
+    final Map<Object, Object> groupKeys = new LinkedHashMap<>();
+    lazyResults.remove(lazyResult);
+    group.add(lazyResult);
+    groupKeys.put(lazyResult.matchKey, lazyResult.key);
+    for (Iterator<LazyResult> iterator = lazyResults.iterator(); iterator.hasNext()
+        && groupKeys.size() < resultMapping.getBatchSize();) {
+      LazyResult sibling = iterator.next();
+      iterator.remove();
+      group.add(sibling);
+      groupKeys.putIfAbsent(sibling.matchKey, sibling.key);
+    }
+    Executor localExecutor = executor;
+    if (Thread.currentThread().getId() != creatorThreadId || localExecutor.isClosed()) {
+      localExecutor = ResultLoader.newExecutor(configuration);
+    }
+    try {
+      final Map<Object, List<Object>> rowsByKey = selectRows(localExecutor, new ArrayList<>(groupKeys.values()));
+      for (LazyResult member : group) {
+        member.value = extractValue(rowsByKey, member.matchKey);
+        member.loaded = true;
+      }
+    } finally {
+      if (localExecutor != executor) {
+        localExecutor.close(false);
+      }
+    }
+    return lazyResult.value;
+  }
+
+  private Map<Object, List<Object>> selectRows(Executor executor, List<Object> keyList) throws SQLException {
+    final Object parameterObject = wrapKeys(keyList);
+    final BoundSql boundSql = mappedStatement.getBoundSql(parameterObject);
+    final CacheKey cacheKey = executor.createCacheKey(mappedStatement, parameterObject, RowBounds.DEFAULT, boundSql);
+    return groupRows(executor.query(mappedStatement, parameterObject, RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER,
+        cacheKey, boundSql));
+  }
+
+  private Map<Object, List<Object>> groupRows(List<Object> rows) {
+    final Map<Object, List<Object>> rowsByKey = new HashMap<>();
+    for (Object row : rows) {
+      if (row != null) {
+        rowsByKey.computeIfAbsent(foreignKey(row), k -> new ArrayList<>()).add(row);
+      }
+    }
+    return rowsByKey;
+  }
+
+  private void assignRows(List<Target> pending, List<Object> rows) {
+    final Map<Object, List<Object>> rowsByKey = groupRows(rows);
+    for (Target target : pending) {
+      setValue(target.metaObject, extractValue(rowsByKey, target.matchKey));
+    }
+  }
+
+  private Object extractValue(Map<Object, List<Object>> rowsByKey, Object matchKey) {
+    // every parent gets a list of its own
+    List<Object> matches = new ArrayList<>(rowsByKey.getOrDefault(matchKey, Collections.emptyList()));
+    return resultExtractor.extractObjectFromList(matches, resultMapping.getJavaType());
+  }
+
+  private void setValue(MetaObject metaObject, Object value) {
+    final String property = resultMapping.getProperty();
+    if (value != null || configuration.isCallSettersOnNulls() && !metaObject.getSetterType(property).isPrimitive()) {
+      metaObject.setValue(property, value);
+    }
+  }
+
+  private Object parentKey(Object key) {
+    if (!resultMapping.isCompositeResult()) {
+      return normalize(key);
+    }
+    final MetaObject metaKey = configuration.newMetaObject(key);
+    final List<Object> values = new ArrayList<>();
+    for (ResultMapping composite : resultMapping.getComposites()) {
+      values.add(normalize(metaKey.getValue(composite.getProperty())));
+    }
+    return values;
+  }
+
+  private Object foreignKey(Object row) {
+    final MetaObject metaRow = configuration.newMetaObject(row);
+    if (foreignProperties.length == 1 && !resultMapping.isCompositeResult()) {
+      return normalize(metaRow.getValue(foreignProperties[0]));
+    }
+    final List<Object> values = new ArrayList<>();
+    for (String foreignProperty : foreignProperties) {
+      values.add(normalize(metaRow.getValue(foreignProperty)));
+    }
+    return values;
+  }
+
+  private static Object normalize(Object value) {
+    // the parent column and the foreign property may be mapped to different numeric types
+    if (value instanceof Number) {
+      try {
+        return new BigDecimal(value.toString()).stripTrailingZeros();
+      } catch (NumberFormatException e) {
+        return value;
+      }
+    }
+    return value;
+  }
+
+  /**
+   * The pending result of one lazily loaded parent, filled when any member of its group is loaded.
+   */
+  public static class LazyResult {
+    private final BatchResultLoader batchLoader;
+    private final Object matchKey;
+    private final Object key;
+    private boolean loaded;
+    private Object value;
+
+    LazyResult(BatchResultLoader batchLoader, Object matchKey, Object key) {
+      this.batchLoader = batchLoader;
+      this.matchKey = matchKey;
+      this.key = key;
+    }
+
+    public Object load() throws SQLException {
+      return batchLoader.loadLazily(this);
+    }
+  }
+
+  /**
+   * Receives the cached rows of a batch through {@link Executor#deferLoad} and assigns them to the waiting parents.
+   */
+  private class DeferredRows {
+    private final List<Target> pending;
+
+    DeferredRows(List<Target> pending) {
+      this.pending = pending;
+    }
+
+    @SuppressWarnings("unused")
+    public void setRows(List<Object> rows) {
+      assignRows(pending, rows);
+    }
+  }
+
+  private static class Target {
+    private final MetaObject metaObject;
+    private final Object matchKey;
+
+    Target(MetaObject metaObject, Object matchKey) {
+      this.metaObject = metaObject;
+      this.matchKey = matchKey;
+    }
+  }
+
+}
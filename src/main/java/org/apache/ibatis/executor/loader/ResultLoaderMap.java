@@ -1,5 +1,5 @@
 /*
- *    Copyright 2009-2025 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -59,6 +59,25 @@ public class ResultLoaderMap {
     loaderMap.put(upperFirst, new LoadPair(property, metaResultObject, resultLoader));
   }
 
+  /**
+   * Adds a loader that belongs to a group of sibling rows. Loading any of them loads the property of the whole group
+   * with one query, see {@link BatchResultLoader}.
+   *
+   * @param property
+   *          the property
+   * @param metaResultObject
+   *          the meta result object
+   * @param resultLoader
+   *          the loader of this row alone, used once the object was serialized
+   * @param lazyResult
+   *          the result of this row in its group
+   */
+  public void addLoader(String property, MetaObject metaResultObject, ResultLoader resultLoader,
+      BatchResultLoader.LazyResult lazyResult) {
+    addLoader(property, metaResultObject, resultLoader);
+    loaderMap.get(getUppercaseFirstProperty(property)).lazyResult = lazyResult;
+  }
+
   public final Map<String, LoadPair> getProperties() {
     return new HashMap<>(this.loaderMap);
   }
@@ -127,6 +146,10 @@ public class ResultLoaderMap {
      * Result loader which loads unread properties.
      */
     private transient ResultLoader resultLoader;
+    /**
+     * Result shared with the sibling rows, if the property is loaded for a group of rows.
+     */
+    private transient BatchResultLoader.LazyResult lazyResult;
     /**
      * Wow, logger.
      */
@@ -219,6 +242,11 @@ public class ResultLoaderMap {
             old.parameterObject, old.targetType, old.cacheKey, old.boundSql);
       }
 
+      if (this.lazyResult != null) {
+        this.metaResultObject.setValue(property, this.lazyResult.load());
+        return;
+      }
+
       this.metaResultObject.setValue(property, this.resultLoader.loadResult());
     }
 
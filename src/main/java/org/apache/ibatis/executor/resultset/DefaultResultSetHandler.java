@@ -1,5 +1,5 @@
 /*
- *    Copyright 2009-2025 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -26,6 +26,7 @@ import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.IdentityHashMap;
@@ -44,6 +45,7 @@ import org.apache.ibatis.cursor.defaults.DefaultCursor;
 import org.apache.ibatis.executor.ErrorContext;
 import org.apache.ibatis.executor.Executor;
 import org.apache.ibatis.executor.ExecutorException;
+import org.apache.ibatis.executor.loader.BatchResultLoader;
 import org.apache.ibatis.executor.loader.ResultLoader;
 import org.apache.ibatis.executor.loader.ResultLoaderMap;
 import org.apache.ibatis.executor.parameter.ParameterHandler;
@@ -98,6 +100,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
 
   // nested resultmaps
   private final Map<CacheKey, Object> nestedResultObjects = new HashMap<>();
+  private final CacheKey rowKeyBuffer = new CacheKey();
   private final Map<String, Object> ancestorObjects = new HashMap<>();
   private Object previousRowValue;
 
@@ -112,6 +115,10 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   // temporary marking flag that indicate using constructor mapping (use field to reduce memory usage)
   private boolean useConstructorMappings;
 
+  // batched nested selects, lazy ones are grouped by the rows of this statement
+  private final Map<ResultMapping, BatchResultLoader> batchLoaders = new IdentityHashMap<>();
+  private boolean batchLoading = true;
+
   private static class PendingRelation {
     public MetaObject metaObject;
     public ResultMapping propertyMapping;
@@ -180,6 +187,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
         }
       }
     }
+    loadBatches();
   }
 
   private void handleRefCursorOutputParameter(ResultSet rs, ParameterMapping parameterMapping, MetaObject metaParam)
@@ -242,6 +250,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
       }
     }
 
+    loadBatches();
     return collapseSingleResultList(multipleResults);
   }
 
@@ -260,6 +269,8 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     }
 
     ResultMap resultMap = resultMaps.get(0);
+    // rows are handed out one at a time, there is no point where a batch could be loaded
+    batchLoading = false;
     return new DefaultCursor<>(this, resultMap, rsw, rowBounds);
   }
 
@@ -475,8 +486,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
 
     if (parentRowKey != null) {
       // found a simple object/primitive in pending constructor creation that will need linking later
-      final CacheKey rowKey = createRowKey(resultMap, rsw, columnPrefix);
-      final CacheKey combinedKey = combineKeys(rowKey, parentRowKey);
+      final CacheKey combinedKey = createCombinedRowKey(resultMap, rsw, columnPrefix, parentRowKey);
 
       if (combinedKey != CacheKey.NULL_CACHE_KEY) {
         nestedResultObjects.put(combinedKey, rowValue);
@@ -1004,8 +1014,11 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     final String nestedQueryId = constructorMapping.getNestedQueryId();
     final MappedStatement nestedQuery = configuration.getMappedStatement(nestedQueryId);
     final Class<?> nestedQueryParameterType = nestedQuery.getParameterMap().getType();
-    final Object nestedQueryParameterObject = prepareParameterForNestedQuery(rsw, constructorMapping,
+    Object nestedQueryParameterObject = prepareParameterForNestedQuery(rsw, constructorMapping,
         nestedQueryParameterType, columnPrefix);
+    if (nestedQueryParameterObject != null && constructorMapping.isBatch()) {
+      nestedQueryParameterObject = BatchResultLoader.wrapKeys(Collections.singletonList(nestedQueryParameterObject));
+    }
     Object value = null;
     if (nestedQueryParameterObject != null) {
       final BoundSql nestedBoundSql = nestedQuery.getBoundSql(nestedQueryParameterObject);
@@ -1025,8 +1038,21 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     final String property = propertyMapping.getProperty();
     final MappedStatement nestedQuery = configuration.getMappedStatement(nestedQueryId);
     final Class<?> nestedQueryParameterType = nestedQuery.getParameterMap().getType();
-    final Object nestedQueryParameterObject = prepareParameterForNestedQuery(rsw, propertyMapping,
-        nestedQueryParameterType, columnPrefix);
+    Object nestedQueryParameterObject = prepareParameterForNestedQuery(rsw, propertyMapping, nestedQueryParameterType,
+        columnPrefix);
+    Object batchKey = null;
+    if (nestedQueryParameterObject != null && propertyMapping.isBatch()) {
+      if (!propertyMapping.isLazy() && batchLoading && resultHandler == null) {
+        BatchResultLoader batchLoader = getBatchLoader(propertyMapping, nestedQuery);
+        batchLoader.addTarget(metaResultObject, nestedQueryParameterObject);
+        if (batchLoader.isFull()) {
+          batchLoader.load();
+        }
+        return DEFERRED;
+      }
+      batchKey = nestedQueryParameterObject;
+      nestedQueryParameterObject = BatchResultLoader.wrapKeys(Collections.singletonList(batchKey));
+    }
     Object value = null;
     if (nestedQueryParameterObject != null) {
       final BoundSql nestedBoundSql = nestedQuery.getBoundSql(nestedQueryParameterObject);
@@ -1039,7 +1065,11 @@ public class DefaultResultSetHandler implements ResultSetHandler {
       } else {
         final ResultLoader resultLoader = new ResultLoader(configuration, executor, nestedQuery,
             nestedQueryParameterObject, targetType, key, nestedBoundSql);
-        if (propertyMapping.isLazy()) {
+        if (propertyMapping.isLazy() && batchKey != null) {
+          lazyLoader.addLoader(property, metaResultObject, resultLoader,
+              getBatchLoader(propertyMapping, nestedQuery).addLazyTarget(batchKey));
+          value = DEFERRED;
+        } else if (propertyMapping.isLazy()) {
           lazyLoader.addLoader(property, metaResultObject, resultLoader);
           value = DEFERRED;
         } else {
@@ -1050,6 +1080,17 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     return value;
   }
 
+  private BatchResultLoader getBatchLoader(ResultMapping propertyMapping, MappedStatement nestedQuery) {
+    return batchLoaders.computeIfAbsent(propertyMapping,
+        k -> new BatchResultLoader(configuration, executor, nestedQuery, propertyMapping));
+  }
+
+  private void loadBatches() throws SQLException {
+    for (BatchResultLoader batchLoader : batchLoaders.values()) {
+      batchLoader.load();
+    }
+  }
+
   private Object prepareParameterForNestedQuery(ResultSetWrapper rsw, ResultMapping resultMapping,
       Class<?> parameterType, String columnPrefix) throws SQLException {
     if (resultMapping.isCompositeResult()) {
@@ -1068,8 +1109,8 @@ public class DefaultResultSetHandler implements ResultSetHandler {
 
   private Object prepareCompositeKeyParameter(ResultSetWrapper rsw, ResultMapping resultMapping, Class<?> parameterType,
       String columnPrefix) throws SQLException {
-    // Map is used if parameterType is not specified
-    final Object parameterObject = instantiateParameterObject(parameterType);
+    // Map is used if parameterType is not specified, or per key if the nested select receives a list of keys
+    final Object parameterObject = instantiateParameterObject(resultMapping.isBatch() ? null : parameterType);
     final MetaObject metaObject = configuration.newMetaObject(parameterObject);
     boolean foundValues = false;
     for (ResultMapping innerResultMapping : resultMapping.getComposites()) {
@@ -1210,8 +1251,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
       return;
     }
 
-    final CacheKey rowKey = createRowKey(resultMap, rsw, columnPrefix);
-    final CacheKey combinedKey = combineKeys(rowKey, parentRowKey);
+    final CacheKey combinedKey = createCombinedRowKey(resultMap, rsw, columnPrefix, parentRowKey);
 
     if (combinedKey != CacheKey.NULL_CACHE_KEY) {
       nestedResultObjects.put(combinedKey, pendingCreation);
@@ -1249,8 +1289,8 @@ public class DefaultResultSetHandler implements ResultSetHandler {
         }
 
         // since we are linking a new value, we need to let nested objects know we did that
-        final CacheKey nestedRowKey = createRowKey(nestedResultMap, rsw, constructorColumnPrefix);
-        final CacheKey nestedCombinedKey = combineKeys(nestedRowKey, combinedKey);
+        final CacheKey nestedCombinedKey = createCombinedRowKey(nestedResultMap, rsw, constructorColumnPrefix,
+            combinedKey);
 
         if (nestedCombinedKey != CacheKey.NULL_CACHE_KEY) {
           nestedResultObjects.put(nestedCombinedKey, pendingCreation);
@@ -1290,8 +1330,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
         final String columnPrefix = getColumnPrefix(parentPrefix, constructorMapping);
         final ResultMap nestedResultMap = getNestedResultMap(rsw, nestedResultMapId, columnPrefix);
 
-        final CacheKey rowKey = createRowKey(nestedResultMap, rsw, columnPrefix);
-        final CacheKey combinedKey = combineKeys(rowKey, parentRowKey);
+        final CacheKey combinedKey = createCombinedRowKey(nestedResultMap, rsw, columnPrefix, parentRowKey);
 
         // should have inserted already as a nested result object
         Object rowValue = nestedResultObjects.get(combinedKey);
@@ -1418,8 +1457,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
               continue;
             }
           }
-          final CacheKey rowKey = createRowKey(nestedResultMap, rsw, columnPrefix);
-          final CacheKey combinedKey = combineKeys(rowKey, parentRowKey);
+          final CacheKey combinedKey = createCombinedRowKey(nestedResultMap, rsw, columnPrefix, parentRowKey);
           Object rowValue = nestedResultObjects.get(combinedKey);
           boolean knownValue = rowValue != null;
           instantiateCollectionPropertyIfAppropriate(resultMapping, metaObject); // mandatory
@@ -1493,6 +1531,24 @@ public class DefaultResultSetHandler implements ResultSetHandler {
 
   private CacheKey createRowKey(ResultMap resultMap, ResultSetWrapper rsw, String columnPrefix) throws SQLException {
     final CacheKey cacheKey = new CacheKey();
+    updateRowKey(resultMap, rsw, columnPrefix, cacheKey);
+    if (cacheKey.getUpdateCount() < 2) {
+      return CacheKey.NULL_CACHE_KEY;
+    }
+    return cacheKey;
+  }
+
+  private CacheKey createCombinedRowKey(ResultMap resultMap, ResultSetWrapper rsw, String columnPrefix,
+      CacheKey parentRowKey) throws SQLException {
+    // the row key itself is never retained here, only its combination with the parent, so the same buffer is
+    // refilled for every row instead of allocating a new key each time
+    rowKeyBuffer.reset();
+    updateRowKey(resultMap, rsw, columnPrefix, rowKeyBuffer);
+    return combineKeys(rowKeyBuffer, parentRowKey);
+  }
+
+  private void updateRowKey(ResultMap resultMap, ResultSetWrapper rsw, String columnPrefix, CacheKey cacheKey)
+      throws SQLException {
     cacheKey.update(resultMap.getId());
     List<ResultMapping> resultMappings = getResultMappingsForRowKey(resultMap);
     if (resultMappings.isEmpty()) {
@@ -1504,10 +1560,6 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     } else {
       createRowKeyForMappedProperties(resultMap, rsw, cacheKey, resultMappings, columnPrefix);
     }
-    if (cacheKey.getUpdateCount() < 2) {
-      return CacheKey.NULL_CACHE_KEY;
-    }
-    return cacheKey;
   }
 
   private CacheKey combineKeys(CacheKey rowKey, CacheKey parentRowKey) {
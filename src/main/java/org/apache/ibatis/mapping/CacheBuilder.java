@@ -1,5 +1,5 @@
 /*
- *    Copyright 2009-2024 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -24,15 +24,26 @@ import java.util.Properties;
 import org.apache.ibatis.builder.InitializingObject;
 import org.apache.ibatis.cache.Cache;
 import org.apache.ibatis.cache.CacheException;
+import org.apache.ibatis.cache.CacheMemoryBudget;
+import org.apache.ibatis.cache.CacheSerializer;
+import org.apache.ibatis.cache.CacheStats;
+import org.apache.ibatis.cache.CacheWeigher;
 import org.apache.ibatis.cache.decorators.BlockingCache;
+import org.apache.ibatis.cache.decorators.CompressedCache;
+import org.apache.ibatis.cache.decorators.ExpiringCache;
 import org.apache.ibatis.cache.decorators.LoggingCache;
 import org.apache.ibatis.cache.decorators.LruCache;
+import org.apache.ibatis.cache.decorators.NegativeResultCache;
+import org.apache.ibatis.cache.decorators.RefreshAheadCache;
 import org.apache.ibatis.cache.decorators.ScheduledCache;
 import org.apache.ibatis.cache.decorators.SerializedCache;
 import org.apache.ibatis.cache.decorators.SynchronizedCache;
+import org.apache.ibatis.cache.decorators.TableInvalidationCache;
+import org.apache.ibatis.cache.decorators.WeightedCache;
 import org.apache.ibatis.cache.impl.PerpetualCache;
 import org.apache.ibatis.reflection.MetaObject;
 import org.apache.ibatis.reflection.SystemMetaObject;
+import org.apache.ibatis.session.Configuration;
 
 /**
  * @author Clinton Begin
@@ -43,9 +54,18 @@ public class CacheBuilder {
   private final List<Class<? extends Cache>> decorators;
   private Integer size;
   private Long clearInterval;
+  private Long expireAfterWrite;
+  private Long expireAfterAccess;
+  private Long refreshAfterWrite;
   private boolean readWrite;
   private Properties properties;
   private boolean blocking;
+  private Long maxBytes;
+  private Class<? extends CacheWeigher> weigher;
+  private CacheMemoryBudget memoryBudget;
+  private Class<? extends CacheSerializer> serializer;
+  private Integer compressThreshold;
+  private Configuration configuration;
 
   public CacheBuilder(String id) {
     this.id = id;
@@ -74,6 +94,26 @@ public class CacheBuilder {
     return this;
   }
 
+  public CacheBuilder expireAfterWrite(Long expireAfterWrite) {
+    this.expireAfterWrite = expireAfterWrite;
+    return this;
+  }
+
+  public CacheBuilder expireAfterAccess(Long expireAfterAccess) {
+    this.expireAfterAccess = expireAfterAccess;
+    return this;
+  }
+
+  /**
+   * Sets the number of milliseconds after which an entry is reloaded in the background the next time it is read.
+   *
+   * @since 3.6.0
+   */
+  public CacheBuilder refreshAfterWrite(Long refreshAfterWrite) {
+    this.refreshAfterWrite = refreshAfterWrite;
+    return this;
+  }
+
   public CacheBuilder readWrite(boolean readWrite) {
     this.readWrite = readWrite;
     return this;
@@ -84,6 +124,46 @@ public class CacheBuilder {
     return this;
   }
 
+  public CacheBuilder maxBytes(Long maxBytes) {
+    this.maxBytes = maxBytes;
+    return this;
+  }
+
+  public CacheBuilder weigher(Class<? extends CacheWeigher> weigher) {
+    this.weigher = weigher;
+    return this;
+  }
+
+  public CacheBuilder memoryBudget(CacheMemoryBudget memoryBudget) {
+    this.memoryBudget = memoryBudget;
+    return this;
+  }
+
+  public CacheBuilder serializer(Class<? extends CacheSerializer> serializer) {
+    this.serializer = serializer;
+    return this;
+  }
+
+  /**
+   * Sets the size in bytes from which the serialized values of a read/write cache are compressed.
+   *
+   * @since 3.6.0
+   */
+  public CacheBuilder compressThreshold(Integer compressThreshold) {
+    this.compressThreshold = compressThreshold;
+    return this;
+  }
+
+  /**
+   * Sets the configuration handed to caches that have a {@code configuration} property.
+   *
+   * @since 3.6.0
+   */
+  public CacheBuilder configuration(Configuration configuration) {
+    this.configuration = configuration;
+    return this;
+  }
+
   public CacheBuilder properties(Properties properties) {
     this.properties = properties;
     return this;
@@ -91,17 +171,34 @@ public class CacheBuilder {
 
   public Cache build() {
     setDefaultImplementations();
+    CacheStats stats = new CacheStats();
     Cache cache = newBaseCacheInstance(implementation, id);
     setCacheProperties(cache);
+    setCacheSerializer(cache);
+    setCacheStats(cache, stats);
+    setCacheConfiguration(cache);
     // issue #352, do not apply decorators to custom caches
     if (PerpetualCache.class.equals(cache.getClass())) {
+      cache = setCacheStats(setWeightedCache(cache), stats);
+      Cache weightedCache = cache;
+      cache = setCacheStats(setExpiringCache(cache), stats);
+      Cache expiringCache = cache;
       for (Class<? extends Cache> decorator : decorators) {
         cache = newCacheDecoratorInstance(decorator, cache);
         setCacheProperties(cache);
+        setCacheStats(cache, stats);
+      }
+      if (weightedCache instanceof WeightedCache && weightedCache != cache) {
+        // entries evicted by weight must also be dropped by the eviction decorators above
+        ((WeightedCache) weightedCache).setOwner(cache);
+      }
+      if (expiringCache instanceof ExpiringCache && expiringCache != cache) {
+        // so are expired entries
+        ((ExpiringCache) expiringCache).setOwner(cache);
       }
-      cache = setStandardDecorators(cache);
+      cache = setStandardDecorators(cache, stats);
     } else if (!LoggingCache.class.isAssignableFrom(cache.getClass())) {
-      cache = new LoggingCache(cache);
+      cache = new LoggingCache(cache, stats);
     }
     return cache;
   }
@@ -115,7 +212,7 @@ public class CacheBuilder {
     }
   }
 
-  private Cache setStandardDecorators(Cache cache) {
+  private Cache setStandardDecorators(Cache cache, CacheStats stats) {
     try {
       MetaObject metaCache = SystemMetaObject.forObject(cache);
       if (size != null && metaCache.hasSetter("size")) {
@@ -124,14 +221,37 @@ public class CacheBuilder {
       if (clearInterval != null) {
         cache = new ScheduledCache(cache);
         ((ScheduledCache) cache).setClearInterval(clearInterval);
+        ((ScheduledCache) cache).setStats(stats);
       }
       if (readWrite) {
+        if (compressThreshold != null) {
+          cache = new CompressedCache(cache);
+          ((CompressedCache) cache).setCompressThreshold(compressThreshold);
+          // lets the compressionLevel be set through the cache properties
+          setCacheProperties(cache);
+        }
         cache = new SerializedCache(cache);
+        setCacheSerializer(cache);
+      }
+      if (configuration != null && configuration.getTableDependencyTracker() != null) {
+        cache = new TableInvalidationCache(cache, configuration.getTableDependencyTracker());
+      }
+      cache = new LoggingCache(cache, stats);
+      cache = new NegativeResultCache(cache);
+      ((NegativeResultCache) cache).setStats(stats);
+      if (!cache.isThreadSafe()) {
+        cache = new SynchronizedCache(cache);
       }
-      cache = new LoggingCache(cache);
-      cache = new SynchronizedCache(cache);
       if (blocking) {
         cache = new BlockingCache(cache);
+        // lets the timeout and fallbackOnTimeout of the lock be set through the cache properties
+        setCacheProperties(cache);
+      }
+      if (refreshAfterWrite != null) {
+        cache = new RefreshAheadCache(cache);
+        ((RefreshAheadCache) cache).setRefreshAfterWrite(refreshAfterWrite);
+        ((RefreshAheadCache) cache).setStats(stats);
+        setCacheProperties(cache);
       }
       return cache;
     } catch (Exception e) {
@@ -139,6 +259,66 @@ public class CacheBuilder {
     }
   }
 
+  private void setCacheSerializer(Cache cache) {
+    if (serializer == null) {
+      return;
+    }
+    MetaObject metaCache = SystemMetaObject.forObject(cache);
+    if (metaCache.hasSetter("serializer")) {
+      metaCache.setValue("serializer", newInstance(serializer, "cache serializer"));
+    }
+  }
+
+  private void setCacheConfiguration(Cache cache) {
+    if (configuration == null) {
+      return;
+    }
+    MetaObject metaCache = SystemMetaObject.forObject(cache);
+    if (metaCache.hasSetter("configuration") && metaCache.getSetterType("configuration") == Configuration.class) {
+      metaCache.setValue("configuration", configuration);
+    }
+  }
+
+  private Cache setCacheStats(Cache cache, CacheStats stats) {
+    MetaObject metaCache = SystemMetaObject.forObject(cache);
+    if (metaCache.hasSetter("stats") && metaCache.getSetterType("stats") == CacheStats.class) {
+      metaCache.setValue("stats", stats);
+    }
+    return cache;
+  }
+
+  private Cache setExpiringCache(Cache cache) {
+    if (expireAfterWrite == null && expireAfterAccess == null) {
+      return cache;
+    }
+    // below the eviction decorators, so that evicted entries are also removed from the timer wheel
+    ExpiringCache expiringCache = new ExpiringCache(cache);
+    if (expireAfterWrite != null) {
+      expiringCache.setExpireAfterWrite(expireAfterWrite);
+    }
+    if (expireAfterAccess != null) {
+      expiringCache.setExpireAfterAccess(expireAfterAccess);
+    }
+    return expiringCache;
+  }
+
+  private Cache setWeightedCache(Cache cache) {
+    if (maxBytes == null && memoryBudget == null) {
+      return cache;
+    }
+    WeightedCache weightedCache = new WeightedCache(cache);
+    if (maxBytes != null) {
+      weightedCache.setMaxBytes(maxBytes);
+    }
+    if (weigher != null) {
+      weightedCache.setWeigher(newInstance(weigher, "cache weigher"));
+    }
+    if (memoryBudget != null) {
+      weightedCache.setBudget(memoryBudget);
+    }
+    return weightedCache;
+  }
+
   private void setCacheProperties(Cache cache) {
     if (properties != null) {
       MetaObject metaCache = SystemMetaObject.forObject(cache);
@@ -179,6 +359,14 @@ public class CacheBuilder {
     }
   }
 
+  private <T> T newInstance(Class<T> type, String description) {
+    try {
+      return type.getDeclaredConstructor().newInstance();
+    } catch (Exception e) {
+      throw new CacheException("Could not instantiate " + description + " (" + type + "). Cause: " + e, e);
+    }
+  }
+
   private Cache newBaseCacheInstance(Class<? extends Cache> cacheClass, String id) {
     Constructor<? extends Cache> cacheConstructor = getBaseCacheConstructor(cacheClass);
     try {
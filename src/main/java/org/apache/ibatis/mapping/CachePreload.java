@@ -0,0 +1,63 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.mapping;
+
+/**
+ * A select statement whose results are loaded into the second level cache when the {@code SqlSessionFactory} is built.
+ * <p>
+ * The statement is run once with a {@code null} parameter, or once per row returned by the parameter statement when one
+ * is declared.
+ *
+ * @since 3.6.0
+ *
+ * @see org.apache.ibatis.session.CacheWarmer
+ */
+public class CachePreload {
+
+  private final String namespace;
+  private final String statementId;
+  private final String parameterStatementId;
+
+  public CachePreload(String namespace, String statementId, String parameterStatementId) {
+    this.namespace = namespace;
+    this.statementId = statementId;
+    this.parameterStatementId = parameterStatementId;
+  }
+
+  /**
+   * Returns the namespace that declared this preload.
+   */
+  public String getNamespace() {
+    return namespace;
+  }
+
+  public String getStatementId() {
+    return statementId;
+  }
+
+  /**
+   * Returns the id of the select statement that returns the parameters of the preloaded statement, or {@code null}.
+   */
+  public String getParameterStatementId() {
+    return parameterStatementId;
+  }
+
+  @Override
+  public String toString() {
+    return parameterStatementId == null ? statementId : statementId + " <- " + parameterStatementId;
+  }
+
+}
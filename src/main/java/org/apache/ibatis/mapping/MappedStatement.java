@@ -1,5 +1,5 @@
 /*
- *    Copyright 2009-2025 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -20,6 +20,7 @@ import java.util.Collections;
 import java.util.List;
 
 import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.TableDependencyTracker;
 import org.apache.ibatis.executor.keygen.Jdbc3KeyGenerator;
 import org.apache.ibatis.executor.keygen.KeyGenerator;
 import org.apache.ibatis.executor.keygen.NoKeyGenerator;
@@ -59,6 +60,10 @@ public final class MappedStatement {
   private String[] resultSets;
   private ParamNameResolver paramNameResolver;
   private boolean dirtySelect;
+  private String[] tables;
+  private Long negativeCacheTtl;
+  private Integer negativeCacheSize;
+  private boolean rewriteBatch;
 
   MappedStatement() {
     // constructor disabled
@@ -189,6 +194,26 @@ public final class MappedStatement {
       return this;
     }
 
+    public Builder tables(String tables) {
+      mappedStatement.tables = TableDependencyTracker.normalize(delimitedStringToArray(tables));
+      return this;
+    }
+
+    public Builder negativeCacheTtl(Long negativeCacheTtl) {
+      mappedStatement.negativeCacheTtl = negativeCacheTtl;
+      return this;
+    }
+
+    public Builder negativeCacheSize(Integer negativeCacheSize) {
+      mappedStatement.negativeCacheSize = negativeCacheSize;
+      return this;
+    }
+
+    public Builder rewriteBatch(boolean rewriteBatch) {
+      mappedStatement.rewriteBatch = rewriteBatch;
+      return this;
+    }
+
     /**
      * Resul sets.
      *
@@ -315,6 +340,50 @@ public final class MappedStatement {
     return paramNameResolver;
   }
 
+  /**
+   * Returns the tables declared as read or written by this statement.
+   *
+   * @return the normalized table names, or {@code null} if they have not been declared
+   *
+   * @since 3.6.0
+   */
+  public String[] getTables() {
+    return tables;
+  }
+
+  /**
+   * Returns for how long an empty result of this statement is cached apart from the other results.
+   *
+   * @return the number of milliseconds, or {@code null} if empty results are cached like the other results
+   *
+   * @since 3.6.0
+   */
+  public Long getNegativeCacheTtl() {
+    return negativeCacheTtl;
+  }
+
+  /**
+   * Returns the maximum number of empty results of this statement that are cached.
+   *
+   * @return the maximum number of entries, or {@code null} for the default
+   *
+   * @since 3.6.0
+   */
+  public Integer getNegativeCacheSize() {
+    return negativeCacheSize;
+  }
+
+  /**
+   * Returns whether the batch executor may send consecutive executions of this insert as a single multi-row insert.
+   *
+   * @return {@code true} if the executions may be rewritten
+   *
+   * @since 3.6.0
+   */
+  public boolean isRewriteBatch() {
+    return rewriteBatch;
+  }
+
   /**
    * Gets the resul sets.
    *
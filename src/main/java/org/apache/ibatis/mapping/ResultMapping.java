@@ -1,5 +1,5 @@
 /*
- *    Copyright 2009-2025 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -29,6 +29,11 @@ import org.apache.ibatis.type.TypeHandler;
  */
 public class ResultMapping {
 
+  /**
+   * Number of keys loaded per query when {@code fetchType="batch"} does not declare a {@code batchSize}.
+   */
+  public static final int DEFAULT_BATCH_SIZE = 100;
+
   private Configuration configuration;
   private String property;
   private String column;
@@ -44,6 +49,8 @@ public class ResultMapping {
   private String resultSet;
   private String foreignColumn;
   private boolean lazy;
+  private int batchSize;
+  private String foreignProperty;
 
   ResultMapping() {
   }
@@ -88,6 +95,8 @@ public class ResultMapping {
       resultMapping.resultSet = otherMapping.resultSet;
       resultMapping.foreignColumn = otherMapping.foreignColumn;
       resultMapping.lazy = otherMapping.lazy;
+      resultMapping.batchSize = otherMapping.batchSize;
+      resultMapping.foreignProperty = otherMapping.foreignProperty;
     }
 
     public Builder javaType(Class<?> javaType) {
@@ -150,6 +159,16 @@ public class ResultMapping {
       return this;
     }
 
+    public Builder batchSize(int batchSize) {
+      resultMapping.batchSize = batchSize;
+      return this;
+    }
+
+    public Builder foreignProperty(String foreignProperty) {
+      resultMapping.foreignProperty = foreignProperty;
+      return this;
+    }
+
     public ResultMapping build() {
       // lock down collections
       resultMapping.flags = Collections.unmodifiableList(resultMapping.flags);
@@ -183,6 +202,21 @@ public class ResultMapping {
               "There should be the same number of columns and foreignColumns in property " + resultMapping.property);
         }
       }
+      if (resultMapping.batchSize > 0) {
+        if (resultMapping.nestedQueryId == null) {
+          throw new IllegalStateException(
+              "Batch fetching requires a nested select in property " + resultMapping.property);
+        }
+        if (resultMapping.foreignProperty == null) {
+          throw new IllegalStateException(
+              "Batch fetching requires a foreignProperty in property " + resultMapping.property);
+        }
+        int numColumns = resultMapping.composites.isEmpty() ? 1 : resultMapping.composites.size();
+        if (numColumns != resultMapping.foreignProperty.split(",").length) {
+          throw new IllegalStateException(
+              "There should be the same number of columns and foreignProperties in property " + resultMapping.property);
+        }
+      }
     }
 
     public Builder column(String column) {
@@ -261,6 +295,29 @@ public class ResultMapping {
     this.lazy = lazy;
   }
 
+  /**
+   * Returns the maximum number of parent keys whose nested select is executed as a single query.
+   *
+   * @return the batch size, or {@code 0} if every parent row runs its own nested select
+   */
+  public int getBatchSize() {
+    return batchSize;
+  }
+
+  public boolean isBatch() {
+    return batchSize > 0;
+  }
+
+  /**
+   * Returns the properties of the nested select results that hold the parent key, comma separated when the key is
+   * composite.
+   *
+   * @return the foreign properties
+   */
+  public String getForeignProperty() {
+    return foreignProperty;
+  }
+
   public boolean isSimple() {
     return this.nestedResultMapId == null && this.nestedQueryId == null && this.resultSet == null;
   }
@@ -309,6 +366,8 @@ public class ResultMapping {
     sb.append(", resultSet='").append(resultSet).append('\'');
     sb.append(", foreignColumn='").append(foreignColumn).append('\'');
     sb.append(", lazy=").append(lazy);
+    sb.append(", batchSize=").append(batchSize);
+    sb.append(", foreignProperty='").append(foreignProperty).append('\'');
     sb.append('}');
     return sb.toString();
   }
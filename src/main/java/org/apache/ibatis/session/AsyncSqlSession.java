@@ -0,0 +1,116 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.session;
+
+import java.io.Closeable;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+import org.apache.ibatis.executor.BatchResult;
+
+/**
+ * An {@link SqlSession} whose operations return {@link CompletableFuture}s instead of blocking the caller.
+ * <p>
+ * Operations run on the executor returned by {@link Configuration#getAsyncExecutor()}, one at a time and in the order
+ * they were submitted, so they share the connection and transaction of the underlying session exactly as the calls of a
+ * regular session would. An operation starts once the previous one has completed, whether it succeeded or not; a failed
+ * operation completes its future exceptionally and does not roll the transaction back by itself.
+ * <p>
+ * Mapper methods returning {@code CompletableFuture<T>} are submitted the same way when the mapper is obtained from
+ * {@link #getMapper(Class)}, other mapper methods block until their turn comes and their statement completes.
+ *
+ * @since 3.6.0
+ */
+public interface AsyncSqlSession extends Closeable {
+
+  <T> CompletableFuture<T> selectOneAsync(String statement);
+
+  <T> CompletableFuture<T> selectOneAsync(String statement, Object parameter);
+
+  <E> CompletableFuture<List<E>> selectListAsync(String statement);
+
+  <E> CompletableFuture<List<E>> selectListAsync(String statement, Object parameter);
+
+  <E> CompletableFuture<List<E>> selectListAsync(String statement, Object parameter, RowBounds rowBounds);
+
+  <K, V> CompletableFuture<Map<K, V>> selectMapAsync(String statement, Object parameter, String mapKey);
+
+  CompletableFuture<Integer> insertAsync(String statement);
+
+  CompletableFuture<Integer> insertAsync(String statement, Object parameter);
+
+  CompletableFuture<Integer> updateAsync(String statement);
+
+  CompletableFuture<Integer> updateAsync(String statement, Object parameter);
+
+  CompletableFuture<Integer> deleteAsync(String statement);
+
+  CompletableFuture<Integer> deleteAsync(String statement, Object parameter);
+
+  CompletableFuture<Void> commitAsync();
+
+  CompletableFuture<Void> commitAsync(boolean force);
+
+  CompletableFuture<Void> rollbackAsync();
+
+  CompletableFuture<Void> rollbackAsync(boolean force);
+
+  CompletableFuture<List<BatchResult>> flushStatementsAsync();
+
+  /**
+   * Runs several calls on the underlying session as a single operation. The session handed to the work must not be used
+   * once it returns.
+   *
+   * @param <T>
+   *          the result type
+   * @param work
+   *          the calls to run
+   *
+   * @return the result of the work
+   */
+  <T> CompletableFuture<T> submit(Function<SqlSession, T> work);
+
+  /**
+   * Closes the underlying session once the pending operations have completed. Operations submitted afterwards fail with
+   * a {@link SqlSessionException}.
+   *
+   * @return a future completed when the session is closed
+   */
+  CompletableFuture<Void> closeAsync();
+
+  /**
+   * Closes the underlying session once the pending operations have completed and waits for it.
+   */
+  @Override
+  void close();
+
+  Configuration getConfiguration();
+
+  /**
+   * Retrieves a mapper whose statements run on this session.
+   *
+   * @param <T>
+   *          the mapper type
+   * @param type
+   *          Mapper interface class
+   *
+   * @return a mapper bound to this session
+   */
+  <T> T getMapper(Class<T> type);
+
+}
@@ -0,0 +1,32 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.session;
+
+/**
+ * Defines what the second level cache discards when a statement with {@code flushCache} enabled is executed.
+ *
+ * @since 3.6.0
+ */
+public enum CacheInvalidationScope {
+  /**
+   * Clears the whole cache of the statement's namespace.
+   */
+  NAMESPACE,
+  /**
+   * Invalidates, in every namespace, the entries read from the tables the statement writes.
+   */
+  TABLE
+}
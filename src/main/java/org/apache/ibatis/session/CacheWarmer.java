@@ -0,0 +1,178 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.session;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.ibatis.cache.CacheException;
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.LogFactory;
+import org.apache.ibatis.mapping.CachePreload;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+
+/**
+ * Loads the {@link CachePreload}s declared by the mappers into the second level caches.
+ * <p>
+ * Every load runs in its own session through the regular query path, so the entries get the same cache keys as the
+ * queries of the application and are published when the session commits. Loads run in parallel on a bounded pool of
+ * daemon threads; once its queue is full the thread that submits them runs them itself. A failed load is logged and
+ * recorded, it never stops the others.
+ * <p>
+ * {@link SqlSessionFactoryBuilder} starts a warmer when the {@code cacheWarmupThreads} setting is positive and some
+ * preloads are declared, it is then available from {@link Configuration#getCacheWarmer()}.
+ *
+ * @since 3.6.0
+ */
+public class CacheWarmer {
+
+  private static final Log log = LogFactory.getLog(CacheWarmer.class);
+
+  private final SqlSessionFactory sqlSessionFactory;
+  private final Configuration configuration;
+  private final int threads;
+  private final AtomicInteger pending = new AtomicInteger(1);
+  private final CountDownLatch ready = new CountDownLatch(1);
+  private final LongAdder loadedCount = new LongAdder();
+  private final List<Exception> failures = Collections.synchronizedList(new ArrayList<>());
+  private ThreadPoolExecutor executor;
+
+  public CacheWarmer(SqlSessionFactory sqlSessionFactory, int threads) {
+    if (threads < 1) {
+      throw new IllegalArgumentException("A cache warmer needs at least one thread but got " + threads);
+    }
+    this.sqlSessionFactory = sqlSessionFactory;
+    this.configuration = sqlSessionFactory.getConfiguration();
+    this.threads = threads;
+  }
+
+  /**
+   * Submits every declared preload and returns without waiting for them.
+   *
+   * @return this warmer
+   */
+  public synchronized CacheWarmer start() {
+    if (executor != null) {
+      throw new IllegalStateException("The cache warmer has already been started");
+    }
+    AtomicInteger threadNumber = new AtomicInteger();
+    executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(threads * 64), runnable -> {
+          Thread thread = new Thread(runnable, "mybatis-cache-warmup-" + threadNumber.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        }, new ThreadPoolExecutor.CallerRunsPolicy());
+    for (CachePreload preload : configuration.getCachePreloads()) {
+      submit(() -> preload(preload));
+    }
+    release();
+    return this;
+  }
+
+  public boolean isReady() {
+    return ready.getCount() == 0;
+  }
+
+  /**
+   * Waits until every preload has been loaded or has failed.
+   */
+  public void awaitReady() throws InterruptedException {
+    ready.await();
+  }
+
+  /**
+   * Waits until every preload has been loaded or has failed, or the timeout elapses.
+   *
+   * @return {@code true} if the warm-up is complete
+   */
+  public boolean awaitReady(long timeout, TimeUnit unit) throws InterruptedException {
+    return ready.await(timeout, unit);
+  }
+
+  /**
+   * Returns the number of statement executions that completed, one per parameter of each preload.
+   */
+  public long getLoadedCount() {
+    return loadedCount.sum();
+  }
+
+  public List<Exception> getFailures() {
+    synchronized (failures) {
+      return new ArrayList<>(failures);
+    }
+  }
+
+  private void preload(CachePreload preload) {
+    MappedStatement ms = configuration.getMappedStatement(preload.getStatementId());
+    if (ms.getSqlCommandType() != SqlCommandType.SELECT || ms.getCache() == null || !ms.isUseCache()) {
+      throw new CacheException("Cannot preload '" + ms.getId() + "' declared by '" + preload.getNamespace()
+          + "', it is not a select statement that uses a second level cache");
+    }
+    if (preload.getParameterStatementId() == null) {
+      load(ms.getId(), null);
+      return;
+    }
+    List<Object> parameters;
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      parameters = sqlSession.selectList(preload.getParameterStatementId());
+    }
+    for (Object parameter : parameters) {
+      submit(() -> load(ms.getId(), parameter));
+    }
+  }
+
+  private void load(String statementId, Object parameter) {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      sqlSession.selectList(statementId, parameter);
+      // the entries reach the second level cache on commit
+      sqlSession.commit();
+    }
+    loadedCount.increment();
+  }
+
+  private void submit(Runnable task) {
+    pending.incrementAndGet();
+    executor.execute(() -> {
+      try {
+        task.run();
+      } catch (Exception e) {
+        log.warn("Cache warm-up failed.  Cause: " + e);
+        failures.add(e);
+      } finally {
+        release();
+      }
+    });
+  }
+
+  private void release() {
+    if (pending.decrementAndGet() == 0) {
+      executor.shutdown();
+      ready.countDown();
+      if (log.isDebugEnabled()) {
+        log.debug("Cache warm-up completed with " + loadedCount.sum() + " loads and " + failures.size() + " failures");
+      }
+    }
+  }
+
+}
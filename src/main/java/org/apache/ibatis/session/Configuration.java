@@ -1,5 +1,5 @@
 /*
- *    Copyright 2009-2025 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -15,6 +15,7 @@
  */
 package org.apache.ibatis.session;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
@@ -26,6 +27,8 @@ import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.BiFunction;
 
@@ -36,9 +39,15 @@ import org.apache.ibatis.builder.ResultMapResolver;
 import org.apache.ibatis.builder.annotation.MethodResolver;
 import org.apache.ibatis.builder.xml.XMLStatementBuilder;
 import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.CacheInvalidationBus;
+import org.apache.ibatis.cache.CacheInvalidationTransport;
+import org.apache.ibatis.cache.CacheMemoryBudget;
+import org.apache.ibatis.cache.CacheStats;
+import org.apache.ibatis.cache.TableDependencyTracker;
 import org.apache.ibatis.cache.decorators.FifoCache;
 import org.apache.ibatis.cache.decorators.LruCache;
 import org.apache.ibatis.cache.decorators.SoftCache;
+import org.apache.ibatis.cache.decorators.TinyLfuCache;
 import org.apache.ibatis.cache.decorators.WeakCache;
 import org.apache.ibatis.cache.impl.PerpetualCache;
 import org.apache.ibatis.datasource.jndi.JndiDataSourceFactory;
@@ -69,6 +78,7 @@ import org.apache.ibatis.logging.nologging.NoLoggingImpl;
 import org.apache.ibatis.logging.slf4j.Slf4jImpl;
 import org.apache.ibatis.logging.stdout.StdOutImpl;
 import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.CachePreload;
 import org.apache.ibatis.mapping.Environment;
 import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.mapping.ParameterMap;
@@ -123,9 +133,25 @@ public class Configuration {
   protected Class<? extends VFS> vfsImpl;
   protected Class<?> defaultSqlProviderType;
   protected LocalCacheScope localCacheScope = LocalCacheScope.SESSION;
+  protected Integer localCacheSize;
+  protected Long localCacheMaxBytes;
+  protected Integer batchFlushSize;
+  protected Long batchFlushBytes;
+  protected boolean batchRetainParameterObjects = true;
+  protected boolean batchGroupStatements;
+  protected int batchRewriteMaxParameters = 1000;
+  protected final CacheStats localCacheStats = new CacheStats();
   protected JdbcType jdbcTypeForNull = JdbcType.OTHER;
   protected Set<String> lazyLoadTriggerMethods = new HashSet<>(
       Arrays.asList("equals", "clone", "hashCode", "toString"));
+  protected Long cacheMaxBytes;
+  protected CacheMemoryBudget cacheMemoryBudget;
+  protected CacheInvalidationScope cacheInvalidationScope = CacheInvalidationScope.NAMESPACE;
+  protected TableDependencyTracker tableDependencyTracker;
+  protected CacheInvalidationBus cacheInvalidationBus;
+  protected int cacheWarmupThreads = 4;
+  protected volatile CacheWarmer cacheWarmer;
+  protected volatile java.util.concurrent.Executor asyncExecutor;
   protected Integer defaultStatementTimeout;
   protected Integer defaultFetchSize;
   protected ResultSetType defaultResultSetType;
@@ -175,12 +201,14 @@ public class Configuration {
   private final ReentrantLock incompleteCacheRefsLock = new ReentrantLock();
   private final ReentrantLock incompleteStatementsLock = new ReentrantLock();
   private final ReentrantLock incompleteMethodsLock = new ReentrantLock();
+  private final ReentrantLock asyncExecutorLock = new ReentrantLock();
 
   /*
    * A map holds cache-ref relationship. The key is the namespace that references a cache bound to another namespace and
    * the value is the namespace which the actual cache is bound to.
    */
   protected final Map<String, String> cacheRefMap = new HashMap<>();
+  protected final List<CachePreload> cachePreloads = new ArrayList<>();
 
   public Configuration(Environment environment) {
     this();
@@ -200,6 +228,7 @@ public class Configuration {
     typeAliasRegistry.registerAlias("LRU", LruCache.class);
     typeAliasRegistry.registerAlias("SOFT", SoftCache.class);
     typeAliasRegistry.registerAlias("WEAK", WeakCache.class);
+    typeAliasRegistry.registerAlias("TINYLFU", TinyLfuCache.class);
 
     typeAliasRegistry.registerAlias("DB_VENDOR", VendorDatabaseIdProvider.class);
 
@@ -503,6 +532,157 @@ public class Configuration {
     this.cacheEnabled = cacheEnabled;
   }
 
+  public Long getCacheMaxBytes() {
+    return cacheMaxBytes;
+  }
+
+  /**
+   * Sets the heap budget shared by all the second level caches created after this call.
+   *
+   * @param cacheMaxBytes
+   *          the maximum number of bytes retained by all the caches, or {@code null} for no global limit
+   *
+   * @since 3.6.0
+   */
+  public void setCacheMaxBytes(Long cacheMaxBytes) {
+    this.cacheMaxBytes = cacheMaxBytes;
+    this.cacheMemoryBudget = cacheMaxBytes == null ? null : new CacheMemoryBudget(cacheMaxBytes);
+  }
+
+  public CacheMemoryBudget getCacheMemoryBudget() {
+    return cacheMemoryBudget;
+  }
+
+  public CacheInvalidationScope getCacheInvalidationScope() {
+    return cacheInvalidationScope;
+  }
+
+  /**
+   * Sets what the second level cache discards when a statement with {@code flushCache} enabled is executed. Only
+   * affects the executors opened after this call.
+   *
+   * @param cacheInvalidationScope
+   *          the invalidation scope
+   *
+   * @since 3.6.0
+   */
+  public void setCacheInvalidationScope(CacheInvalidationScope cacheInvalidationScope) {
+    this.cacheInvalidationScope = cacheInvalidationScope;
+    if (cacheInvalidationScope != CacheInvalidationScope.TABLE) {
+      this.tableDependencyTracker = null;
+    } else if (tableDependencyTracker == null) {
+      this.tableDependencyTracker = new TableDependencyTracker();
+    }
+  }
+
+  public TableDependencyTracker getTableDependencyTracker() {
+    return tableDependencyTracker;
+  }
+
+  public CacheInvalidationBus getCacheInvalidationBus() {
+    return cacheInvalidationBus;
+  }
+
+  /**
+   * Sets the transport used to publish the second level cache invalidations to the other nodes that share the database,
+   * and to receive theirs. Only affects the executors opened after this call.
+   *
+   * @param transport
+   *          the transport, or {@code null} to stop propagating invalidations
+   *
+   * @since 3.6.0
+   */
+  public void setCacheInvalidationTransport(CacheInvalidationTransport transport) {
+    if (cacheInvalidationBus != null) {
+      cacheInvalidationBus.close();
+    }
+    this.cacheInvalidationBus = transport == null ? null : new CacheInvalidationBus(this, transport);
+  }
+
+  public int getCacheWarmupThreads() {
+    return cacheWarmupThreads;
+  }
+
+  /**
+   * Sets the number of threads that load the declared cache preloads when the {@code SqlSessionFactory} is built.
+   *
+   * @param cacheWarmupThreads
+   *          the number of threads, {@code 0} to not warm up the caches automatically
+   *
+   * @since 3.6.0
+   */
+  public void setCacheWarmupThreads(int cacheWarmupThreads) {
+    this.cacheWarmupThreads = cacheWarmupThreads;
+  }
+
+  /**
+   * Returns the warmer started when the {@code SqlSessionFactory} was built, which tells whether the caches are ready.
+   *
+   * @return the cache warmer, or {@code null} if the caches were not warmed up automatically
+   *
+   * @since 3.6.0
+   */
+  public CacheWarmer getCacheWarmer() {
+    return cacheWarmer;
+  }
+
+  void setCacheWarmer(CacheWarmer cacheWarmer) {
+    this.cacheWarmer = cacheWarmer;
+  }
+
+  /**
+   * Returns the executor that runs the operations of {@link AsyncSqlSession}s. Unless one has been set, it is created
+   * on first use: it starts a virtual thread per operation on Java 21 and later, and uses a cached pool of daemon
+   * threads otherwise.
+   *
+   * @return the async executor
+   *
+   * @since 3.6.0
+   */
+  public java.util.concurrent.Executor getAsyncExecutor() {
+    java.util.concurrent.Executor executor = asyncExecutor;
+    if (executor == null) {
+      asyncExecutorLock.lock();
+      try {
+        executor = asyncExecutor;
+        if (executor == null) {
+          executor = newDefaultAsyncExecutor();
+          asyncExecutor = executor;
+        }
+      } finally {
+        asyncExecutorLock.unlock();
+      }
+    }
+    return executor;
+  }
+
+  /**
+   * Sets the executor that runs the operations of {@link AsyncSqlSession}s. Only affects the sessions opened after this
+   * call.
+   *
+   * @param asyncExecutor
+   *          the executor, or {@code null} to use the default one
+   *
+   * @since 3.6.0
+   */
+  public void setAsyncExecutor(java.util.concurrent.Executor asyncExecutor) {
+    this.asyncExecutor = asyncExecutor;
+  }
+
+  private static java.util.concurrent.Executor newDefaultAsyncExecutor() {
+    try {
+      // Java 21+, looked up reflectively since this code targets an older release
+      return (java.util.concurrent.Executor) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    } catch (ReflectiveOperationException e) {
+      AtomicInteger threadNumber = new AtomicInteger();
+      return Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "mybatis-async-" + threadNumber.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+      });
+    }
+  }
+
   public Integer getDefaultStatementTimeout() {
     return defaultStatementTimeout;
   }
@@ -573,6 +753,141 @@ public class Configuration {
     this.localCacheScope = localCacheScope;
   }
 
+  public Integer getLocalCacheSize() {
+    return localCacheSize;
+  }
+
+  /**
+   * Sets the maximum number of entries kept by the local cache of each session. Only affects the executors opened after
+   * this call.
+   *
+   * @param localCacheSize
+   *          the maximum number of entries, or {@code null} for no limit
+   *
+   * @since 3.6.0
+   */
+  public void setLocalCacheSize(Integer localCacheSize) {
+    this.localCacheSize = localCacheSize;
+  }
+
+  public Long getLocalCacheMaxBytes() {
+    return localCacheMaxBytes;
+  }
+
+  /**
+   * Sets the maximum estimated heap retained by the local cache of each session. Only affects the executors opened
+   * after this call.
+   *
+   * @param localCacheMaxBytes
+   *          the maximum number of bytes, or {@code null} for no limit
+   *
+   * @since 3.6.0
+   */
+  public void setLocalCacheMaxBytes(Long localCacheMaxBytes) {
+    this.localCacheMaxBytes = localCacheMaxBytes;
+  }
+
+  public Integer getBatchFlushSize() {
+    return batchFlushSize;
+  }
+
+  /**
+   * Sets the number of statement executions a batch executor accumulates before sending them to the database. The
+   * update counts of the batches sent early are still returned by the next {@code flushStatements}. Only affects the
+   * executors opened after this call.
+   *
+   * @param batchFlushSize
+   *          the maximum number of pending executions, or {@code null} for no limit
+   *
+   * @since 3.6.0
+   */
+  public void setBatchFlushSize(Integer batchFlushSize) {
+    this.batchFlushSize = batchFlushSize;
+  }
+
+  public Long getBatchFlushBytes() {
+    return batchFlushBytes;
+  }
+
+  /**
+   * Sets the estimated size of the parameters a batch executor accumulates before sending them to the database. Only
+   * affects the executors opened after this call.
+   *
+   * @param batchFlushBytes
+   *          the maximum number of bytes, or {@code null} for no limit
+   *
+   * @since 3.6.0
+   */
+  public void setBatchFlushBytes(Long batchFlushBytes) {
+    this.batchFlushBytes = batchFlushBytes;
+  }
+
+  public boolean isBatchRetainParameterObjects() {
+    return batchRetainParameterObjects;
+  }
+
+  /**
+   * Sets whether the {@link org.apache.ibatis.executor.BatchResult}s of statements without key generation keep their
+   * parameter objects. Only affects the executors opened after this call.
+   *
+   * @param batchRetainParameterObjects
+   *          {@code false} to only count the parameter objects of statements that do not generate keys
+   *
+   * @since 3.6.0
+   */
+  public void setBatchRetainParameterObjects(boolean batchRetainParameterObjects) {
+    this.batchRetainParameterObjects = batchRetainParameterObjects;
+  }
+
+  public boolean isBatchGroupStatements() {
+    return batchGroupStatements;
+  }
+
+  /**
+   * Sets whether a batch executor appends each execution to the batch of the same statement it already holds, instead
+   * of starting a new batch whenever the statement changes. The batches are sent in the order their statements were
+   * first executed, so a statement must not depend on rows written later by a statement first executed after it. Only
+   * affects the executors opened after this call.
+   *
+   * @param batchGroupStatements
+   *          {@code true} to keep one batch per distinct statement
+   *
+   * @since 3.6.0
+   */
+  public void setBatchGroupStatements(boolean batchGroupStatements) {
+    this.batchGroupStatements = batchGroupStatements;
+  }
+
+  public int getBatchRewriteMaxParameters() {
+    return batchRewriteMaxParameters;
+  }
+
+  /**
+   * Sets the maximum number of parameters of a multi-row insert built by a batch executor from the executions of an
+   * insert with {@code rewriteBatch} enabled. The default of 1000 suits most databases, SQL Server for instance accepts
+   * at most 2100 parameters and 1000 rows. Only affects the executors opened after this call.
+   *
+   * @param batchRewriteMaxParameters
+   *          the maximum number of parameters, at least one row is always sent per statement
+   *
+   * @since 3.6.0
+   */
+  public void setBatchRewriteMaxParameters(int batchRewriteMaxParameters) {
+    this.batchRewriteMaxParameters = batchRewriteMaxParameters;
+  }
+
+  /**
+   * Returns the statistics of the local caches of all the sessions: hits, misses, queries run on a miss and the entries
+   * evicted because of the {@code localCacheSize} and {@code localCacheMaxBytes} limits.
+   *
+   * @return the local cache statistics
+   *
+   * @since 3.6.0
+   */
+  public CacheStats getLocalCacheStats() {
+    return localCacheStats;
+  }
+
   public JdbcType getJdbcTypeForNull() {
     return jdbcTypeForNull;
   }
@@ -743,7 +1058,7 @@ public class Configuration {
       executor = new SimpleExecutor(this, transaction);
     }
     if (cacheEnabled) {
-      executor = new CachingExecutor(executor);
+      executor = new CachingExecutor(executor, tableDependencyTracker, cacheInvalidationBus);
     }
     return (Executor) interceptorChain.pluginAll(executor);
   }
@@ -966,6 +1281,19 @@ public class Configuration {
     cacheRefMap.put(namespace, referencedNamespace);
   }
 
+  /**
+   * Declares a statement to load into the second level cache when the {@code SqlSessionFactory} is built.
+   *
+   * @since 3.6.0
+   */
+  public void addCachePreload(CachePreload cachePreload) {
+    cachePreloads.add(cachePreload);
+  }
+
+  public List<CachePreload> getCachePreloads() {
+    return cachePreloads;
+  }
+
   /*
    * Parses all the unprocessed statement nodes in the cache. It is recommended to call this method once all the mappers
    * are added as it provides fail-fast statement validation.
@@ -0,0 +1,123 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.session;
+
+import java.io.Closeable;
+import java.util.Comparator;
+import java.util.List;
+
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.mapping.Environment;
+
+/**
+ * Runs each statement concurrently on several environments that share the same schema, such as the shards of a
+ * partitioned database, and merges their results.
+ * <p>
+ * Every environment gets a session of its own, and each statement runs on all of them on the async executor of the
+ * configuration. Lists are selected on every environment like in a regular session, so the second level cache applies,
+ * and then merged; cursors are merged while the rows stream in. Without an order the rows are concatenated, or returned
+ * as they arrive for cursors; with a comparator that every environment already follows (typically an {@code ORDER BY}
+ * on the same key) they are k-way merged. The offset and limit of row bounds apply to the merged rows and each
+ * environment is asked for {@code offset + limit} rows at most.
+ * <p>
+ * Transactions are independent: {@link #commit()} commits the environments one after another, so a failure may leave
+ * some of them committed.
+ *
+ * @since 3.6.0
+ */
+public interface FanOutSqlSession extends Closeable {
+
+  <E> List<E> selectList(String statement);
+
+  <E> List<E> selectList(String statement, Object parameter);
+
+  <E> List<E> selectList(String statement, Object parameter, RowBounds rowBounds);
+
+  /**
+   * Retrieves the rows of all environments merged in the given order.
+   *
+   * @param <E>
+   *          the returned list element type
+   * @param statement
+   *          Unique identifier matching the statement to use.
+   * @param parameter
+   *          A parameter object to pass to the statement.
+   * @param rowBounds
+   *          Bounds to limit the merged rows
+   * @param order
+   *          The order the rows of every environment follow already, or {@code null} to concatenate them in the order
+   *          of the environments
+   *
+   * @return List of mapped objects
+   */
+  <E> List<E> selectList(String statement, Object parameter, RowBounds rowBounds, Comparator<? super E> order);
+
+  <T> Cursor<T> selectCursor(String statement);
+
+  <T> Cursor<T> selectCursor(String statement, Object parameter);
+
+  <T> Cursor<T> selectCursor(String statement, Object parameter, RowBounds rowBounds);
+
+  /**
+   * Opens a cursor on all environments whose rows are merged in the given order. At most a fetch size worth of rows per
+   * environment is read ahead of the caller.
+   *
+   * @param <T>
+   *          the returned cursor element type.
+   * @param statement
+   *          Unique identifier matching the statement to use.
+   * @param parameter
+   *          A parameter object to pass to the statement.
+   * @param rowBounds
+   *          Bounds to limit the merged rows
+   * @param order
+   *          The order the rows of every environment follow already, or {@code null} to return them as they arrive
+   *
+   * @return Cursor of mapped objects
+   */
+  <T> Cursor<T> selectCursor(String statement, Object parameter, RowBounds rowBounds, Comparator<? super T> order);
+
+  /**
+   * Executes an insert statement on all environments.
+   *
+   * @param statement
+   *          Unique identifier matching the statement to execute.
+   * @param parameter
+   *          A parameter object to pass to the statement.
+   *
+   * @return The total number of rows affected by the insert.
+   */
+  int insert(String statement, Object parameter);
+
+  int update(String statement, Object parameter);
+
+  int delete(String statement, Object parameter);
+
+  void commit();
+
+  void rollback();
+
+  /**
+   * Closes the cursors that are still open and the sessions of all environments.
+   */
+  @Override
+  void close();
+
+  List<Environment> getEnvironments();
+
+  Configuration getConfiguration();
+
+}
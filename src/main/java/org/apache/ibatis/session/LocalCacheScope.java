@@ -1,5 +1,5 @@
 /*
- *    Copyright 2009-2023 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -19,5 +19,12 @@ package org.apache.ibatis.session;
  * @author Eduardo Macarron
  */
 public enum LocalCacheScope {
-  SESSION, STATEMENT
+  SESSION, STATEMENT,
+  /**
+   * Keeps for the whole session only the results of the queries run while mapping another query, i.e. nested selects
+   * and the circular references resolved through them. Results of top level queries are dropped once they are mapped.
+   *
+   * @since 3.6.0
+   */
+  NESTED
 }
@@ -1,5 +1,5 @@
 /*
- *    Copyright 2009-2022 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -16,6 +16,9 @@
 package org.apache.ibatis.session;
 
 import java.sql.Connection;
+import java.util.List;
+
+import org.apache.ibatis.mapping.Environment;
 
 /**
  * Creates an {@link SqlSession} out of a connection or a DataSource
@@ -42,4 +45,54 @@ public interface SqlSessionFactory {
 
   Configuration getConfiguration();
 
+  /**
+   * Opens an {@link AsyncSqlSession} on a new session that runs its operations on the async executor of the
+   * configuration. Factories that do not support async sessions throw an {@link UnsupportedOperationException}.
+   *
+   * @return the async session
+   *
+   * @since 3.6.0
+   */
+  default AsyncSqlSession openAsyncSession() {
+    throw new UnsupportedOperationException(getClass().getName() + " does not support async sessions");
+  }
+
+  /**
+   * @since 3.6.0
+   */
+  default AsyncSqlSession openAsyncSession(boolean autoCommit) {
+    throw new UnsupportedOperationException(getClass().getName() + " does not support async sessions");
+  }
+
+  /**
+   * @since 3.6.0
+   */
+  default AsyncSqlSession openAsyncSession(ExecutorType execType) {
+    throw new UnsupportedOperationException(getClass().getName() + " does not support async sessions");
+  }
+
+  /**
+   * Opens a {@link FanOutSqlSession} that runs each statement on all the given environments, which must share the
+   * schema the mapped statements of the configuration expect. Factories that do not support fan-out sessions throw an
+   * {@link UnsupportedOperationException}.
+   *
+   * @param environments
+   *          the environments, one session is opened on each of them
+   *
+   * @return the fan-out session
+   *
+   * @since 3.6.0
+   */
+  default FanOutSqlSession openFanOutSession(List<Environment> environments) {
+    throw new UnsupportedOperationException(getClass().getName() + " does not support fan-out sessions");
+  }
+
+  /**
+   * @since 3.6.0
+   */
+  default FanOutSqlSession openFanOutSession(List<Environment> environments, ExecutorType execType,
+      boolean autoCommit) {
+    throw new UnsupportedOperationException(getClass().getName() + " does not support fan-out sessions");
+  }
+
 }
@@ -1,5 +1,5 @@
 /*
- *    Copyright 2009-2023 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -93,7 +93,11 @@ public class SqlSessionFactoryBuilder {
   }
 
   public SqlSessionFactory build(Configuration config) {
-    return new DefaultSqlSessionFactory(config);
+    SqlSessionFactory sqlSessionFactory = new DefaultSqlSessionFactory(config);
+    if (config.getCacheWarmupThreads() > 0 && !config.getCachePreloads().isEmpty()) {
+      config.setCacheWarmer(new CacheWarmer(sqlSessionFactory, config.getCacheWarmupThreads()).start());
+    }
+    return sqlSessionFactory;
   }
 
 }
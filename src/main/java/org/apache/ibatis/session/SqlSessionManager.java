@@ -1,5 +1,5 @@
 /*
- *    Copyright 2009-2023 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -27,6 +27,7 @@ import java.util.Properties;
 
 import org.apache.ibatis.cursor.Cursor;
 import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.mapping.Environment;
 import org.apache.ibatis.reflection.ExceptionUtil;
 
 /**
@@ -149,6 +150,31 @@ public class SqlSessionManager implements SqlSessionFactory, SqlSession {
     return sqlSessionFactory.openSession(execType, connection);
   }
 
+  @Override
+  public AsyncSqlSession openAsyncSession() {
+    return sqlSessionFactory.openAsyncSession();
+  }
+
+  @Override
+  public AsyncSqlSession openAsyncSession(boolean autoCommit) {
+    return sqlSessionFactory.openAsyncSession(autoCommit);
+  }
+
+  @Override
+  public AsyncSqlSession openAsyncSession(ExecutorType execType) {
+    return sqlSessionFactory.openAsyncSession(execType);
+  }
+
+  @Override
+  public FanOutSqlSession openFanOutSession(List<Environment> environments) {
+    return sqlSessionFactory.openFanOutSession(environments);
+  }
+
+  @Override
+  public FanOutSqlSession openFanOutSession(List<Environment> environments, ExecutorType execType, boolean autoCommit) {
+    return sqlSessionFactory.openFanOutSession(environments, execType, autoCommit);
+  }
+
   @Override
   public Configuration getConfiguration() {
     return sqlSessionFactory.getConfiguration();
@@ -0,0 +1,294 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.session.defaults;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.reflection.ExceptionUtil;
+import org.apache.ibatis.session.AsyncSqlSession;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionException;
+
+/**
+ * The default implementation for {@link AsyncSqlSession}.
+ * <p>
+ * Operations are chained: each one is handed to the executor once the previous one has completed, and the next one is
+ * released before the future of the caller is completed, so callbacks never delay the session nor deadlock it.
+ *
+ * @since 3.6.0
+ */
+public class DefaultAsyncSqlSession implements AsyncSqlSession {
+
+  private final SqlSession sqlSession;
+  private final Executor executor;
+  private final SqlSession mapperSession;
+  private final ReentrantLock lock = new ReentrantLock();
+  private CompletableFuture<Void> tail = CompletableFuture.completedFuture(null);
+  private CompletableFuture<Void> closeFuture;
+
+  public DefaultAsyncSqlSession(SqlSession sqlSession, Executor executor) {
+    this.sqlSession = sqlSession;
+    this.executor = executor;
+    this.mapperSession = (SqlSession) Proxy.newProxyInstance(SqlSession.class.getClassLoader(),
+        new Class[] { SqlSession.class, AsyncSqlSession.class }, new MapperSessionInterceptor());
+  }
+
+  @Override
+  public <T> CompletableFuture<T> selectOneAsync(String statement) {
+    return submit(session -> session.selectOne(statement));
+  }
+
+  @Override
+  public <T> CompletableFuture<T> selectOneAsync(String statement, Object parameter) {
+    return submit(session -> session.selectOne(statement, parameter));
+  }
+
+  @Override
+  public <E> CompletableFuture<List<E>> selectListAsync(String statement) {
+    return submit(session -> session.selectList(statement));
+  }
+
+  @Override
+  public <E> CompletableFuture<List<E>> selectListAsync(String statement, Object parameter) {
+    return submit(session -> session.selectList(statement, parameter));
+  }
+
+  @Override
+  public <E> CompletableFuture<List<E>> selectListAsync(String statement, Object parameter, RowBounds rowBounds) {
+    return submit(session -> session.selectList(statement, parameter, rowBounds));
+  }
+
+  @Override
+  public <K, V> CompletableFuture<Map<K, V>> selectMapAsync(String statement, Object parameter, String mapKey) {
+    return submit(session -> session.selectMap(statement, parameter, mapKey));
+  }
+
+  @Override
+  public CompletableFuture<Integer> insertAsync(String statement) {
+    return submit(session -> session.insert(statement));
+  }
+
+  @Override
+  public CompletableFuture<Integer> insertAsync(String statement, Object parameter) {
+    return submit(session -> session.insert(statement, parameter));
+  }
+
+  @Override
+  public CompletableFuture<Integer> updateAsync(String statement) {
+    return submit(session -> session.update(statement));
+  }
+
+  @Override
+  public CompletableFuture<Integer> updateAsync(String statement, Object parameter) {
+    return submit(session -> session.update(statement, parameter));
+  }
+
+  @Override
+  public CompletableFuture<Integer> deleteAsync(String statement) {
+    return submit(session -> session.delete(statement));
+  }
+
+  @Override
+  public CompletableFuture<Integer> deleteAsync(String statement, Object parameter) {
+    return submit(session -> session.delete(statement, parameter));
+  }
+
+  @Override
+  public CompletableFuture<Void> commitAsync() {
+    return submit(session -> {
+      session.commit();
+      return null;
+    });
+  }
+
+  @Override
+  public CompletableFuture<Void> commitAsync(boolean force) {
+    return submit(session -> {
+      session.commit(force);
+      return null;
+    });
+  }
+
+  @Override
+  public CompletableFuture<Void> rollbackAsync() {
+    return submit(session -> {
+      session.rollback();
+      return null;
+    });
+  }
+
+  @Override
+  public CompletableFuture<Void> rollbackAsync(boolean force) {
+    return submit(session -> {
+      session.rollback(force);
+      return null;
+    });
+  }
+
+  @Override
+  public CompletableFuture<List<BatchResult>> flushStatementsAsync() {
+    return submit(SqlSession::flushStatements);
+  }
+
+  @Override
+  public <T> CompletableFuture<T> submit(Function<SqlSession, T> work) {
+    lock.lock();
+    try {
+      if (closeFuture != null) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        result.completeExceptionally(new SqlSessionException("Error: the async session is closed."));
+        return result;
+      }
+      return enqueue(work);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public CompletableFuture<Void> closeAsync() {
+    lock.lock();
+    try {
+      if (closeFuture == null) {
+        closeFuture = enqueue(session -> {
+          session.close();
+          return null;
+        });
+      }
+      return closeFuture;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void close() {
+    join(closeAsync());
+  }
+
+  @Override
+  public Configuration getConfiguration() {
+    return sqlSession.getConfiguration();
+  }
+
+  @Override
+  public <T> T getMapper(Class<T> type) {
+    return getConfiguration().getMapper(type, mapperSession);
+  }
+
+  /**
+   * Must hold the lock.
+   */
+  private <T> CompletableFuture<T> enqueue(Function<SqlSession, T> work) {
+    CompletableFuture<T> result = new CompletableFuture<>();
+    CompletableFuture<Void> done = new CompletableFuture<>();
+    CompletableFuture<Void> previous = tail;
+    tail = done;
+    previous.whenComplete((ignored, previousFailure) -> {
+      try {
+        executor.execute(() -> run(work, result, done));
+      } catch (RuntimeException e) {
+        done.complete(null);
+        result.completeExceptionally(e);
+      }
+    });
+    return result;
+  }
+
+  private <T> void run(Function<SqlSession, T> work, CompletableFuture<T> result, CompletableFuture<Void> done) {
+    T value;
+    try {
+      value = work.apply(sqlSession);
+    } catch (Throwable t) {
+      done.complete(null);
+      result.completeExceptionally(t);
+      return;
+    }
+    done.complete(null);
+    result.complete(value);
+  }
+
+  private static <T> T join(CompletableFuture<T> future) {
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * The session handed to mappers. It is also an {@link AsyncSqlSession} so that mapper methods returning futures are
+   * submitted to this session, while its blocking methods wait for their turn.
+   */
+  private class MapperSessionInterceptor implements InvocationHandler {
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      Class<?> declaringClass = method.getDeclaringClass();
+      if (Object.class.equals(declaringClass)) {
+        return method.invoke(this, args);
+      }
+      String name = method.getName();
+      if ("getConfiguration".equals(name)) {
+        return getConfiguration();
+      }
+      if ("getMapper".equals(name)) {
+        return getConfiguration().getMapper((Class<?>) args[0], (SqlSession) proxy);
+      }
+      if (AsyncSqlSession.class.equals(declaringClass)) {
+        return invokeOn(DefaultAsyncSqlSession.this, method, args);
+      }
+      return join(submit(session -> {
+        try {
+          return invokeOn(session, method, args);
+        } catch (RuntimeException | Error e) {
+          throw e;
+        } catch (Throwable t) {
+          throw new CompletionException(t);
+        }
+      }));
+    }
+
+    private Object invokeOn(Object target, Method method, Object[] args) throws Throwable {
+      try {
+        return method.invoke(target, args);
+      } catch (Throwable t) {
+        throw ExceptionUtil.unwrapThrowable(t);
+      }
+    }
+
+  }
+
+}
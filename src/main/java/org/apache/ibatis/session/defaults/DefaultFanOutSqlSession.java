@@ -0,0 +1,384 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.session.defaults;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.cursor.defaults.MergedCursor;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.FanOutSqlSession;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionException;
+
+/**
+ * The default implementation for {@link FanOutSqlSession}. Each environment has a session guarded by a lock that is
+ * only held while the session talks to the database, so several merged cursors may be read at the same time. The
+ * readers of merged cursors run on threads owned by the session, which are released when it is closed.
+ *
+ * @since 3.6.0
+ */
+public class DefaultFanOutSqlSession implements FanOutSqlSession {
+
+  private static final int DEFAULT_BUFFER_SIZE = 100;
+  private static final AtomicInteger READER_NUMBER = new AtomicInteger();
+  private final Configuration configuration;
+  private final List<Environment> environments;
+  private final List<Shard> shards = new ArrayList<>();
+  private final List<MergedCursor<?>> cursors = new ArrayList<>();
+  /**
+   * Runs the readers of merged cursors. An ordered merge needs every reader running at the same time, so they get a
+   * thread each instead of sharing the async executor, which may have fewer threads than there are environments.
+   */
+  private ExecutorService readerExecutor;
+
+  public DefaultFanOutSqlSession(DefaultSqlSessionFactory sqlSessionFactory, List<Environment> environments,
+      ExecutorType execType, boolean autoCommit) {
+    if (environments == null || environments.isEmpty()) {
+      throw new SqlSessionException("Error: a fan-out session needs at least one environment.");
+    }
+    this.configuration = sqlSessionFactory.getConfiguration();
+    this.environments = Collections.unmodifiableList(new ArrayList<>(environments));
+    try {
+      for (Environment environment : environments) {
+        shards.add(new Shard(sqlSessionFactory.openSessionFromEnvironment(environment, execType, null, autoCommit)));
+      }
+    } catch (RuntimeException e) {
+      for (Shard shard : shards) {
+        shard.session.close();
+      }
+      throw e;
+    }
+  }
+
+  @Override
+  public <E> List<E> selectList(String statement) {
+    return selectList(statement, null);
+  }
+
+  @Override
+  public <E> List<E> selectList(String statement, Object parameter) {
+    return selectList(statement, parameter, RowBounds.DEFAULT);
+  }
+
+  @Override
+  public <E> List<E> selectList(String statement, Object parameter, RowBounds rowBounds) {
+    return selectList(statement, parameter, rowBounds, null);
+  }
+
+  @Override
+  public <E> List<E> selectList(String statement, Object parameter, RowBounds rowBounds, Comparator<? super E> order) {
+    RowBounds shardBounds = shardBounds(rowBounds);
+    List<List<E>> lists = callAll(session -> session.<E>selectList(statement, parameter, shardBounds));
+    return merge(lists, order, rowBounds);
+  }
+
+  @Override
+  public <T> Cursor<T> selectCursor(String statement) {
+    return selectCursor(statement, null);
+  }
+
+  @Override
+  public <T> Cursor<T> selectCursor(String statement, Object parameter) {
+    return selectCursor(statement, parameter, RowBounds.DEFAULT);
+  }
+
+  @Override
+  public <T> Cursor<T> selectCursor(String statement, Object parameter, RowBounds rowBounds) {
+    return selectCursor(statement, parameter, rowBounds, null);
+  }
+
+  @Override
+  public <T> Cursor<T> selectCursor(String statement, Object parameter, RowBounds rowBounds,
+      Comparator<? super T> order) {
+    cursors.removeIf(Cursor::isConsumed);
+    MergedCursor<T> cursor = openCursor(statement, parameter, rowBounds, order);
+    cursors.add(cursor);
+    return cursor;
+  }
+
+  @Override
+  public int insert(String statement, Object parameter) {
+    return update(statement, parameter);
+  }
+
+  @Override
+  public int update(String statement, Object parameter) {
+    List<Integer> counts = callAll(session -> session.update(statement, parameter));
+    int total = 0;
+    for (Integer count : counts) {
+      total += count;
+    }
+    return total;
+  }
+
+  @Override
+  public int delete(String statement, Object parameter) {
+    return update(statement, parameter);
+  }
+
+  @Override
+  public void commit() {
+    for (Shard shard : shards) {
+      shard.call(session -> {
+        session.commit();
+        return null;
+      });
+    }
+  }
+
+  @Override
+  public void rollback() {
+    RuntimeException failure = null;
+    for (Shard shard : shards) {
+      try {
+        shard.call(session -> {
+          session.rollback();
+          return null;
+        });
+      } catch (RuntimeException e) {
+        if (failure == null) {
+          failure = e;
+        }
+      }
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  @Override
+  public void close() {
+    for (MergedCursor<?> cursor : cursors) {
+      cursor.close();
+    }
+    cursors.clear();
+    if (readerExecutor != null) {
+      readerExecutor.shutdown();
+      readerExecutor = null;
+    }
+    RuntimeException failure = null;
+    for (Shard shard : shards) {
+      try {
+        shard.call(session -> {
+          session.close();
+          return null;
+        });
+      } catch (RuntimeException e) {
+        if (failure == null) {
+          failure = e;
+        }
+      }
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  @Override
+  public List<Environment> getEnvironments() {
+    return environments;
+  }
+
+  @Override
+  public Configuration getConfiguration() {
+    return configuration;
+  }
+
+  private <T> MergedCursor<T> openCursor(String statement, Object parameter, RowBounds rowBounds,
+      Comparator<? super T> order) {
+    RowBounds shardBounds = shardBounds(rowBounds);
+    List<Supplier<Cursor<T>>> sources = new ArrayList<>();
+    for (Shard shard : shards) {
+      sources.add(() -> new ShardCursor<>(shard,
+          shard.call(session -> session.<T>selectCursor(statement, parameter, shardBounds))));
+    }
+    Integer fetchSize = configuration.getDefaultFetchSize();
+    int bufferSize = fetchSize != null && fetchSize > 0 ? fetchSize : DEFAULT_BUFFER_SIZE;
+    if (readerExecutor == null) {
+      readerExecutor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "mybatis-fan-out-" + READER_NUMBER.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+      });
+    }
+    return new MergedCursor<>(sources, order, rowBounds, bufferSize, readerExecutor);
+  }
+
+  /**
+   * Returns the row bounds of each environment, which never has to return more rows than the merged result may need.
+   */
+  private static RowBounds shardBounds(RowBounds rowBounds) {
+    if (rowBounds.getLimit() == RowBounds.NO_ROW_LIMIT) {
+      return RowBounds.DEFAULT;
+    }
+    return new RowBounds(RowBounds.NO_ROW_OFFSET,
+        (int) Math.min(Integer.MAX_VALUE, (long) rowBounds.getOffset() + rowBounds.getLimit()));
+  }
+
+  /**
+   * Concatenates the lists of the environments or, with an order, merges them, and applies the offset and limit.
+   */
+  private static <E> List<E> merge(List<List<E>> lists, Comparator<? super E> order, RowBounds rowBounds) {
+    long end = rowBounds.getLimit() == RowBounds.NO_ROW_LIMIT ? Long.MAX_VALUE
+        : (long) rowBounds.getOffset() + rowBounds.getLimit();
+    List<E> merged = new ArrayList<>();
+    if (order == null) {
+      for (List<E> list : lists) {
+        merged.addAll(list);
+      }
+    } else {
+      int[] positions = new int[lists.size()];
+      PriorityQueue<Integer> heads = new PriorityQueue<>((a, b) -> {
+        int result = order.compare(lists.get(a).get(positions[a]), lists.get(b).get(positions[b]));
+        // keeps equal rows in the order of the environments
+        return result != 0 ? result : Integer.compare(a, b);
+      });
+      for (int i = 0; i < lists.size(); i++) {
+        if (!lists.get(i).isEmpty()) {
+          heads.add(i);
+        }
+      }
+      while (!heads.isEmpty() && merged.size() < end) {
+        int head = heads.poll();
+        merged.add(lists.get(head).get(positions[head]++));
+        if (positions[head] < lists.get(head).size()) {
+          heads.add(head);
+        }
+      }
+    }
+    int offset = rowBounds.getOffset();
+    if (offset >= merged.size()) {
+      return new ArrayList<>();
+    }
+    return offset == 0 && merged.size() <= end ? merged
+        : new ArrayList<>(merged.subList(offset, (int) Math.min(merged.size(), end)));
+  }
+
+  private <T> List<T> callAll(Function<SqlSession, T> work) {
+    List<CompletableFuture<T>> futures = new ArrayList<>();
+    for (Shard shard : shards) {
+      futures.add(CompletableFuture.supplyAsync(() -> shard.call(work), configuration.getAsyncExecutor()));
+    }
+    List<T> results = new ArrayList<>();
+    RuntimeException failure = null;
+    // every environment completes before returning, the sessions are not used afterwards
+    for (CompletableFuture<T> future : futures) {
+      try {
+        results.add(future.join());
+      } catch (CompletionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof Error) {
+          throw (Error) cause;
+        }
+        if (failure == null) {
+          failure = cause instanceof RuntimeException ? (RuntimeException) cause : e;
+        }
+      }
+    }
+    if (failure != null) {
+      throw failure;
+    }
+    return results;
+  }
+
+  private static class Shard {
+    private final SqlSession session;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    Shard(SqlSession session) {
+      this.session = session;
+    }
+
+    <T> T call(Function<SqlSession, T> work) {
+      lock.lock();
+      try {
+        return work.apply(session);
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+
+  /**
+   * The cursor of one environment, fetching its rows under the lock of the environment session.
+   */
+  private static class ShardCursor<T> implements Cursor<T> {
+    private final Shard shard;
+    private final Cursor<T> delegate;
+
+    ShardCursor(Shard shard, Cursor<T> delegate) {
+      this.shard = shard;
+      this.delegate = delegate;
+    }
+
+    @Override
+    public boolean isOpen() {
+      return delegate.isOpen();
+    }
+
+    @Override
+    public boolean isConsumed() {
+      return delegate.isConsumed();
+    }
+
+    @Override
+    public int getCurrentIndex() {
+      return delegate.getCurrentIndex();
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+      Iterator<T> iterator = delegate.iterator();
+      return new Iterator<T>() {
+        @Override
+        public boolean hasNext() {
+          return shard.call(session -> iterator.hasNext());
+        }
+
+        @Override
+        public T next() {
+          return shard.call(session -> iterator.next());
+        }
+      };
+    }
+
+    @Override
+    public void close() {
+      shard.call(session -> {
+        delegate.close();
+        return null;
+      });
+    }
+  }
+
+}
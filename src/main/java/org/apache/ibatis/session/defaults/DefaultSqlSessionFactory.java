@@ -1,5 +1,5 @@
 /*
- *    Copyright 2009-2024 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -17,13 +17,16 @@ package org.apache.ibatis.session.defaults;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.List;
 
 import org.apache.ibatis.exceptions.ExceptionFactory;
 import org.apache.ibatis.executor.ErrorContext;
 import org.apache.ibatis.executor.Executor;
 import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.AsyncSqlSession;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.FanOutSqlSession;
 import org.apache.ibatis.session.SqlSession;
 import org.apache.ibatis.session.SqlSessionFactory;
 import org.apache.ibatis.session.TransactionIsolationLevel;
@@ -87,15 +90,44 @@ public class DefaultSqlSessionFactory implements SqlSessionFactory {
     return configuration;
   }
 
+  @Override
+  public AsyncSqlSession openAsyncSession() {
+    return new DefaultAsyncSqlSession(openSession(), configuration.getAsyncExecutor());
+  }
+
+  @Override
+  public AsyncSqlSession openAsyncSession(boolean autoCommit) {
+    return new DefaultAsyncSqlSession(openSession(autoCommit), configuration.getAsyncExecutor());
+  }
+
+  @Override
+  public AsyncSqlSession openAsyncSession(ExecutorType execType) {
+    return new DefaultAsyncSqlSession(openSession(execType), configuration.getAsyncExecutor());
+  }
+
+  @Override
+  public FanOutSqlSession openFanOutSession(List<Environment> environments) {
+    return openFanOutSession(environments, configuration.getDefaultExecutorType(), false);
+  }
+
+  @Override
+  public FanOutSqlSession openFanOutSession(List<Environment> environments, ExecutorType execType, boolean autoCommit) {
+    return new DefaultFanOutSqlSession(this, environments, execType, autoCommit);
+  }
+
   protected SqlSession createSqlSession(Configuration configuration, Executor executor, boolean autoCommit) {
     return new DefaultSqlSession(configuration, executor, autoCommit);
   }
 
   private SqlSession openSessionFromDataSource(ExecutorType execType, TransactionIsolationLevel level,
       boolean autoCommit) {
+    return openSessionFromEnvironment(configuration.getEnvironment(), execType, level, autoCommit);
+  }
+
+  SqlSession openSessionFromEnvironment(Environment environment, ExecutorType execType, TransactionIsolationLevel level,
+      boolean autoCommit) {
     Transaction tx = null;
     try {
-      final Environment environment = configuration.getEnvironment();
       final TransactionFactory transactionFactory = getTransactionFactoryFromEnvironment(environment);
       tx = transactionFactory.newTransaction(environment.getDataSource(), level, autoCommit);
       final Executor executor = configuration.newExecutor(tx, execType);
@@ -0,0 +1,145 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ibatis.cache.decorators.BlockingCache;
+import org.apache.ibatis.cache.decorators.TransactionalCache;
+import org.apache.ibatis.cache.impl.PerpetualCache;
+import org.apache.ibatis.mapping.CacheBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class BlockingCacheTest {
+
+  private final ExecutorService executor = Executors.newCachedThreadPool();
+
+  @AfterEach
+  void shutdown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  void shouldReleaseAllWaitersWhenTheLoaderPutsTheEntry() throws Exception {
+    BlockingCache cache = new BlockingCache(new PerpetualCache("default"));
+    assertNull(cache.getObject("key"));
+    List<Future<Object>> waiters = new ArrayList<>();
+    for (int i = 0; i < 50; i++) {
+      waiters.add(executor.submit(() -> cache.getObject("key")));
+    }
+    Thread.sleep(100);
+    for (Future<Object> waiter : waiters) {
+      assertFalse(waiter.isDone());
+    }
+    cache.putObject("key", "value");
+    for (Future<Object> waiter : waiters) {
+      assertEquals("value", waiter.get(5, TimeUnit.SECONDS));
+    }
+  }
+
+  @Test
+  void shouldHandOverLoadingWhenTheLoaderRollsBack() throws Exception {
+    BlockingCache cache = new BlockingCache(new PerpetualCache("default"));
+    assertNull(cache.getObject("key"));
+    Future<Object> waiter = executor.submit(() -> cache.getObject("key"));
+    Thread.sleep(100);
+    cache.removeObject("key");
+    // the waiter is now the loader
+    assertNull(waiter.get(5, TimeUnit.SECONDS));
+    Future<Object> next = executor.submit(() -> cache.getObject("key"));
+    Thread.sleep(100);
+    assertFalse(next.isDone());
+    cache.putObject("key", "value");
+    assertEquals("value", next.get(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void shouldReadMissingEntriesInBulkWithoutTakingLocks() throws Exception {
+    BlockingCache cache = new BlockingCache(new PerpetualCache("default"));
+    cache.putObject("cached", "value");
+    assertEquals(Collections.singletonMap("cached", "value"), cache.getAll(Arrays.asList("cached", "missing")));
+    // no lock was left behind on the missing key
+    assertNull(executor.submit(() -> cache.getObject("missing")).get(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void shouldRollBackMissesOfBulkReads() throws Exception {
+    BlockingCache cache = new BlockingCache(new PerpetualCache("default"));
+    TransactionalCache transactionalCache = new TransactionalCache(cache);
+    assertEquals(Collections.emptyMap(), transactionalCache.getAll(Arrays.asList("key", "other")));
+    transactionalCache.rollback();
+    assertNull(executor.submit(() -> cache.getObject("key")).get(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void shouldWaitForKeysBeingLoadedWhenReadingInBulk() throws Exception {
+    BlockingCache cache = new BlockingCache(new PerpetualCache("default"));
+    assertNull(cache.getObject("key"));
+    Future<Map<Object, Object>> waiter = executor.submit(() -> cache.getAll(Arrays.asList("key", "other")));
+    Thread.sleep(100);
+    assertFalse(waiter.isDone());
+    cache.putObject("key", "value");
+    assertEquals(Collections.singletonMap("key", "value"), waiter.get(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void shouldFailWhenTheTimeoutElapses() {
+    BlockingCache cache = new BlockingCache(new PerpetualCache("default"));
+    cache.setTimeout(100);
+    assertNull(cache.getObject("key"));
+    assertThrows(CacheException.class, () -> cache.getObject("key"));
+  }
+
+  @Test
+  void shouldFallBackToLoadingWhenTheTimeoutElapses() {
+    BlockingCache cache = new BlockingCache(new PerpetualCache("default"));
+    cache.setTimeout(100);
+    cache.setFallbackOnTimeout(true);
+    assertNull(cache.getObject("key"));
+    assertNull(cache.getObject("key"));
+    cache.putObject("key", "fallback");
+    cache.putObject("key", "loader");
+    assertEquals("loader", cache.getObject("key"));
+  }
+
+  @Test
+  void shouldConfigureTheLockThroughProperties() {
+    Properties props = new Properties();
+    props.setProperty("timeout", "100");
+    props.setProperty("fallbackOnTimeout", "true");
+    Cache cache = new CacheBuilder("default").blocking(true).properties(props).build();
+    assertTrue(cache instanceof BlockingCache);
+    assertEquals(100, ((BlockingCache) cache).getTimeout());
+    assertTrue(((BlockingCache) cache).isFallbackOnTimeout());
+  }
+
+}
@@ -0,0 +1,199 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.ibatis.cache.decorators.FifoCache;
+import org.apache.ibatis.cache.decorators.LruCache;
+import org.apache.ibatis.cache.decorators.SoftCache;
+import org.apache.ibatis.cache.decorators.TinyLfuCache;
+import org.apache.ibatis.cache.decorators.TransactionalCache;
+import org.apache.ibatis.cache.decorators.WeightedCache;
+import org.apache.ibatis.cache.impl.OffHeapCache;
+import org.apache.ibatis.cache.impl.PerpetualCache;
+import org.apache.ibatis.mapping.CacheBuilder;
+import org.junit.jupiter.api.Test;
+
+class BulkOperationsTest {
+
+  @Test
+  void shouldPublishACommitAsASingleBatch() {
+    CountingCache counting = new CountingCache();
+    TransactionalCache cache = new TransactionalCache(counting);
+    for (int i = 0; i < 100; i++) {
+      cache.putObject(i, "value" + i);
+    }
+    assertNull(cache.getObject(100));
+    cache.commit();
+    assertEquals(1, counting.putAllCount.get());
+    assertEquals(0, counting.putCount.get());
+    assertEquals(101, counting.getSize());
+    assertEquals("value7", counting.getObject(7));
+  }
+
+  @Test
+  void shouldPassBatchesThroughTheStandardDecorators() {
+    Cache cache = new CacheBuilder("default").size(3).readWrite(true).build();
+    List<String> value = new ArrayList<>(Arrays.asList("a", "b"));
+    cache.putAll(entries(5, value));
+    assertEquals(3, cache.getSize());
+    Map<Object, Object> values = cache.getAll(Arrays.asList(0, 1, 2, 3, 4));
+    assertEquals(3, values.size());
+    assertFalse(values.containsKey(0));
+    assertEquals(value, values.get(4));
+    assertNotSame(value, values.get(4));
+    assertEquals(3, cache.getStats().getHitCount());
+    assertEquals(2, cache.getStats().getMissCount());
+    assertEquals(5, cache.getStats().getPutCount());
+    assertEquals(2, cache.getStats().getEvictionCount(CacheStats.EvictionCause.SIZE));
+    cache.removeAll(Arrays.asList(3, 4));
+    assertEquals(1, cache.getSize());
+  }
+
+  @Test
+  void shouldEvictOncePerBatchInLruCache() {
+    CountingCache counting = new CountingCache();
+    LruCache cache = new LruCache(counting);
+    cache.setSize(5);
+    cache.putAll(entries(5, "old"));
+    cache.getObject(0);
+    cache.putAll(entries(8, "new"));
+    assertEquals(5, cache.getSize());
+    assertEquals(1, counting.removeAllCount.get());
+    assertEquals(0, counting.removeCount.get());
+    assertEquals("new", cache.getObject(7));
+    assertNull(cache.getObject(2));
+  }
+
+  @Test
+  void shouldKeepKeysPutAgainInTheSameBatchInFifoCache() {
+    FifoCache cache = new FifoCache(new PerpetualCache("default"));
+    cache.setSize(2);
+    Map<Object, Object> entries = new LinkedHashMap<>();
+    entries.put(1, "a");
+    entries.put(2, "b");
+    entries.put(3, "c");
+    cache.putAll(entries);
+    assertEquals(2, cache.getSize());
+    assertNull(cache.getObject(1));
+    assertEquals("c", cache.getObject(3));
+  }
+
+  @Test
+  void shouldEvictOncePerBatchInWeightedCache() {
+    CountingCache counting = new CountingCache();
+    WeightedCache cache = new WeightedCache(counting);
+    cache.setWeigher((key, value) -> 100);
+    cache.setMaxBytes(500);
+    cache.putAll(entries(8, "value"));
+    assertEquals(5, cache.getSize());
+    assertEquals(500, cache.getWeightedSize());
+    assertEquals(1, counting.removeAllCount.get());
+    cache.removeAll(Arrays.asList(5, 6));
+    assertEquals(300, cache.getWeightedSize());
+  }
+
+  @Test
+  void shouldBoundTinyLfuCacheAfterABatch() {
+    TinyLfuCache cache = new TinyLfuCache(new PerpetualCache("default"));
+    cache.setSize(10);
+    cache.putAll(entries(50, "value"));
+    assertEquals(10, cache.getSize());
+    assertEquals(10, cache.getAll(entries(50, "value").keySet()).size());
+  }
+
+  @Test
+  void shouldUnwrapReferencesInSoftCache() {
+    SoftCache cache = new SoftCache(new PerpetualCache("default"));
+    cache.putAll(entries(3, "value"));
+    assertEquals("value", cache.getAll(Arrays.asList(0, 1, 2)).get(1));
+  }
+
+  @Test
+  void shouldStoreBatchesInOffHeapCache() {
+    OffHeapCache cache = new OffHeapCache("default");
+    Map<Object, Object> entries = entries(3, "value");
+    entries.put(1, null);
+    cache.putObject(1, "previous");
+    cache.putAll(entries);
+    assertEquals(2, cache.getSize());
+    assertEquals("value", cache.getObject(2));
+    assertTrue(cache.getAll(Arrays.asList(0, 1)).containsKey(0));
+    cache.removeAll(Arrays.asList(0, 2));
+    assertEquals(0, cache.getSize());
+  }
+
+  private static Map<Object, Object> entries(int count, Object value) {
+    Map<Object, Object> entries = new LinkedHashMap<>();
+    for (int i = 0; i < count; i++) {
+      entries.put(i, value);
+    }
+    return entries;
+  }
+
+  private static class CountingCache extends PerpetualCache {
+    private final AtomicInteger putCount = new AtomicInteger();
+    private final AtomicInteger putAllCount = new AtomicInteger();
+    private final AtomicInteger removeCount = new AtomicInteger();
+    private final AtomicInteger removeAllCount = new AtomicInteger();
+
+    CountingCache() {
+      super("default");
+    }
+
+    @Override
+    public void putObject(Object key, Object value) {
+      putCount.incrementAndGet();
+      super.putObject(key, value);
+    }
+
+    @Override
+    public Object removeObject(Object key) {
+      removeCount.incrementAndGet();
+      return super.removeObject(key);
+    }
+
+    @Override
+    public void putAll(Map<?, ?> entries) {
+      putAllCount.incrementAndGet();
+      for (Map.Entry<?, ?> entry : entries.entrySet()) {
+        super.putObject(entry.getKey(), entry.getValue());
+      }
+    }
+
+    @Override
+    public void removeAll(Collection<?> keys) {
+      removeAllCount.incrementAndGet();
+      for (Object key : keys) {
+        super.removeObject(key);
+      }
+    }
+  }
+
+}
@@ -1,5 +1,5 @@
 /*
- *    Copyright 2009-2024 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -88,6 +88,46 @@ class CacheKeyTest {
     assertEquals(key1, key2);
   }
 
+  @Test
+  void shouldGrowBeyondExpectedSize() {
+    CacheKey key1 = new CacheKey(1);
+    CacheKey key2 = new CacheKey();
+    for (int i = 0; i < 20; i++) {
+      key1.update(i);
+      key2.update(i);
+    }
+    assertEquals(20, key1.getUpdateCount());
+    assertEquals(key1, key2);
+    assertEquals(key1.hashCode(), key2.hashCode());
+  }
+
+  @Test
+  void shouldReuseKeyAfterReset() throws Exception {
+    CacheKey key = new CacheKey(new Object[] { "a", 1 });
+    CacheKey cloned = key.clone();
+    key.reset();
+    assertEquals(0, key.getUpdateCount());
+    assertEquals(new CacheKey(), key);
+    key.updateAll(new Object[] { "b", 2 });
+    assertEquals(new CacheKey(new Object[] { "b", 2 }), key);
+    assertEquals(new CacheKey(new Object[] { "a", 1 }), cloned);
+    assertNotEquals(cloned, key);
+  }
+
+  @Test
+  void shouldNotEqualWhenOnlyCountDiffers() {
+    CacheKey key1 = new CacheKey(new Object[] { "a" });
+    CacheKey key2 = new CacheKey(new Object[] { "a", null });
+    assertNotEquals(key1, key2);
+    assertNotEquals(key1.hashCode(), key2.hashCode());
+  }
+
+  @Test
+  void throwExceptionWhenTryingToResetNullCacheKey() {
+    CacheKey cacheKey = CacheKey.NULL_CACHE_KEY;
+    assertThrows(CacheException.class, cacheKey::reset);
+  }
+
   @Test
   void throwExceptionWhenTryingToUpdateNullCacheKey() {
     CacheKey cacheKey = CacheKey.NULL_CACHE_KEY;
@@ -0,0 +1,97 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ibatis.cache.CacheStats.EvictionCause;
+import org.apache.ibatis.cache.decorators.LruCache;
+import org.apache.ibatis.cache.decorators.TransactionalCache;
+import org.apache.ibatis.cache.decorators.WeakCache;
+import org.apache.ibatis.cache.impl.PerpetualCache;
+import org.apache.ibatis.mapping.CacheBuilder;
+import org.junit.jupiter.api.Test;
+
+class CacheStatsTest {
+
+  @Test
+  void shouldCountHitsMissesAndPuts() {
+    Cache cache = new CacheBuilder("stats").blocking(false).build();
+    CacheStats stats = cache.getStats();
+    assertNotNull(stats);
+    cache.putObject("a", "A");
+    cache.getObject("a");
+    cache.getObject("a");
+    cache.getObject("b");
+    assertEquals(1, stats.getPutCount());
+    assertEquals(2, stats.getHitCount());
+    assertEquals(1, stats.getMissCount());
+    assertEquals(3, stats.getRequestCount());
+    assertEquals(2.0 / 3, stats.getHitRatio(), 0.0001);
+  }
+
+  @Test
+  void shouldCountEvictionsByCause() {
+    Cache cache = new CacheBuilder("stats").addDecorator(LruCache.class).size(2).build();
+    for (int i = 0; i < 5; i++) {
+      cache.putObject(i, i);
+    }
+    CacheStats stats = cache.getStats();
+    assertEquals(3, stats.getEvictionCount(EvictionCause.SIZE));
+    assertEquals(0, stats.getEvictionCount(EvictionCause.EXPIRED));
+    assertEquals(3, stats.getEvictionCount());
+  }
+
+  @Test
+  void shouldShareStatsWithCustomDecorators() {
+    Cache cache = new CacheBuilder("stats").implementation(PerpetualCache.class).addDecorator(WeakCache.class)
+        .maxBytes(1L).build();
+    cache.putObject("a", "AAAAAAAA");
+    assertEquals(1, cache.getStats().getEvictionCount(EvictionCause.WEIGHT));
+    assertNull(cache.getObject("a"));
+  }
+
+  @Test
+  void shouldCountEntriesDiscardedOnRollback() {
+    Cache cache = new CacheBuilder("stats").build();
+    TransactionalCache txCache = new TransactionalCache(cache);
+    txCache.putObject("a", "A");
+    txCache.putObject("b", "B");
+    txCache.rollback();
+    txCache.putObject("c", "C");
+    txCache.commit();
+    assertEquals(2, cache.getStats().getRollbackDiscardCount());
+    assertEquals(1, cache.getStats().getPutCount());
+  }
+
+  @Test
+  void shouldAggregateLoadTimeAndReset() {
+    CacheStats stats = new CacheStats();
+    stats.recordLoad(TimeUnit.MILLISECONDS.toNanos(3));
+    stats.recordLoad(TimeUnit.MILLISECONDS.toNanos(5));
+    assertEquals(2, stats.getLoadCount());
+    assertEquals(8, stats.getTotalLoadTime(TimeUnit.MILLISECONDS));
+    assertEquals(TimeUnit.MILLISECONDS.toNanos(4), stats.getAverageLoadPenalty(), 0.0001);
+    stats.reset();
+    assertEquals(0, stats.getLoadCount());
+    assertEquals(1.0, stats.getHitRatio(), 0.0001);
+  }
+
+}
@@ -0,0 +1,218 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.apache.ibatis.cache.decorators.SerializedCache;
+import org.apache.ibatis.cache.impl.CompactCacheSerializer;
+import org.apache.ibatis.cache.impl.JdkCacheSerializer;
+import org.apache.ibatis.cache.impl.PerpetualCache;
+import org.apache.ibatis.domain.blog.Author;
+import org.apache.ibatis.domain.blog.Section;
+import org.junit.jupiter.api.Test;
+
+class CompactCacheSerializerTest {
+
+  private final CacheSerializer serializer = new CompactCacheSerializer();
+
+  @Test
+  void shouldCopyMappedObjects() {
+    List<Author> authors = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      authors.add(new Author(i, "user" + i, "pass" + i, "user" + i + "@example.com", null, Section.IMAGES));
+    }
+    @SuppressWarnings("unchecked")
+    List<Author> copy = (List<Author>) serializer.deserialize(serializer.serialize(authors));
+    assertEquals(10, copy.size());
+    for (int i = 0; i < 10; i++) {
+      Author author = copy.get(i);
+      assertNotSame(authors.get(i), author);
+      assertEquals(i, author.getId());
+      assertEquals("user" + i, author.getUsername());
+      assertEquals("user" + i + "@example.com", author.getEmail());
+      assertNull(author.getBio());
+      assertEquals(Section.IMAGES, author.getFavouriteSection());
+    }
+  }
+
+  @Test
+  void shouldBeSmallerThanJavaSerialization() {
+    List<Author> authors = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      authors.add(new Author(i, "user" + i, "pass" + i, "user" + i + "@example.com", "bio", Section.NEWS));
+    }
+    assertTrue(serializer.serialize(authors).length < new JdkCacheSerializer().serialize(authors).length);
+  }
+
+  @Test
+  void shouldPreserveSharedReferencesAndCycles() {
+    Node parent = new Node();
+    parent.setName("parent");
+    Node child = new Node();
+    child.setName("child");
+    child.setParent(parent);
+    parent.getChildren().add(child);
+    parent.getChildren().add(child);
+
+    Node copy = (Node) serializer.deserialize(serializer.serialize(parent));
+    assertEquals("parent", copy.getName());
+    assertEquals(2, copy.getChildren().size());
+    assertSame(copy.getChildren().get(0), copy.getChildren().get(1));
+    assertSame(copy, copy.getChildren().get(0).getParent());
+  }
+
+  @Test
+  void shouldCopySimpleValues() {
+    Map<String, Object> row = new HashMap<>();
+    row.put("int", -42);
+    row.put("long", Long.MAX_VALUE);
+    row.put("double", 1.5d);
+    row.put("decimal", new BigDecimal("-12345.6789"));
+    row.put("date", new Date(1234567890L));
+    Timestamp timestamp = new Timestamp(1234567890L);
+    timestamp.setNanos(123456789);
+    row.put("timestamp", timestamp);
+    row.put("localDateTime", LocalDateTime.of(2020, 2, 29, 23, 59, 59, 999));
+    row.put("bytes", new byte[] { 1, 2, 3 });
+    row.put("array", new String[] { "a", null, "c" });
+    row.put("uuid", UUID.randomUUID());
+    row.put("null", null);
+
+    @SuppressWarnings("unchecked")
+    Map<String, Object> copy = (Map<String, Object>) serializer.deserialize(serializer.serialize(row));
+    assertEquals(row.keySet(), copy.keySet());
+    for (String key : Arrays.asList("int", "long", "double", "decimal", "date", "timestamp", "localDateTime", "uuid")) {
+      assertEquals(row.get(key), copy.get(key));
+    }
+    assertTrue(Arrays.equals((byte[]) row.get("bytes"), (byte[]) copy.get("bytes")));
+    assertTrue(Arrays.equals((Object[]) row.get("array"), (Object[]) copy.get("array")));
+    assertNull(copy.get("null"));
+  }
+
+  @Test
+  void shouldRejectObjectsThatCannotBeCopied() {
+    assertThrows(CacheException.class, () -> serializer.serialize(new Object()));
+  }
+
+  @Test
+  void shouldRejectNonSerializableClassesWithoutInitializingThem() {
+    Node node = new Node();
+    node.setName("node");
+    byte[] bytes = new String(serializer.serialize(node), StandardCharsets.ISO_8859_1)
+        .replace(Node.class.getName(), Trap.class.getName()).getBytes(StandardCharsets.ISO_8859_1);
+    assertThrows(CacheException.class, () -> serializer.deserialize(bytes));
+    assertFalse(trapInitialized);
+  }
+
+  @Test
+  void shouldPlugIntoSerializedCache() {
+    SerializedCache cache = new SerializedCache(new PerpetualCache("default"));
+    cache.setSerializer(serializer);
+    cache.putObject(0, new Author(1));
+    cache.putObject(1, null);
+    assertEquals(1, ((Author) cache.getObject(0)).getId());
+    assertNull(cache.getObject(1));
+  }
+
+  public static class Node implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private String name;
+    private Node parent;
+    private List<Node> children = new ArrayList<>();
+
+    public String getName() {
+      return name;
+    }
+
+    public void setName(String name) {
+      this.name = name;
+    }
+
+    public Node getParent() {
+      return parent;
+    }
+
+    public void setParent(Node parent) {
+      this.parent = parent;
+    }
+
+    public List<Node> getChildren() {
+      return children;
+    }
+
+    public void setChildren(List<Node> children) {
+      this.children = children;
+    }
+  }
+
+  private static boolean trapInitialized;
+
+  public static class Trap {
+    static {
+      trapInitialized = true;
+    }
+
+    private String name;
+    private Trap parent;
+    private List<Trap> children = new ArrayList<>();
+
+    public String getName() {
+      return name;
+    }
+
+    public void setName(String name) {
+      this.name = name;
+    }
+
+    public Trap getParent() {
+      return parent;
+    }
+
+    public void setParent(Trap parent) {
+      this.parent = parent;
+    }
+
+    public List<Trap> getChildren() {
+      return children;
+    }
+
+    public void setChildren(List<Trap> children) {
+      this.children = children;
+    }
+  }
+
+}
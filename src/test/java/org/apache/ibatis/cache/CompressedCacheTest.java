@@ -0,0 +1,110 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+
+import org.apache.ibatis.cache.decorators.CompressedCache;
+import org.apache.ibatis.cache.decorators.SerializedCache;
+import org.apache.ibatis.cache.impl.PerpetualCache;
+import org.apache.ibatis.mapping.CacheBuilder;
+import org.junit.jupiter.api.Test;
+
+class CompressedCacheTest {
+
+  @Test
+  void shouldCompressLargeValuesOnly() {
+    PerpetualCache store = new PerpetualCache("default");
+    CompressedCache compressed = new CompressedCache(store);
+    compressed.setCompressThreshold(256);
+    SerializedCache cache = new SerializedCache(compressed);
+    cache.putObject("small", "pen");
+    List<String> rows = wideRows(200);
+    cache.putObject("large", rows);
+    assertEquals("pen", cache.getObject("small"));
+    assertEquals(rows, cache.getObject("large"));
+    assertTrue(((byte[]) store.getObject("large")).length * 3 < compressed.getOriginalBytes());
+    assertTrue(compressed.getStoredBytes() * 3 < compressed.getOriginalBytes());
+  }
+
+  @Test
+  void shouldKeepIncompressibleValuesAsTheyAre() {
+    PerpetualCache store = new PerpetualCache("default");
+    CompressedCache cache = new CompressedCache(store);
+    cache.setCompressThreshold(0);
+    byte[] random = new byte[4096];
+    new Random(42).nextBytes(random);
+    cache.putObject(1, random);
+    assertEquals(random.length + 1, ((byte[]) store.getObject(1)).length);
+    assertTrue(Arrays.equals(random, (byte[]) cache.getObject(1)));
+  }
+
+  @Test
+  void shouldCompressBulkOperations() {
+    CompressedCache compressed = new CompressedCache(new PerpetualCache("default"));
+    compressed.setCompressThreshold(64);
+    SerializedCache cache = new SerializedCache(compressed);
+    cache.putAll(Map.of(1, wideRows(10), 2, wideRows(20)));
+    Map<Object, Object> values = cache.getAll(Arrays.asList(1, 2, 3));
+    assertEquals(2, values.size());
+    assertEquals(wideRows(10), values.get(1));
+    assertEquals(wideRows(20), values.get(2));
+    assertNull(cache.getObject(3));
+  }
+
+  @Test
+  void shouldDetectCorruptedValues() {
+    PerpetualCache store = new PerpetualCache("default");
+    CompressedCache cache = new CompressedCache(store);
+    store.putObject(1, new byte[] { 1, 0, 0, 1, 0, 42, 42 });
+    assertThrows(CacheException.class, () -> cache.getObject(1));
+    assertThrows(CacheException.class, () -> cache.setCompressionLevel(10));
+  }
+
+  @Test
+  void shouldBuildCompressedReadWriteCaches() {
+    Properties properties = new Properties();
+    properties.setProperty("compressionLevel", "9");
+    Cache cache = new CacheBuilder("default").readWrite(true).compressThreshold(128).properties(properties).build();
+    List<String> rows = wideRows(100);
+    cache.putObject(1, rows);
+    assertEquals(rows, cache.getObject(1));
+
+    Cache readOnly = new CacheBuilder("default").compressThreshold(128).build();
+    readOnly.putObject(1, rows);
+    assertSame(rows, readOnly.getObject(1));
+  }
+
+  private static List<String> wideRows(int count) {
+    List<String> rows = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      rows.add("row " + i + " with a long description column that repeats the same words over and over again");
+    }
+    return rows;
+  }
+
+}
@@ -0,0 +1,128 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.apache.ibatis.cache.decorators.ExpiringCache;
+import org.apache.ibatis.cache.decorators.LoggingCache;
+import org.apache.ibatis.cache.decorators.LruCache;
+import org.apache.ibatis.cache.impl.PerpetualCache;
+import org.apache.ibatis.mapping.CacheBuilder;
+import org.junit.jupiter.api.Test;
+
+class ExpiringCacheTest {
+
+  @Test
+  void shouldExpireEachEntryAfterWrite() throws Exception {
+    ExpiringCache expiringCache = new ExpiringCache(new PerpetualCache("DefaultCache"));
+    expiringCache.setExpireAfterWrite(300);
+    Cache cache = new LoggingCache(expiringCache);
+    cache.putObject("old", "old");
+    Thread.sleep(200);
+    cache.putObject("new", "new");
+    assertEquals("old", cache.getObject("old"));
+    Thread.sleep(200);
+    assertNull(cache.getObject("old"));
+    assertEquals("new", cache.getObject("new"));
+    Thread.sleep(300);
+    assertNull(cache.getObject("new"));
+  }
+
+  @Test
+  void shouldKeepEntriesThatAreReadBeforeExpiringAfterAccess() throws Exception {
+    ExpiringCache expiringCache = new ExpiringCache(new PerpetualCache("DefaultCache"));
+    expiringCache.setExpireAfterAccess(300);
+    Cache cache = new LoggingCache(expiringCache);
+    cache.putObject("hot", "hot");
+    cache.putObject("cold", "cold");
+    for (int i = 0; i < 5; i++) {
+      Thread.sleep(100);
+      assertEquals("hot", cache.getObject("hot"));
+    }
+    assertNull(cache.getObject("cold"));
+    Thread.sleep(400);
+    assertNull(cache.getObject("hot"));
+  }
+
+  @Test
+  void shouldReclaimExpiredEntriesWithoutReadingThem() throws Exception {
+    ExpiringCache cache = new ExpiringCache(new PerpetualCache("DefaultCache"));
+    cache.setExpireAfterWrite(100);
+    for (int i = 0; i < 100; i++) {
+      cache.putObject(i, i);
+    }
+    assertEquals(100, cache.getSize());
+    Thread.sleep(400);
+    assertEquals(0, cache.getSize());
+  }
+
+  @Test
+  void shouldRescheduleEntriesThatExpireInHigherLevels() throws Exception {
+    ExpiringCache cache = new ExpiringCache(new PerpetualCache("DefaultCache"));
+    cache.setExpireAfterWrite(5000);
+    cache.putObject("key", "value");
+    Thread.sleep(300);
+    cache.putObject("other", "value");
+    assertEquals(2, cache.getSize());
+    assertNotNull(cache.getObject("key"));
+  }
+
+  @Test
+  void shouldRemoveAndClearOnDemand() {
+    ExpiringCache cache = new ExpiringCache(new PerpetualCache("DefaultCache"));
+    cache.setExpireAfterWrite(60000);
+    for (int i = 0; i < 5; i++) {
+      cache.putObject(i, i);
+    }
+    cache.removeObject(0);
+    assertNull(cache.getObject(0));
+    assertEquals(4, cache.getSize());
+    cache.clear();
+    assertNull(cache.getObject(4));
+    assertEquals(0, cache.getSize());
+  }
+
+  @Test
+  void shouldTellTheOwnerAboutExpiredEntries() throws Exception {
+    ExpiringCache expiringCache = new ExpiringCache(new PerpetualCache("DefaultCache"));
+    expiringCache.setExpireAfterWrite(100);
+    LruCache cache = new LruCache(expiringCache);
+    cache.setSize(2);
+    expiringCache.setOwner(cache);
+    cache.putObject(0, 0);
+    Thread.sleep(300);
+    assertNull(cache.getObject(0));
+    cache.putObject(1, 1);
+    cache.putObject(2, 2);
+    // key 0 no longer takes a slot of the lru decorator
+    assertEquals(1, cache.getObject(1));
+    assertEquals(2, cache.getSize());
+  }
+
+  @Test
+  void shouldBeAddedBelowEvictionByTheBuilder() throws Exception {
+    Cache cache = new CacheBuilder("expiring").addDecorator(LruCache.class).expireAfterWrite(100L).build();
+    cache.putObject("key", "value");
+    assertEquals("value", cache.getObject("key"));
+    Thread.sleep(300);
+    assertNull(cache.getObject("key"));
+    assertEquals(0, cache.getSize());
+  }
+
+}
@@ -0,0 +1,119 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import org.apache.ibatis.cache.decorators.TransactionalCache;
+import org.apache.ibatis.cache.impl.OffHeapCache;
+import org.apache.ibatis.mapping.CacheBuilder;
+import org.junit.jupiter.api.Test;
+
+class OffHeapCacheTest {
+
+  @Test
+  void shouldReturnCopiesOfStoredValues() {
+    OffHeapCache cache = new OffHeapCache("default");
+    cache.setBlockSize(64);
+    ArrayList<String> value = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      value.add("row" + i);
+    }
+    cache.putObject(0, value);
+    Object cached = cache.getObject(0);
+    assertEquals(value, cached);
+    assertNotSame(value, cached);
+    assertTrue(cache.getUsedBytes() > 64);
+  }
+
+  @Test
+  void shouldEvictLeastRecentlyUsedEntriesWhenFull() {
+    OffHeapCache cache = new OffHeapCache("default");
+    cache.setCapacity(8 * 1024);
+    cache.setSlabSize(2048);
+    cache.setBlockSize(128);
+    for (int i = 0; i < 100; i++) {
+      cache.putObject(i, new byte[200]);
+      assertNotNull(cache.getObject(0));
+    }
+    // a serialized byte[200] takes two blocks
+    assertEquals(32, cache.getSize());
+    assertNotNull(cache.getObject(0));
+    assertNull(cache.getObject(1));
+    assertEquals(200, ((byte[]) cache.getObject(99)).length);
+    assertTrue(cache.getUsedBytes() <= cache.getCapacity());
+  }
+
+  @Test
+  void shouldNotStoreEntriesLargerThanCapacity() {
+    OffHeapCache cache = new OffHeapCache("default");
+    cache.setCapacity(1024);
+    cache.setSlabSize(1024);
+    cache.putObject(0, "small");
+    cache.putObject(1, new byte[4096]);
+    assertEquals("small", cache.getObject(0));
+    assertNull(cache.getObject(1));
+  }
+
+  @Test
+  void shouldRemoveEntriesOnNullPutRemoveAndClear() {
+    OffHeapCache cache = new OffHeapCache("default");
+    cache.putObject(0, 0);
+    cache.putObject(1, 1);
+    cache.putObject(2, 2);
+    cache.putObject(0, null);
+    assertNull(cache.getObject(0));
+    cache.removeObject(1);
+    assertNull(cache.getObject(1));
+    assertEquals(1, cache.getSize());
+    cache.clear();
+    assertNull(cache.getObject(2));
+    assertEquals(0, cache.getUsedBytes());
+  }
+
+  @Test
+  void shouldRejectNonSerializableValues() {
+    OffHeapCache cache = new OffHeapCache("default");
+    assertThrows(CacheException.class, () -> cache.putObject(0, new Object()));
+  }
+
+  @Test
+  void shouldWorkAsNamespaceCache() {
+    Properties properties = new Properties();
+    properties.setProperty("capacity", "1048576");
+    properties.setProperty("blockSize", "256");
+    Cache cache = new CacheBuilder("default").implementation(OffHeapCache.class).properties(properties).build();
+    TransactionalCache transactionalCache = new TransactionalCache(cache);
+    List<Integer> result = new ArrayList<>();
+    result.add(1);
+    assertNull(transactionalCache.getObject("miss"));
+    transactionalCache.putObject("hit", result);
+    transactionalCache.commit();
+    assertEquals(result, cache.getObject("hit"));
+    assertNull(cache.getObject("miss"));
+    assertEquals(1, cache.getSize());
+  }
+
+}
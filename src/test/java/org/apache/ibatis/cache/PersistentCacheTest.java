@@ -0,0 +1,201 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.cache.impl.PersistentCache;
+import org.apache.ibatis.domain.blog.Author;
+import org.apache.ibatis.domain.blog.Blog;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.session.Configuration;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class PersistentCacheTest {
+
+  @TempDir
+  Path directory;
+
+  @Test
+  void shouldKeepEntriesAcrossReopen() {
+    PersistentCache cache = newCache("default");
+    for (int i = 0; i < 100; i++) {
+      cache.putObject(key(i), "value" + i);
+    }
+    cache.removeObject(key(7));
+    cache.putObject(key(8), "updated");
+    cache.close();
+
+    PersistentCache reopened = newCache("default");
+    assertEquals(99, reopened.getSize());
+    assertEquals("value0", reopened.getObject(key(0)));
+    assertNull(reopened.getObject(key(7)));
+    assertEquals("updated", reopened.getObject(key(8)));
+    assertEquals("value99", reopened.getObject(key(99)));
+    reopened.clear();
+    reopened.close();
+
+    PersistentCache cleared = newCache("default");
+    assertEquals(0, cleared.getSize());
+    cleared.close();
+  }
+
+  @Test
+  void shouldDiscardEntriesWrittenWithAnotherVersion() {
+    PersistentCache cache = newCache("default");
+    cache.setVersion("1");
+    cache.putObject(key(1), "value");
+    cache.close();
+
+    PersistentCache sameVersion = newCache("default");
+    sameVersion.setVersion("1");
+    assertEquals("value", sameVersion.getObject(key(1)));
+    sameVersion.close();
+
+    PersistentCache otherVersion = newCache("default");
+    otherVersion.setVersion("2");
+    assertNull(otherVersion.getObject(key(1)));
+    assertEquals(0, otherVersion.getSize());
+    otherVersion.close();
+  }
+
+  @Test
+  void shouldDiscardEntriesWhenTheResultMapsChange() {
+    PersistentCache cache = newCache("blog");
+    cache.setConfiguration(configuration(cache, Blog.class));
+    cache.putObject(key(1), "value");
+    cache.close();
+
+    PersistentCache sameLayout = newCache("blog");
+    sameLayout.setConfiguration(configuration(sameLayout, Blog.class));
+    assertEquals("value", sameLayout.getObject(key(1)));
+    sameLayout.close();
+
+    PersistentCache otherLayout = newCache("blog");
+    otherLayout.setConfiguration(configuration(otherLayout, Author.class));
+    assertNull(otherLayout.getObject(key(1)));
+    otherLayout.close();
+  }
+
+  @Test
+  void shouldCompactWhenLiveEntriesFit() {
+    PersistentCache cache = newCache("default");
+    cache.setSegmentSize(4096);
+    cache.setMaxSegments(4);
+    for (int i = 0; i < 1000; i++) {
+      cache.putObject(key(i % 5), new byte[100]);
+    }
+    assertEquals(5, cache.getSize());
+    for (int i = 0; i < 5; i++) {
+      assertEquals(100, ((byte[]) cache.getObject(key(i))).length);
+    }
+    assertTrue(cache.getUsedBytes() <= 4 * 4096);
+    cache.close();
+
+    PersistentCache reopened = newCache("default");
+    reopened.setSegmentSize(4096);
+    assertEquals(5, reopened.getSize());
+    reopened.close();
+  }
+
+  @Test
+  void shouldEvictOldestSegmentWhenFull() {
+    PersistentCache cache = newCache("default");
+    cache.setSegmentSize(4096);
+    cache.setMaxSegments(2);
+    CacheStats stats = new CacheStats();
+    cache.setStats(stats);
+    for (int i = 0; i < 200; i++) {
+      cache.putObject(key(i), new byte[100]);
+    }
+    assertNull(cache.getObject(key(0)));
+    assertEquals(100, ((byte[]) cache.getObject(key(199))).length);
+    assertEquals(200, cache.getSize() + stats.getEvictionCount(CacheStats.EvictionCause.SIZE));
+    assertTrue(cache.getUsedBytes() <= 2 * 4096);
+    cache.close();
+  }
+
+  @Test
+  void shouldExpireEntriesAfterTimeToLive() throws Exception {
+    PersistentCache cache = newCache("default");
+    cache.setTimeToLive(50);
+    cache.putObject(key(1), "value");
+    assertEquals("value", cache.getObject(key(1)));
+    Thread.sleep(100);
+    assertNull(cache.getObject(key(1)));
+    cache.putObject(key(2), "value");
+    cache.close();
+
+    Thread.sleep(100);
+    PersistentCache reopened = newCache("default");
+    reopened.setTimeToLive(50);
+    assertEquals(0, reopened.getSize());
+    reopened.close();
+  }
+
+  @Test
+  void shouldPassThroughWhenTheDirectoryIsUsedByAnotherCache() {
+    PersistentCache cache = newCache("default");
+    cache.putObject(key(1), "value");
+    PersistentCache other = newCache("default");
+    assertNull(other.getObject(key(1)));
+    other.putObject(key(2), "other");
+    assertNull(other.getObject(key(2)));
+    assertTrue(other.isPassThrough());
+    cache.close();
+    other.close();
+
+    PersistentCache reopened = newCache("default");
+    assertFalse(reopened.isPassThrough());
+    assertEquals("value", reopened.getObject(key(1)));
+    assertNull(reopened.getObject(key(2)));
+    reopened.close();
+  }
+
+  private PersistentCache newCache(String id) {
+    PersistentCache cache = new PersistentCache(id);
+    cache.setDirectory(directory.toString());
+    return cache;
+  }
+
+  private static CacheKey key(int i) {
+    return new CacheKey(new Object[] { "select", i });
+  }
+
+  private static Configuration configuration(Cache cache, Class<?> resultType) {
+    Configuration configuration = new Configuration();
+    List<ResultMap> resultMaps = new ArrayList<>();
+    resultMaps
+        .add(new ResultMap.Builder(configuration, "selectBlog-Inline", resultType, Collections.emptyList()).build());
+    configuration.addMappedStatement(new MappedStatement.Builder(configuration, "selectBlog",
+        new StaticSqlSource(configuration, "select * from blog"), SqlCommandType.SELECT).resultMaps(resultMaps)
+            .cache(cache).build());
+    return configuration;
+  }
+
+}
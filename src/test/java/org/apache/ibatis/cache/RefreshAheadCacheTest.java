@@ -0,0 +1,133 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.ibatis.cache.decorators.RefreshAheadCache;
+import org.apache.ibatis.cache.impl.PerpetualCache;
+import org.apache.ibatis.mapping.CacheBuilder;
+import org.junit.jupiter.api.Test;
+
+class RefreshAheadCacheTest {
+
+  @Test
+  void shouldReportEntriesAsStaleAfterTheRefreshInterval() throws Exception {
+    RefreshAheadCache cache = new RefreshAheadCache(new PerpetualCache("default"));
+    cache.setRefreshAfterWrite(200);
+    cache.putObject("key", "value");
+    assertFalse(cache.isStale("key"));
+    Thread.sleep(300);
+    assertTrue(cache.isStale("key"));
+    assertEquals("value", cache.getObject("key"));
+    cache.putObject("key", "value");
+    assertFalse(cache.isStale("key"));
+  }
+
+  @Test
+  void shouldReplaceTheEntryOnce() throws Exception {
+    CacheStats stats = new CacheStats();
+    RefreshAheadCache cache = new RefreshAheadCache(new PerpetualCache("default"));
+    cache.setRefreshAfterWrite(1);
+    cache.setStats(stats);
+    cache.putObject("key", "old");
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicInteger loads = new AtomicInteger();
+    for (int i = 0; i < 10; i++) {
+      cache.refresh("key", () -> {
+        loads.incrementAndGet();
+        started.countDown();
+        release.await();
+        return "new";
+      });
+    }
+    assertTrue(started.await(5, TimeUnit.SECONDS));
+    assertEquals("old", cache.getObject("key"));
+    release.countDown();
+    waitForRefreshes(stats, 1);
+    assertEquals("new", cache.getObject("key"));
+    assertEquals(1, loads.get());
+  }
+
+  @Test
+  void shouldDiscardARefreshThatCompletesAfterAClear() throws Exception {
+    CacheStats stats = new CacheStats();
+    RefreshAheadCache cache = new RefreshAheadCache(new PerpetualCache("default"));
+    cache.setRefreshAfterWrite(1);
+    cache.setStats(stats);
+    cache.putObject("key", "old");
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch done = new CountDownLatch(1);
+    cache.refresh("key", () -> {
+      started.countDown();
+      release.await();
+      done.countDown();
+      return "new";
+    });
+    assertTrue(started.await(5, TimeUnit.SECONDS));
+    cache.clear();
+    release.countDown();
+    assertTrue(done.await(5, TimeUnit.SECONDS));
+    Thread.sleep(100);
+    assertNull(cache.getObject("key"));
+    assertEquals(0, stats.getRefreshCount());
+  }
+
+  @Test
+  void shouldRecordRejectedAndFailedRefreshes() throws Exception {
+    CacheStats stats = new CacheStats();
+    RefreshAheadCache cache = new RefreshAheadCache(new PerpetualCache("default"));
+    cache.setRefreshAfterWrite(1);
+    cache.setRefreshQueueSize(1);
+    cache.setStats(stats);
+    CountDownLatch release = new CountDownLatch(1);
+    cache.refresh("running", () -> {
+      release.await();
+      throw new IllegalStateException("failed");
+    });
+    cache.refresh("queued", () -> null);
+    cache.refresh("rejected", () -> null);
+    assertEquals(1, stats.getRefreshRejectionCount());
+    release.countDown();
+    for (int i = 0; i < 50 && stats.getRefreshFailureCount() == 0; i++) {
+      Thread.sleep(100);
+    }
+    assertEquals(1, stats.getRefreshFailureCount());
+  }
+
+  @Test
+  void shouldBeTheOutermostDecorator() {
+    Cache cache = new CacheBuilder("default").refreshAfterWrite(1000L).blocking(true).build();
+    assertTrue(cache instanceof RefreshAheadCache);
+  }
+
+  private static void waitForRefreshes(CacheStats stats, long count) throws InterruptedException {
+    for (int i = 0; i < 50 && stats.getRefreshCount() < count; i++) {
+      Thread.sleep(100);
+    }
+    assertEquals(count, stats.getRefreshCount());
+  }
+
+}
@@ -0,0 +1,66 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+class SqlTableScannerTest {
+
+  @Test
+  void shouldFindTablesOfQueries() {
+    String[][] tables = SqlTableScanner
+        .scan("SELECT o.id, c.name FROM Sales.Orders o, \"Customers\" c LEFT JOIN items i ON i.order_id = o.id"
+            + " WHERE o.status = 'from x' AND o.id IN (SELECT order_id FROM [Payments]) -- join comments\n"
+            + " ORDER BY o.id FOR UPDATE");
+    assertArrayEquals(new String[] { "orders", "customers", "items", "payments" }, tables[0]);
+    assertNull(tables[1]);
+  }
+
+  @Test
+  void shouldFindWrittenTables() {
+    assertArrayEquals(new String[] { "orders" },
+        SqlTableScanner.scan("insert into orders (id, name) values (?, ?)")[1]);
+    assertArrayEquals(new String[] { "orders" },
+        SqlTableScanner.scan("INSERT IGNORE INTO orders (id) SELECT id FROM drafts")[1]);
+    assertArrayEquals(new String[] { "orders", "drafts" },
+        SqlTableScanner.scan("INSERT IGNORE INTO orders (id) SELECT id FROM drafts")[0]);
+    assertArrayEquals(new String[] { "orders" },
+        SqlTableScanner.scan("update orders set status = ? from customers where customers.id = orders.id")[1]);
+    assertArrayEquals(new String[] { "orders" }, SqlTableScanner.scan("DELETE FROM orders WHERE id = ?")[1]);
+    assertArrayEquals(new String[] { "orders" },
+        SqlTableScanner.scan("insert into orders (id) values (?) on duplicate key update id = id")[1]);
+    assertArrayEquals(new String[] { "orders" },
+        SqlTableScanner.scan("merge into orders o using drafts d on (o.id = d.id) when matched then update set o.x = 1"
+            + " when not matched then insert (id) values (d.id)")[1]);
+  }
+
+  @Test
+  void shouldReturnNullWhenNoTableIsFound() {
+    String[][] tables = SqlTableScanner.scan("{call refresh_orders(?)}");
+    assertNull(tables[0]);
+    assertNull(tables[1]);
+  }
+
+  @Test
+  void shouldNormalizeNames() {
+    assertArrayEquals(new String[] { "orders", "order items" },
+        TableDependencyTracker.normalize(new String[] { " SALES.ORDERS", "\"Order Items\"" }));
+  }
+
+}
@@ -0,0 +1,141 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.ibatis.cache.decorators.LruCache;
+import org.apache.ibatis.cache.decorators.WeightedCache;
+import org.apache.ibatis.cache.impl.DefaultCacheWeigher;
+import org.apache.ibatis.cache.impl.PerpetualCache;
+import org.apache.ibatis.domain.blog.Author;
+import org.apache.ibatis.domain.blog.Section;
+import org.apache.ibatis.mapping.CacheBuilder;
+import org.junit.jupiter.api.Test;
+
+class WeightedCacheTest {
+
+  @Test
+  void shouldEvictLeastRecentlyUsedEntriesOverMaxBytes() {
+    WeightedCache cache = new WeightedCache(new PerpetualCache("default"));
+    cache.setWeigher(new ByteArrayWeigher());
+    cache.setMaxBytes(300);
+    cache.putObject(0, new byte[100]);
+    cache.putObject(1, new byte[100]);
+    cache.putObject(2, new byte[100]);
+    assertNotNull(cache.getObject(0));
+    cache.putObject(3, new byte[100]);
+    assertNull(cache.getObject(1));
+    assertEquals(3, cache.getSize());
+    assertEquals(300, cache.getWeightedSize());
+    cache.putObject(4, new byte[250]);
+    assertEquals(1, cache.getSize());
+    assertEquals(250, cache.getWeightedSize());
+  }
+
+  @Test
+  void shouldDropEntriesEvictedByWeightFromTheEvictionDecorator() {
+    WeightedCache weighted = new WeightedCache(new PerpetualCache("default"));
+    weighted.setWeigher(new ByteArrayWeigher());
+    weighted.setMaxBytes(300);
+    LruCache cache = new LruCache(weighted);
+    cache.setSize(3);
+    weighted.setOwner(cache);
+    cache.putObject(0, new byte[250]);
+    cache.putObject(1, new byte[100]);
+    assertNull(cache.getObject(0));
+    cache.putObject(2, new byte[50]);
+    cache.putObject(3, new byte[50]);
+    // key 0 no longer takes a slot of the lru decorator
+    assertNotNull(cache.getObject(1));
+    assertEquals(3, cache.getSize());
+  }
+
+  @Test
+  void shouldReleaseWeightOnRemoveAndClear() {
+    WeightedCache cache = new WeightedCache(new PerpetualCache("default"));
+    cache.setWeigher(new ByteArrayWeigher());
+    cache.putObject(0, new byte[100]);
+    cache.putObject(1, new byte[50]);
+    cache.removeObject(0);
+    assertEquals(50, cache.getWeightedSize());
+    cache.putObject(1, new byte[10]);
+    assertEquals(10, cache.getWeightedSize());
+    cache.clear();
+    assertEquals(0, cache.getWeightedSize());
+  }
+
+  @Test
+  void shouldEvictFromHeaviestCacheOfSharedBudget() {
+    CacheMemoryBudget budget = new CacheMemoryBudget(1000);
+    WeightedCache heavy = new WeightedCache(new PerpetualCache("heavy"));
+    heavy.setWeigher(new ByteArrayWeigher());
+    heavy.setBudget(budget);
+    WeightedCache light = new WeightedCache(new PerpetualCache("light"));
+    light.setWeigher(new ByteArrayWeigher());
+    light.setBudget(budget);
+    for (int i = 0; i < 8; i++) {
+      heavy.putObject(i, new byte[100]);
+    }
+    light.putObject(0, new byte[100]);
+    light.putObject(1, new byte[100]);
+    light.putObject(2, new byte[100]);
+    assertEquals(3, light.getSize());
+    assertEquals(7, heavy.getSize());
+    assertNull(heavy.getObject(0));
+    assertEquals(1000, budget.getWeightedSize());
+  }
+
+  @Test
+  void shouldBuildWeightedCache() {
+    Cache cache = new CacheBuilder("default").maxBytes(10_000L).weigher(ByteArrayWeigher.class).build();
+    for (int i = 0; i < 100; i++) {
+      cache.putObject(i, new byte[1000]);
+    }
+    assertEquals(10, cache.getSize());
+  }
+
+  @Test
+  void shouldEstimateResultObjects() {
+    DefaultCacheWeigher weigher = new DefaultCacheWeigher();
+    List<Author> authors = new ArrayList<>();
+    long one = 0;
+    for (int i = 0; i < 1000; i++) {
+      authors.add(new Author(i, "username" + i, "password" + i, "email" + i, "bio" + i, Section.NEWS));
+      if (i == 0) {
+        one = weigher.weigh(null, authors);
+      }
+    }
+    long thousand = weigher.weigh(null, authors);
+    assertTrue(thousand > one * 100);
+    assertTrue(weigher.weigh(null, "a string of 30 characters long") > 60);
+    assertTrue(weigher.weigh(null, new byte[1024]) > 1024);
+  }
+
+  public static class ByteArrayWeigher implements CacheWeigher {
+    @Override
+    public long weigh(Object key, Object value) {
+      return value == null ? 0 : ((byte[]) value).length;
+    }
+  }
+
+}
@@ -0,0 +1,141 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cursor.defaults;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.session.RowBounds;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class MergedCursorTest {
+
+  private final ExecutorService executor = Executors.newCachedThreadPool();
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  void shouldReturnItemsOfAllSourcesIncludingNulls() {
+    List<Supplier<Cursor<String>>> sources = Arrays.asList(source("a", null), source(), source("b"));
+    List<String> items = new ArrayList<>();
+    try (MergedCursor<String> cursor = new MergedCursor<>(sources, null, RowBounds.DEFAULT, 1, executor)) {
+      cursor.forEach(items::add);
+      assertTrue(cursor.isConsumed());
+    }
+    items.sort(Comparator.nullsFirst(Comparator.naturalOrder()));
+    assertEquals(Arrays.asList(null, "a", "b"), items);
+  }
+
+  @Test
+  void shouldMergeOrderedSourcesKeepingSourceOrderOfTies() {
+    List<Supplier<Cursor<String>>> sources = Arrays.asList(source("a1", "c1"), source("b2", "c2"), source("a3"));
+    List<String> items = new ArrayList<>();
+    try (MergedCursor<String> cursor = new MergedCursor<>(sources, Comparator.comparing(s -> s.charAt(0)),
+        new RowBounds(1, 3), 1, executor)) {
+      cursor.forEach(items::add);
+      assertEquals(3, cursor.getCurrentIndex());
+    }
+    assertEquals(Arrays.asList("a3", "b2", "c1"), items);
+  }
+
+  @Test
+  void shouldRethrowFailureOfSource() {
+    List<Supplier<Cursor<String>>> sources = Arrays.asList(source("a"), () -> {
+      throw new IllegalStateException("broken");
+    });
+    MergedCursor<String> cursor = new MergedCursor<>(sources, Comparator.naturalOrder(), RowBounds.DEFAULT, 1,
+        executor);
+    Iterator<String> iterator = cursor.iterator();
+    IllegalStateException e = assertThrows(IllegalStateException.class, iterator::hasNext);
+    assertEquals("broken", e.getMessage());
+    assertFalse(cursor.isOpen());
+  }
+
+  @Test
+  void shouldCloseSourcesWhenClosedEarly() {
+    List<String> many = IntStream.range(0, 1000).mapToObj(String::valueOf).collect(Collectors.toList());
+    AtomicInteger closedSources = new AtomicInteger();
+    List<Supplier<Cursor<String>>> sources = Arrays.asList(() -> new ListCursor<>(many, closedSources),
+        () -> new ListCursor<>(many, closedSources));
+    MergedCursor<String> cursor = new MergedCursor<>(sources, null, RowBounds.DEFAULT, 2, executor);
+    Iterator<String> iterator = cursor.iterator();
+    iterator.next();
+    cursor.close();
+    assertEquals(2, closedSources.get());
+    assertFalse(iterator.hasNext());
+    assertFalse(cursor.isConsumed());
+  }
+
+  @SafeVarargs
+  private static <T> Supplier<Cursor<T>> source(T... items) {
+    return () -> new ListCursor<>(Arrays.asList(items), new AtomicInteger());
+  }
+
+  private static class ListCursor<T> implements Cursor<T> {
+    private final List<T> items;
+    private final AtomicInteger closed;
+
+    ListCursor(List<T> items, AtomicInteger closed) {
+      this.items = items;
+      this.closed = closed;
+    }
+
+    @Override
+    public boolean isOpen() {
+      return true;
+    }
+
+    @Override
+    public boolean isConsumed() {
+      return false;
+    }
+
+    @Override
+    public int getCurrentIndex() {
+      return -1;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+      return items.iterator();
+    }
+
+    @Override
+    public void close() {
+      closed.incrementAndGet();
+    }
+  }
+
+}
@@ -0,0 +1,145 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.datasource.pooled;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.apache.ibatis.cache.CacheStats;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class PooledStatementCacheTest {
+
+  private static final String SQL_A = "select 1 from (values(0))";
+  private static final String SQL_B = "select 2 from (values(0))";
+  private static final String SQL_C = "select 3 from (values(0))";
+
+  private PooledDataSource dataSource;
+
+  @BeforeEach
+  void setUp() {
+    dataSource = new PooledDataSource("org.hsqldb.jdbcDriver", "jdbc:hsqldb:mem:statement_cache", "sa", "");
+    dataSource.setPoolMaximumActiveConnections(1);
+    dataSource.setPoolStatementCacheSize(2);
+  }
+
+  @AfterEach
+  void tearDown() {
+    dataSource.forceCloseAll();
+  }
+
+  @Test
+  void shouldReuseStatementsAcrossBorrowersOfTheConnection() throws SQLException {
+    PreparedStatement first = prepareAndClose(SQL_A);
+    PreparedStatement second = prepareAndClose(SQL_A);
+    assertSame(first, second);
+    CacheStats stats = dataSource.getPoolState().getStatementCacheStats();
+    assertEquals(1, stats.getHitCount());
+    assertEquals(1, stats.getMissCount());
+  }
+
+  @Test
+  void shouldNotShareAStatementInUse() throws SQLException {
+    try (Connection connection = dataSource.getConnection();
+        PreparedStatement first = connection.prepareStatement(SQL_A);
+        PreparedStatement second = connection.prepareStatement(SQL_A)) {
+      assertNotSame(first.unwrap(PreparedStatement.class), second.unwrap(PreparedStatement.class));
+      assertEquals(1, statementCache(connection).getSize());
+      assertEquals(2, PooledDataSource.getStatementCacheStats(connection).getMissCount());
+    }
+    assertEquals(2, dataSource.getPoolState().getStatementCacheStats().getMissCount());
+  }
+
+  @Test
+  void shouldEvictTheLeastRecentlyUsedStatement() throws SQLException {
+    PreparedStatement a = prepareAndClose(SQL_A);
+    prepareAndClose(SQL_B);
+    prepareAndClose(SQL_A);
+    PreparedStatement c = prepareAndClose(SQL_C);
+    assertFalse(a.isClosed());
+    assertFalse(c.isClosed());
+    CacheStats stats = dataSource.getPoolState().getStatementCacheStats();
+    assertEquals(1, stats.getEvictionCount());
+    assertEquals(1, stats.getHitCount());
+    assertSame(a, prepareAndClose(SQL_A));
+    // B was the least recently used when C was added
+    prepareAndClose(SQL_B);
+    assertEquals(4, stats.getMissCount());
+  }
+
+  @Test
+  void shouldRestoreTheStatementWhenItIsReturned() throws SQLException {
+    try (Connection connection = dataSource.getConnection()) {
+      PreparedStatement statement = connection.prepareStatement(SQL_A);
+      statement.setMaxRows(1);
+      statement.setQueryTimeout(5);
+      statement.close();
+      assertTrue(statement.isClosed());
+      assertThrows(SQLException.class, statement::executeQuery);
+
+      try (PreparedStatement reused = connection.prepareStatement(SQL_A)) {
+        assertEquals(0, reused.getMaxRows());
+        assertEquals(0, reused.getQueryTimeout());
+        try (ResultSet rs = reused.executeQuery()) {
+          assertTrue(rs.next());
+        }
+      }
+    }
+  }
+
+  @Test
+  void shouldNotCacheStatementsClosedOnCompletion() throws SQLException {
+    try (Connection connection = dataSource.getConnection()) {
+      PreparedStatement statement = connection.prepareStatement(SQL_A);
+      statement.closeOnCompletion();
+      assertEquals(0, statementCache(connection).getSize());
+      statement.close();
+    }
+  }
+
+  @Test
+  void shouldCloseTheStatementsWithTheConnection() throws SQLException {
+    PreparedStatement statement = prepareAndClose(SQL_A);
+    dataSource.forceCloseAll();
+    assertTrue(statement.isClosed());
+    assertFalse(prepareAndClose(SQL_A).isClosed());
+    assertEquals(0, dataSource.getPoolState().getStatementCacheStats().getHitCount());
+  }
+
+  private PreparedStatement prepareAndClose(String sql) throws SQLException {
+    try (Connection connection = dataSource.getConnection();
+        PreparedStatement statement = connection.prepareStatement(sql)) {
+      return statement.unwrap(PreparedStatement.class);
+    }
+  }
+
+  private static PooledStatementCache statementCache(Connection connection) {
+    return ((PooledConnection) Proxy.getInvocationHandler(connection)).getStatementCache();
+  }
+
+}
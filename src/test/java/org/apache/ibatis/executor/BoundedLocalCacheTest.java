@@ -0,0 +1,49 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.apache.ibatis.cache.CacheStats;
+import org.apache.ibatis.cache.CacheStats.EvictionCause;
+import org.apache.ibatis.cache.impl.DefaultCacheWeigher;
+import org.apache.ibatis.cache.impl.PerpetualCache;
+import org.junit.jupiter.api.Test;
+
+class BoundedLocalCacheTest {
+
+  @Test
+  void shouldEvictOutputParametersAlongWithTheirResults() {
+    CacheStats stats = new CacheStats();
+    BoundedLocalCache cache = new BoundedLocalCache("LocalCache", 2, 0, new DefaultCacheWeigher(), stats);
+    PerpetualCache outputParameters = new PerpetualCache("LocalOutputParameterCache");
+    for (int i = 0; i < 3; i++) {
+      cache.putObject(i, "result" + i);
+      outputParameters.putObject(i, "parameter" + i);
+    }
+    cache.getObject(0);
+    cache.evict(outputParameters);
+    assertEquals(2, cache.getSize());
+    assertNull(cache.getObject(1));
+    assertNull(outputParameters.getObject(1));
+    assertNotNull(outputParameters.getObject(0));
+    assertNotNull(outputParameters.getObject(2));
+    assertEquals(1, stats.getEvictionCount(EvictionCause.SIZE));
+  }
+
+}
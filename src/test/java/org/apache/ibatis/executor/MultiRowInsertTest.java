@@ -0,0 +1,56 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+class MultiRowInsertTest {
+
+  @Test
+  void shouldRepeatTheRow() {
+    MultiRowInsert insert = MultiRowInsert.parse("insert into t (a, b) values (?, coalesce(?, 'x'))", 2);
+    assertEquals(2, insert.getParametersPerRow());
+    assertEquals("insert into t (a, b) values (?, coalesce(?, 'x'))", insert.getSql(1));
+    assertEquals("insert into t (a, b) values (?, coalesce(?, 'x')), (?, coalesce(?, 'x'))", insert.getSql(2));
+  }
+
+  @Test
+  void shouldKeepTheSuffix() {
+    MultiRowInsert insert = MultiRowInsert
+        .parse("INSERT INTO t (a, b) VALUES (?, ?) ON DUPLICATE KEY UPDATE b = VALUES(b), a = 'a?'", 2);
+    assertEquals("INSERT INTO t (a, b) VALUES (?, ?), (?, ?) ON DUPLICATE KEY UPDATE b = VALUES(b), a = 'a?'",
+        insert.getSql(2));
+  }
+
+  @Test
+  void shouldIgnorePlaceholdersInLiteralsAndComments() {
+    MultiRowInsert insert = MultiRowInsert.parse("insert /* values (?) */ into t (a, \"b?\") values ('?', ?)", 1);
+    assertEquals("insert /* values (?) */ into t (a, \"b?\") values ('?', ?), ('?', ?)", insert.getSql(2));
+  }
+
+  @Test
+  void shouldRejectStatementsThatCannotBeRepeated() {
+    assertNull(MultiRowInsert.parse("insert into t (a) select a from s where id = ?", 1));
+    assertNull(MultiRowInsert.parse("insert into t (a) values (?), (?)", 2));
+    assertNull(MultiRowInsert.parse("insert into t (a, b) values (?, 1) on conflict (a) do update set b = ?", 2));
+    assertNull(MultiRowInsert.parse("insert into t (a) values ('?)", 0));
+    assertNull(MultiRowInsert.parse("insert into t (a) values (?)", 2));
+  }
+
+}
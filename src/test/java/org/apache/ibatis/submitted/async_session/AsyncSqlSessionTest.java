@@ -0,0 +1,163 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.async_session;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.exceptions.PersistenceException;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.AsyncSqlSession;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionException;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class AsyncSqlSessionTest {
+
+  private static final String NAMESPACE = ItemMapper.class.getName();
+
+  private SqlSessionFactory sqlSessionFactory;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    try (
+        Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/async_session/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/async_session/CreateDB.sql");
+  }
+
+  @Test
+  void shouldRunStatementsOffTheCallingThread() {
+    try (AsyncSqlSession asyncSession = sqlSessionFactory.openAsyncSession()) {
+      CompletableFuture<Thread> thread = asyncSession.submit(session -> Thread.currentThread());
+      CompletableFuture<String> name = asyncSession.selectOneAsync(NAMESPACE + ".findName", 1);
+      CompletableFuture<List<Item>> items = asyncSession.selectListAsync(NAMESPACE + ".findAll");
+      assertNotSame(Thread.currentThread(), thread.join());
+      assertEquals("Pen", name.join());
+      assertEquals(2, items.join().size());
+    }
+  }
+
+  @Test
+  void shouldKeepTheOrderAndTransactionOfTheSession() {
+    try (AsyncSqlSession asyncSession = sqlSessionFactory.openAsyncSession()) {
+      CompletableFuture<Integer> inserted = asyncSession.insertAsync(NAMESPACE + ".insert", new Item(3, "Pad"));
+      CompletableFuture<Integer> updated = asyncSession.updateAsync(NAMESPACE + ".insert", new Item(4, "Cap"));
+      CompletableFuture<List<String>> names = asyncSession.selectListAsync(NAMESPACE + ".findAll")
+          .thenApply(list -> list.stream().map(item -> ((Item) item).getName()).collect(Collectors.toList()));
+      asyncSession.rollbackAsync(true);
+      assertEquals(1, inserted.join());
+      assertEquals(1, updated.join());
+      assertEquals(Arrays.asList("Pen", "Ink", "Pad", "Cap"), names.join());
+    }
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertEquals(2, sqlSession.getMapper(ItemMapper.class).count());
+    }
+  }
+
+  @Test
+  void shouldCompleteFailedOperationsExceptionallyAndGoOn() {
+    try (AsyncSqlSession asyncSession = sqlSessionFactory.openAsyncSession()) {
+      CompletableFuture<Object> failed = asyncSession.selectOneAsync(NAMESPACE + ".findAll");
+      CompletableFuture<String> name = asyncSession.selectOneAsync(NAMESPACE + ".findName", 2);
+      CompletionException e = assertThrows(CompletionException.class, failed::join);
+      assertInstanceOf(PersistenceException.class, e.getCause());
+      assertEquals("Ink", name.join());
+    }
+  }
+
+  @Test
+  void shouldSubmitMapperMethodsReturningFutures() {
+    try (AsyncSqlSession asyncSession = sqlSessionFactory.openAsyncSession()) {
+      ItemMapper mapper = asyncSession.getMapper(ItemMapper.class);
+      CompletableFuture<Integer> inserted = mapper.insert(new Item(3, "Pad"));
+      CompletableFuture<String> name = mapper.findName(3);
+      assertEquals(3, mapper.count());
+      assertEquals(1, inserted.join());
+      assertEquals("Pad", name.join());
+      mapper.deleteAll().toCompletableFuture().join();
+      assertEquals(0, mapper.count());
+      asyncSession.commitAsync(true).join();
+    }
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertEquals(0, sqlSession.getMapper(ItemMapper.class).count());
+    }
+  }
+
+  @Test
+  void shouldCompleteFuturesOfRegularSessionsOnTheCallingThread() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      ItemMapper mapper = sqlSession.getMapper(ItemMapper.class);
+      CompletableFuture<List<Item>> items = mapper.findAll();
+      assertTrue(items.isDone());
+      assertEquals("Ink", items.join().get(1).getName());
+    }
+  }
+
+  @Test
+  void shouldRejectOperationsOnceClosed() {
+    AsyncSqlSession asyncSession = sqlSessionFactory.openAsyncSession();
+    CompletableFuture<String> name = asyncSession.selectOneAsync(NAMESPACE + ".findName", 1);
+    CompletableFuture<Void> closed = asyncSession.closeAsync();
+    assertSame(closed, asyncSession.closeAsync());
+    CompletableFuture<String> rejected = asyncSession.selectOneAsync(NAMESPACE + ".findName", 1);
+    assertEquals("Pen", name.join());
+    closed.join();
+    CompletionException e = assertThrows(CompletionException.class, rejected::join);
+    assertInstanceOf(SqlSessionException.class, e.getCause());
+    assertThrows(SqlSessionException.class, () -> asyncSession.getMapper(ItemMapper.class).count());
+  }
+
+  @Test
+  void shouldUseTheConfiguredExecutor() {
+    AtomicInteger executed = new AtomicInteger();
+    ExecutorService pool = Executors.newSingleThreadExecutor();
+    sqlSessionFactory.getConfiguration().setAsyncExecutor(runnable -> {
+      executed.incrementAndGet();
+      pool.execute(runnable);
+    });
+    try (AsyncSqlSession asyncSession = sqlSessionFactory.openAsyncSession()) {
+      Thread first = asyncSession.submit(session -> Thread.currentThread()).join();
+      Thread second = asyncSession.submit(session -> Thread.currentThread()).join();
+      assertSame(first, second);
+    } finally {
+      pool.shutdown();
+    }
+    // two operations and the close
+    assertEquals(3, executed.get());
+  }
+
+}
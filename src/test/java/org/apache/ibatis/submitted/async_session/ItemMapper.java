@@ -0,0 +1,43 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.async_session;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Select;
+
+public interface ItemMapper {
+
+  @Select("select name from items where id = #{id}")
+  CompletableFuture<String> findName(int id);
+
+  @Select("select id, name from items order by id")
+  CompletableFuture<List<Item>> findAll();
+
+  @Insert("insert into items (id, name) values (#{id}, #{name})")
+  CompletableFuture<Integer> insert(Item item);
+
+  @Delete("delete from items")
+  CompletionStage<Void> deleteAll();
+
+  @Select("select count(*) from items")
+  int count();
+
+}
@@ -0,0 +1,160 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.batch_auto_flush;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BatchAutoFlushTest {
+
+  private SqlSessionFactory sqlSessionFactory;
+  private Configuration configuration;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    try (Reader reader = Resources
+        .getResourceAsReader("org/apache/ibatis/submitted/batch_auto_flush/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+    configuration = sqlSessionFactory.getConfiguration();
+    BaseDataTest.runScript(configuration.getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/batch_auto_flush/CreateDB.sql");
+  }
+
+  @Test
+  void shouldSendTheBatchOnceTheFlushSizeIsReached() {
+    assertEquals(3, configuration.getBatchFlushSize());
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      ItemMapper mapper = sqlSession.getMapper(ItemMapper.class);
+      List<Item> items = new ArrayList<>();
+      for (int i = 0; i < 7; i++) {
+        Item item = new Item(null, "item " + i);
+        items.add(item);
+        mapper.insert(item);
+      }
+      // the keys of the first two batches are already generated
+      assertNotNull(items.get(5).getId());
+      assertNull(items.get(6).getId());
+
+      List<BatchResult> results = sqlSession.flushStatements();
+      assertEquals(1, results.size());
+      assertArrayEquals(new int[] { 1, 1, 1, 1, 1, 1, 1 }, results.get(0).getUpdateCounts());
+      assertEquals(7, results.get(0).getParameterCount());
+      assertEquals(items, results.get(0).getParameterObjects());
+      assertNotNull(items.get(6).getId());
+      sqlSession.commit();
+      assertEquals(7, mapper.count());
+    }
+  }
+
+  @Test
+  void shouldReportAlternatingStatementsInOrder() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      ItemMapper mapper = sqlSession.getMapper(ItemMapper.class);
+      for (int i = 0; i < 4; i++) {
+        Item item = new Item(null, "item " + i);
+        mapper.insert(item);
+        mapper.log(item);
+      }
+      List<BatchResult> results = sqlSession.flushStatements();
+      assertEquals(8, results.size());
+      for (int i = 0; i < results.size(); i++) {
+        assertTrue(results.get(i).getMappedStatement().getId().endsWith(i % 2 == 0 ? ".insert" : ".log"));
+        assertEquals(1, results.get(i).getUpdateCounts().length);
+      }
+    }
+  }
+
+  @Test
+  void shouldSendTheBatchOnceTheEstimatedSizeIsReached() {
+    configuration.setBatchFlushSize(null);
+    configuration.setBatchFlushBytes(500L);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      ItemMapper mapper = sqlSession.getMapper(ItemMapper.class);
+      Item first = new Item(null, repeat('a', 150));
+      Item second = new Item(null, repeat('b', 150));
+      Item small = new Item(null, "c");
+      mapper.insert(first);
+      mapper.insert(second);
+      mapper.insert(small);
+      assertNull(first.getId());
+      mapper.insert(new Item(null, repeat('d', 200)));
+      assertNotNull(small.getId());
+      assertEquals(4, sqlSession.flushStatements().get(0).getParameterCount());
+    }
+  }
+
+  @Test
+  void shouldOnlyCountParametersOfStatementsWithoutKeys() {
+    configuration.setBatchFlushSize(null);
+    configuration.setBatchRetainParameterObjects(false);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      ItemMapper mapper = sqlSession.getMapper(ItemMapper.class);
+      for (int i = 0; i < 3; i++) {
+        mapper.log(new Item(null, "log " + i));
+      }
+      for (int i = 0; i < 2; i++) {
+        mapper.insert(new Item(null, "item " + i));
+      }
+      List<BatchResult> results = sqlSession.flushStatements();
+      assertEquals(3, results.get(0).getParameterCount());
+      assertTrue(results.get(0).getParameterObjects().isEmpty());
+      assertEquals(3, results.get(0).getUpdateCounts().length);
+      assertEquals(2, results.get(1).getParameterCount());
+      assertEquals(2, results.get(1).getParameterObjects().size());
+    }
+  }
+
+  @Test
+  void shouldDiscardSentBatchesOnRollback() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      ItemMapper mapper = sqlSession.getMapper(ItemMapper.class);
+      for (int i = 0; i < 4; i++) {
+        mapper.insert(new Item(null, "item " + i));
+      }
+      sqlSession.rollback(true);
+      assertTrue(sqlSession.flushStatements().isEmpty());
+      assertEquals(0, mapper.count());
+    }
+  }
+
+  private static String repeat(char c, int count) {
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < count; i++) {
+      builder.append(c);
+    }
+    return builder.toString();
+  }
+
+}
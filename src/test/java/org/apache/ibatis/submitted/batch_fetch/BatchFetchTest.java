@@ -0,0 +1,168 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.batch_fetch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.mapping.ResultMapping;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BatchFetchTest {
+
+  private SqlSessionFactory sqlSessionFactory;
+  private Configuration configuration;
+  private QueryCounter counter;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/batch_fetch/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+    configuration = sqlSessionFactory.getConfiguration();
+    counter = (QueryCounter) configuration.getInterceptors().get(0);
+    BaseDataTest.runScript(configuration.getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/batch_fetch/CreateDB.sql");
+  }
+
+  @Test
+  void shouldLoadCollectionsInBatches() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<Blog> blogs = sqlSession.getMapper(BlogMapper.class).selectBlogs();
+      // blogs, posts of blogs 1 and 2, comments of their posts, posts of blog 3
+      assertEquals(4, counter.getCount());
+      assertBlogs(blogs);
+    }
+  }
+
+  @Test
+  void shouldReuseCachedBatchesForAnotherParentSelect() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      BlogMapper mapper = sqlSession.getMapper(BlogMapper.class);
+      assertBlogs(mapper.selectBlogs());
+      assertEquals(4, counter.getCount());
+      // the same batches of blog ids are answered from the local cache
+      List<Blog> blogs = mapper.selectBlogsWithTitles();
+      assertEquals(5, counter.getCount());
+      assertBlogs(blogs);
+    }
+  }
+
+  @Test
+  void shouldLoadAssociationsInBatches() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<Post> posts = sqlSession.getMapper(BlogMapper.class).selectPosts();
+      assertEquals(2, counter.getCount());
+      assertEquals(3, posts.size());
+      assertEquals("first", posts.get(0).getBlog().getTitle());
+      assertSame(posts.get(0).getBlog(), posts.get(1).getBlog());
+      assertEquals("second", posts.get(2).getBlog().getTitle());
+    }
+  }
+
+  @Test
+  void shouldLoadOneParentAtATimeWithResultHandler() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<Blog> blogs = new ArrayList<>();
+      sqlSession.select("org.apache.ibatis.submitted.batch_fetch.BlogMapper.selectBlogs",
+          context -> blogs.add((Blog) context.getResultObject()));
+      // blogs, posts of each blog, comments of the posts of blogs 1 and 2
+      assertEquals(6, counter.getCount());
+      assertBlogs(blogs);
+    }
+  }
+
+  @Test
+  void shouldLoadLazyCollectionsOfSiblingsInBatches() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<Blog> blogs = sqlSession.getMapper(BlogMapper.class).selectBlogsLazily();
+      assertEquals(1, counter.getCount());
+      // posts of blogs 1 and 2, comments of their posts
+      assertEquals(2, blogs.get(0).getPosts().size());
+      assertEquals(3, counter.getCount());
+      assertEquals(1, blogs.get(1).getPosts().size());
+      assertEquals(3, counter.getCount());
+      assertTrue(blogs.get(2).getPosts().isEmpty());
+      assertEquals(4, counter.getCount());
+      assertBlogs(blogs);
+    }
+  }
+
+  @Test
+  void shouldKeepValueSetBeforeSiblingIsLoaded() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<Blog> blogs = sqlSession.getMapper(BlogMapper.class).selectBlogsLazily();
+      List<Post> posts = new ArrayList<>();
+      blogs.get(1).setPosts(posts);
+      assertEquals(2, blogs.get(0).getPosts().size());
+      assertSame(posts, blogs.get(1).getPosts());
+    }
+  }
+
+  @Test
+  void shouldLoadLazySiblingsAfterSessionIsClosed() {
+    List<Blog> blogs;
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      blogs = sqlSession.getMapper(BlogMapper.class).selectBlogsLazily();
+    }
+    assertEquals(2, blogs.get(0).getPosts().size());
+    assertEquals(1, blogs.get(1).getPosts().size());
+    assertEquals(3, counter.getCount());
+  }
+
+  @Test
+  void shouldApplyDefaultBatchSizeToAnnotatedMapping() {
+    ResultMapping posts = configuration
+        .getMappedStatement("org.apache.ibatis.submitted.batch_fetch.BlogMapper.selectBlogsWithAnnotations")
+        .getResultMaps().get(0).getPropertyResultMappings().stream().filter(m -> "posts".equals(m.getProperty()))
+        .findFirst().get();
+    assertEquals(ResultMapping.DEFAULT_BATCH_SIZE, posts.getBatchSize());
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<Blog> blogs = sqlSession.getMapper(BlogMapper.class).selectBlogsWithAnnotations();
+      assertEquals(3, counter.getCount());
+      assertBlogs(blogs);
+    }
+  }
+
+  private void assertBlogs(List<Blog> blogs) {
+    assertEquals(3, blogs.size());
+    Blog first = blogs.get(0);
+    assertEquals(2, first.getPosts().size());
+    Post one = first.getPosts().get(0);
+    assertEquals("one", one.getSubject());
+    assertEquals(2, one.getComments().size());
+    assertEquals("great", one.getComments().get(0).getBody());
+    assertEquals("nice", one.getComments().get(1).getBody());
+    assertTrue(first.getPosts().get(1).getComments().isEmpty());
+    Post three = blogs.get(1).getPosts().get(0);
+    assertEquals("three", three.getSubject());
+    assertEquals("meh", three.getComments().get(0).getBody());
+    assertTrue(blogs.get(2).getPosts().isEmpty());
+  }
+
+}
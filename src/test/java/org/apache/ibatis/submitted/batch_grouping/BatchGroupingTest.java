@@ -0,0 +1,101 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.batch_grouping;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.Reader;
+import java.util.List;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BatchGroupingTest {
+
+  private SqlSessionFactory sqlSessionFactory;
+  private Configuration configuration;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    try (Reader reader = Resources
+        .getResourceAsReader("org/apache/ibatis/submitted/batch_grouping/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+    configuration = sqlSessionFactory.getConfiguration();
+    BaseDataTest.runScript(configuration.getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/batch_grouping/CreateDB.sql");
+  }
+
+  @Test
+  void shouldKeepOneBatchPerStatement() {
+    assertTrue(configuration.isBatchGroupStatements());
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      FamilyMapper mapper = sqlSession.getMapper(FamilyMapper.class);
+      insertFamilies(mapper, 5);
+      List<BatchResult> results = sqlSession.flushStatements();
+      assertEquals(2, results.size());
+      assertTrue(results.get(0).getMappedStatement().getId().endsWith(".insertParent"));
+      assertEquals(5, results.get(0).getUpdateCounts().length);
+      assertTrue(results.get(1).getMappedStatement().getId().endsWith(".insertChild"));
+      assertEquals(10, results.get(1).getUpdateCounts().length);
+      sqlSession.commit();
+      assertEquals(10, mapper.countChildren());
+    }
+  }
+
+  @Test
+  void shouldMergeResultsOfEarlyFlushesPerStatement() {
+    configuration.setBatchFlushSize(4);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      FamilyMapper mapper = sqlSession.getMapper(FamilyMapper.class);
+      insertFamilies(mapper, 5);
+      List<BatchResult> results = sqlSession.flushStatements();
+      assertEquals(2, results.size());
+      assertEquals(5, results.get(0).getParameterCount());
+      assertEquals(10, results.get(1).getParameterCount());
+      sqlSession.commit();
+      assertEquals(10, mapper.countChildren());
+    }
+  }
+
+  @Test
+  void shouldStartANewBatchWhenTheStatementChangesWithoutGrouping() {
+    configuration.setBatchGroupStatements(false);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      FamilyMapper mapper = sqlSession.getMapper(FamilyMapper.class);
+      insertFamilies(mapper, 5);
+      assertEquals(10, sqlSession.flushStatements().size());
+    }
+  }
+
+  private static void insertFamilies(FamilyMapper mapper, int count) {
+    for (int i = 1; i <= count; i++) {
+      mapper.insertParent(i, "parent " + i);
+      mapper.insertChild(i * 2, i, "child " + i * 2);
+      mapper.insertChild(i * 2 + 1, i, "child " + (i * 2 + 1));
+    }
+  }
+
+}
@@ -0,0 +1,152 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.batch_rewrite;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BatchRewriteTest {
+
+  private SqlSessionFactory sqlSessionFactory;
+  private Configuration configuration;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    try (
+        Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/batch_rewrite/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+    configuration = sqlSessionFactory.getConfiguration();
+    BaseDataTest.runScript(configuration.getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/batch_rewrite/CreateDB.sql");
+  }
+
+  @Test
+  void shouldInsertSeveralRowsPerExecution() {
+    assertEquals(3, configuration.getBatchRewriteMaxParameters());
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      ItemMapper mapper = sqlSession.getMapper(ItemMapper.class);
+      List<Item> items = new ArrayList<>();
+      for (int i = 0; i < 7; i++) {
+        Item item = new Item(null, "item " + i);
+        items.add(item);
+        mapper.insert(item);
+      }
+      List<BatchResult> results = sqlSession.flushStatements();
+      assertEquals(2, results.size());
+      assertEquals("insert into items (name) values (?), (?), (?)", results.get(0).getSql());
+      assertArrayEquals(new int[] { 3, 3 }, results.get(0).getUpdateCounts());
+      assertEquals(items.subList(0, 6), results.get(0).getParameterObjects());
+      assertEquals("insert into items (name) values (?)", results.get(1).getSql());
+      assertArrayEquals(new int[] { 1 }, results.get(1).getUpdateCounts());
+
+      Set<Integer> ids = new HashSet<>();
+      for (Item item : items) {
+        assertNotNull(item.getId());
+        ids.add(item.getId());
+      }
+      assertEquals(7, ids.size());
+    }
+  }
+
+  @Test
+  void shouldKeepTheOrderOfInterleavedStatements() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      ItemMapper mapper = sqlSession.getMapper(ItemMapper.class);
+      mapper.log(new Item(null, "a"));
+      mapper.log(new Item(null, "b"));
+      mapper.insert(new Item(null, "c"));
+      mapper.log(new Item(null, "d"));
+      List<BatchResult> results = sqlSession.flushStatements();
+      assertEquals(3, results.size());
+      assertEquals("insert into item_log (name) values (upper(?)), (upper(?))", results.get(0).getSql());
+      assertEquals(2, results.get(0).getParameterCount());
+      assertEquals("insert into items (name) values (?)", results.get(1).getSql());
+      assertEquals("insert into item_log (name) values (upper(?))", results.get(2).getSql());
+      assertEquals(Arrays.asList("A", "B", "D"), mapper.findLog());
+    }
+  }
+
+  @Test
+  void shouldBindEachRowWhenItIsAdded() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      ItemMapper mapper = sqlSession.getMapper(ItemMapper.class);
+      Item item = new Item();
+      for (String name : Arrays.asList("a", "b", "c")) {
+        item.setName(name);
+        mapper.log(item);
+      }
+      List<BatchResult> results = sqlSession.flushStatements();
+      assertEquals("insert into item_log (name) values (upper(?)), (upper(?)), (upper(?))", results.get(0).getSql());
+      assertEquals(Arrays.asList("A", "B", "C"), mapper.findLog());
+    }
+  }
+
+  @Test
+  void shouldGroupRowsOfInterleavedStatements() {
+    configuration.setBatchGroupStatements(true);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      ItemMapper mapper = sqlSession.getMapper(ItemMapper.class);
+      for (int i = 0; i < 3; i++) {
+        mapper.logAsIs(new Item(null, "log " + i));
+        mapper.insert(new Item(null, "item " + i));
+      }
+      List<BatchResult> results = sqlSession.flushStatements();
+      assertEquals(2, results.size());
+      assertEquals("insert into item_log (name) values (?), (?), (?)", results.get(0).getSql());
+      assertEquals("insert into items (name) values (?), (?), (?)", results.get(1).getSql());
+      assertEquals(3, mapper.findLog().size());
+    }
+  }
+
+  @Test
+  void shouldBatchStatementsWithoutValuesAsUsual() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      ItemMapper mapper = sqlSession.getMapper(ItemMapper.class);
+      Item first = new Item(null, "first");
+      Item second = new Item(null, "second");
+      mapper.insert(first);
+      mapper.insert(second);
+      sqlSession.flushStatements();
+      mapper.copy(first);
+      mapper.copy(second);
+      List<BatchResult> results = sqlSession.flushStatements();
+      assertEquals(1, results.size());
+      assertArrayEquals(new int[] { 1, 1 }, results.get(0).getUpdateCounts());
+      assertEquals(Arrays.asList("first", "second"), mapper.findLog());
+    }
+  }
+
+}
@@ -0,0 +1,139 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.cache_invalidation_bus;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.Reader;
+import java.util.Collections;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.cache.CacheInvalidationBus;
+import org.apache.ibatis.cache.impl.InJvmInvalidationTransport;
+import org.apache.ibatis.cache.impl.UdpInvalidationTransport;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CacheInvalidationBusTest {
+
+  private SqlSessionFactory node1;
+  private SqlSessionFactory node2;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    node1 = build();
+    node2 = build();
+    BaseDataTest.runScript(node1.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/cache_invalidation_bus/CreateDB.sql");
+  }
+
+  @AfterEach
+  void tearDown() {
+    node1.getConfiguration().setCacheInvalidationTransport(null);
+    node2.getConfiguration().setCacheInvalidationTransport(null);
+  }
+
+  @Test
+  void shouldUseTheConfiguredTransport() {
+    assertTrue(node1.getConfiguration().getCacheInvalidationBus().getTransport() instanceof InJvmInvalidationTransport);
+  }
+
+  @Test
+  void shouldInvalidateOtherNodesOnceForTheWholeTransaction() {
+    warmUp(node1);
+    warmUp(node2);
+    try (SqlSession sqlSession = node1.openSession()) {
+      sqlSession.getMapper(ItemMapper.class).rename(1, "Pencil");
+      sqlSession.getMapper(CategoryMapper.class).rename(1, "School");
+      sqlSession.commit();
+    }
+    assertEquals(1, bus(node1).getPublishedCount());
+    assertEquals(1, bus(node2).getReceivedCount());
+    try (SqlSession sqlSession = node2.openSession()) {
+      assertEquals("Pencil", sqlSession.getMapper(ItemMapper.class).findName(1));
+      assertEquals("School", sqlSession.getMapper(CategoryMapper.class).findName(1));
+    }
+  }
+
+  @Test
+  void shouldNotPublishRolledBackChanges() {
+    warmUp(node2);
+    try (SqlSession sqlSession = node1.openSession()) {
+      sqlSession.getMapper(ItemMapper.class).rename(1, "Pencil");
+      sqlSession.rollback();
+    }
+    assertEquals(0, bus(node1).getPublishedCount());
+    assertEquals(0, bus(node2).getReceivedCount());
+    assertEquals(1, node2.getConfiguration().getCache(ItemMapper.class.getName()).getSize());
+  }
+
+  @Test
+  void shouldInvalidateAllCachesWhenTheMessageCannotBeEncoded() {
+    warmUp(node2);
+    // too long for a message
+    bus(node1).publish(Collections.singleton("x".repeat(70000)), Collections.emptyList(), false);
+    assertEquals(1, bus(node2).getReceivedCount());
+    assertEquals(0, node2.getConfiguration().getCache(ItemMapper.class.getName()).getSize());
+    assertEquals(0, node2.getConfiguration().getCache(CategoryMapper.class.getName()).getSize());
+  }
+
+  @Test
+  void shouldInvalidateOtherNodesOverUdp() throws Exception {
+    UdpInvalidationTransport transport1 = new UdpInvalidationTransport();
+    UdpInvalidationTransport transport2 = new UdpInvalidationTransport();
+    node1.getConfiguration().setCacheInvalidationTransport(transport1);
+    node2.getConfiguration().setCacheInvalidationTransport(transport2);
+    transport1.addPeer(transport2.getLocalAddress());
+    transport2.addPeer(transport1.getLocalAddress());
+    warmUp(node2);
+    try (SqlSession sqlSession = node1.openSession()) {
+      sqlSession.getMapper(ItemMapper.class).rename(1, "Pencil");
+      sqlSession.commit();
+    }
+    for (int i = 0; i < 500 && bus(node2).getReceivedCount() == 0; i++) {
+      Thread.sleep(10);
+    }
+    assertEquals(1, bus(node2).getReceivedCount());
+    try (SqlSession sqlSession = node2.openSession()) {
+      assertEquals("Pencil", sqlSession.getMapper(ItemMapper.class).findName(1));
+    }
+  }
+
+  private static void warmUp(SqlSessionFactory node) {
+    try (SqlSession sqlSession = node.openSession()) {
+      assertEquals("Pen", sqlSession.getMapper(ItemMapper.class).findName(1));
+      assertEquals("Office", sqlSession.getMapper(CategoryMapper.class).findName(1));
+    }
+  }
+
+  private static CacheInvalidationBus bus(SqlSessionFactory node) {
+    return node.getConfiguration().getCacheInvalidationBus();
+  }
+
+  private static SqlSessionFactory build() throws Exception {
+    try (Reader reader = Resources
+        .getResourceAsReader("org/apache/ibatis/submitted/cache_invalidation_bus/mybatis-config.xml")) {
+      return new SqlSessionFactoryBuilder().build(reader);
+    }
+  }
+
+}
@@ -0,0 +1,95 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.cache_warmup;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.builder.xml.XMLConfigBuilder;
+import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.CacheException;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.mapping.CachePreload;
+import org.apache.ibatis.session.CacheWarmer;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CacheWarmupTest {
+
+  private Configuration configuration;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/cache_warmup/mybatis-config.xml")) {
+      configuration = new XMLConfigBuilder(reader).parse();
+    }
+    BaseDataTest.runScript(configuration.getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/cache_warmup/CreateDB.sql");
+  }
+
+  @Test
+  void shouldPreloadDeclaredStatementsWhenTheFactoryIsBuilt() throws Exception {
+    SqlSessionFactory sqlSessionFactory = new SqlSessionFactoryBuilder().build(configuration);
+    CacheWarmer cacheWarmer = configuration.getCacheWarmer();
+    assertTrue(cacheWarmer.awaitReady(10, TimeUnit.SECONDS));
+    assertTrue(cacheWarmer.getFailures().isEmpty());
+    assertEquals(3, cacheWarmer.getLoadedCount());
+
+    Cache itemCache = configuration.getCache(ItemMapper.class.getName());
+    Cache categoryCache = configuration.getCache(CategoryMapper.class.getName());
+    // the names of the popular items and their ids
+    assertEquals(3, itemCache.getSize());
+    assertEquals(1, categoryCache.getSize());
+
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertEquals("Pen", sqlSession.getMapper(ItemMapper.class).findName(1));
+      assertEquals("Ink", sqlSession.getMapper(ItemMapper.class).findName(2));
+      assertEquals(Arrays.asList("Office", "Paper"), sqlSession.getMapper(CategoryMapper.class).findAllNames());
+    }
+    assertEquals(2, itemCache.getStats().getHitCount());
+    assertEquals(1, categoryCache.getStats().getHitCount());
+  }
+
+  @Test
+  void shouldRecordFailedPreloadsWithoutStoppingTheOthers() throws Exception {
+    configuration.setCacheWarmupThreads(0);
+    configuration.addCachePreload(new CachePreload("test", ItemMapper.class.getName() + ".findNameUncached", null));
+    configuration.addCachePreload(new CachePreload("test", "unknown.statement", null));
+    SqlSessionFactory sqlSessionFactory = new SqlSessionFactoryBuilder().build(configuration);
+    assertNull(configuration.getCacheWarmer());
+
+    CacheWarmer cacheWarmer = new CacheWarmer(sqlSessionFactory, 1).start();
+    cacheWarmer.awaitReady();
+    assertTrue(cacheWarmer.isReady());
+    assertEquals(3, cacheWarmer.getLoadedCount());
+    List<Exception> failures = cacheWarmer.getFailures();
+    assertEquals(2, failures.size());
+    assertTrue(failures.stream().anyMatch(CacheException.class::isInstance));
+    assertTrue(failures.stream().anyMatch(IllegalArgumentException.class::isInstance));
+  }
+
+}
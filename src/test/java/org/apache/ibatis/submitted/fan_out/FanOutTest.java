@@ -0,0 +1,238 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.fan_out;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.Reader;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import javax.sql.DataSource;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.datasource.unpooled.UnpooledDataSource;
+import org.apache.ibatis.exceptions.PersistenceException;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.FanOutSqlSession;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class FanOutTest {
+
+  private static final Comparator<User> BY_ID = Comparator.comparing(User::getId);
+
+  private SqlSessionFactory sqlSessionFactory;
+  private List<Environment> shards;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/fan_out/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+    Environment first = sqlSessionFactory.getConfiguration().getEnvironment();
+    shards = new ArrayList<>();
+    shards.add(first);
+    for (int i = 1; i < 3; i++) {
+      shards.add(new Environment("shard" + i, first.getTransactionFactory(),
+          new UnpooledDataSource("org.h2.Driver", "jdbc:h2:mem:fan_out_" + i + ";DB_CLOSE_DELAY=-1", "sa", "")));
+    }
+    // users 1 to 12, each shard holds the ids with the same remainder modulo 3
+    for (int i = 0; i < shards.size(); i++) {
+      DataSource dataSource = shards.get(i).getDataSource();
+      BaseDataTest.runScript(dataSource, "org/apache/ibatis/submitted/fan_out/CreateDB.sql");
+      try (Connection connection = dataSource.getConnection();
+          PreparedStatement statement = connection.prepareStatement("insert into users (id, name) values (?, ?)")) {
+        for (int id = i == 0 ? 3 : i; id <= 12; id += 3) {
+          statement.setInt(1, id);
+          statement.setString(2, "user" + id);
+          statement.executeUpdate();
+        }
+      }
+    }
+  }
+
+  @Test
+  void shouldConcatenateRowsOfAllShards() {
+    try (FanOutSqlSession session = sqlSessionFactory.openFanOutSession(shards)) {
+      List<User> users = session.selectList("org.apache.ibatis.submitted.fan_out.UserMapper.selectUsers");
+      assertEquals(range(1, 12), users.stream().map(User::getId).sorted().collect(Collectors.toList()));
+    }
+  }
+
+  @Test
+  void shouldMergeRowsInOrder() {
+    try (FanOutSqlSession session = sqlSessionFactory.openFanOutSession(shards)) {
+      List<User> users = session.selectList("org.apache.ibatis.submitted.fan_out.UserMapper.selectUsers", null,
+          RowBounds.DEFAULT, BY_ID);
+      assertEquals(range(1, 12), ids(users));
+      assertEquals("user1", users.get(0).getName());
+    }
+  }
+
+  @Test
+  void shouldMergeRowsInOrderWithSingleThreadAsyncExecutor() {
+    ExecutorService asyncExecutor = Executors.newFixedThreadPool(1);
+    Configuration configuration = sqlSessionFactory.getConfiguration();
+    configuration.setAsyncExecutor(asyncExecutor);
+    // one row read ahead per shard, so no shard can be read to its end before the others are opened
+    configuration.setDefaultFetchSize(1);
+    try (FanOutSqlSession session = sqlSessionFactory.openFanOutSession(shards)) {
+      List<User> users = assertTimeoutPreemptively(Duration.ofSeconds(10), () -> session
+          .selectList("org.apache.ibatis.submitted.fan_out.UserMapper.selectUsers", null, RowBounds.DEFAULT, BY_ID));
+      assertEquals(range(1, 12), ids(users));
+    } finally {
+      asyncExecutor.shutdownNow();
+    }
+  }
+
+  @Test
+  void shouldPushLimitDownToEachShard() {
+    RowBoundsRecorder recorder = (RowBoundsRecorder) sqlSessionFactory.getConfiguration().getInterceptors().get(0);
+    try (FanOutSqlSession session = sqlSessionFactory.openFanOutSession(shards)) {
+      List<User> users = session.selectList("org.apache.ibatis.submitted.fan_out.UserMapper.selectUsers", null,
+          new RowBounds(2, 5), BY_ID);
+      assertEquals(range(3, 7), ids(users));
+    }
+    // lists are selected as lists, so that the caches of each environment apply
+    assertEquals(Arrays.asList("query", "query", "query"), recorder.getMethods());
+    assertEquals(3, recorder.getRowBounds().size());
+    for (RowBounds rowBounds : recorder.getRowBounds()) {
+      assertEquals(0, rowBounds.getOffset());
+      assertEquals(7, rowBounds.getLimit());
+    }
+  }
+
+  @Test
+  void shouldApplyRowBoundsToConcatenatedRows() {
+    try (FanOutSqlSession session = sqlSessionFactory.openFanOutSession(shards)) {
+      List<User> users = session.selectList("org.apache.ibatis.submitted.fan_out.UserMapper.selectUsers", null,
+          new RowBounds(2, 5));
+      // in the order of the environments
+      assertEquals(Arrays.asList(9, 12, 1, 4, 7), ids(users));
+      assertTrue(
+          session.selectList("org.apache.ibatis.submitted.fan_out.UserMapper.selectUsers", null, new RowBounds(12, 5))
+              .isEmpty());
+    }
+  }
+
+  @Test
+  void shouldStreamMergedRowsThroughCursor() {
+    try (FanOutSqlSession session = sqlSessionFactory.openFanOutSession(shards)) {
+      try (Cursor<User> cursor = session.selectCursor("org.apache.ibatis.submitted.fan_out.UserMapper.selectUsers",
+          null, RowBounds.DEFAULT, BY_ID)) {
+        Iterator<User> iterator = cursor.iterator();
+        assertEquals(-1, cursor.getCurrentIndex());
+        for (int id = 1; id <= 4; id++) {
+          assertEquals(id, iterator.next().getId());
+        }
+        assertEquals(3, cursor.getCurrentIndex());
+        assertTrue(cursor.isOpen());
+      }
+      // the sessions are free again once the cursor is closed
+      assertEquals(12, session.selectList("org.apache.ibatis.submitted.fan_out.UserMapper.selectUsers").size());
+    }
+  }
+
+  @Test
+  void shouldConsumeCursor() {
+    try (FanOutSqlSession session = sqlSessionFactory.openFanOutSession(shards)) {
+      Cursor<User> cursor = session.selectCursor("org.apache.ibatis.submitted.fan_out.UserMapper.selectUsers");
+      List<Integer> ids = new ArrayList<>();
+      cursor.forEach(user -> ids.add(user.getId()));
+      assertEquals(12, ids.size());
+      assertTrue(cursor.isConsumed());
+      assertFalse(cursor.isOpen());
+    }
+  }
+
+  @Test
+  void shouldReadSeveralCursorsAtOnce() {
+    try (FanOutSqlSession session = sqlSessionFactory.openFanOutSession(shards)) {
+      Iterator<User> first = session.<User>selectCursor("org.apache.ibatis.submitted.fan_out.UserMapper.selectUsers",
+          null, RowBounds.DEFAULT, BY_ID).iterator();
+      Iterator<User> second = session.<User>selectCursor("org.apache.ibatis.submitted.fan_out.UserMapper.selectUsers",
+          null, RowBounds.DEFAULT, BY_ID).iterator();
+      for (int id = 1; id <= 12; id++) {
+        assertEquals(id, first.next().getId());
+        assertEquals(id, second.next().getId());
+      }
+      assertFalse(first.hasNext());
+      assertFalse(second.hasNext());
+    }
+  }
+
+  @Test
+  void shouldUpdateAndCommitAllShards() {
+    try (FanOutSqlSession session = sqlSessionFactory.openFanOutSession(shards)) {
+      assertEquals(12, session.update("org.apache.ibatis.submitted.fan_out.UserMapper.upperNames", null));
+      session.commit();
+    }
+    try (FanOutSqlSession session = sqlSessionFactory.openFanOutSession(shards)) {
+      List<User> users = session.selectList("org.apache.ibatis.submitted.fan_out.UserMapper.selectUsers", null,
+          RowBounds.DEFAULT, BY_ID);
+      assertEquals("USER12", users.get(11).getName());
+    }
+  }
+
+  @Test
+  void shouldRollbackAllShards() {
+    try (FanOutSqlSession session = sqlSessionFactory.openFanOutSession(shards)) {
+      assertEquals(3, session.insert("org.apache.ibatis.submitted.fan_out.UserMapper.insertUser", new User(13, "x")));
+      session.rollback();
+      List<Integer> counts = session.selectList("org.apache.ibatis.submitted.fan_out.UserMapper.countUsers");
+      assertEquals(List.of(4, 4, 4), counts);
+    }
+  }
+
+  @Test
+  void shouldReportFailureOfAShard() {
+    try (FanOutSqlSession session = sqlSessionFactory.openFanOutSession(shards)) {
+      assertThrows(PersistenceException.class,
+          () -> session.selectList("org.apache.ibatis.submitted.fan_out.UserMapper.selectMissing"));
+      assertEquals(12, session.selectList("org.apache.ibatis.submitted.fan_out.UserMapper.selectUsers").size());
+    }
+  }
+
+  private static List<Integer> ids(List<User> users) {
+    return users.stream().map(User::getId).collect(Collectors.toList());
+  }
+
+  private static List<Integer> range(int from, int to) {
+    return IntStream.rangeClosed(from, to).boxed().collect(Collectors.toList());
+  }
+
+}
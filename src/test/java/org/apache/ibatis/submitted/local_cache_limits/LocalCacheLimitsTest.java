@@ -0,0 +1,102 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.local_cache_limits;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.io.Reader;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.cache.CacheStats;
+import org.apache.ibatis.cache.CacheStats.EvictionCause;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.LocalCacheScope;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class LocalCacheLimitsTest {
+
+  private SqlSessionFactory sqlSessionFactory;
+  private CacheStats stats;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    try (Reader reader = Resources
+        .getResourceAsReader("org/apache/ibatis/submitted/local_cache_limits/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/local_cache_limits/CreateDB.sql");
+    stats = sqlSessionFactory.getConfiguration().getLocalCacheStats();
+  }
+
+  @Test
+  void shouldEvictLeastRecentlyUsedEntries() {
+    sqlSessionFactory.getConfiguration().setLocalCacheSize(2);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      PersonMapper mapper = sqlSession.getMapper(PersonMapper.class);
+      // each person loads its parent with a nested query
+      Person ann = mapper.findById(1);
+      mapper.findById(2);
+      stats.reset();
+      mapper.findById(4);
+      assertEquals(2, stats.getMissCount());
+      assertEquals(0, stats.getHitCount());
+      assertEquals(2, stats.getEvictionCount(EvictionCause.SIZE));
+      stats.reset();
+      Person first = mapper.findById(1);
+      assertEquals(1, stats.getMissCount());
+      assertEquals("Ann", first.getName());
+      assertEquals("Ann", ann.getName());
+    }
+  }
+
+  @Test
+  void shouldEvictEntriesOverTheByteLimit() {
+    sqlSessionFactory.getConfiguration().setLocalCacheMaxBytes(1L);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      PersonMapper mapper = sqlSession.getMapper(PersonMapper.class);
+      mapper.findById(3);
+      stats.reset();
+      mapper.findById(3);
+      assertEquals(0, stats.getHitCount());
+      assertEquals(2, stats.getEvictionCount(EvictionCause.WEIGHT));
+    }
+  }
+
+  @Test
+  void shouldOnlyKeepNestedResults() {
+    sqlSessionFactory.getConfiguration().setLocalCacheScope(LocalCacheScope.NESTED);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      PersonMapper mapper = sqlSession.getMapper(PersonMapper.class);
+      Person bob = mapper.findById(2);
+      stats.reset();
+      Person cid = mapper.findById(3);
+      // the parent of Cid is the one loaded for Bob
+      assertEquals(1, stats.getHitCount());
+      assertSame(bob.getParent(), cid.getParent());
+      stats.reset();
+      mapper.findById(2);
+      assertEquals(2, stats.getMissCount() + stats.getHitCount());
+      assertEquals(1, stats.getMissCount());
+    }
+  }
+
+}
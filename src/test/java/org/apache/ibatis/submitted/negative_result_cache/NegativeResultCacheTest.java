@@ -0,0 +1,127 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.negative_result_cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.io.Reader;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.CacheStats.EvictionCause;
+import org.apache.ibatis.cache.decorators.NegativeResultCache;
+import org.apache.ibatis.cache.impl.PerpetualCache;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class NegativeResultCacheTest {
+
+  private SqlSessionFactory sqlSessionFactory;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    try (Reader reader = Resources
+        .getResourceAsReader("org/apache/ibatis/submitted/negative_result_cache/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/negative_result_cache/CreateDB.sql");
+  }
+
+  @Test
+  void shouldCacheMissingRowsUntilTheNamespaceIsFlushed() throws Exception {
+    assertNull(findName(2));
+    insertBehindTheCache(2, "Ink");
+    assertNull(findName(2));
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      sqlSession.getMapper(ItemMapper.class).insert(3, "Pad");
+      sqlSession.commit();
+    }
+    assertEquals("Ink", findName(2));
+    assertEquals("Pad", findName(3));
+  }
+
+  @Test
+  void shouldPassRealResultsThroughWhileNoRowIsMissing() {
+    List<Map<?, ?>> batches = new ArrayList<>();
+    NegativeResultCache cache = new NegativeResultCache(new PerpetualCache("default") {
+      @Override
+      public void putAll(Map<?, ?> entries) {
+        batches.add(entries);
+        super.putAll(entries);
+      }
+    });
+    Map<Object, Object> entries = new HashMap<>();
+    entries.put("key", "value");
+    cache.putAll(entries);
+    assertSame(entries, batches.get(0));
+    assertEquals("value", cache.getObject("key"));
+    assertEquals(0, cache.getNegativeSize());
+  }
+
+  @Test
+  void shouldBoundMissingRowsApartFromRealResults() {
+    Cache cache = sqlSessionFactory.getConfiguration().getCache(ItemMapper.class.getName());
+    assertEquals("Pen", findName(1));
+    for (int id = 10; id < 20; id++) {
+      assertNull(findName(id));
+    }
+    assertEquals(3, cache.getSize());
+    assertEquals(8, cache.getStats().getEvictionCount(EvictionCause.SIZE));
+    cache.getStats().reset();
+    assertEquals("Pen", findName(1));
+    assertNull(findName(19));
+    assertEquals(2, cache.getStats().getHitCount());
+  }
+
+  @Test
+  void shouldExpireMissingRows() throws Exception {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertNull(sqlSession.getMapper(AnnotatedItemMapper.class).findName(2));
+    }
+    insertBehindTheCache(2, "Ink");
+    Thread.sleep(150);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertEquals("Ink", sqlSession.getMapper(AnnotatedItemMapper.class).findName(2));
+    }
+  }
+
+  private String findName(int id) {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      return sqlSession.getMapper(ItemMapper.class).findName(id);
+    }
+  }
+
+  private void insertBehindTheCache(int id, String name) throws Exception {
+    try (Connection connection = sqlSessionFactory.getConfiguration().getEnvironment().getDataSource().getConnection();
+        Statement statement = connection.createStatement()) {
+      statement.executeUpdate("insert into items (id, name) values (" + id + ", '" + name + "')");
+    }
+  }
+
+}
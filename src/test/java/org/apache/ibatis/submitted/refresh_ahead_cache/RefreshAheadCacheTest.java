@@ -0,0 +1,72 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.refresh_ahead_cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.Reader;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.cache.CacheStats;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class RefreshAheadCacheTest {
+
+  private SqlSessionFactory sqlSessionFactory;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    try (Reader reader = Resources
+        .getResourceAsReader("org/apache/ibatis/submitted/refresh_ahead_cache/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/refresh_ahead_cache/CreateDB.sql");
+  }
+
+  @Test
+  void shouldServeStaleEntryWhileRefreshingIt() throws Exception {
+    assertEquals("Laptop", findName());
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      sqlSession.getMapper(ProductMapper.class).updateNameWithoutFlush(1, "Tablet");
+      sqlSession.commit();
+    }
+    assertEquals("Laptop", findName());
+
+    Thread.sleep(300);
+    // stale, returned as is and reloaded in the background
+    assertEquals("Laptop", findName());
+    CacheStats stats = sqlSessionFactory.getConfiguration().getCache(ProductMapper.class.getName()).getStats();
+    for (int i = 0; i < 50 && stats.getRefreshCount() == 0; i++) {
+      Thread.sleep(100);
+    }
+    assertEquals(1, stats.getRefreshCount());
+    assertEquals("Tablet", findName());
+    assertEquals(2, stats.getLoadCount());
+  }
+
+  private String findName() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      return sqlSession.getMapper(ProductMapper.class).findName(1);
+    }
+  }
+
+}
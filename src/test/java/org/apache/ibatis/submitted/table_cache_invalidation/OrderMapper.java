@@ -0,0 +1,36 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.table_cache_invalidation;
+
+import java.util.List;
+
+import org.apache.ibatis.annotations.CacheNamespace;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Select;
+
+@CacheNamespace
+public interface OrderMapper {
+
+  @Select("select count(*) from orders")
+  int countOrders();
+
+  @Select("select c.name from orders o join customers c on c.id = o.customer_id order by o.id")
+  List<String> findOrderCustomers();
+
+  @Insert("insert into orders (id, customer_id) values (#{id}, #{customerId})")
+  int insertOrder(int id, int customerId);
+
+}
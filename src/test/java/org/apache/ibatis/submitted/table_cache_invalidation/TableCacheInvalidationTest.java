@@ -0,0 +1,175 @@
+/*
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.table_cache_invalidation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.Reader;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import javax.sql.DataSource;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class TableCacheInvalidationTest {
+
+  private SqlSessionFactory sqlSessionFactory;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    try (Reader reader = Resources
+        .getResourceAsReader("org/apache/ibatis/submitted/table_cache_invalidation/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/table_cache_invalidation/CreateDB.sql");
+  }
+
+  @Test
+  void shouldOnlyInvalidateEntriesReadFromTheWrittenTable() throws Exception {
+    loadCaches();
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      sqlSession.getMapper(OrderMapper.class).insertOrder(2, 2);
+      sqlSession.commit();
+    }
+    // modified behind MyBatis back, only visible if the entry has been invalidated
+    renameCustomersDirectly();
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertEquals(Arrays.asList("Jane", "John"), sqlSession.getMapper(CustomerMapper.class).findNames());
+      assertEquals(2, sqlSession.getMapper(OrderMapper.class).countOrders());
+      assertEquals(Arrays.asList("X", "X"), sqlSession.getMapper(OrderMapper.class).findOrderCustomers());
+    }
+  }
+
+  @Test
+  void shouldInvalidateEntriesOfOtherNamespaces() throws Exception {
+    loadCaches();
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      sqlSession.getMapper(CustomerMapper.class).updateName(1, "Joan");
+      sqlSession.commit();
+    }
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertEquals(Arrays.asList("Joan", "John"), sqlSession.getMapper(CustomerMapper.class).findNames());
+      assertEquals(Arrays.asList("Joan"), sqlSession.getMapper(OrderMapper.class).findOrderCustomers());
+      assertEquals(1, sqlSession.getMapper(OrderMapper.class).countOrders());
+    }
+  }
+
+  @Test
+  void shouldReplaceStaleEntryOfBlockingCache() throws Exception {
+    loadCaches();
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      sqlSession.getMapper(CustomerMapper.class).updateName(1, "Joan");
+      sqlSession.commit();
+    }
+    // the stale entry is a miss for the blocking cache, so the new one is put by the thread holding its lock
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertEquals(Arrays.asList("Joan", "John"), sqlSession.getMapper(CustomerMapper.class).findNames());
+      sqlSession.commit();
+    }
+    renameCustomersDirectly();
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertEquals(Arrays.asList("Joan", "John"), sqlSession.getMapper(CustomerMapper.class).findNames());
+    }
+  }
+
+  @Test
+  void shouldRemoveStaleEntry() {
+    loadCaches();
+    Cache cache = sqlSessionFactory.getConfiguration().getCache(CustomerMapper.class.getName());
+    int size = cache.getSize();
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      sqlSession.getMapper(CustomerMapper.class).updateName(1, "Joan");
+      sqlSession.commit();
+    }
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertEquals(Arrays.asList("Joan", "John"), sqlSession.getMapper(CustomerMapper.class).findNames());
+      sqlSession.rollback(true);
+    }
+    assertEquals(size - 1, cache.getSize());
+  }
+
+  @Test
+  void shouldLetOneThreadReloadStaleEntry() throws Exception {
+    loadCaches();
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      sqlSession.getMapper(CustomerMapper.class).updateName(1, "Joan");
+      sqlSession.commit();
+    }
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertEquals(Arrays.asList("Joan", "John"), sqlSession.getMapper(CustomerMapper.class).findNames());
+      Future<List<String>> waiting = executor.submit(() -> {
+        try (SqlSession otherSession = sqlSessionFactory.openSession()) {
+          return otherSession.getMapper(CustomerMapper.class).findNames();
+        }
+      });
+      // waits for the entry reloaded by the first session
+      assertThrows(TimeoutException.class, () -> waiting.get(200, TimeUnit.MILLISECONDS));
+      sqlSession.commit();
+      renameCustomersDirectly();
+      assertEquals(Arrays.asList("Joan", "John"), waiting.get(5, TimeUnit.SECONDS));
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void shouldNotUseEntriesOfTablesWrittenByTheCurrentTransaction() {
+    loadCaches();
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      OrderMapper mapper = sqlSession.getMapper(OrderMapper.class);
+      mapper.insertOrder(2, 2);
+      assertEquals(2, mapper.countOrders());
+      sqlSession.rollback();
+    }
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertEquals(1, sqlSession.getMapper(OrderMapper.class).countOrders());
+    }
+  }
+
+  private void loadCaches() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertEquals(Arrays.asList("Jane", "John"), sqlSession.getMapper(CustomerMapper.class).findNames());
+      assertEquals(1, sqlSession.getMapper(OrderMapper.class).countOrders());
+      assertEquals(Arrays.asList("Jane"), sqlSession.getMapper(OrderMapper.class).findOrderCustomers());
+    }
+  }
+
+  private void renameCustomersDirectly() throws Exception {
+    DataSource dataSource = sqlSessionFactory.getConfiguration().getEnvironment().getDataSource();
+    try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+      statement.executeUpdate("update customers set name = 'X'");
+    }
+  }
+
+}
@@ -0,0 +1,49 @@
+--
+--    Copyright 2009-2026 the original author or authors.
+--
+--    Licensed under the Apache License, Version 2.0 (the "License");
+--    you may not use this file except in compliance with the License.
+--    You may obtain a copy of the License at
+--
+--       https://www.apache.org/licenses/LICENSE-2.0
+--
+--    Unless required by applicable law or agreed to in writing, software
+--    distributed under the License is distributed on an "AS IS" BASIS,
+--    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+--    See the License for the specific language governing permissions and
+--    limitations under the License.
+--
+
+drop table comments if exists;
+drop table posts if exists;
+drop table blogs if exists;
+
+create table blogs (
+  id int not null primary key,
+  title varchar(50)
+);
+
+create table posts (
+  id int not null primary key,
+  blog_id int not null,
+  subject varchar(50)
+);
+
+create table comments (
+  blog_id int not null,
+  post_id int not null,
+  body varchar(50)
+);
+
+insert into blogs (id, title) values (1, 'first');
+insert into blogs (id, title) values (2, 'second');
+insert into blogs (id, title) values (3, 'third');
+
+insert into posts (id, blog_id, subject) values (1, 1, 'one');
+insert into posts (id, blog_id, subject) values (2, 1, 'two');
+insert into posts (id, blog_id, subject) values (3, 2, 'three');
+
+insert into comments (blog_id, post_id, body) values (1, 1, 'nice');
+insert into comments (blog_id, post_id, body) values (1, 1, 'great');
+insert into comments (blog_id, post_id, body) values (2, 3, 'meh');
+insert into comments (blog_id, post_id, body) values (2, 1, 'wrong blog');
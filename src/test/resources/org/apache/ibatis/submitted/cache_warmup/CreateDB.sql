@@ -0,0 +1,36 @@
+--
+--    Copyright 2009-2026 the original author or authors.
+--
+--    Licensed under the Apache License, Version 2.0 (the "License");
+--    you may not use this file except in compliance with the License.
+--    You may obtain a copy of the License at
+--
+--       https://www.apache.org/licenses/LICENSE-2.0
+--
+--    Unless required by applicable law or agreed to in writing, software
+--    distributed under the License is distributed on an "AS IS" BASIS,
+--    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+--    See the License for the specific language governing permissions and
+--    limitations under the License.
+--
+
+drop table items if exists;
+drop table categories if exists;
+
+create table items (
+  id int,
+  name varchar(20),
+  popular boolean
+);
+
+create table categories (
+  id int,
+  name varchar(20)
+);
+
+insert into items (id, name, popular) values (1, 'Pen', true);
+insert into items (id, name, popular) values (2, 'Ink', true);
+insert into items (id, name, popular) values (3, 'Pad', false);
+
+insert into categories (id, name) values (1, 'Office');
+insert into categories (id, name) values (2, 'Paper');
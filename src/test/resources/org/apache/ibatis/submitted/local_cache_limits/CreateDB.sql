@@ -0,0 +1,28 @@
+--
+--    Copyright 2009-2026 the original author or authors.
+--
+--    Licensed under the Apache License, Version 2.0 (the "License");
+--    you may not use this file except in compliance with the License.
+--    You may obtain a copy of the License at
+--
+--       https://www.apache.org/licenses/LICENSE-2.0
+--
+--    Unless required by applicable law or agreed to in writing, software
+--    distributed under the License is distributed on an "AS IS" BASIS,
+--    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+--    See the License for the specific language governing permissions and
+--    limitations under the License.
+--
+
+drop table persons if exists;
+
+create table persons (
+  id int,
+  name varchar(20),
+  parent_id int
+);
+
+insert into persons (id, name, parent_id) values (1, 'Ann', null);
+insert into persons (id, name, parent_id) values (2, 'Bob', 1);
+insert into persons (id, name, parent_id) values (3, 'Cid', 1);
+insert into persons (id, name, parent_id) values (4, 'Dan', 2);